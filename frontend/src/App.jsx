@@ -21,6 +21,13 @@ export default function App() {
       try {
         const data = JSON.parse(msg.data)
         setEvents((prev) => {
+          // A final analysis replaces the provisional one sent earlier with the same id
+          const index = prev.findIndex((e) => e.id === data.id)
+          if (index >= 0) {
+            const next = [...prev]
+            next[index] = data
+            return next
+          }
           // Deduplicate based on URL (or headline if local ID isn't unique enough across runs)
           if (prev.some((e) => e.url === data.url)) {
             return prev
@@ -69,7 +76,7 @@ export default function App() {
             <div style={{ color: '#555', marginTop: 4 }}>
               {e.source} · {new Date(e.timestamp).toLocaleString()}
             </div>
-            <div style={{ marginTop: 8 }}>{e.summary}</div>
+            <div style={{ marginTop: 8 }}>{e.provisional ? 'Summarizing…' : e.summary}</div>
             {e.url ? (
               <div style={{ marginTop: 8 }}>
                 <a href={e.url} target="_blank" rel="noreferrer">{e.url}</a>
@@ -106,6 +106,42 @@ describe('App Component', () => {
         });
     });
 
+    it('replaces a provisional analysis with the final one', async () => {
+        render(<App />);
+
+        const provisional = {
+            id: '7',
+            headline: 'Streaming Headline',
+            summary: null,
+            sentiment: 'BEARISH',
+            riskScore: 8,
+            url: 'http://stream.com',
+            source: 'Source',
+            timestamp: new Date().toISOString(),
+            provisional: true
+        };
+
+        act(() => {
+            mockEventSource.onmessage({ data: JSON.stringify(provisional) });
+        });
+
+        await waitFor(() => {
+            expect(screen.getByText('Summarizing…')).toBeInTheDocument();
+        });
+
+        act(() => {
+            mockEventSource.onmessage({
+                data: JSON.stringify({ ...provisional, summary: 'Final Summary', provisional: false })
+            });
+        });
+
+        await waitFor(() => {
+            expect(screen.getByText('Final Summary')).toBeInTheDocument();
+        });
+        expect(screen.getAllByText('Streaming Headline')).toHaveLength(1);
+        expect(screen.queryByText('Summarizing…')).not.toBeInTheDocument();
+    });
+
     it('displays correct badges for different sentiments', async () => {
         render(<App />);
 
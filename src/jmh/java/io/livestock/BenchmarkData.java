@@ -0,0 +1,63 @@
+package io.livestock;
+
+import io.livestock.domain.NewsItem;
+import io.livestock.domain.NewsModels.Article;
+import io.livestock.domain.NewsModels.Source;
+
+import java.time.Instant;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic news-like test data for benchmarks.
+ */
+public final class BenchmarkData {
+
+    private static final String[] WORDS = {
+            "shares", "rose", "fell", "after", "the", "company", "reported", "quarterly", "revenue", "beats",
+            "estimates", "analysts", "expect", "guidance", "downgrade", "market", "investors", "federal", "reserve",
+            "rates", "inflation", "earnings", "miss", "surge", "plunge", "lawsuit", "record", "upgrade", "chipmaker",
+            "retailer", "bank", "oil", "prices", "demand", "supply", "outlook", "cautious", "strong", "weak", "growth"
+    };
+    private static final String[] SOURCES = { "Reuters", "Bloomberg", "CNBC", "Yahoo Finance", "MarketWatch" };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Text of roughly the given length built from finance vocabulary.
+     *
+     * @param length The target length in characters.
+     * @param seed   The random seed; equal seeds give equal text.
+     * @return The generated text.
+     */
+    public static String text(int length, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder sb = new StringBuilder(length + 16);
+        while (sb.length() < length) {
+            if (!sb.isEmpty()) {
+                sb.append(random.nextInt(12) == 0 ? ". " : " ");
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    public static NewsItem newsItem(int i, int contentLength) {
+        return new NewsItem(
+                SOURCES[i % SOURCES.length],
+                text(60, i) + " #" + i,
+                "https://news.example.com/articles/" + i,
+                text(contentLength, 31L * i + 7));
+    }
+
+    public static Article article(int i, int contentLength) {
+        return new Article(
+                new Source(null, SOURCES[i % SOURCES.length]),
+                "Staff Writer",
+                text(60, i) + " #" + i,
+                text(Math.min(contentLength, 200), 17L * i),
+                "https://news.example.com/articles/" + i,
+                Instant.parse("2024-01-01T00:00:00Z").plusSeconds(i * 37L % 86_400).toString(),
+                text(contentLength, 31L * i + 7));
+    }
+}
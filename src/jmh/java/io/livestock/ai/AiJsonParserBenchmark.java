@@ -0,0 +1,77 @@
+package io.livestock.ai;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single-pass {@link AiJsonParser} with the regex parser it replaced on responses shaped
+ * like real Ollama and OpenAI output. Run with {@code -prof gc} to compare allocation per parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiJsonParserBenchmark {
+
+    private static final String SUMMARY = "Shares of the chipmaker rose after quarterly revenue beat analyst "
+            + "estimates, driven by data-center demand, although guidance for the next quarter was cautious.";
+
+    @Param({ "openai-compact", "ollama-fenced", "ollama-chatter", "escaped-summary" })
+    public String response;
+
+    private String raw;
+
+    @Setup
+    public void setUp() {
+        raw = switch (response) {
+            case "openai-compact" -> "{\"sentiment\":\"BULLISH\",\"riskScore\":3,\"summary\":\"" + SUMMARY + "\"}";
+            case "ollama-fenced" -> """
+                    ```json
+                    {
+                      "sentiment": "BULLISH",
+                      "riskScore": 3,
+                      "summary": "%s"
+                    }
+                    ```
+                    """.formatted(SUMMARY);
+            case "ollama-chatter" -> """
+                    Here is my analysis of the news item. The tone is positive because revenue beat \
+                    expectations, but guidance adds some uncertainty.
+
+                    {
+                      "sentiment": "BULLISH",
+                      "riskScore": 4,
+                      "summary": "%s"
+                    }
+
+                    Let me know if you need anything else!
+                    """.formatted(SUMMARY);
+            case "escaped-summary" -> "{\"sentiment\":\"BEARISH\",\"riskScore\":7,\"summary\":\"CEO said "
+                    + "\\\"we expect headwinds\\\" as \\u201cmargins\\u201d compress.\\nShares fell 8%.\"}";
+            default -> throw new IllegalArgumentException(response);
+        };
+    }
+
+    @Benchmark
+    public AiJsonParser.Parsed singlePass() {
+        return AiJsonParser.parse(raw);
+    }
+
+    @Benchmark
+    public AiJsonParser.Parsed regexBaseline() {
+        return RegexAiJsonParser.parse(raw);
+    }
+}
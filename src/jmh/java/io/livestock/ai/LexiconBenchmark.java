@@ -0,0 +1,54 @@
+package io.livestock.ai;
+
+import io.livestock.BenchmarkData;
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of scoring an item with the bundled lexicon, by content size. Compare with
+ * {@link MockNewsAiAnalyzerBenchmark}, which rescans a lower-cased copy of the text once per keyword;
+ * {@code -prof gc} should show {@code score} allocating only the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexiconBenchmark {
+
+    @Param({ "200", "2000", "20000" })
+    public int contentLength;
+
+    private final Lexicon lexicon = Lexicon.defaults();
+    private final LexiconNewsAiAnalyzer analyzer = new LexiconNewsAiAnalyzer(lexicon);
+    private NewsItem item;
+
+    @Setup
+    public void setUp() {
+        item = BenchmarkData.newsItem(1, contentLength);
+    }
+
+    @Benchmark
+    public Lexicon.LexiconScore score() {
+        return lexicon.score(item.headline(), item.content());
+    }
+
+    @Benchmark
+    public NewsAnalysis analyze() {
+        return analyzer.analyze(item).block();
+    }
+}
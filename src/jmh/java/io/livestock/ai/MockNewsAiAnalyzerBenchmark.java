@@ -0,0 +1,46 @@
+package io.livestock.ai;
+
+import io.livestock.BenchmarkData;
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the keyword-based mock analyzer per item, by content size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MockNewsAiAnalyzerBenchmark {
+
+    @Param({ "200", "2000", "20000" })
+    public int contentLength;
+
+    private final MockNewsAiAnalyzer analyzer = new MockNewsAiAnalyzer();
+    private NewsItem item;
+
+    @Setup
+    public void setUp() {
+        item = BenchmarkData.newsItem(1, contentLength);
+    }
+
+    @Benchmark
+    public NewsAnalysis analyze() {
+        return analyzer.analyze(item).block();
+    }
+}
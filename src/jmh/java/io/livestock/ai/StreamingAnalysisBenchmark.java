@@ -0,0 +1,76 @@
+package io.livestock.ai;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to the first analysis event for a simulated completion that arrives one token every
+ * {@code tokenMillis} ms, roughly a CPU-only local model. The blocking path waits for the whole completion
+ * before parsing; the streaming path emits its provisional analysis once {@code sentiment} and
+ * {@code riskScore} have been read, so the gap grows with the length of the summary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StreamingAnalysisBenchmark {
+
+    @Param({ "5" })
+    public int tokenMillis;
+
+    @Param({ "10", "40" })
+    public int summaryWords;
+
+    private final NewsItem item = new NewsItem("Reuters", "Chipmaker cuts outlook", "URL", "Content");
+    private List<String> tokens;
+
+    @Setup
+    public void setUp() {
+        tokens = new ArrayList<>();
+        tokens.add("{\"sentiment\": \"");
+        tokens.add("BEARISH");
+        tokens.add("\", \"riskScore\": ");
+        tokens.add("7");
+        tokens.add(", \"summary\": \"");
+        for (int i = 0; i < summaryWords; i++) {
+            tokens.add(i == 0 ? "Demand" : " softened");
+        }
+        tokens.add(".\"}");
+    }
+
+    @Benchmark
+    public NewsAnalysis blocking() {
+        return completion()
+                .reduce(new StringBuilder(), StringBuilder::append)
+                .map(raw -> SpringAiNewsAnalyzer.toAnalysis(item, AiJsonParser.parse(raw.toString())))
+                .block();
+    }
+
+    @Benchmark
+    public NewsAnalysis streaming() {
+        return SpringAiNewsAnalyzer.streamAnalyses(item, completion()).blockFirst();
+    }
+
+    private Flux<String> completion() {
+        return Flux.fromIterable(tokens).delayElements(Duration.ofMillis(tokenMillis));
+    }
+}
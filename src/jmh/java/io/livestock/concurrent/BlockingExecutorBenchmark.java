@@ -0,0 +1,92 @@
+package io.livestock.concurrent;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to complete {@code inFlight} concurrent blocking calls of {@value #CALL_MILLIS} ms each, standing in
+ * for model or HTTP calls. Bounded-elastic runs at most ten platform threads per core and queues the rest;
+ * virtual mode runs every call at once. The {@code peakPlatformThreads} counter reports the live platform
+ * thread high-water mark during the run; run with {@code -prof gc} (the default in build.gradle) to compare
+ * allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BlockingExecutorBenchmark {
+
+    static final int CALL_MILLIS = 20;
+
+    @Param({ "bounded-elastic", "virtual" })
+    public String mode;
+
+    @Param({ "100", "1000", "10000" })
+    public int inFlight;
+
+    private BlockingExecutor executor;
+
+    @Setup
+    public void setUp() {
+        executor = switch (mode) {
+            case "bounded-elastic" -> BlockingExecutor.boundedElastic();
+            case "virtual" -> BlockingExecutor.virtualThreads("bench", inFlight);
+            default -> throw new IllegalArgumentException(mode);
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Threads {
+
+        private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+        public long peakPlatformThreads;
+
+        @Setup(Level.Invocation)
+        public void reset() {
+            threadBean.resetPeakThreadCount();
+        }
+
+        void record() {
+            peakPlatformThreads = Math.max(peakPlatformThreads, threadBean.getPeakThreadCount());
+        }
+    }
+
+    @Benchmark
+    public long blockingCalls(Threads threads) {
+        Long completed = Flux.range(0, inFlight)
+                .flatMap(i -> executor.call(() -> {
+                    Thread.sleep(CALL_MILLIS);
+                    return i;
+                }), inFlight)
+                .count()
+                .block();
+        threads.record();
+        return completed;
+    }
+}
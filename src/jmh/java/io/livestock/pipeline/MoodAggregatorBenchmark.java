@@ -0,0 +1,67 @@
+package io.livestock.pipeline;
+
+import io.livestock.domain.MoodSnapshot;
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.Sentiment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of counting one analysis in {@link MoodAggregator} with the default windows, and of a snapshot.
+ * <p>
+ * Analyses rotate over twenty sources and event times up to ten minutes late, so most land in a past slot.
+ * Run with the gc profiler: {@code add} should allocate nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoodAggregatorBenchmark {
+
+    private static final int ANALYSES = 1024;
+
+    private MoodAggregator aggregator;
+    private NewsAnalysis[] analyses;
+    private Instant[] eventTimes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        aggregator = new MoodAggregator(List.of(Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofHours(1)),
+                Duration.ofSeconds(5), 100, Duration.ofSeconds(5));
+        analyses = new NewsAnalysis[ANALYSES];
+        eventTimes = new Instant[ANALYSES];
+        Instant now = Instant.now();
+        for (int i = 0; i < ANALYSES; i++) {
+            analyses[i] = new NewsAnalysis("id-" + i, now, "Source " + (i % 20), "Headline " + i, "URL",
+                    Sentiment.values()[i % 3], 1 + (i * 7) % 10, "Summary");
+            eventTimes[i] = now.minusSeconds((i * 37L) % 600);
+        }
+    }
+
+    @Benchmark
+    public void add() {
+        int i = next++ & (ANALYSES - 1);
+        aggregator.add(eventTimes[i], analyses[i]);
+    }
+
+    @Benchmark
+    public MoodSnapshot snapshot() {
+        return aggregator.snapshot(null);
+    }
+}
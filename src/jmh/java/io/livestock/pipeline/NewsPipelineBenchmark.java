@@ -0,0 +1,102 @@
+package io.livestock.pipeline;
+
+import io.livestock.BenchmarkData;
+import io.livestock.ai.NewsAiAnalyzer;
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.livestock.domain.Sentiment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * End-to-end throughput of {@link NewsPipeline}: items ingested by one or more producer threads until
+ * every analysis has been delivered to a {@code stream()} subscriber. The stub analyzer either answers
+ * on the calling thread or hops to the parallel scheduler like a real non-blocking backend would.
+ * Scores are items per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(NewsPipelineBenchmark.ITEMS_PER_OP)
+public class NewsPipelineBenchmark {
+
+    static final int ITEMS_PER_OP = 1_000;
+
+    @Param({ "1", "4" })
+    public int producers;
+
+    @Param({ "immediate", "async" })
+    public String analyzer;
+
+    private NewsPipeline pipeline;
+    private NewsItem[] items;
+    private ExecutorService executor;
+    private Disposable subscription;
+    private final AtomicReference<CountDownLatch> pending = new AtomicReference<>();
+
+    @Setup
+    public void setUp() {
+        NewsAnalysis analysis = new NewsAnalysis("id", Instant.now(), "Source", "Headline", "URL",
+                Sentiment.NEUTRAL, 5, "Summary");
+        NewsAiAnalyzer stub = analyzer.equals("async")
+                ? item -> Mono.fromCallable(() -> analysis).subscribeOn(Schedulers.parallel())
+                : item -> Mono.just(analysis);
+
+        pipeline = new NewsPipeline(stub);
+        subscription = pipeline.stream().subscribe(a -> pending.get().countDown());
+        items = new NewsItem[ITEMS_PER_OP];
+        for (int i = 0; i < ITEMS_PER_OP; i++) {
+            items[i] = BenchmarkData.newsItem(i, 400);
+        }
+        executor = Executors.newFixedThreadPool(producers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscription.dispose();
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void ingestToStream() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(ITEMS_PER_OP);
+        pending.set(done);
+        int perProducer = ITEMS_PER_OP / producers;
+        for (int p = 0; p < producers; p++) {
+            int from = p * perProducer;
+            int to = p == producers - 1 ? ITEMS_PER_OP : from + perProducer;
+            executor.execute(() -> {
+                for (int i = from; i < to; i++) {
+                    pipeline.ingest(items[i]);
+                }
+            });
+        }
+        if (!done.await(30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Pipeline lost " + done.getCount() + " of " + ITEMS_PER_OP + " items");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.livestock.service;
+
+import io.livestock.BenchmarkData;
+import io.livestock.domain.NewsItem;
+import io.livestock.domain.NewsModels.Article;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the per-fetch sort, dedup and convert chain in {@link RealNewsService}, per fetched batch.
+ * <p>
+ * With {@code duplicates=none} every batch is new: batches are drawn from a pool larger than the dedup
+ * index, so keys have been evicted before the pool wraps around. With {@code duplicates=all} the same
+ * batch is replayed, which is the steady state of polling an unchanged feed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RealNewsServiceBenchmark {
+
+    private static final int INDEX_CAPACITY = 10_000;
+    private static final int POOL_SIZE = 4 * INDEX_CAPACITY;
+
+    @Param({ "20", "100" })
+    public int batchSize;
+
+    @Param({ "none", "all" })
+    public String duplicates;
+
+    private RealNewsService service;
+    private List<List<Article>> batches;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        service = new RealNewsService(null, null, new DedupIndex(INDEX_CAPACITY, Duration.ofDays(1)));
+        batches = new ArrayList<>();
+        int count = duplicates.equals("all") ? batchSize : POOL_SIZE;
+        for (int start = 0; start + batchSize <= count; start += batchSize) {
+            List<Article> batch = new ArrayList<>(batchSize);
+            for (int i = start; i < start + batchSize; i++) {
+                batch.add(BenchmarkData.article(i, 400));
+            }
+            batches.add(batch);
+        }
+        if (duplicates.equals("all")) {
+            service.freshArticles(batches.get(0));
+        }
+    }
+
+    @Benchmark
+    public void sortDedupConvert(Blackhole bh) {
+        List<Article> batch = batches.get(next);
+        next = (next + 1) % batches.size();
+        for (Article article : service.freshArticles(batch)) {
+            NewsItem item = service.convertToNewsItem(article);
+            bh.consume(item);
+        }
+    }
+}
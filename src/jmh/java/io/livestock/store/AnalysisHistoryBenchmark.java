@@ -0,0 +1,73 @@
+package io.livestock.store;
+
+import io.livestock.BenchmarkData;
+import io.livestock.domain.AnalysisPage;
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.livestock.domain.Sentiment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of {@link AnalysisHistory} holding a million analyses, one every ten seconds.
+ * <p>
+ * {@code recent} asks for bearish Reuters items with risk of at least 7 in the last six hours, which chunk
+ * time ranges narrow to the newest chunk. {@code sparse} has no time bound and matches about one analysis
+ * in a hundred, so it walks the source index of many chunks. {@code none} matches nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class AnalysisHistoryBenchmark {
+
+    private static final int ANALYSES = 1_000_000;
+    private static final String[] SOURCES = { "Reuters", "Bloomberg", "CNBC", "Yahoo Finance", "MarketWatch" };
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Param({ "recent", "sparse", "none" })
+    public String filter;
+
+    private AnalysisHistory history;
+    private AnalysisHistory.Query query;
+
+    @Setup
+    public void setUp() {
+        history = new AnalysisHistory(1L << 30);
+        for (int i = 0; i < ANALYSES; i++) {
+            NewsItem item = BenchmarkData.newsItem(i, 0);
+            history.add(new NewsAnalysis(UUID.randomUUID().toString(), START.plusSeconds(10L * i),
+                    SOURCES[i % SOURCES.length], item.headline(), item.url(), Sentiment.values()[(i / 7) % 3],
+                    1 + (i / 3) % 10, BenchmarkData.text(160, i)));
+        }
+        Instant end = START.plusSeconds(10L * ANALYSES);
+        query = switch (filter) {
+            case "recent" -> new AnalysisHistory.Query(end.minus(Duration.ofHours(6)), null, "Reuters",
+                    Sentiment.BEARISH, 7, null);
+            case "sparse" -> new AnalysisHistory.Query(null, null, "CNBC", Sentiment.BULLISH, 10, null);
+            case "none" -> new AnalysisHistory.Query(null, null, null, null, 11, null);
+            default -> throw new IllegalStateException("Unknown filter " + filter);
+        };
+    }
+
+    @Benchmark
+    public AnalysisPage firstPage() {
+        return history.query(query, null, 50);
+    }
+}
@@ -0,0 +1,121 @@
+package io.livestock.store;
+
+import io.livestock.BenchmarkData;
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.livestock.domain.Sentiment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup cost of the analysis log: opening a log of a million analyses and reading the replay window,
+ * against reading the whole log. Appending is measured separately as average time per analysis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AnalysisLogBenchmark {
+
+    private static final int RECORDS = 1_000_000;
+    private static final int POOL_SIZE = 1024;
+
+    private Path directory;
+    private NewsAnalysis[] pool;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("analysis-log-bench");
+        pool = new NewsAnalysis[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            NewsItem item = BenchmarkData.newsItem(i, 160);
+            pool[i] = new NewsAnalysis(UUID.randomUUID().toString(), Instant.now(), item.source(), item.headline(),
+                    item.url(), Sentiment.values()[i % 3], 1 + i % 10, BenchmarkData.text(160, i), i % 4 == 0);
+        }
+        try (AnalysisLog log = AnalysisLog.open(directory, AnalysisLog.Settings.defaults(), false)) {
+            for (int i = 0; i < RECORDS; i++) {
+                log.append(pool[i % POOL_SIZE]);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void openAndReadReplay(Blackhole bh) throws IOException {
+        try (AnalysisLog log = AnalysisLog.open(directory, AnalysisLog.Settings.defaults(), false)) {
+            bh.consume(log.recent(50));
+        }
+    }
+
+    @Benchmark
+    public long openAndReadAll(Blackhole bh) throws IOException {
+        try (AnalysisLog log = AnalysisLog.open(directory, AnalysisLog.Settings.defaults(), false)) {
+            return log.forEach(bh::consume);
+        }
+    }
+
+    /**
+     * Append cost in the page cache, without fsync.
+     */
+    @State(Scope.Thread)
+    public static class Appending {
+
+        private Path directory;
+        private AnalysisLog log;
+        private int next;
+
+        @Setup
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("analysis-log-append");
+            log = AnalysisLog.open(directory, AnalysisLog.Settings.defaults(), false);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            log.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public void append(Appending state) {
+        state.log.append(pool[state.next++ & (POOL_SIZE - 1)]);
+    }
+}
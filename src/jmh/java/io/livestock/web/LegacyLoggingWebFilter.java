@@ -0,0 +1,39 @@
+package io.livestock.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * The request logging filter before sampled access logs, kept as the benchmark baseline: two INFO lines
+ * per request.
+ */
+class LegacyLoggingWebFilter implements WebFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyLoggingWebFilter.class);
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long startTime = System.currentTimeMillis();
+        String path = exchange.getRequest().getURI().getPath();
+        String method = exchange.getRequest().getMethod().name();
+
+        logger.info("Incoming Request: {} {}", method, path);
+
+        return chain.filter(exchange)
+                .doOnSuccess(v -> {
+                    long duration = System.currentTimeMillis() - startTime;
+                    int statusCode = exchange.getResponse().getStatusCode() != null
+                            ? exchange.getResponse().getStatusCode().value()
+                            : 0;
+                    logger.info("Outgoing Response: {} {} Status: {} ({} ms)", method, path, statusCode, duration);
+                })
+                .doOnError(e -> {
+                    long duration = System.currentTimeMillis() - startTime;
+                    logger.error("Request Failed: {} {} Error: {} ({} ms)", method, path, e.getMessage(), duration);
+                });
+    }
+}
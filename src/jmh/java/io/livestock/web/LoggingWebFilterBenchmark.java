@@ -0,0 +1,110 @@
+package io.livestock.web;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of request logging: the legacy two-line filter against the sampled single-line access
+ * log, with a synchronous appender and with the async appender used by the prod profile. Log output is
+ * fully formatted and written to a discarding stream, so scores include layout and appender cost but not
+ * disk or terminal I/O. Four threads contend for the appender as concurrent requests would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LoggingWebFilterBenchmark {
+
+    @Param({ "legacy", "sampled-all", "sampled-1pct" })
+    public String filter;
+
+    @Param({ "sync", "async" })
+    public String appender;
+
+    private WebFilter webFilter;
+    private ServerWebExchange exchange;
+    private final WebFilterChain chain = exchange -> Mono.empty();
+    private Appender<ILoggingEvent> rootAppender;
+
+    @Setup
+    public void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%t] %logger{40} : %m%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+
+        if (appender.equals("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(sink);
+            async.start();
+            rootAppender = async;
+        } else {
+            rootAppender = sink;
+        }
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(rootAppender);
+
+        webFilter = switch (filter) {
+            case "legacy" -> new LegacyLoggingWebFilter();
+            case "sampled-all" -> new LoggingWebFilter(1.0);
+            case "sampled-1pct" -> new LoggingWebFilter(0.01);
+            default -> throw new IllegalArgumentException(filter);
+        };
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/feed/status"));
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+    }
+
+    @TearDown
+    public void tearDown() {
+        rootAppender.stop();
+    }
+
+    @Benchmark
+    public void request() {
+        webFilter.filter(exchange, chain).block();
+    }
+}
@@ -1,21 +1,32 @@
 package io.livestock.ai;
 
 import io.livestock.domain.Sentiment;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Parses AI JSON response into NewsAnalysis object.
+ * <p>
+ * The response is scanned once, character by character, by a small JSON state machine. Text outside
+ * JSON (markdown fences, leading chatter) is skipped, string escapes are decoded per the JSON spec,
+ * and only the values of the keys we care about are copied out. A syntax error discards the current
+ * JSON value and resumes scanning at the next opening brace, keeping whatever was already read.
  */
 public final class AiJsonParser {
     private AiJsonParser() {
     }
 
-    private static final Pattern SENTIMENT = Pattern.compile("\"sentiment\"\\s*:\\s*\"(BULLISH|BEARISH|NEUTRAL)\"",
-            Pattern.CASE_INSENSITIVE);
-    private static final Pattern RISK = Pattern.compile("\"riskScore\"\\s*:\\s*(\\d{1,2})");
-    private static final Pattern SUMMARY = Pattern.compile("\"summary\"\\s*:\\s*\"(.*?)\"", Pattern.DOTALL);
+    private static final String SUMMARY_FALLBACK = "Summary unavailable.";
+    private static final int RISK_FALLBACK = 5;
+
+    // process-wide counters behind livestock.ai.parse.*; cheap enough to bump on every response
+    private static final LongAdder RESPONSES = new LongAdder();
+    private static final LongAdder SENTIMENT_FALLBACKS = new LongAdder();
+    private static final LongAdder RISK_FALLBACKS = new LongAdder();
+    private static final LongAdder SUMMARY_FALLBACKS = new LongAdder();
+    private static final LongAdder BATCH_MISSING = new LongAdder();
 
     /**
      * Parses AI JSON response into NewsAnalysis object.
@@ -25,77 +36,615 @@ public final class AiJsonParser {
      * @return A Parsed object containing sentiment, risk score, and summary.
      */
     public static Parsed parse(String raw) {
-        String response = raw == null ? "" : raw.trim();
-        Sentiment sentiment = matchSentiment(response);
-        int risk = matchInt(response, RISK, 5);
-        String summary = matchString(response, SUMMARY, "Summary unavailable.");
-        if (risk < 1)
-            risk = 1;
-        if (risk > 10)
-            risk = 10;
-        return new Parsed(sentiment, risk, summary);
+        Incremental parser = new Incremental();
+        if (raw != null) {
+            parser.feed(raw);
+        }
+        return complete(parser);
     }
 
     /**
-     * Matches sentiment from JSON response.
+     * Finish a response that was fed to an incremental parser, counting it like {@link #parse(String)}.
      *
-     * @param sentiment The JSON response string.
-     * @return The matched sentiment or NEUTRAL if not found.
+     * @param parser The parser holding the whole response.
+     * @return A Parsed object containing sentiment, risk score, and summary.
      */
-    private static Sentiment matchSentiment(String sentiment) {
-        Matcher m = SENTIMENT.matcher(sentiment);
-        if (m.find()) {
-            return Sentiment.valueOf(m.group(1).toUpperCase());
-        }
-        return Sentiment.NEUTRAL;
+    public static Parsed complete(Incremental parser) {
+        RESPONSES.increment();
+        countFallbacks(parser.sentiment == null, parser.risk == Incremental.ABSENT, parser.summary == null);
+        return parser.result();
     }
 
     /**
-     * Matches integer from JSON response.
+     * Parses a batch response: a JSON array with one object per item, each carrying an
+     * {@code index}. Objects without an index are assigned by position. Slots for items the
+     * model skipped, or whose object has no recognisable sentiment, are left null so the
+     * caller can fall back to analyzing those items individually.
      *
-     * @param sentiment The JSON response string.
-     * @param pattern   The regex pattern to match.
-     * @param fallback  The fallback value if no match is found.
-     * @return The matched integer or fallback if not found.
+     * @param raw   The raw response from AI.
+     * @param count The number of items in the batch.
+     * @return An array of length {@code count}; missing results are null.
      */
-    private static int matchInt(String sentiment, Pattern pattern, int fallback) {
-        Matcher m = pattern.matcher(sentiment);
-        if (m.find()) {
-            try {
-                return Integer.parseInt(m.group(1));
-            } catch (Exception ignored) {
+    public static Parsed[] parseBatch(String raw, int count) {
+        Parsed[] results = new Parsed[count];
+        if (raw != null) {
+            new Incremental(results).feed(raw);
+        }
+        RESPONSES.increment();
+        for (Parsed result : results) {
+            if (result == null) {
+                BATCH_MISSING.increment();
             }
         }
-        return fallback;
+        return results;
     }
 
     /**
-     * Matches string from JSON response.
+     * Register the parse counters: responses parsed, fields that fell back to a default, and batch items
+     * missing from a batch response.
      *
-     * @param response The JSON response string.
-     * @param pattern  The regex pattern to match.
-     * @param fallback The fallback value if no match is found.
-     * @return The matched string or fallback if not found.
+     * @param registry The registry to bind to.
      */
-    private static String matchString(String response, Pattern pattern, String fallback) {
-        Matcher m = pattern.matcher(response);
-        if (m.find()) {
-            return unescape(m.group(1)).trim();
+    public static void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("livestock.ai.parse.responses", RESPONSES, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("livestock.ai.parse.fallbacks", SENTIMENT_FALLBACKS, LongAdder::sum)
+                .tag("field", "sentiment")
+                .register(registry);
+        FunctionCounter.builder("livestock.ai.parse.fallbacks", RISK_FALLBACKS, LongAdder::sum)
+                .tag("field", "riskScore")
+                .register(registry);
+        FunctionCounter.builder("livestock.ai.parse.fallbacks", SUMMARY_FALLBACKS, LongAdder::sum)
+                .tag("field", "summary")
+                .register(registry);
+        FunctionCounter.builder("livestock.ai.parse.batch.missing", BATCH_MISSING, LongAdder::sum)
+                .description("Batch items the model response did not answer")
+                .register(registry);
+    }
+
+    private static void countFallbacks(boolean sentiment, boolean risk, boolean summary) {
+        if (sentiment) {
+            SENTIMENT_FALLBACKS.increment();
+        }
+        if (risk) {
+            RISK_FALLBACKS.increment();
+        }
+        if (summary) {
+            SUMMARY_FALLBACKS.increment();
         }
-        return fallback;
+    }
+
+    private static int clampRisk(int risk) {
+        if (risk < 1)
+            return 1;
+        if (risk > 10)
+            return 10;
+        return risk;
     }
 
     /**
-     * Unescape JSON string.
-     *
-     * @param in The input string to unescape.
-     * @return The unescaped string.
+     * Parser that can be fed a response in chunks, e.g. as tokens stream in from the model.
+     * Not thread-safe.
      */
-    private static String unescape(String in) {
-        return in.replace("\\\\n", "\n")
-                .replace("\\\\\"", "\"")
-                .replace("\\\\t", "\t")
-                .replace("\\\\r", "\r");
+    public static final class Incremental {
+
+        private static final int MAX_DEPTH = 63;
+        private static final int MAX_KEY_LENGTH = 16;
+        private static final int ABSENT = Integer.MIN_VALUE;
+        private static final Sentiment[] SENTIMENTS = Sentiment.values();
+
+        // scanner states
+        private static final int SEEK = 0;
+        private static final int KEY_OR_END = 1;
+        private static final int KEY = 2;
+        private static final int COLON = 3;
+        private static final int VALUE = 4;
+        private static final int VALUE_OR_END = 5;
+        private static final int AFTER_VALUE = 6;
+        private static final int STRING = 7;
+        private static final int STRING_ESCAPE = 8;
+        private static final int STRING_UNICODE = 9;
+        private static final int NUMBER = 10;
+        private static final int LITERAL = 11;
+
+        // keys whose values are captured
+        private static final int NONE = 0;
+        private static final int SENTIMENT = 1;
+        private static final int RISK = 2;
+        private static final int SUMMARY = 3;
+        private static final int INDEX = 4;
+
+        private int state = SEEK;
+        private int depth;
+        private long objectBits; // bit d set when the container at depth d is an object
+        private int keyId = NONE;
+        private boolean readingKey;
+        private boolean capturing;
+        private final StringBuilder buf = new StringBuilder(64);
+        private int unicode;
+        private int unicodeDigits;
+        private long number;
+        private boolean negative;
+        private boolean fraction;
+        private boolean digits;
+
+        // single-response results, first occurrence wins
+        private Sentiment sentiment;
+        private int risk = ABSENT;
+        private String summary;
+
+        // batch results, one record per open object
+        private final Parsed[] batch;
+        private final Sentiment[] recordSentiment;
+        private final int[] recordRisk;
+        private final String[] recordSummary;
+        private final int[] recordIndex;
+        private int position;
+
+        public Incremental() {
+            this(null);
+        }
+
+        private Incremental(Parsed[] batch) {
+            this.batch = batch;
+            if (batch != null) {
+                recordSentiment = new Sentiment[MAX_DEPTH + 1];
+                recordRisk = new int[MAX_DEPTH + 1];
+                recordSummary = new String[MAX_DEPTH + 1];
+                recordIndex = new int[MAX_DEPTH + 1];
+            } else {
+                recordSentiment = null;
+                recordRisk = null;
+                recordSummary = null;
+                recordIndex = null;
+            }
+        }
+
+        /**
+         * Feed the next chunk of the response.
+         *
+         * @param chunk The next characters of the response.
+         * @return This parser.
+         */
+        public Incremental feed(CharSequence chunk) {
+            int i = 0;
+            int n = chunk.length();
+            while (i < n) {
+                if (state == STRING) {
+                    i = scanString(chunk, i, n);
+                } else if (state == SEEK) {
+                    i = seek(chunk, i, n);
+                } else if (step(chunk.charAt(i))) {
+                    i++;
+                }
+                // a character that was not consumed is re-examined in the new state
+            }
+            return this;
+        }
+
+        /**
+         * The result so far, with fallbacks for anything not (yet) found.
+         *
+         * @return A Parsed object containing sentiment, risk score, and summary.
+         */
+        public Parsed result() {
+            return new Parsed(
+                    sentiment != null ? sentiment : Sentiment.NEUTRAL,
+                    clampRisk(risk != ABSENT ? risk : RISK_FALLBACK),
+                    summary != null ? summary : SUMMARY_FALLBACK);
+        }
+
+        public boolean hasSentiment() {
+            return sentiment != null;
+        }
+
+        public boolean hasRiskScore() {
+            return risk != ABSENT;
+        }
+
+        /**
+         * Whether the summary string has been read to its closing quote.
+         *
+         * @return boolean
+         */
+        public boolean hasSummary() {
+            return summary != null;
+        }
+
+        /**
+         * Skip text outside JSON up to and including the next opening bracket.
+         */
+        private int seek(CharSequence chunk, int i, int n) {
+            for (; i < n; i++) {
+                char c = chunk.charAt(i);
+                if (c == '{' || (c == '[' && batch != null)) {
+                    open(c == '{');
+                    return i + 1;
+                }
+            }
+            return n;
+        }
+
+        /**
+         * Consume a run of plain string characters in bulk, then the escape or quote that ends it.
+         */
+        private int scanString(CharSequence chunk, int i, int n) {
+            int start = i;
+            while (i < n) {
+                char c = chunk.charAt(i);
+                if (c == '"' || c == '\\') {
+                    break;
+                }
+                i++;
+            }
+            if (capturing && i > start) {
+                if (readingKey && buf.length() + (i - start) > MAX_KEY_LENGTH) {
+                    capturing = false; // not one of ours
+                    buf.setLength(0);
+                } else {
+                    buf.append(chunk, start, i);
+                }
+            }
+            if (i < n) {
+                step(chunk.charAt(i));
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * Advance the state machine by one character.
+         *
+         * @return false if the character was not consumed and must be stepped again.
+         */
+        private boolean step(char c) {
+            switch (state) {
+                case SEEK:
+                    if (c == '{' || (c == '[' && batch != null)) {
+                        open(c == '{');
+                    }
+                    return true;
+                case KEY_OR_END:
+                case KEY:
+                    if (isWhitespace(c)) {
+                        return true;
+                    }
+                    if (c == '"') {
+                        startString(true);
+                        return true;
+                    }
+                    if (c == '}' && state == KEY_OR_END) {
+                        close();
+                        return true;
+                    }
+                    return fail();
+                case COLON:
+                    if (isWhitespace(c)) {
+                        return true;
+                    }
+                    if (c == ':') {
+                        state = VALUE;
+                        return true;
+                    }
+                    return fail();
+                case VALUE:
+                case VALUE_OR_END:
+                    if (isWhitespace(c)) {
+                        return true;
+                    }
+                    if (c == ']' && state == VALUE_OR_END) {
+                        close();
+                        return true;
+                    }
+                    if (c == '"') {
+                        startString(false);
+                        return true;
+                    }
+                    if (c == '{' || c == '[') {
+                        return open(c == '{') || fail();
+                    }
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        startNumber(c);
+                        return true;
+                    }
+                    if (c >= 'a' && c <= 'z') {
+                        state = LITERAL;
+                        return true;
+                    }
+                    return fail();
+                case AFTER_VALUE:
+                    if (isWhitespace(c)) {
+                        return true;
+                    }
+                    boolean inObject = isObject();
+                    if (c == ',') {
+                        state = inObject ? KEY : VALUE;
+                        return true;
+                    }
+                    if ((c == '}' && inObject) || (c == ']' && !inObject)) {
+                        close();
+                        return true;
+                    }
+                    return fail();
+                case STRING:
+                    if (c == '\\') {
+                        state = STRING_ESCAPE;
+                    } else if (c == '"') {
+                        endString();
+                    } else {
+                        append(c);
+                    }
+                    return true;
+                case STRING_ESCAPE:
+                    state = STRING;
+                    switch (c) {
+                        case 'n' -> append('\n');
+                        case 't' -> append('\t');
+                        case 'r' -> append('\r');
+                        case 'b' -> append('\b');
+                        case 'f' -> append('\f');
+                        case 'u' -> {
+                            unicode = 0;
+                            unicodeDigits = 0;
+                            state = STRING_UNICODE;
+                        }
+                        default -> append(c); // \" \\ \/ and lenient handling of anything else
+                    }
+                    return true;
+                case STRING_UNICODE:
+                    int hex = Character.digit(c, 16);
+                    if (hex < 0) {
+                        return fail();
+                    }
+                    unicode = (unicode << 4) | hex;
+                    if (++unicodeDigits == 4) {
+                        append((char) unicode);
+                        state = STRING;
+                    }
+                    return true;
+                case NUMBER:
+                    if (c >= '0' && c <= '9') {
+                        if (!fraction && number < 1_000_000_000L) {
+                            number = number * 10 + (c - '0');
+                        }
+                        digits = true;
+                        return true;
+                    }
+                    if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                        fraction = true;
+                        return true;
+                    }
+                    endNumber();
+                    return false;
+                case LITERAL:
+                    if (c >= 'a' && c <= 'z') {
+                        return true;
+                    }
+                    endValue();
+                    return false;
+                default:
+                    throw new IllegalStateException("Unknown parser state " + state);
+            }
+        }
+
+        private boolean open(boolean object) {
+            if (depth == MAX_DEPTH) {
+                return false;
+            }
+            depth++;
+            if (object) {
+                objectBits |= 1L << depth;
+                state = KEY_OR_END;
+                if (batch != null) {
+                    recordSentiment[depth] = null;
+                    recordRisk[depth] = ABSENT;
+                    recordSummary[depth] = null;
+                    recordIndex[depth] = ABSENT;
+                }
+            } else {
+                objectBits &= ~(1L << depth);
+                state = VALUE_OR_END;
+            }
+            keyId = NONE;
+            return true;
+        }
+
+        private void close() {
+            if (batch != null && isObject()) {
+                finishRecord();
+            }
+            depth--;
+            keyId = NONE;
+            state = depth == 0 ? SEEK : AFTER_VALUE;
+        }
+
+        private boolean fail() {
+            depth = 0;
+            keyId = NONE;
+            state = SEEK;
+            return false;
+        }
+
+        private boolean isObject() {
+            return (objectBits & (1L << depth)) != 0;
+        }
+
+        private void startString(boolean key) {
+            readingKey = key;
+            capturing = key || keyId != NONE;
+            buf.setLength(0);
+            state = STRING;
+        }
+
+        private void append(char c) {
+            if (capturing) {
+                if (readingKey && buf.length() == MAX_KEY_LENGTH) {
+                    capturing = false; // not one of ours
+                    buf.setLength(0);
+                } else {
+                    buf.append(c);
+                }
+            }
+        }
+
+        private void endString() {
+            if (readingKey) {
+                keyId = capturing ? keyOf(buf) : NONE;
+                state = COLON;
+                return;
+            }
+            switch (keyId) {
+                case SENTIMENT -> onSentiment(sentimentOf(buf));
+                case RISK, INDEX -> {
+                    int value = parseInt(buf);
+                    if (value != ABSENT) {
+                        onInt(keyId, value);
+                    }
+                }
+                case SUMMARY -> onSummary(buf.toString().trim());
+                default -> {
+                }
+            }
+            endValue();
+        }
+
+        private void startNumber(char c) {
+            negative = c == '-';
+            digits = !negative;
+            number = negative ? 0 : c - '0';
+            fraction = false;
+            state = NUMBER;
+        }
+
+        private void endNumber() {
+            if (digits && !negative && (keyId == RISK || keyId == INDEX)) {
+                onInt(keyId, (int) number);
+            }
+            endValue();
+        }
+
+        private void endValue() {
+            keyId = NONE;
+            state = AFTER_VALUE;
+        }
+
+        private void onSentiment(Sentiment value) {
+            if (value == null) {
+                return;
+            }
+            if (batch != null) {
+                if (recordSentiment[depth] == null) {
+                    recordSentiment[depth] = value;
+                }
+            } else if (sentiment == null) {
+                sentiment = value;
+            }
+        }
+
+        private void onInt(int key, int value) {
+            if (batch != null) {
+                int[] record = key == RISK ? recordRisk : recordIndex;
+                if (record[depth] == ABSENT) {
+                    record[depth] = value;
+                }
+            } else if (key == RISK && risk == ABSENT) {
+                risk = value;
+            }
+        }
+
+        private void onSummary(String value) {
+            if (batch != null) {
+                if (recordSummary[depth] == null) {
+                    recordSummary[depth] = value;
+                }
+            } else if (summary == null) {
+                summary = value;
+            }
+        }
+
+        private void finishRecord() {
+            Sentiment s = recordSentiment[depth];
+            if (s == null) {
+                return;
+            }
+            int index = recordIndex[depth] != ABSENT ? recordIndex[depth] : position;
+            position++;
+            if (index < batch.length && batch[index] == null) {
+                int r = recordRisk[depth];
+                String text = recordSummary[depth];
+                countFallbacks(false, r == ABSENT, text == null);
+                batch[index] = new Parsed(s, clampRisk(r != ABSENT ? r : RISK_FALLBACK),
+                        text != null ? text : SUMMARY_FALLBACK);
+            }
+        }
+
+        private static int keyOf(CharSequence key) {
+            if (equalsIgnoreCase(key, "sentiment")) {
+                return SENTIMENT;
+            }
+            if (equalsIgnoreCase(key, "riskScore")) {
+                return RISK;
+            }
+            if (equalsIgnoreCase(key, "summary")) {
+                return SUMMARY;
+            }
+            if (equalsIgnoreCase(key, "index")) {
+                return INDEX;
+            }
+            return NONE;
+        }
+
+        private static Sentiment sentimentOf(CharSequence value) {
+            int start = 0;
+            int end = value.length();
+            while (start < end && isWhitespace(value.charAt(start))) {
+                start++;
+            }
+            while (end > start && isWhitespace(value.charAt(end - 1))) {
+                end--;
+            }
+            for (Sentiment s : SENTIMENTS) {
+                if (regionEqualsIgnoreCase(value, start, end, s.name())) {
+                    return s;
+                }
+            }
+            return null;
+        }
+
+        private static int parseInt(CharSequence value) {
+            int result = 0;
+            boolean any = false;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    result = Math.min(result * 10 + (c - '0'), 1_000_000);
+                    any = true;
+                } else if (any || !isWhitespace(c)) {
+                    break;
+                }
+            }
+            return any ? result : ABSENT;
+        }
+
+        private static boolean equalsIgnoreCase(CharSequence a, String b) {
+            return regionEqualsIgnoreCase(a, 0, a.length(), b);
+        }
+
+        private static boolean regionEqualsIgnoreCase(CharSequence a, int start, int end, String b) {
+            if (end - start != b.length()) {
+                return false;
+            }
+            for (int i = 0; i < b.length(); i++) {
+                if (Character.toLowerCase(a.charAt(start + i)) != Character.toLowerCase(b.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isWhitespace(char c) {
+            return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+        }
     }
 
     /**
@@ -1,5 +1,9 @@
 package io.livestock.ai;
 
+import io.livestock.domain.NewsItem;
+
+import java.util.List;
+
 /**
  * AI Prompt template.
  */
@@ -22,6 +26,24 @@ public final class AiPrompt {
       - riskScore is downside risk / uncertainty (10 is very risky)
       """;
 
+  public static final String BATCH_SYSTEM = """
+      You are a financial news analyst.
+      Return ONLY a valid JSON array, no markdown, no extra text.
+      Return exactly one object per news item, identified by the item's index:
+      [
+        {
+          "index": 0,
+          "sentiment": "BULLISH|BEARISH|NEUTRAL",
+          "riskScore": 1-10,
+          "summary": "1-2 sentence summary"
+        }
+      ]
+      Guidelines:
+      - sentiment reflects short-term market tone
+      - riskScore is downside risk / uncertainty (10 is very risky)
+      - analyze each item independently
+      """;
+
   public static String user(String source, String headline, String content) {
     return """
         Analyze this financial news item.
@@ -32,4 +54,24 @@ public final class AiPrompt {
         %s
         """.formatted(source, headline, content);
   }
+
+  /**
+   * User prompt for a micro-batch; items are numbered from 0 in list order.
+   *
+   * @param items The items to analyze in one request.
+   * @return The prompt text.
+   */
+  public static String batchUser(List<NewsItem> items) {
+    StringBuilder sb = new StringBuilder(256 * items.size());
+    sb.append("Analyze these ").append(items.size()).append(" financial news items.\n");
+    for (int i = 0; i < items.size(); i++) {
+      NewsItem item = items.get(i);
+      sb.append("\nITEM ").append(i).append('\n')
+          .append("SOURCE: ").append(item.source()).append('\n')
+          .append("HEADLINE: ").append(item.headline()).append('\n')
+          .append("CONTENT:\n")
+          .append(item.content()).append('\n');
+    }
+    return sb.toString();
+  }
 }
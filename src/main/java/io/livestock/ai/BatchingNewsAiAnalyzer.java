@@ -0,0 +1,159 @@
+package io.livestock.ai;
+
+import io.livestock.concurrent.BlockingExecutor;
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * News analyzer that groups concurrent requests into micro-batches.
+ * <p>
+ * Items are buffered until {@code maxBatchSize} have arrived or {@code maxWait} has elapsed, then
+ * analyzed with a single chat call that returns a JSON array keyed by item index. Items missing from
+ * the batch response, or the whole batch if the call fails or the response cannot be parsed, are
+ * analyzed one by one with the fallback analyzer. Requests cancelled while waiting for their batch are
+ * left out of it.
+ */
+public class BatchingNewsAiAnalyzer implements NewsAiAnalyzer {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(BatchingNewsAiAnalyzer.class);
+
+    private final ChatClient chatClient;
+    private final NewsAiAnalyzer fallback;
+    private final BlockingExecutor blockingExecutor;
+
+    // pending requests, drained into batches
+    private final Sinks.Many<Pending> pending = Sinks.many().unicast().onBackpressureBuffer();
+
+    /**
+     * Constructor.
+     *
+     * @param chatClient   The client used for batch calls.
+     * @param fallback     The analyzer used for single items and for items a batch could not answer.
+     * @param maxBatchSize The maximum number of items per prompt.
+     * @param maxWait      The maximum time an item waits for its batch to fill.
+     * @param concurrency  The maximum number of batches in flight, including their single-item calls.
+     */
+    public BatchingNewsAiAnalyzer(ChatClient chatClient, NewsAiAnalyzer fallback, int maxBatchSize,
+            Duration maxWait, int concurrency) {
+        this(chatClient, fallback, maxBatchSize, maxWait, concurrency, BlockingExecutor.boundedElastic());
+    }
+
+    public BatchingNewsAiAnalyzer(ChatClient chatClient, NewsAiAnalyzer fallback, int maxBatchSize,
+            Duration maxWait, int concurrency, BlockingExecutor blockingExecutor) {
+        this.chatClient = chatClient;
+        this.fallback = fallback;
+        this.blockingExecutor = blockingExecutor;
+
+        // fair backpressure holds a batch back while every call slot is busy instead of failing the pipeline,
+        // and a batch that fails fails only its own callers; the unicast sink cannot be subscribed to again
+        pending.asFlux()
+                .bufferTimeout(maxBatchSize, maxWait, true)
+                .flatMap(batch -> process(batch).onErrorResume(e -> {
+                    logger.warn("Batch of {} items failed: {}", batch.size(), e.toString());
+                    batch.forEach(p -> p.sink().error(e));
+                    return Mono.empty();
+                }), concurrency)
+                .subscribe(null, e -> logger.error("Batching pipeline stopped", e));
+    }
+
+    /**
+     * Queues the item for the next batch.
+     *
+     * @param item The news item to analyze.
+     * @return A Mono that completes when the item's batch has been analyzed.
+     */
+    @Override
+    public Mono<NewsAnalysis> analyze(NewsItem item) {
+        return Mono.create(sink -> {
+            Pending p = new Pending(item, sink, new AtomicBoolean());
+            sink.onCancel(() -> p.cancelled().set(true));
+            pending.emitNext(p, Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+        });
+    }
+
+    /**
+     * Analyze one batch and complete every pending request in it.
+     *
+     * @param batch The pending requests in this batch.
+     * @return Mono that completes once every request in the batch has been answered.
+     */
+    private Mono<Void> process(List<Pending> batch) {
+        List<Pending> live = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            if (!p.cancelled().get()) {
+                live.add(p);
+            }
+        }
+        if (live.size() <= 1) {
+            return analyzeIndividually(live);
+        }
+        List<NewsItem> items = new ArrayList<>(live.size());
+        for (Pending p : live) {
+            items.add(p.item());
+        }
+        return blockingExecutor.call(() -> call(items))
+                .map(raw -> AiJsonParser.parseBatch(raw, items.size()))
+                .onErrorResume(e -> {
+                    logger.warn("Batch analysis of {} items failed, falling back to single calls: {}",
+                            items.size(), e.getMessage());
+                    return Mono.just(new AiJsonParser.Parsed[items.size()]);
+                })
+                .flatMap(results -> complete(live, results));
+    }
+
+    private String call(List<NewsItem> items) {
+        logger.debug("Sending batch of {} items to AI", items.size());
+        return chatClient.prompt()
+                .messages(
+                        new SystemMessage(AiPrompt.BATCH_SYSTEM),
+                        new UserMessage(AiPrompt.batchUser(items)))
+                .call()
+                .content();
+    }
+
+    private Mono<Void> complete(List<Pending> batch, AiJsonParser.Parsed[] results) {
+        List<Pending> missing = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Pending p = batch.get(i);
+            if (results[i] != null) {
+                p.sink().success(SpringAiNewsAnalyzer.toAnalysis(p.item(), results[i]));
+            } else {
+                missing.add(p);
+            }
+        }
+        if (!missing.isEmpty()) {
+            logger.info("Batch response missing {} of {} items; analyzing them individually",
+                    missing.size(), batch.size());
+        }
+        return analyzeIndividually(missing);
+    }
+
+    /**
+     * Analyze requests one by one with the fallback analyzer. The returned Mono completes only once every call
+     * has, so these calls hold their batch's slot and stay within {@code concurrency}.
+     */
+    private Mono<Void> analyzeIndividually(List<Pending> requests) {
+        return Flux.fromIterable(requests)
+                .filter(p -> !p.cancelled().get())
+                .flatMap(p -> fallback.analyze(p.item())
+                        .doOnSuccess(p.sink()::success)
+                        .doOnError(p.sink()::error)
+                        .onErrorResume(e -> Mono.empty()))
+                .then();
+    }
+
+    private record Pending(NewsItem item, MonoSink<NewsAnalysis> sink, AtomicBoolean cancelled) {
+    }
+}
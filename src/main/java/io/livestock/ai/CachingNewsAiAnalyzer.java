@@ -0,0 +1,262 @@
+package io.livestock.ai;
+
+import io.livestock.domain.ContentKeys;
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Content-addressed cache in front of another analyzer.
+ * <p>
+ * Items are keyed on a hash of their normalized headline and content, so syndicated copies of the
+ * same story are analyzed once. Completed analyses are kept in a size- and TTL-bounded LRU map;
+ * concurrent requests for a key that is still being analyzed share one in-flight call, which is cancelled
+ * once every request sharing it has been cancelled.
+ */
+public class CachingNewsAiAnalyzer implements NewsAiAnalyzer, MeterBinder {
+
+    private final NewsAiAnalyzer delegate;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    // access-ordered, guarded by itself
+    private final LinkedHashMap<Long, CachedAnalysis> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final ConcurrentHashMap<Long, Load> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder sizeEvictions = new LongAdder();
+    private final LongAdder ttlEvictions = new LongAdder();
+
+    public CachingNewsAiAnalyzer(NewsAiAnalyzer delegate, int maxSize, Duration ttl) {
+        this(delegate, maxSize, ttl, Clock.systemUTC());
+    }
+
+    public CachingNewsAiAnalyzer(NewsAiAnalyzer delegate, int maxSize, Duration ttl, Clock clock) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Analyzes the item, reusing a cached or in-flight result for identical content.
+     *
+     * @param item The news item to analyze.
+     * @return A Mono containing the analysis, bound to this item's source, headline and URL.
+     */
+    @Override
+    public Mono<NewsAnalysis> analyze(NewsItem item) {
+        long key = ContentKeys.content(item.headline(), item.content());
+
+        NewsAnalysis cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return Mono.just(copyFor(cached, item));
+        }
+
+        boolean[] created = new boolean[1];
+        Load load = inFlight.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return new Load(k, item);
+        });
+        if (created[0]) {
+            misses.increment();
+            return load.join(item);
+        }
+        coalesced.increment();
+        return load.join(item).map(analysis -> copyFor(analysis, item));
+    }
+
+    /**
+     * Streams the analysis of the item, answering from the cache or an in-flight analysis when possible.
+     * A streamed analysis is cached once its final event arrives; concurrent streams of the same content are
+     * not coalesced with each other.
+     *
+     * @param item The news item to analyze.
+     * @return Flux of analyses bound to this item's source, headline and URL.
+     */
+    @Override
+    public Flux<NewsAnalysis> analyzeStreaming(NewsItem item) {
+        long key = ContentKeys.content(item.headline(), item.content());
+
+        NewsAnalysis cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return Flux.just(copyFor(cached, item));
+        }
+        Load load = inFlight.get(key);
+        if (load != null) {
+            coalesced.increment();
+            return load.join(item).map(analysis -> copyFor(analysis, item)).flux();
+        }
+        misses.increment();
+        return delegate.analyzeStreaming(item)
+                .doOnNext(analysis -> {
+                    if (!analysis.provisional()) {
+                        store(key, analysis);
+                    }
+                });
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("livestock.ai.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("livestock.ai.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("livestock.ai.cache.requests", coalesced, LongAdder::sum)
+                .tag("result", "coalesced")
+                .description("Requests that joined an in-flight analysis of the same content")
+                .register(registry);
+        FunctionCounter.builder("livestock.ai.cache.evictions", sizeEvictions, LongAdder::sum)
+                .tag("cause", "size")
+                .register(registry);
+        FunctionCounter.builder("livestock.ai.cache.evictions", ttlEvictions, LongAdder::sum)
+                .tag("cause", "ttl")
+                .register(registry);
+        Gauge.builder("livestock.ai.cache.size", this, CachingNewsAiAnalyzer::size)
+                .register(registry);
+    }
+
+    private NewsAnalysis lookup(long key) {
+        synchronized (entries) {
+            CachedAnalysis entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.storedAt() + ttlMillis <= clock.millis()) {
+                entries.remove(key);
+                ttlEvictions.increment();
+                return null;
+            }
+            return entry.analysis();
+        }
+    }
+
+    private void store(long key, NewsAnalysis analysis) {
+        synchronized (entries) {
+            entries.put(key, new CachedAnalysis(analysis, clock.millis()));
+            Iterator<Map.Entry<Long, CachedAnalysis>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                sizeEvictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Re-targets a shared analysis at the item that requested it, so each copy of a syndicated
+     * story is emitted with its own id, source, headline and URL.
+     */
+    private static NewsAnalysis copyFor(NewsAnalysis analysis, NewsItem item) {
+        return new NewsAnalysis(
+                UUID.randomUUID().toString(),
+                Instant.now(),
+                item.source(),
+                item.headline(),
+                item.url(),
+                analysis.sentiment(),
+                analysis.riskScore(),
+                analysis.summary());
+    }
+
+    /**
+     * One in-flight analysis of a key, shared by every request for it. The delegate is called when the first
+     * request subscribes and cancelled when the last subscribed request cancels, so a call nobody waits for
+     * anymore does not keep its thread or its in-flight entry.
+     */
+    private final class Load {
+
+        private final long key;
+        private final NewsItem item;
+        private final Sinks.One<NewsAnalysis> result = Sinks.one();
+        private final Disposable.Swap call = Disposables.swap();
+
+        // guarded by this
+        private int subscribers;
+        private boolean started;
+        private boolean abandoned;
+
+        private Load(long key, NewsItem item) {
+            this.key = key;
+            this.item = item;
+        }
+
+        /**
+         * Joins this load, or starts a new one for the requesting item if this one was abandoned before the
+         * request subscribed.
+         */
+        Mono<NewsAnalysis> join(NewsItem requester) {
+            return Mono.defer(() -> {
+                boolean joined;
+                boolean start;
+                synchronized (this) {
+                    joined = !abandoned;
+                    start = joined && !started;
+                    if (joined) {
+                        subscribers++;
+                        started = true;
+                    }
+                }
+                if (!joined) {
+                    return analyze(requester);
+                }
+                if (start) {
+                    call.update(delegate.analyze(item)
+                            .doOnNext(analysis -> store(key, analysis))
+                            .doFinally(signal -> inFlight.remove(key, this))
+                            .subscribe(result::tryEmitValue, result::tryEmitError, result::tryEmitEmpty));
+                }
+                return result.asMono().doOnCancel(this::leave);
+            });
+        }
+
+        private void leave() {
+            synchronized (this) {
+                if (--subscribers > 0) {
+                    return;
+                }
+                abandoned = true;
+            }
+            call.dispose();
+            inFlight.remove(key, this);
+        }
+    }
+
+    private record CachedAnalysis(NewsAnalysis analysis, long storedAt) {
+    }
+}
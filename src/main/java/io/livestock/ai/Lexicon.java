@@ -0,0 +1,265 @@
+package io.livestock.ai;
+
+import io.livestock.text.WordAutomaton;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Weighted, negation-aware financial term dictionary compiled into a {@link WordAutomaton}.
+ * <p>
+ * Text is scanned once, left to right. Terms match on whole words, or on word prefixes for stems written with
+ * a trailing {@code *}; apostrophes are part of words. Where terms overlap, the longest one starting earliest
+ * wins. A sentiment term within {@link #NEGATION_WINDOW} words after a negator in the same clause counts with
+ * the opposite sign at half weight.
+ * <p>
+ * Dictionary files hold one entry per line: the term followed by a numeric weight (positive is bullish,
+ * negative is bearish) or the word {@code negate}. Blank lines and lines starting with {@code #} are ignored.
+ */
+public final class Lexicon {
+
+    static final int NEGATION_WINDOW = 3;
+    static final double NEGATION_DAMPING = 0.5;
+    static final double HEADLINE_WEIGHT = 2.0;
+
+    private static final int NO_WORD = Integer.MIN_VALUE / 2;
+
+    private final WordAutomaton automaton;
+    // by automaton entry
+    private final double[] weights;
+    private final boolean[] negators;
+
+    private Lexicon(WordAutomaton automaton, List<Entry> entries) {
+        this.automaton = automaton;
+        int n = entries.size();
+        this.weights = new double[n];
+        this.negators = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            Entry entry = entries.get(i);
+            weights[i] = entry.weight();
+            negators[i] = entry.negator();
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The dictionary bundled with the application.
+     *
+     * @return Lexicon
+     */
+    public static Lexicon defaults() {
+        try (InputStream in = Lexicon.class.getResourceAsStream("/lexicon/finance.txt")) {
+            if (in == null) {
+                throw new IllegalStateException("Bundled lexicon /lexicon/finance.txt is missing");
+            }
+            return load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parse a dictionary file.
+     *
+     * @param in The dictionary, UTF-8 encoded.
+     * @return Lexicon
+     * @throws IOException if the stream cannot be read
+     */
+    public static Lexicon load(InputStream in) throws IOException {
+        Builder builder = builder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int split = line.lastIndexOf(' ');
+            int tab = line.lastIndexOf('\t');
+            split = Math.max(split, tab);
+            if (split < 0) {
+                throw new IllegalArgumentException("Lexicon line " + lineNumber + " has no weight: " + line);
+            }
+            String term = line.substring(0, split).strip();
+            String value = line.substring(split + 1);
+            if (value.equals("negate")) {
+                builder.negator(term);
+            } else {
+                try {
+                    builder.term(term, Double.parseDouble(value));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Lexicon line " + lineNumber + " has a bad weight: " + line, e);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Score an item's text. Headline matches count {@link #HEADLINE_WEIGHT} times.
+     *
+     * @param headline The headline, may be null.
+     * @param body     The body text, may be null.
+     * @return The bullish and bearish evidence found.
+     */
+    public LexiconScore score(CharSequence headline, CharSequence body) {
+        Scorer scorer = new Scorer();
+        if (headline != null) {
+            scorer.scan(headline, HEADLINE_WEIGHT);
+        }
+        if (body != null) {
+            scorer.scan(body, 1.0);
+        }
+        return new LexiconScore(scorer.bullish, scorer.bearish, scorer.hits);
+    }
+
+    private static boolean isClauseBreak(char c) {
+        return c == '.' || c == ',' || c == ';' || c == ':' || c == '!' || c == '?';
+    }
+
+    /**
+     * Evidence for one item.
+     *
+     * @param bullish Summed weight of bullish matches.
+     * @param bearish Summed magnitude of bearish matches.
+     * @param hits    Number of sentiment terms matched.
+     */
+    public record LexiconScore(double bullish, double bearish, int hits) {
+
+        public double net() {
+            return bullish - bearish;
+        }
+
+        /**
+         * Share of the evidence that points the same way as the net score.
+         *
+         * @return 1.0 when all matches agree, 0.5 when they cancel out, 0 when nothing matched.
+         */
+        public double agreement() {
+            double total = bullish + bearish;
+            return total == 0 ? 0 : Math.max(bullish, bearish) / total;
+        }
+    }
+
+    /**
+     * Sums the evidence in the texts of one item.
+     */
+    private final class Scorer implements WordAutomaton.Visitor {
+
+        private double bullish;
+        private double bearish;
+        private int hits;
+
+        // per text
+        private double partWeight;
+        private int lastNegator;
+        private int pending;
+        private int pendingStart;
+        private boolean pendingNegated;
+
+        void scan(CharSequence text, double weight) {
+            partWeight = weight;
+            lastNegator = NO_WORD;
+            pending = -1;
+            automaton.scan(text, this);
+            if (pending >= 0) {
+                count(pending, pendingNegated);
+            }
+        }
+
+        @Override
+        public boolean match(int term, int firstWord, int from, int to) {
+            if (negators[term]) {
+                lastNegator = firstWord + automaton.words(term) - 1;
+                return true;
+            }
+            if (pending >= 0 && firstWord > pendingStart) {
+                count(pending, pendingNegated);
+            }
+            // a match starting at or before the pending one covers it and replaces it
+            pending = term;
+            pendingStart = firstWord;
+            pendingNegated = firstWord > lastNegator && firstWord - lastNegator <= NEGATION_WINDOW;
+            return true;
+        }
+
+        @Override
+        public void separator(char c) {
+            if (isClauseBreak(c)) {
+                lastNegator = NO_WORD;
+            }
+        }
+
+        private void count(int term, boolean negated) {
+            double w = (negated ? -weights[term] * NEGATION_DAMPING : weights[term]) * partWeight;
+            if (w > 0) {
+                bullish += w;
+            } else {
+                bearish -= w;
+            }
+            hits++;
+        }
+    }
+
+    private record Entry(double weight, boolean negator) {
+    }
+
+    public static final class Builder {
+
+        private final WordAutomaton.Builder automaton = WordAutomaton.builder("Lexicon term", true);
+        private final List<Entry> entries = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a sentiment term.
+         *
+         * @param term   One or more words; a trailing {@code *} also matches longer words.
+         * @param weight Positive for bullish, negative for bearish.
+         * @return this builder
+         */
+        public Builder term(String term, double weight) {
+            if (weight == 0 || !Double.isFinite(weight)) {
+                throw new IllegalArgumentException("Lexicon weight must be finite and non-zero: " + term);
+            }
+            return add(term, weight, false);
+        }
+
+        /**
+         * Add a negator such as "not" or "fails to".
+         *
+         * @param term One or more words.
+         * @return this builder
+         */
+        public Builder negator(String term) {
+            return add(term, 0, true);
+        }
+
+        public Lexicon build() {
+            return new Lexicon(automaton.build(), List.copyOf(entries));
+        }
+
+        private Builder add(String term, double weight, boolean negator) {
+            String text = term.strip();
+            boolean stem = text.endsWith("*");
+            if (stem) {
+                text = text.substring(0, text.length() - 1);
+            }
+            automaton.add(text, stem);
+            entries.add(new Entry(weight, negator));
+            return this;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.livestock.ai;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.livestock.domain.Sentiment;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * In-process analyzer that classifies items with a {@link Lexicon} instead of a model.
+ * <p>
+ * The net lexicon score decides the sentiment (within one point of zero is neutral) and moves the risk score
+ * away from 5. The summary is the first sentence of the content, or the headline when there is none.
+ */
+public class LexiconNewsAiAnalyzer implements NewsAiAnalyzer {
+
+    private static final double NEUTRAL_BAND = 1.0;
+    private static final int MAX_SUMMARY_CHARS = 240;
+
+    private final Lexicon lexicon;
+
+    public LexiconNewsAiAnalyzer() {
+        this(Lexicon.defaults());
+    }
+
+    public LexiconNewsAiAnalyzer(Lexicon lexicon) {
+        this.lexicon = lexicon;
+    }
+
+    @Override
+    public Mono<NewsAnalysis> analyze(NewsItem item) {
+        return Mono.fromSupplier(() -> analysis(item, score(item)));
+    }
+
+    public Lexicon.LexiconScore score(NewsItem item) {
+        return lexicon.score(item.headline(), item.content());
+    }
+
+    /**
+     * Build the analysis for an item that has already been scored.
+     *
+     * @param item  The news item.
+     * @param score Its lexicon score.
+     * @return NewsAnalysis
+     */
+    public NewsAnalysis analysis(NewsItem item, Lexicon.LexiconScore score) {
+        double net = score.net();
+        Sentiment sentiment = net >= NEUTRAL_BAND ? Sentiment.BULLISH
+                : net <= -NEUTRAL_BAND ? Sentiment.BEARISH : Sentiment.NEUTRAL;
+        int risk = Math.clamp(5 - Math.round(net), 1, 10);
+        return new NewsAnalysis(
+                UUID.randomUUID().toString(),
+                Instant.now(),
+                item.source(),
+                item.headline(),
+                item.url(),
+                sentiment,
+                risk,
+                summary(item));
+    }
+
+    private static String summary(NewsItem item) {
+        String content = item.content();
+        if (content == null || content.isBlank()) {
+            return item.headline();
+        }
+        content = content.strip();
+        int end = Math.min(content.length(), MAX_SUMMARY_CHARS);
+        for (int i = 0; i < end; i++) {
+            char c = content.charAt(i);
+            if ((c == '.' || c == '!' || c == '?') && (i + 1 == content.length() || content.charAt(i + 1) == ' ')) {
+                return content.substring(0, i + 1);
+            }
+        }
+        return end < content.length() ? content.substring(0, end) + "..." : content;
+    }
+}
@@ -0,0 +1,34 @@
+package io.livestock.ai;
+
+import io.livestock.concurrent.AdaptiveConcurrencyLimiter;
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs another analyzer's calls under an adaptive concurrency limit.
+ * <p>
+ * Meant to sit directly around the model call, below the cache and the lexicon tier, so the limiter
+ * learns from model latency only and answers that never reach the model take no slot.
+ */
+public class LimitedNewsAiAnalyzer implements NewsAiAnalyzer {
+
+    private final NewsAiAnalyzer delegate;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public LimitedNewsAiAnalyzer(NewsAiAnalyzer delegate, AdaptiveConcurrencyLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Mono<NewsAnalysis> analyze(NewsItem item) {
+        return limiter.run(() -> delegate.analyze(item));
+    }
+
+    @Override
+    public Flux<NewsAnalysis> analyzeStreaming(NewsItem item) {
+        return limiter.runMany(() -> delegate.analyzeStreaming(item));
+    }
+}
@@ -2,6 +2,7 @@ package io.livestock.ai;
 
 import io.livestock.domain.NewsItem;
 import io.livestock.domain.NewsAnalysis;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -9,4 +10,16 @@ import reactor.core.publisher.Mono;
  */
 public interface NewsAiAnalyzer {
   Mono<NewsAnalysis> analyze(NewsItem item);
+
+  /**
+   * Analyze an item, emitting a {@link NewsAnalysis#provisional() provisional} analysis as soon as the
+   * sentiment and risk score are known and the final analysis, with the same id, once it is complete.
+   * Analyzers that cannot stream emit only the final analysis.
+   *
+   * @param item The news item to analyze.
+   * @return Flux of at most one provisional analysis followed by the final one.
+   */
+  default Flux<NewsAnalysis> analyzeStreaming(NewsItem item) {
+    return analyze(item).flux();
+  }
 }
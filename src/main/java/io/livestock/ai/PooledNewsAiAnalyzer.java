@@ -0,0 +1,370 @@
+package io.livestock.ai;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Spreads analyses across several model backends, such as a set of Ollama hosts.
+ * <p>
+ * Each call goes to the healthy backend with the fewest analyses in flight; ties rotate. With hedging
+ * enabled, a call still running after the {@code hedgeQuantile} of recent latencies is repeated on a
+ * second backend and whichever answers first wins; the other is cancelled. A backend that fails
+ * {@code failureThreshold} calls in a row is ejected for {@code ejection} and then let back in, where a
+ * single further failure ejects it again. If every backend is ejected, calls go to the one due back first
+ * rather than failing outright.
+ * <p>
+ * Streaming analyses are routed the same way but never hedged.
+ */
+public class PooledNewsAiAnalyzer implements NewsAiAnalyzer, MeterBinder {
+
+    // recent latencies the hedge delay is taken from, and how many are needed before hedging starts
+    private static final int LATENCY_WINDOW = 256;
+    private static final int MIN_SAMPLES = 20;
+    // new samples between recomputations of the quantile
+    private static final int QUANTILE_REFRESH = 16;
+
+    /**
+     * Pool tuning.
+     *
+     * @param hedgeQuantile    Latency quantile after which a call is hedged, between 0 and 1; 0 disables hedging.
+     * @param minHedgeDelay    Shortest wait before hedging, whatever the quantile.
+     * @param failureThreshold Consecutive failures that eject a backend.
+     * @param ejection         How long an ejected backend receives no calls.
+     */
+    public record Settings(double hedgeQuantile, Duration minHedgeDelay, int failureThreshold, Duration ejection) {
+
+        public static Settings defaults() {
+            return new Settings(0.95, Duration.ofMillis(250), 3, Duration.ofSeconds(30));
+        }
+    }
+
+    private final Backend[] backends;
+    private final Settings settings;
+    private final LongSupplier nanoTime;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final LatencyWindow latencies;
+
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param backends The analyzers to spread calls across, by name; the name tags their metrics.
+     * @param settings Hedging and ejection tuning.
+     */
+    public PooledNewsAiAnalyzer(Map<String, NewsAiAnalyzer> backends, Settings settings) {
+        this(backends, settings, System::nanoTime);
+    }
+
+    PooledNewsAiAnalyzer(Map<String, NewsAiAnalyzer> backends, Settings settings, LongSupplier nanoTime) {
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("At least one analyzer backend is required");
+        }
+        if (settings.hedgeQuantile() < 0 || settings.hedgeQuantile() >= 1 || settings.failureThreshold() < 1) {
+            throw new IllegalArgumentException("Invalid pool settings: " + settings);
+        }
+        this.settings = settings;
+        this.nanoTime = nanoTime;
+        this.latencies = new LatencyWindow(settings.hedgeQuantile());
+        long now = nanoTime.getAsLong();
+        List<Backend> list = new ArrayList<>(backends.size());
+        backends.forEach((name, analyzer) -> list.add(new Backend(name, analyzer, now)));
+        this.backends = list.toArray(Backend[]::new);
+    }
+
+    @Override
+    public Mono<NewsAnalysis> analyze(NewsItem item) {
+        return Mono.defer(() -> {
+            Backend primary = pick(null);
+            long delay = hedgeDelayNanos();
+            if (delay < 0) {
+                return call(primary, item);
+            }
+            return Mono.create(sink -> new Race(sink, item, primary).start(Duration.ofNanos(delay)));
+        });
+    }
+
+    @Override
+    public Flux<NewsAnalysis> analyzeStreaming(NewsItem item) {
+        return Flux.defer(() -> {
+            Backend backend = pick(null);
+            backend.outstanding.incrementAndGet();
+            backend.requests.increment();
+            return backend.analyzer.analyzeStreaming(item)
+                    .doOnComplete(backend::succeeded)
+                    .doOnError(e -> backend.failed(nanoTime.getAsLong()))
+                    .doFinally(signal -> backend.outstanding.decrementAndGet());
+        });
+    }
+
+    private Mono<NewsAnalysis> call(Backend backend, NewsItem item) {
+        return Mono.defer(() -> {
+            backend.outstanding.incrementAndGet();
+            backend.requests.increment();
+            long start = nanoTime.getAsLong();
+            return backend.analyzer.analyze(item)
+                    .doOnSuccess(analysis -> {
+                        latencies.record(nanoTime.getAsLong() - start);
+                        backend.succeeded();
+                    })
+                    .doOnError(e -> backend.failed(nanoTime.getAsLong()))
+                    // cancelled hedge losers land here without counting as failures
+                    .doFinally(signal -> backend.outstanding.decrementAndGet());
+        });
+    }
+
+    /**
+     * Choose a backend: the healthy one with the fewest calls in flight, or with none healthy the one due
+     * back first. A hedge must use a different, healthy backend.
+     *
+     * @param exclude The backend already serving the call, or null for a first call.
+     * @return The backend, or null if a hedge has nowhere to go.
+     */
+    private Backend pick(Backend exclude) {
+        long now = nanoTime.getAsLong();
+        int n = backends.length;
+        int start = exclude == null ? Math.floorMod(cursor.getAndIncrement(), n) : 0;
+        Backend best = null;
+        int bestOutstanding = Integer.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            Backend backend = backends[(start + i) % n];
+            int outstanding = backend.outstanding.get();
+            if (backend != exclude && backend.available(now) && outstanding < bestOutstanding) {
+                best = backend;
+                bestOutstanding = outstanding;
+            }
+        }
+        if (best != null || exclude != null) {
+            return best;
+        }
+        for (Backend backend : backends) {
+            if (best == null || backend.ejectedUntil - best.ejectedUntil < 0) {
+                best = backend;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The current hedge delay.
+     *
+     * @return Nanoseconds, or -1 if calls are not hedged.
+     */
+    long hedgeDelayNanos() {
+        if (settings.hedgeQuantile() == 0 || backends.length < 2) {
+            return -1;
+        }
+        long quantile = latencies.quantile();
+        return quantile < 0 ? -1 : Math.max(quantile, settings.minHedgeDelay().toNanos());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Backend backend : backends) {
+            Gauge.builder("livestock.ai.pool.outstanding", backend.outstanding, AtomicInteger::get)
+                    .tag("backend", backend.name)
+                    .description("Analyses in flight per backend")
+                    .register(registry);
+            Gauge.builder("livestock.ai.pool.healthy", backend, b -> b.available(nanoTime.getAsLong()) ? 1 : 0)
+                    .tag("backend", backend.name)
+                    .description("Whether the backend receives calls (1) or is ejected (0)")
+                    .register(registry);
+            FunctionCounter.builder("livestock.ai.pool.requests", backend.requests, LongAdder::sum)
+                    .tag("backend", backend.name)
+                    .register(registry);
+            FunctionCounter.builder("livestock.ai.pool.failures", backend.failures, LongAdder::sum)
+                    .tag("backend", backend.name)
+                    .register(registry);
+            FunctionCounter.builder("livestock.ai.pool.ejections", backend.ejections, LongAdder::sum)
+                    .tag("backend", backend.name)
+                    .description("Times the backend was ejected after consecutive failures")
+                    .register(registry);
+        }
+        FunctionCounter.builder("livestock.ai.pool.hedges", hedges, LongAdder::sum)
+                .tag("outcome", "sent")
+                .description("Calls repeated on a second backend after the hedge delay")
+                .register(registry);
+        FunctionCounter.builder("livestock.ai.pool.hedges", hedgeWins, LongAdder::sum)
+                .tag("outcome", "won")
+                .description("Hedged calls where the second backend answered first")
+                .register(registry);
+        Gauge.builder("livestock.ai.pool.hedge.delay", this, p -> Math.max(0, p.hedgeDelayNanos()) / 1e9)
+                .description("Current hedge delay in seconds; 0 while not hedging")
+                .register(registry);
+    }
+
+    private final class Backend {
+
+        private final String name;
+        private final NewsAiAnalyzer analyzer;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile long ejectedUntil;
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder ejections = new LongAdder();
+
+        private Backend(String name, NewsAiAnalyzer analyzer, long now) {
+            this.name = name;
+            this.analyzer = analyzer;
+            this.ejectedUntil = now;
+        }
+
+        private boolean available(long now) {
+            return now - ejectedUntil >= 0;
+        }
+
+        private void succeeded() {
+            consecutiveFailures.set(0);
+        }
+
+        private void failed(long now) {
+            failures.increment();
+            // calls already in flight when the backend was ejected do not extend the ejection
+            if (consecutiveFailures.incrementAndGet() >= settings.failureThreshold() && available(now)) {
+                ejectedUntil = now + settings.ejection().toNanos();
+                ejections.increment();
+            }
+        }
+    }
+
+    /**
+     * One hedged call: the primary, and after the delay a second backend if the primary is still running.
+     * The first value wins. An error only surfaces once every started call has failed and no hedge is
+     * pending, so a primary that fails before the delay fails the call without a hedge.
+     */
+    private final class Race {
+
+        private final MonoSink<NewsAnalysis> sink;
+        private final NewsItem item;
+        private final Backend primary;
+        private final Disposable.Composite legs = Disposables.composite();
+
+        // guarded by this
+        private int running;
+        private boolean done;
+        private Throwable error;
+
+        private Race(MonoSink<NewsAnalysis> sink, NewsItem item, Backend primary) {
+            this.sink = sink;
+            this.item = item;
+            this.primary = primary;
+        }
+
+        private void start(Duration hedgeDelay) {
+            sink.onDispose(legs);
+            run(call(primary, item));
+            legs.add(Mono.delay(hedgeDelay).subscribe(tick -> hedge()));
+        }
+
+        private void hedge() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+            }
+            Backend second = pick(primary);
+            if (second != null) {
+                hedges.increment();
+                run(call(second, item).doOnSuccess(analysis -> hedgeWins.increment()));
+            }
+        }
+
+        private void run(Mono<NewsAnalysis> leg) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                running++;
+            }
+            legs.add(leg.map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .subscribe(this::result, this::failure));
+        }
+
+        private void result(Optional<NewsAnalysis> value) {
+            synchronized (this) {
+                running--;
+                if (done || (value.isEmpty() && running > 0)) {
+                    return;
+                }
+                done = true;
+            }
+            legs.dispose();
+            value.ifPresentOrElse(sink::success, sink::success);
+        }
+
+        private void failure(Throwable e) {
+            synchronized (this) {
+                running--;
+                if (error == null) {
+                    error = e;
+                }
+                if (done || running > 0) {
+                    return;
+                }
+                done = true;
+            }
+            legs.dispose();
+            sink.error(error);
+        }
+    }
+
+    /**
+     * Ring of recent successful call latencies and one quantile of them, recomputed every
+     * {@link #QUANTILE_REFRESH} samples so reading it costs nothing.
+     */
+    private static final class LatencyWindow {
+
+        private final double q;
+        private final long[] samples = new long[LATENCY_WINDOW];
+        private final long[] sorted = new long[LATENCY_WINDOW];
+        // guarded by this
+        private long count;
+        private volatile long quantile = -1;
+
+        private LatencyWindow(double q) {
+            this.q = q;
+        }
+
+        synchronized void record(long nanos) {
+            samples[(int) (count++ % LATENCY_WINDOW)] = nanos;
+            if (count >= MIN_SAMPLES && (count == MIN_SAMPLES || count % QUANTILE_REFRESH == 0)) {
+                int n = (int) Math.min(count, LATENCY_WINDOW);
+                System.arraycopy(samples, 0, sorted, 0, n);
+                Arrays.sort(sorted, 0, n);
+                quantile = sorted[Math.min(n - 1, (int) (q * n))];
+            }
+        }
+
+        /**
+         * Latency at the window's quantile.
+         *
+         * @return Nanoseconds, or -1 with fewer than {@link #MIN_SAMPLES} samples.
+         */
+        long quantile() {
+            return quantile;
+        }
+    }
+}
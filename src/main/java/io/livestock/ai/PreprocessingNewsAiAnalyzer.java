@@ -0,0 +1,57 @@
+package io.livestock.ai;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cleans and trims items with a {@link PromptPreprocessor} before handing them to another analyzer.
+ * <p>
+ * Approximate prompt tokens are recorded before and after preprocessing as percentile histograms, tagged by
+ * backend and stage, so the effect of the budget on prompt size is visible next to model latency.
+ */
+public class PreprocessingNewsAiAnalyzer implements NewsAiAnalyzer {
+
+    private final NewsAiAnalyzer delegate;
+    private final PromptPreprocessor preprocessor;
+    private final DistributionSummary rawTokens;
+    private final DistributionSummary processedTokens;
+
+    public PreprocessingNewsAiAnalyzer(NewsAiAnalyzer delegate, PromptPreprocessor preprocessor, String backend,
+            MeterRegistry registry) {
+        this.delegate = delegate;
+        this.preprocessor = preprocessor;
+        this.rawTokens = summary(backend, "raw", registry);
+        this.processedTokens = summary(backend, "processed", registry);
+    }
+
+    @Override
+    public Mono<NewsAnalysis> analyze(NewsItem item) {
+        return Mono.defer(() -> delegate.analyze(preprocess(item)));
+    }
+
+    @Override
+    public Flux<NewsAnalysis> analyzeStreaming(NewsItem item) {
+        return Flux.defer(() -> delegate.analyzeStreaming(preprocess(item)));
+    }
+
+    private NewsItem preprocess(NewsItem item) {
+        rawTokens.record(PromptPreprocessor.promptTokens(item));
+        NewsItem processed = preprocessor.apply(item);
+        processedTokens.record(PromptPreprocessor.promptTokens(processed));
+        return processed;
+    }
+
+    private static DistributionSummary summary(String backend, String stage, MeterRegistry registry) {
+        return DistributionSummary.builder("livestock.ai.prompt.tokens")
+                .tag("backend", backend)
+                .tag("stage", stage)
+                .baseUnit("tokens")
+                .description("Approximate user prompt tokens per item")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
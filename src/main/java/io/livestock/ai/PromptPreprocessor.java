@@ -0,0 +1,266 @@
+package io.livestock.ai;
+
+import io.livestock.domain.ContentKeys;
+import io.livestock.domain.NewsItem;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cleans item content before it is put into a prompt and trims it to a token budget.
+ * <p>
+ * Markup, HTML entities, NewsAPI's {@code [+1234 chars]} truncation marker and "read more" style boilerplate
+ * are removed, whitespace is collapsed, and sentences that repeat the headline or an earlier sentence are
+ * dropped. What remains is cut at a word boundary so that the whole user prompt fits {@code maxTokens} as
+ * estimated by {@link #approximateTokens(CharSequence)}.
+ */
+public class PromptPreprocessor {
+
+    private static final Pattern TRUNCATION_MARKER = Pattern.compile("\\s*\\[\\+\\d+ chars]\\s*$");
+    private static final Pattern TAG = Pattern.compile("<[^>]{0,512}>");
+    private static final Pattern ENTITY = Pattern.compile("&(#\\d{1,6}|#[xX][0-9a-fA-F]{1,5}|[a-zA-Z]{2,6});");
+    private static final Pattern BOILERPLATE = Pattern.compile(
+            "(?i)\\b(?:read more|continue reading|click here|sign up for|subscribe to|follow us on)\\b"
+                    + "(?:[^.!?\\n]|[.!?](?=\\S))*[.!?]?");
+
+    private static final String ELLIPSIS = "...";
+    private static final int ELLIPSIS_TOKENS = approximateTokens(ELLIPSIS);
+
+    // prompt text around the source, headline and content
+    private static final int TEMPLATE_TOKENS = approximateTokens(AiPrompt.user("", "", ""));
+
+    private final int maxTokens;
+
+    /**
+     * Constructor.
+     *
+     * @param maxTokens Approximate token budget for the whole user prompt of one item.
+     */
+    public PromptPreprocessor(int maxTokens) {
+        if (maxTokens < 1) {
+            throw new IllegalArgumentException("Prompt token budget must be positive: " + maxTokens);
+        }
+        this.maxTokens = maxTokens;
+    }
+
+    public int maxTokens() {
+        return maxTokens;
+    }
+
+    /**
+     * Clean an item's content and fit it to the budget. Source, headline and URL are unchanged.
+     *
+     * @param item The item as ingested.
+     * @return The item with cleaned content, which may be empty if it only repeated the headline.
+     */
+    public NewsItem apply(NewsItem item) {
+        String content = clean(item.content());
+        content = dropRepeats(item.headline(), content);
+        int budget = maxTokens - TEMPLATE_TOKENS - approximateTokens(item.source()) - approximateTokens(item.headline());
+        content = truncate(content, Math.max(0, budget));
+        return new NewsItem(item.source(), item.headline(), item.url(), content, item.publishedAt());
+    }
+
+    /**
+     * Approximate prompt tokens for an item, using the same estimate as the budget.
+     *
+     * @param item The item.
+     * @return Estimated tokens of the single-item user prompt.
+     */
+    public static int promptTokens(NewsItem item) {
+        return TEMPLATE_TOKENS + approximateTokens(item.source()) + approximateTokens(item.headline())
+                + approximateTokens(item.content());
+    }
+
+    /**
+     * Estimate the BPE token count of some text without a vocabulary.
+     * <p>
+     * Each run of letters or digits counts one token per four characters (at least one), each other
+     * non-whitespace character counts one token and whitespace is free. This tracks common English BPE
+     * vocabularies to within about 15% on news text, which is close enough for budgeting.
+     *
+     * @param text The text, may be null.
+     * @return Estimated number of tokens.
+     */
+    public static int approximateTokens(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int tokens = 0;
+        int run = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                run++;
+                continue;
+            }
+            tokens += (run + 3) >> 2;
+            run = 0;
+            if (!Character.isWhitespace(c) && c != '\u00a0') {
+                tokens++;
+            }
+        }
+        return tokens + ((run + 3) >> 2);
+    }
+
+    static String clean(String content) {
+        if (content == null || content.isEmpty()) {
+            return "";
+        }
+        String text = TRUNCATION_MARKER.matcher(content).replaceFirst("");
+        if (text.indexOf('<') >= 0) {
+            text = TAG.matcher(text).replaceAll(" ");
+        }
+        if (text.indexOf('&') >= 0) {
+            text = ENTITY.matcher(text).replaceAll(PromptPreprocessor::decodeEntity);
+        }
+        text = BOILERPLATE.matcher(text).replaceAll(" ");
+        return collapseWhitespace(text);
+    }
+
+    /**
+     * Remove a leading copy of the headline and any sentence that repeats the headline or an earlier sentence.
+     */
+    static String dropRepeats(String headline, String content) {
+        if (content.isEmpty()) {
+            return content;
+        }
+        content = stripPrefix(headline, content);
+        long headlineKey = ContentKeys.headline(headline);
+        Set<Long> seen = new HashSet<>();
+        seen.add(headlineKey);
+        StringBuilder out = new StringBuilder(content.length());
+        int start = 0;
+        int n = content.length();
+        while (start < n) {
+            int end = sentenceEnd(content, start);
+            String sentence = content.substring(start, end).strip();
+            if (!sentence.isEmpty() && seen.add(ContentKeys.headline(sentence))) {
+                if (!out.isEmpty()) {
+                    out.append(' ');
+                }
+                out.append(sentence);
+            }
+            start = end;
+        }
+        return out.toString();
+    }
+
+    static String truncate(String content, int budget) {
+        if (approximateTokens(content) <= budget) {
+            return content;
+        }
+        int limit = budget - ELLIPSIS_TOKENS;
+        int tokens = 0;
+        int run = 0;
+        int lastWordEnd = 0;
+        for (int i = 0, n = content.length(); i < n; i++) {
+            char c = content.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                run++;
+                if ((run & 3) == 1 && ++tokens > limit) {
+                    break;
+                }
+                continue;
+            }
+            if (run > 0) {
+                lastWordEnd = i;
+                run = 0;
+            }
+            if (!Character.isWhitespace(c) && ++tokens > limit) {
+                break;
+            }
+        }
+        return lastWordEnd == 0 ? "" : content.substring(0, lastWordEnd) + ELLIPSIS;
+    }
+
+    // content with the headline removed from its start, ignoring case, punctuation and spacing
+    private static String stripPrefix(String headline, String content) {
+        if (headline == null) {
+            return content;
+        }
+        int h = 0;
+        int c = 0;
+        int hn = headline.length();
+        int cn = content.length();
+        while (h < hn) {
+            char hc = headline.charAt(h);
+            if (!Character.isLetterOrDigit(hc)) {
+                h++;
+                continue;
+            }
+            while (c < cn && !Character.isLetterOrDigit(content.charAt(c))) {
+                c++;
+            }
+            if (c == cn || Character.toLowerCase(content.charAt(c)) != Character.toLowerCase(hc)) {
+                return content;
+            }
+            h++;
+            c++;
+        }
+        if (c < cn && Character.isLetterOrDigit(content.charAt(c))) {
+            // headline ended mid-word in the content
+            return content;
+        }
+        while (c < cn && !Character.isLetterOrDigit(content.charAt(c))) {
+            c++;
+        }
+        return content.substring(c);
+    }
+
+    private static int sentenceEnd(String text, int from) {
+        for (int i = from, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if ((c == '.' || c == '!' || c == '?') && (i + 1 == n || text.charAt(i + 1) == ' ')) {
+                return i + 1;
+            }
+        }
+        return text.length();
+    }
+
+    private static String collapseWhitespace(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c) || c == '\u00a0') {
+                space = !out.isEmpty();
+            } else {
+                if (space) {
+                    out.append(' ');
+                    space = false;
+                }
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static String decodeEntity(MatchResult m) {
+        String name = m.group(1);
+        String decoded = switch (name) {
+            case "amp" -> "&";
+            case "lt" -> "<";
+            case "gt" -> ">";
+            case "quot" -> "\"";
+            case "apos" -> "'";
+            case "nbsp" -> " ";
+            case "hellip" -> "...";
+            case "mdash", "ndash" -> "-";
+            case "rsquo", "lsquo" -> "'";
+            case "rdquo", "ldquo" -> "\"";
+            default -> {
+                if (name.charAt(0) != '#') {
+                    yield m.group();
+                }
+                boolean hex = name.length() > 1 && (name.charAt(1) == 'x' || name.charAt(1) == 'X');
+                int cp = Integer.parseInt(name.substring(hex ? 2 : 1), hex ? 16 : 10);
+                yield Character.isValidCodePoint(cp) ? Character.toString(cp) : "";
+            }
+        };
+        return Matcher.quoteReplacement(decoded);
+    }
+}
@@ -0,0 +1,326 @@
+package io.livestock.ai;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps a degraded model backend from stalling the pipeline.
+ * <p>
+ * Every call gets a deadline that shrinks as the item ages: the time left until the item goes stale,
+ * within {@code [minTimeout, maxTimeout]}; items that never go stale get {@code maxTimeout}. At most
+ * {@code maxConcurrent} calls run at once, so calls to a hanging backend cannot take every pipeline slot.
+ * A circuit breaker opens once {@code failureRate} of the last {@code window} calls (at least
+ * {@code minCalls}) failed or timed out, rejects calls for {@code openDuration}, then lets
+ * {@code halfOpenCalls} trial calls through and closes again only if all of them succeed.
+ * <p>
+ * Calls that time out, fail, or are refused by the breaker or bulkhead go to the fallback analyzer if
+ * there is one, and otherwise fail; refusals fail with {@link RejectedExecutionException}.
+ */
+public class ResilientNewsAiAnalyzer implements NewsAiAnalyzer, MeterBinder {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ResilientNewsAiAnalyzer.class);
+
+    /**
+     * Deadline, bulkhead and breaker tuning.
+     *
+     * @param minTimeout    Deadline for items that are nearly or already stale.
+     * @param maxTimeout    Deadline for fresh items and items that never go stale.
+     * @param maxConcurrent Most calls to the backend at once.
+     * @param window        Number of recent calls the failure rate is taken over.
+     * @param minCalls      Calls needed in the window before the breaker can open.
+     * @param failureRate   Share of failed calls, between 0 and 1, that opens the breaker.
+     * @param openDuration  How long the open breaker rejects calls.
+     * @param halfOpenCalls Trial calls let through after {@code openDuration}.
+     */
+    public record Settings(Duration minTimeout, Duration maxTimeout, int maxConcurrent, int window, int minCalls,
+            double failureRate, Duration openDuration, int halfOpenCalls) {
+
+        public static Settings defaults() {
+            return new Settings(Duration.ofSeconds(20), Duration.ofSeconds(30), 32, 20, 10, 0.5,
+                    Duration.ofSeconds(30), 3);
+        }
+    }
+
+    public enum BreakerState {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final NewsAiAnalyzer delegate;
+    private final NewsAiAnalyzer fallback;
+    private final String backend;
+    private final Settings settings;
+    private final Function<NewsItem, Instant> staleAt;
+    private final Clock clock;
+    private final LongSupplier nanoTime;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // guarded by this
+    private final boolean[] outcomes;
+    private int recorded;
+    private int next;
+    private int failed;
+    private BreakerState state = BreakerState.CLOSED;
+    private int epoch;
+    private long openedAtNanos;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder breakerRejections = new LongAdder();
+    private final LongAdder bulkheadRejections = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param delegate The model-backed analyzer to protect.
+     * @param fallback The cheaper analyzer used when the delegate cannot answer, or null to fail instead.
+     * @param backend  The backend name used to tag metrics.
+     * @param settings Deadline, bulkhead and breaker tuning.
+     * @param staleAt  When an item goes stale, or null if it never does; usually the ingest scheduler's
+     *                 freshness deadline.
+     */
+    public ResilientNewsAiAnalyzer(NewsAiAnalyzer delegate, NewsAiAnalyzer fallback, String backend,
+            Settings settings, Function<NewsItem, Instant> staleAt) {
+        this(delegate, fallback, backend, settings, staleAt, Clock.systemUTC(), System::nanoTime);
+    }
+
+    ResilientNewsAiAnalyzer(NewsAiAnalyzer delegate, NewsAiAnalyzer fallback, String backend, Settings settings,
+            Function<NewsItem, Instant> staleAt, Clock clock, LongSupplier nanoTime) {
+        if (settings.maxConcurrent() < 1 || settings.window() < 1 || settings.halfOpenCalls() < 1
+                || settings.minTimeout().compareTo(settings.maxTimeout()) > 0) {
+            throw new IllegalArgumentException("Invalid resilience settings: " + settings);
+        }
+        this.delegate = delegate;
+        this.fallback = fallback;
+        this.backend = backend;
+        this.settings = settings;
+        this.staleAt = staleAt;
+        this.clock = clock;
+        this.nanoTime = nanoTime;
+        this.outcomes = new boolean[settings.window()];
+    }
+
+    @Override
+    public Mono<NewsAnalysis> analyze(NewsItem item) {
+        return Mono.defer(() -> {
+            int permit = admit();
+            if (permit < 0) {
+                return fallback == null ? Mono.error(rejection(permit)) : fallBack(item).analyze(item);
+            }
+            Duration deadline = deadline(item);
+            return delegate.analyze(item)
+                    .timeout(deadline)
+                    .doOnSuccess(analysis -> completed(permit, false))
+                    .doOnError(e -> failed(permit, e, item, deadline))
+                    .doOnCancel(() -> cancelled(permit))
+                    .doFinally(signal -> inFlight.decrementAndGet())
+                    .onErrorResume(e -> fallback != null, e -> fallBack(item).analyze(item));
+        });
+    }
+
+    @Override
+    public Flux<NewsAnalysis> analyzeStreaming(NewsItem item) {
+        return Flux.defer(() -> {
+            int permit = admit();
+            if (permit < 0) {
+                return fallback == null
+                        ? Flux.error(rejection(permit))
+                        : fallBack(item).analyzeStreaming(item);
+            }
+            Duration deadline = deadline(item);
+            long expires = nanoTime.getAsLong() + deadline.toNanos();
+            AtomicReference<String> provisionalId = new AtomicReference<>();
+            // the deadline covers the whole stream, not each element
+            return delegate.analyzeStreaming(item)
+                    .timeout(Mono.delay(deadline), analysis -> Mono.delay(
+                            Duration.ofNanos(Math.max(0, expires - nanoTime.getAsLong()))))
+                    .doOnNext(analysis -> provisionalId.set(analysis.provisional() ? analysis.id() : null))
+                    .doOnComplete(() -> completed(permit, false))
+                    .doOnError(e -> failed(permit, e, item, deadline))
+                    .doOnCancel(() -> cancelled(permit))
+                    .doFinally(signal -> inFlight.decrementAndGet())
+                    .onErrorResume(e -> fallback != null, e -> {
+                        // an already sent provisional analysis is superseded only by one with its id
+                        String id = provisionalId.get();
+                        Flux<NewsAnalysis> fallbacks = fallBack(item).analyzeStreaming(item);
+                        return id == null ? fallbacks : fallbacks.map(analysis -> analysis.withId(id));
+                    });
+        });
+    }
+
+    /**
+     * The deadline for an item's analysis.
+     *
+     * @param item The news item.
+     * @return The time left until the item is stale, within the configured bounds.
+     */
+    Duration deadline(NewsItem item) {
+        Instant stale = staleAt.apply(item);
+        if (stale == null) {
+            return settings.maxTimeout();
+        }
+        Duration left = Duration.between(clock.instant(), stale);
+        if (left.compareTo(settings.minTimeout()) < 0) {
+            return settings.minTimeout();
+        }
+        return left.compareTo(settings.maxTimeout()) > 0 ? settings.maxTimeout() : left;
+    }
+
+    public synchronized BreakerState breakerState() {
+        return state;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Take a bulkhead slot and ask the breaker.
+     *
+     * @return The breaker epoch the call belongs to, or -1 if the breaker refused it, -2 if the bulkhead did.
+     */
+    private int admit() {
+        if (inFlight.incrementAndGet() > settings.maxConcurrent()) {
+            inFlight.decrementAndGet();
+            bulkheadRejections.increment();
+            return -2;
+        }
+        synchronized (this) {
+            if (state == BreakerState.OPEN
+                    && nanoTime.getAsLong() - openedAtNanos >= settings.openDuration().toNanos()) {
+                transition(BreakerState.HALF_OPEN);
+            }
+            if (state == BreakerState.CLOSED) {
+                return epoch;
+            }
+            if (state == BreakerState.HALF_OPEN && trialsStarted < settings.halfOpenCalls()) {
+                trialsStarted++;
+                return epoch;
+            }
+        }
+        inFlight.decrementAndGet();
+        breakerRejections.increment();
+        return -1;
+    }
+
+    private RejectedExecutionException rejection(int permit) {
+        return new RejectedExecutionException(permit == -1
+                ? "Circuit breaker open for " + backend
+                : "Too many concurrent analyses for " + backend);
+    }
+
+    private NewsAiAnalyzer fallBack(NewsItem item) {
+        fallbacks.increment();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Falling back for '{}' ({} breaker {})", item.headline(), backend, breakerState());
+        }
+        return fallback;
+    }
+
+    private void failed(int permit, Throwable e, NewsItem item, Duration deadline) {
+        if (e instanceof TimeoutException) {
+            timeouts.increment();
+            logger.warn("AI analysis for '{}' timed out after {} ms", item.headline(), deadline.toMillis());
+        }
+        completed(permit, true);
+    }
+
+    private synchronized void completed(int permit, boolean failure) {
+        // calls admitted before the last transition do not count towards the new state
+        if (permit != epoch) {
+            return;
+        }
+        if (state == BreakerState.HALF_OPEN) {
+            if (failure) {
+                transition(BreakerState.OPEN);
+            } else if (++trialsSucceeded >= settings.halfOpenCalls()) {
+                transition(BreakerState.CLOSED);
+            }
+            return;
+        }
+        if (recorded == outcomes.length) {
+            failed -= outcomes[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failure;
+        failed += failure ? 1 : 0;
+        next = (next + 1) % outcomes.length;
+        if (recorded >= settings.minCalls() && failed >= settings.failureRate() * recorded) {
+            transition(BreakerState.OPEN);
+        }
+    }
+
+    private synchronized void cancelled(int permit) {
+        // a cancelled trial frees its place for another
+        if (permit == epoch && state == BreakerState.HALF_OPEN) {
+            trialsStarted--;
+        }
+    }
+
+    // guarded by this
+    private void transition(BreakerState to) {
+        logger.info("Circuit breaker for {} {} -> {}", backend, state, to);
+        state = to;
+        epoch++;
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+        if (to == BreakerState.OPEN) {
+            openedAtNanos = nanoTime.getAsLong();
+        }
+        if (to == BreakerState.CLOSED) {
+            recorded = 0;
+            next = 0;
+            failed = 0;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("livestock.ai.breaker.state", this, analyzer -> analyzer.breakerState().ordinal())
+                .tag("backend", backend)
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(registry);
+        Gauge.builder("livestock.ai.bulkhead.in-flight", this, ResilientNewsAiAnalyzer::inFlight)
+                .tag("backend", backend)
+                .description("Model calls running inside the bulkhead")
+                .register(registry);
+        FunctionCounter.builder("livestock.ai.timeouts", timeouts, LongAdder::sum)
+                .tag("backend", backend)
+                .description("Model calls cancelled at their deadline")
+                .register(registry);
+        FunctionCounter.builder("livestock.ai.rejections", breakerRejections, LongAdder::sum)
+                .tag("backend", backend)
+                .tag("reason", "breaker-open")
+                .register(registry);
+        FunctionCounter.builder("livestock.ai.rejections", bulkheadRejections, LongAdder::sum)
+                .tag("backend", backend)
+                .tag("reason", "bulkhead-full")
+                .register(registry);
+        FunctionCounter.builder("livestock.ai.fallbacks", fallbacks, LongAdder::sum)
+                .tag("backend", backend)
+                .description("Analyses answered by the fallback analyzer")
+                .register(registry);
+    }
+}
@@ -1,12 +1,14 @@
 package io.livestock.ai;
 
+import io.livestock.concurrent.BlockingExecutor;
 import io.livestock.domain.NewsAnalysis;
 import io.livestock.domain.NewsItem;
+import io.livestock.logging.LogPayloads;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -19,9 +21,15 @@ public class SpringAiNewsAnalyzer implements NewsAiAnalyzer {
     private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SpringAiNewsAnalyzer.class);
 
     private final ChatClient chatClient;
+    private final BlockingExecutor blockingExecutor;
 
     public SpringAiNewsAnalyzer(ChatClient chatClient) {
+        this(chatClient, BlockingExecutor.boundedElastic());
+    }
+
+    public SpringAiNewsAnalyzer(ChatClient chatClient, BlockingExecutor blockingExecutor) {
         this.chatClient = chatClient;
+        this.blockingExecutor = blockingExecutor;
     }
 
     /**
@@ -32,12 +40,16 @@ public class SpringAiNewsAnalyzer implements NewsAiAnalyzer {
      */
     @Override
     public Mono<NewsAnalysis> analyze(NewsItem item) {
-        return Mono.fromCallable(() -> {
+        return blockingExecutor.call(() -> {
             String systemPrompt = AiPrompt.SYSTEM;
             String userPrompt = AiPrompt.user(item.source(), item.headline(), item.content());
 
-            logger.info("Sending Prompt to AI. Source: {}, Headline: {}", item.source(), item.headline());
-            logger.info("Full AI Prompt: System=[{}], User=[{}]", systemPrompt, userPrompt);
+            // payloads only at debug: formatting full prompts per item is measurable under load
+            if (logger.isDebugEnabled()) {
+                logger.debug("Sending Prompt to AI. Source: {}, Headline: {}", item.source(), item.headline());
+                logger.debug("Full AI Prompt: System=[{}], User=[{}]", LogPayloads.capped(systemPrompt),
+                        LogPayloads.capped(userPrompt));
+            }
 
             String raw = chatClient.prompt()
                     .messages(
@@ -46,21 +58,95 @@ public class SpringAiNewsAnalyzer implements NewsAiAnalyzer {
                     .call()
                     .content();
 
-            logger.info("Received AI Response for '{}': {}", item.headline(), raw);
-
-            var parsed = AiJsonParser.parse(raw);
-
-            // Creates news analysis from parsed AI response
-            return new NewsAnalysis(
-                    UUID.randomUUID().toString(),
-                    Instant.now(),
-                    item.source(),
-                    item.headline(),
-                    item.url(),
-                    parsed.sentiment(),
-                    parsed.riskScore(),
-                    parsed.summary());
-        })
-                .subscribeOn(Schedulers.boundedElastic());
+            if (logger.isDebugEnabled()) {
+                logger.debug("Received AI Response for '{}': {}", item.headline(), LogPayloads.capped(raw));
+            }
+
+            return toAnalysis(item, AiJsonParser.parse(raw));
+        }).doOnError(e -> logger.error("AI analysis failed for '{}': {}", item.headline(), e.getMessage()));
+    }
+
+    /**
+     * Analyzes news item from the streamed completion, emitting a provisional analysis once the sentiment
+     * and risk score have been read and the final analysis once the summary is complete. The stream is
+     * cancelled after the final analysis, so trailing tokens are not generated.
+     *
+     * @param item The news item to analyze.
+     * @return Flux of a provisional analysis, if the model wrote the summary last, then the final analysis.
+     */
+    @Override
+    public Flux<NewsAnalysis> analyzeStreaming(NewsItem item) {
+        return Flux.defer(() -> {
+            String userPrompt = AiPrompt.user(item.source(), item.headline(), item.content());
+            if (logger.isDebugEnabled()) {
+                logger.debug("Streaming Prompt to AI. Source: {}, Headline: {}", item.source(), item.headline());
+            }
+            Flux<String> tokens = chatClient.prompt()
+                    .messages(
+                            new SystemMessage(AiPrompt.SYSTEM),
+                            new UserMessage(userPrompt))
+                    .stream()
+                    .content();
+            return streamAnalyses(item, tokens);
+        }).doOnError(e -> logger.error("AI analysis failed for '{}': {}", item.headline(), e.getMessage()));
+    }
+
+    /**
+     * Parse a streamed completion incrementally into provisional and final analyses.
+     *
+     * @param item   The analyzed news item.
+     * @param tokens The completion, in chunks as the model produces them.
+     * @return Flux of at most one provisional analysis followed by the final one.
+     */
+    static Flux<NewsAnalysis> streamAnalyses(NewsItem item, Flux<String> tokens) {
+        return Flux.defer(() -> {
+            AiJsonParser.Incremental parser = new AiJsonParser.Incremental();
+            String id = UUID.randomUUID().toString();
+            boolean[] emitted = new boolean[2]; // provisional, final
+            return tokens
+                    .<NewsAnalysis>handle((token, sink) -> {
+                        parser.feed(token);
+                        if (!parser.hasSentiment() || !parser.hasRiskScore()) {
+                            return;
+                        }
+                        if (parser.hasSummary()) {
+                            emitted[1] = true;
+                            sink.next(toAnalysis(id, item, AiJsonParser.complete(parser)));
+                        } else if (!emitted[0]) {
+                            emitted[0] = true;
+                            AiJsonParser.Parsed early = parser.result();
+                            sink.next(new NewsAnalysis(id, Instant.now(), item.source(), item.headline(), item.url(),
+                                    early.sentiment(), early.riskScore(), null, true));
+                        }
+                    })
+                    .takeUntil(analysis -> !analysis.provisional())
+                    // the completion ended without all three fields: finish with fallbacks
+                    .concatWith(Mono.fromSupplier(() -> emitted[1]
+                            ? null
+                            : toAnalysis(id, item, AiJsonParser.complete(parser))));
+        });
+    }
+
+    /**
+     * Creates news analysis from parsed AI response.
+     *
+     * @param item   The analyzed news item.
+     * @param parsed The parsed AI response.
+     * @return A NewsAnalysis object.
+     */
+    static NewsAnalysis toAnalysis(NewsItem item, AiJsonParser.Parsed parsed) {
+        return toAnalysis(UUID.randomUUID().toString(), item, parsed);
+    }
+
+    private static NewsAnalysis toAnalysis(String id, NewsItem item, AiJsonParser.Parsed parsed) {
+        return new NewsAnalysis(
+                id,
+                Instant.now(),
+                item.source(),
+                item.headline(),
+                item.url(),
+                parsed.sentiment(),
+                parsed.riskScore(),
+                parsed.summary());
     }
 }
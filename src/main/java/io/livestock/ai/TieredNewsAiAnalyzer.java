@@ -0,0 +1,84 @@
+package io.livestock.ai;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes items between the in-process lexicon and a model-backed analyzer.
+ * <p>
+ * Every item is scored by the lexicon first. When the net score reaches {@code minScore} and at least
+ * {@code minAgreement} of the matched evidence points the same way, the lexicon's analysis is returned
+ * immediately; anything weaker or mixed, including items with no matches, is escalated to the model.
+ */
+public class TieredNewsAiAnalyzer implements NewsAiAnalyzer, MeterBinder {
+
+    private final LexiconNewsAiAnalyzer lexicon;
+    private final NewsAiAnalyzer escalation;
+    private final double minScore;
+    private final double minAgreement;
+
+    private final LongAdder lexiconItems = new LongAdder();
+    private final LongAdder escalatedItems = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param lexicon      The first-tier analyzer.
+     * @param escalation   The analyzer for items the lexicon is not confident about.
+     * @param minScore     Smallest absolute net lexicon score answered without the model.
+     * @param minAgreement Smallest share of agreeing evidence, between 0.5 and 1, answered without the model.
+     */
+    public TieredNewsAiAnalyzer(LexiconNewsAiAnalyzer lexicon, NewsAiAnalyzer escalation, double minScore,
+            double minAgreement) {
+        this.lexicon = lexicon;
+        this.escalation = escalation;
+        this.minScore = minScore;
+        this.minAgreement = minAgreement;
+    }
+
+    @Override
+    public Mono<NewsAnalysis> analyze(NewsItem item) {
+        return Mono.defer(() -> {
+            NewsAnalysis confident = confident(item);
+            return confident != null ? Mono.just(confident) : escalation.analyze(item);
+        });
+    }
+
+    @Override
+    public Flux<NewsAnalysis> analyzeStreaming(NewsItem item) {
+        return Flux.defer(() -> {
+            NewsAnalysis confident = confident(item);
+            return confident != null ? Flux.just(confident) : escalation.analyzeStreaming(item);
+        });
+    }
+
+    // the lexicon's analysis if it is confident enough, else null; counts the routing decision
+    private NewsAnalysis confident(NewsItem item) {
+        Lexicon.LexiconScore score = lexicon.score(item);
+        if (Math.abs(score.net()) >= minScore && score.agreement() >= minAgreement) {
+            lexiconItems.increment();
+            return lexicon.analysis(item, score);
+        }
+        escalatedItems.increment();
+        return null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("livestock.ai.tier.items", lexiconItems, LongAdder::sum)
+                .tag("tier", "lexicon")
+                .description("Items answered by each analysis tier")
+                .register(registry);
+        FunctionCounter.builder("livestock.ai.tier.items", escalatedItems, LongAdder::sum)
+                .tag("tier", "model")
+                .description("Items answered by each analysis tier")
+                .register(registry);
+    }
+}
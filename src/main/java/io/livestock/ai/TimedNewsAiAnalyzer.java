@@ -0,0 +1,83 @@
+package io.livestock.ai;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency of another analyzer as a percentile histogram, tagged by backend and outcome.
+ * Cancelled analyses are not recorded.
+ * <p>
+ * Time to the first event is recorded separately, tagged by mode: for a blocking analysis it is the full
+ * latency, for a streaming one the time until the provisional (or, failing that, final) analysis.
+ */
+public class TimedNewsAiAnalyzer implements NewsAiAnalyzer {
+
+    private final NewsAiAnalyzer delegate;
+    private final Timer success;
+    private final Timer error;
+    private final Timer blockingFirstEvent;
+    private final Timer streamingFirstEvent;
+
+    public TimedNewsAiAnalyzer(NewsAiAnalyzer delegate, String backend, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.success = timer(backend, "success", registry);
+        this.error = timer(backend, "error", registry);
+        this.blockingFirstEvent = firstEventTimer(backend, "blocking", registry);
+        this.streamingFirstEvent = firstEventTimer(backend, "streaming", registry);
+    }
+
+    @Override
+    public Mono<NewsAnalysis> analyze(NewsItem item) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return delegate.analyze(item)
+                    .doOnSuccess(analysis -> {
+                        long elapsed = System.nanoTime() - start;
+                        success.record(elapsed, TimeUnit.NANOSECONDS);
+                        blockingFirstEvent.record(elapsed, TimeUnit.NANOSECONDS);
+                    })
+                    .doOnError(e -> error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    @Override
+    public Flux<NewsAnalysis> analyzeStreaming(NewsItem item) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            boolean[] first = { true };
+            return delegate.analyzeStreaming(item)
+                    .doOnNext(analysis -> {
+                        if (first[0]) {
+                            first[0] = false;
+                            streamingFirstEvent.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnComplete(() -> success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnError(e -> error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private static Timer timer(String backend, String outcome, MeterRegistry registry) {
+        return Timer.builder("livestock.ai.analyze")
+                .tag("backend", backend)
+                .tag("outcome", outcome)
+                .description("Latency of model-backed analyses")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Timer firstEventTimer(String backend, String mode, MeterRegistry registry) {
+        return Timer.builder("livestock.ai.first-event")
+                .tag("backend", backend)
+                .tag("mode", mode)
+                .description("Time from request to the first analysis event")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
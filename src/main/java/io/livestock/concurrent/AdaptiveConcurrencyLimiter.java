@@ -0,0 +1,241 @@
+package io.livestock.concurrent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Concurrency limit that adapts to the latency and error rate of the calls it guards (AIMD).
+ * <p>
+ * Each completed call feeds its latency, measured from the moment it was admitted, into a short and a
+ * long exponential moving average. While the short average stays within {@code latencyTolerance} of the
+ * long one and the limit is actually being used, the limit grows by roughly one per round of calls.
+ * When the short average rises above that band (requests are queueing in the backend) or a call fails,
+ * the limit is multiplied by {@code backoffRatio}, at most once per round so that one burst of slow
+ * calls does not collapse it. The limit always stays within {@code [minLimit, maxLimit]}. A call cancelled
+ * after running longer than the band allows, typically one its caller timed out, counts as a slow call; one
+ * cancelled sooner is not sampled.
+ * <p>
+ * Calls beyond the current limit wait in FIFO order; cancelling a waiting call removes it from the queue.
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private static final double SHORT_ALPHA = 0.1;
+    private static final double LONG_ALPHA = 0.01;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final LongSupplier nanoTime;
+
+    // guarded by this
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private double shortRtt;
+    private double longRtt;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, int minLimit, int initialLimit, int maxLimit) {
+        this(name, minLimit, initialLimit, maxLimit, 2.0, 0.9, System::nanoTime);
+    }
+
+    public AdaptiveConcurrencyLimiter(String name, int minLimit, int initialLimit, int maxLimit,
+            double latencyTolerance, double backoffRatio, LongSupplier nanoTime) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException(
+                    "Invalid concurrency bounds [%d, %d] for %s".formatted(minLimit, maxLimit, name));
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+        this.nanoTime = nanoTime;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.lastDecreaseNanos = nanoTime.getAsLong();
+    }
+
+    /**
+     * Run a call once the limit admits it.
+     *
+     * @param call Supplies the call; invoked only after a slot has been granted.
+     * @param <T>  The result type.
+     * @return Mono that waits for a slot, then mirrors the call.
+     */
+    public <T> Mono<T> run(Supplier<? extends Mono<T>> call) {
+        return Mono.usingWhen(
+                acquire(),
+                permit -> call.get(),
+                permit -> Mono.fromRunnable(() -> release(permit, Outcome.SUCCESS)),
+                (permit, error) -> Mono.fromRunnable(() -> release(permit, Outcome.ERROR)),
+                permit -> Mono.fromRunnable(() -> release(permit, Outcome.CANCELLED)));
+    }
+
+    /**
+     * Run a streaming call once the limit admits it. The slot is held, and the latency sample taken, until
+     * the stream terminates.
+     *
+     * @param call Supplies the call; invoked only after a slot has been granted.
+     * @param <T>  The element type.
+     * @return Flux that waits for a slot, then mirrors the call.
+     */
+    public <T> Flux<T> runMany(Supplier<? extends Flux<T>> call) {
+        return Flux.usingWhen(
+                acquire(),
+                permit -> call.get(),
+                permit -> Mono.fromRunnable(() -> release(permit, Outcome.SUCCESS)),
+                (permit, error) -> Mono.fromRunnable(() -> release(permit, Outcome.ERROR)),
+                permit -> Mono.fromRunnable(() -> release(permit, Outcome.CANCELLED)));
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public int maxLimit() {
+        return maxLimit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int queued() {
+        return waiters.size();
+    }
+
+    /**
+     * Whether a call started now would run at once rather than wait.
+     *
+     * @return True if the limit has a free slot and no call is waiting for one.
+     */
+    public synchronized boolean hasCapacity() {
+        return waiters.isEmpty() && inFlight < (int) limit;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("livestock.concurrency.limit", this, AdaptiveConcurrencyLimiter::limit)
+                .tag("limiter", name)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("livestock.concurrency.in-flight", this, AdaptiveConcurrencyLimiter::inFlight)
+                .tag("limiter", name)
+                .register(registry);
+        Gauge.builder("livestock.concurrency.queued", this, AdaptiveConcurrencyLimiter::queued)
+                .tag("limiter", name)
+                .description("Calls waiting for the limit to admit them")
+                .register(registry);
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            sink.onCancel(() -> abandon(waiter));
+            synchronized (this) {
+                if (waiter.cancelled) {
+                    return;
+                }
+                if (!waiters.isEmpty() || inFlight >= (int) limit) {
+                    waiters.addLast(waiter);
+                    return;
+                }
+                waiter.permit = admit();
+            }
+            sink.success(waiter.permit);
+        });
+    }
+
+    private void abandon(Waiter waiter) {
+        Permit handedOver;
+        synchronized (this) {
+            waiter.cancelled = true;
+            if (waiters.remove(waiter)) {
+                return;
+            }
+            handedOver = waiter.permit;
+        }
+        // a slot was granted concurrently with the cancel and will never be used
+        if (handedOver != null) {
+            release(handedOver, Outcome.CANCELLED);
+        }
+    }
+
+    private void release(Permit permit, Outcome outcome) {
+        List<Waiter> admitted = new ArrayList<>(1);
+        synchronized (this) {
+            inFlight--;
+            long rttNanos = nanoTime.getAsLong() - permit.startNanos();
+            if (outcome != Outcome.CANCELLED || (longRtt > 0 && rttNanos > longRtt * latencyTolerance)) {
+                onSample(permit, rttNanos, outcome == Outcome.ERROR);
+            }
+            while (!waiters.isEmpty() && inFlight < (int) limit) {
+                Waiter next = waiters.pollFirst();
+                next.permit = admit();
+                admitted.add(next);
+            }
+        }
+        for (Waiter waiter : admitted) {
+            waiter.sink.success(waiter.permit);
+        }
+    }
+
+    // guarded by this
+    private Permit admit() {
+        inFlight++;
+        return new Permit(nanoTime.getAsLong(), inFlight);
+    }
+
+    // guarded by this
+    private void onSample(Permit permit, long rttNanos, boolean error) {
+        if (longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+        } else {
+            shortRtt += (rttNanos - shortRtt) * SHORT_ALPHA;
+            longRtt += (rttNanos - longRtt) * LONG_ALPHA;
+        }
+
+        if (error || shortRtt > longRtt * latencyTolerance) {
+            // one decrease per round: ignore calls admitted before the last decrease took effect
+            if (permit.startNanos() > lastDecreaseNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = nanoTime.getAsLong();
+            }
+        } else if (permit.inFlightAtStart() * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS,
+        ERROR,
+        CANCELLED
+    }
+
+    private record Permit(long startNanos, int inFlightAtStart) {
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Permit> sink;
+        // both guarded by the limiter
+        private Permit permit;
+        private boolean cancelled;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.livestock.concurrent;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs blocking calls (model requests, HTTP) off the event loop.
+ * <p>
+ * In {@link Mode#BOUNDED_ELASTIC} mode calls run on Reactor's shared bounded-elastic pool, which caps the
+ * number of platform threads at ten per core and queues the rest. In {@link Mode#VIRTUAL} mode every call
+ * gets its own virtual thread; a semaphore enforces the concurrency ceiling, and callers waiting for a
+ * permit park cheaply instead of holding a platform thread.
+ * <p>
+ * Closing a virtual-mode executor shuts down its thread-per-task executor; the shared bounded-elastic pool is
+ * left to Reactor. Spring calls {@link #close()} when the bean is destroyed.
+ */
+public final class BlockingExecutor {
+
+    public enum Mode {
+        BOUNDED_ELASTIC,
+        VIRTUAL
+    }
+
+    private final Mode mode;
+    private final Scheduler scheduler;
+    private final Semaphore permits;
+
+    private BlockingExecutor(Mode mode, Scheduler scheduler, Semaphore permits) {
+        this.mode = mode;
+        this.scheduler = scheduler;
+        this.permits = permits;
+    }
+
+    /**
+     * Executor backed by {@link Schedulers#boundedElastic()}.
+     *
+     * @return BlockingExecutor
+     */
+    public static BlockingExecutor boundedElastic() {
+        return new BlockingExecutor(Mode.BOUNDED_ELASTIC, Schedulers.boundedElastic(), null);
+    }
+
+    /**
+     * Executor that runs each call on a new virtual thread.
+     *
+     * @param name           The thread name prefix.
+     * @param maxConcurrency The maximum number of calls running at once.
+     * @return BlockingExecutor
+     */
+    public static BlockingExecutor virtualThreads(String name, int maxConcurrency) {
+        Scheduler scheduler = Schedulers.fromExecutorService(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory()), name);
+        return new BlockingExecutor(Mode.VIRTUAL, scheduler, new Semaphore(maxConcurrency));
+    }
+
+    /**
+     * Run a blocking call asynchronously.
+     *
+     * @param callable The blocking call.
+     * @param <T>      The result type.
+     * @return Mono that emits the call's result on an executor thread.
+     */
+    public <T> Mono<T> call(Callable<T> callable) {
+        if (permits == null) {
+            return Mono.fromCallable(callable).subscribeOn(scheduler);
+        }
+        return Mono.fromCallable(() -> {
+            permits.acquire();
+            try {
+                return callable.call();
+            } finally {
+                permits.release();
+            }
+        }).subscribeOn(scheduler);
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /**
+     * Number of calls currently waiting for a permit; always 0 in bounded-elastic mode.
+     *
+     * @return int
+     */
+    public int queued() {
+        return permits == null ? 0 : permits.getQueueLength();
+    }
+
+    /**
+     * Dispose the executor's own scheduler; later calls fail with a rejected-execution error. Does nothing in
+     * bounded-elastic mode.
+     */
+    public void close() {
+        if (mode == Mode.VIRTUAL) {
+            scheduler.dispose();
+        }
+    }
+}
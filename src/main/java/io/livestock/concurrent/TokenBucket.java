@@ -0,0 +1,62 @@
+package io.livestock.concurrent;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Non-blocking rate limit: at most {@code burst} calls at once, refilled at {@code permitsPerSecond}.
+ * <p>
+ * Each acquisition reserves the next free slot and waits on a timer until it arrives, so no thread is held
+ * while waiting. Reservations are kept even if the waiting subscriber cancels, which errs on the side of
+ * sending fewer requests.
+ */
+public final class TokenBucket {
+
+    private final long nanosPerPermit;
+    private final long burstNanos;
+    private final LongSupplier nanoTime;
+
+    // guarded by this: when the bucket would next be empty if no more permits were taken
+    private long theoreticalArrival;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    public TokenBucket(double permitsPerSecond, int burst, LongSupplier nanoTime) {
+        if (!(permitsPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException(
+                    "Invalid rate %s per second with burst %d".formatted(permitsPerSecond, burst));
+        }
+        this.nanosPerPermit = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstNanos = (burst - 1) * nanosPerPermit;
+        this.nanoTime = nanoTime;
+        this.theoreticalArrival = nanoTime.getAsLong();
+    }
+
+    /**
+     * Wait for a permit.
+     *
+     * @return Mono that completes once the call may proceed.
+     */
+    public Mono<Void> acquire() {
+        return Mono.defer(() -> {
+            long wait = reserve();
+            return wait <= 0 ? Mono.empty() : Mono.delay(Duration.ofNanos(wait)).then();
+        });
+    }
+
+    /**
+     * Take the next permit.
+     *
+     * @return Nanoseconds until the permit may be used; zero or less if it may be used now.
+     */
+    synchronized long reserve() {
+        long now = nanoTime.getAsLong();
+        long tat = Math.max(theoreticalArrival, now);
+        theoreticalArrival = tat + nanosPerPermit;
+        return tat - burstNanos - now;
+    }
+}
@@ -1,21 +1,144 @@
 package io.livestock.config;
 
+import io.livestock.ai.BatchingNewsAiAnalyzer;
+import io.livestock.ai.AiJsonParser;
+import io.livestock.ai.CachingNewsAiAnalyzer;
+import io.livestock.ai.Lexicon;
+import io.livestock.ai.LexiconNewsAiAnalyzer;
+import io.livestock.ai.LimitedNewsAiAnalyzer;
 import io.livestock.ai.NewsAiAnalyzer;
 import io.livestock.ai.NoOpChatModel;
+import io.livestock.ai.PooledNewsAiAnalyzer;
+import io.livestock.ai.PreprocessingNewsAiAnalyzer;
+import io.livestock.ai.PromptPreprocessor;
+import io.livestock.ai.ResilientNewsAiAnalyzer;
 import io.livestock.ai.SpringAiNewsAnalyzer;
+import io.livestock.ai.TieredNewsAiAnalyzer;
+import io.livestock.ai.TimedNewsAiAnalyzer;
+import io.livestock.concurrent.AdaptiveConcurrencyLimiter;
+import io.livestock.concurrent.BlockingExecutor;
+import io.livestock.pipeline.IngestScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.api.OllamaChatOptions;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class AiConfig {
     private static final String AI_MODE_PROPERTY = "livestock.ai.mode";
 
+    @Value("${livestock.ai.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${livestock.ai.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    @Value("${livestock.ai.cache.ttl:6h}")
+    private Duration cacheTtl;
+
+    @Value("${livestock.ai.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${livestock.ai.batch.max-size:8}")
+    private int batchMaxSize;
+
+    @Value("${livestock.ai.batch.max-wait:250ms}")
+    private Duration batchMaxWait;
+
+    @Value("${livestock.ai.batch.concurrency:2}")
+    private int batchConcurrency;
+
+    @Value("${livestock.ai.preprocess.enabled:true}")
+    private boolean preprocessEnabled;
+
+    @Value("${livestock.ai.preprocess.max-tokens.ollama:256}")
+    private int ollamaMaxTokens;
+
+    @Value("${livestock.ai.preprocess.max-tokens.openai:768}")
+    private int openAiMaxTokens;
+
+    @Value("${livestock.ai.tiered.enabled:true}")
+    private boolean tieredEnabled;
+
+    @Value("${livestock.ai.tiered.lexicon:classpath:lexicon/finance.txt}")
+    private Resource lexiconResource;
+
+    @Value("${livestock.ai.tiered.min-score:3.0}")
+    private double tieredMinScore;
+
+    @Value("${livestock.ai.tiered.min-agreement:0.8}")
+    private double tieredMinAgreement;
+
+    @Value("${livestock.ai.resilience.enabled:true}")
+    private boolean resilienceEnabled;
+
+    @Value("${livestock.ai.resilience.min-timeout:20s}")
+    private Duration resilienceMinTimeout;
+
+    @Value("${livestock.ai.resilience.max-timeout:30s}")
+    private Duration resilienceMaxTimeout;
+
+    @Value("${livestock.ai.resilience.max-concurrent:32}")
+    private int resilienceMaxConcurrent;
+
+    @Value("${livestock.ai.resilience.breaker.window:20}")
+    private int breakerWindow;
+
+    @Value("${livestock.ai.resilience.breaker.min-calls:10}")
+    private int breakerMinCalls;
+
+    @Value("${livestock.ai.resilience.breaker.failure-rate:0.5}")
+    private double breakerFailureRate;
+
+    @Value("${livestock.ai.resilience.breaker.open-duration:30s}")
+    private Duration breakerOpenDuration;
+
+    @Value("${livestock.ai.resilience.breaker.half-open-calls:3}")
+    private int breakerHalfOpenCalls;
+
+    @Value("${livestock.ai.resilience.fallback:lexicon}")
+    private String resilienceFallback;
+
+    @Value("${livestock.ai.pool.endpoints:}")
+    private List<String> poolEndpoints;
+
+    @Value("${livestock.ai.pool.model:${spring.ai.ollama.chat.options.model:llama3.2}}")
+    private String poolModel;
+
+    @Value("${livestock.ai.pool.temperature:${spring.ai.ollama.chat.options.temperature:0.2}}")
+    private double poolTemperature;
+
+    @Value("${livestock.ai.pool.hedge-quantile:0.95}")
+    private double poolHedgeQuantile;
+
+    @Value("${livestock.ai.pool.min-hedge-delay:250ms}")
+    private Duration poolMinHedgeDelay;
+
+    @Value("${livestock.ai.pool.failure-threshold:3}")
+    private int poolFailureThreshold;
+
+    @Value("${livestock.ai.pool.ejection:30s}")
+    private Duration poolEjection;
+
     @Bean
     @Primary
     ChatModel primaryChatModel(
@@ -49,13 +172,139 @@ public class AiConfig {
 
     @Bean
     @ConditionalOnProperty(prefix = "livestock.ai", name = "mode", havingValue = "ollama")
-    public NewsAiAnalyzer ollamaAnalyzer(ChatClient.Builder builder) {
-        return new SpringAiNewsAnalyzer(builder.build());
+    public NewsAiAnalyzer ollamaAnalyzer(ChatClient.Builder builder, BlockingExecutor blockingExecutor,
+            AdaptiveConcurrencyLimiter analysisConcurrencyLimiter, IngestScheduler ingestScheduler,
+            MeterRegistry meterRegistry) {
+        NewsAiAnalyzer analyzer = poolEndpoints.isEmpty()
+                ? llmAnalyzer(builder.build(), blockingExecutor)
+                : ollamaPool(blockingExecutor, meterRegistry);
+        return decorate(analyzer, "ollama", ollamaMaxTokens, analysisConcurrencyLimiter, ingestScheduler,
+                meterRegistry);
+    }
+
+    /**
+     * Create an analyzer that spreads calls across the configured Ollama hosts.
+     *
+     * @param blockingExecutor The executor for blocking model calls.
+     * @param meterRegistry    The registry the pool reports to.
+     * @return NewsAiAnalyzer
+     */
+    private NewsAiAnalyzer ollamaPool(BlockingExecutor blockingExecutor, MeterRegistry meterRegistry) {
+        OllamaChatOptions options = OllamaChatOptions.builder()
+                .model(poolModel)
+                .temperature(poolTemperature)
+                .build();
+        Map<String, NewsAiAnalyzer> backends = new LinkedHashMap<>();
+        for (String endpoint : poolEndpoints) {
+            ChatModel model = OllamaChatModel.builder()
+                    .ollamaApi(OllamaApi.builder().baseUrl(endpoint.strip()).build())
+                    .defaultOptions(options)
+                    .build();
+            backends.put(endpoint.strip(), llmAnalyzer(ChatClient.create(model), blockingExecutor));
+        }
+        PooledNewsAiAnalyzer pool = new PooledNewsAiAnalyzer(backends, new PooledNewsAiAnalyzer.Settings(
+                poolHedgeQuantile, poolMinHedgeDelay, poolFailureThreshold, poolEjection));
+        pool.bindTo(meterRegistry);
+        return pool;
     }
 
     @Bean
     @ConditionalOnProperty(prefix = "livestock.ai", name = "mode", havingValue = "openai")
-    public NewsAiAnalyzer openAiAnalyzer(ChatClient.Builder builder) {
-        return new SpringAiNewsAnalyzer(builder.build());
+    public NewsAiAnalyzer openAiAnalyzer(ChatClient.Builder builder, BlockingExecutor blockingExecutor,
+            AdaptiveConcurrencyLimiter analysisConcurrencyLimiter, IngestScheduler ingestScheduler,
+            MeterRegistry meterRegistry) {
+        return decorate(llmAnalyzer(builder.build(), blockingExecutor), "openai", openAiMaxTokens,
+                analysisConcurrencyLimiter, ingestScheduler, meterRegistry);
+    }
+
+    /**
+     * Create the analyzer that calls the model, batching requests if enabled.
+     *
+     * @param chatClient       The chat client for the selected model.
+     * @param blockingExecutor The executor for blocking model calls.
+     * @return NewsAiAnalyzer
+     */
+    private NewsAiAnalyzer llmAnalyzer(ChatClient chatClient, BlockingExecutor blockingExecutor) {
+        NewsAiAnalyzer single = new SpringAiNewsAnalyzer(chatClient, blockingExecutor);
+        if (!batchEnabled) {
+            return single;
+        }
+        return new BatchingNewsAiAnalyzer(chatClient, single, batchMaxSize, batchMaxWait, batchConcurrency,
+                blockingExecutor);
+    }
+
+    /**
+     * Parse fallback counters for model responses.
+     *
+     * @return MeterBinder
+     */
+    @Bean
+    MeterBinder aiJsonParserMetrics() {
+        return AiJsonParser::bindTo;
+    }
+
+    /**
+     * Wrap an LLM-backed analyzer with the configured decorators.
+     *
+     * @param analyzer        The analyzer that calls the model.
+     * @param backend         The backend name used to tag metrics.
+     * @param maxTokens       The backend's prompt token budget per item.
+     * @param limiter         The adaptive limit on concurrent model calls.
+     * @param ingestScheduler The scheduler whose freshness deadlines bound each model call.
+     * @param meterRegistry   The registry the decorators report to.
+     * @return NewsAiAnalyzer
+     */
+    private NewsAiAnalyzer decorate(NewsAiAnalyzer analyzer, String backend, int maxTokens,
+            AdaptiveConcurrencyLimiter limiter, IngestScheduler ingestScheduler, MeterRegistry meterRegistry) {
+        // timed inside the cache so the histogram reflects model calls only
+        analyzer = new TimedNewsAiAnalyzer(analyzer, backend, meterRegistry);
+        // limited inside the cache and the lexicon tier so the limit learns from model latency only
+        analyzer = new LimitedNewsAiAnalyzer(analyzer, limiter);
+        if (cacheEnabled) {
+            CachingNewsAiAnalyzer cache = new CachingNewsAiAnalyzer(analyzer, cacheMaxSize, cacheTtl);
+            cache.bindTo(meterRegistry);
+            analyzer = cache;
+        }
+        if (resilienceEnabled) {
+            // outside the cache so fallback answers are never cached as model answers
+            ResilientNewsAiAnalyzer resilient = new ResilientNewsAiAnalyzer(analyzer, fallbackAnalyzer(), backend,
+                    new ResilientNewsAiAnalyzer.Settings(resilienceMinTimeout, resilienceMaxTimeout,
+                            resilienceMaxConcurrent, breakerWindow, breakerMinCalls, breakerFailureRate,
+                            breakerOpenDuration, breakerHalfOpenCalls),
+                    ingestScheduler::staleAt);
+            resilient.bindTo(meterRegistry);
+            analyzer = resilient;
+        }
+        if (preprocessEnabled) {
+            // outside the cache so items that differ only in markup or boilerplate share an entry
+            analyzer = new PreprocessingNewsAiAnalyzer(analyzer, new PromptPreprocessor(maxTokens), backend,
+                    meterRegistry);
+        }
+        if (tieredEnabled) {
+            // outermost: confident lexicon results skip preprocessing, the cache and the model
+            TieredNewsAiAnalyzer tiered = new TieredNewsAiAnalyzer(new LexiconNewsAiAnalyzer(loadLexicon()),
+                    analyzer, tieredMinScore, tieredMinAgreement);
+            tiered.bindTo(meterRegistry);
+            analyzer = tiered;
+        }
+        return analyzer;
+    }
+
+    private NewsAiAnalyzer fallbackAnalyzer() {
+        return switch (resilienceFallback.toLowerCase()) {
+            case "lexicon" -> new LexiconNewsAiAnalyzer(loadLexicon());
+            case "none" -> null;
+            default -> throw new IllegalStateException(
+                    "Unsupported livestock.ai.resilience.fallback=%s (expected: lexicon, none)"
+                            .formatted(resilienceFallback));
+        };
+    }
+
+    private Lexicon loadLexicon() {
+        try (InputStream in = lexiconResource.getInputStream()) {
+            return Lexicon.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read lexicon " + lexiconResource, e);
+        }
     }
 }
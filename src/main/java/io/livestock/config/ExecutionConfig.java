@@ -0,0 +1,153 @@
+package io.livestock.config;
+
+import io.livestock.concurrent.AdaptiveConcurrencyLimiter;
+import io.livestock.concurrent.BlockingExecutor;
+import io.livestock.pipeline.AnalysisFanout;
+import io.livestock.pipeline.IngestQueue;
+import io.livestock.pipeline.IngestScheduler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Execution configuration: blocking calls, analysis concurrency, the ingest queue and the stream fan-out.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    /**
+     * Executor for blocking model and HTTP calls.
+     *
+     * @param mode           bounded-elastic (default) or virtual.
+     * @param maxConcurrency The ceiling on concurrent calls in virtual mode.
+     * @return BlockingExecutor
+     */
+    @Bean
+    BlockingExecutor blockingExecutor(
+            @Value("${livestock.execution.mode:bounded-elastic}") String mode,
+            @Value("${livestock.execution.max-concurrency:256}") int maxConcurrency) {
+        return switch (mode.toLowerCase()) {
+            case "bounded-elastic" -> BlockingExecutor.boundedElastic();
+            case "virtual" -> BlockingExecutor.virtualThreads("livestock-blocking", maxConcurrency);
+            default -> throw new IllegalStateException(
+                    "Unsupported livestock.execution.mode=%s (expected: bounded-elastic, virtual)".formatted(mode));
+        };
+    }
+
+    /**
+     * Adaptive limit on concurrent model calls; the news pipeline takes items off the ingest queue only while
+     * it has a free slot.
+     *
+     * @param min              The lowest the limit may go.
+     * @param initial          The limit before any latency has been observed.
+     * @param max              The highest the limit may go.
+     * @param latencyTolerance How far recent latency may rise above the long-run average before backing off.
+     * @param backoffRatio     The factor applied to the limit on congestion or errors.
+     * @return AdaptiveConcurrencyLimiter
+     */
+    @Bean
+    AdaptiveConcurrencyLimiter analysisConcurrencyLimiter(
+            @Value("${livestock.pipeline.concurrency.min:1}") int min,
+            @Value("${livestock.pipeline.concurrency.initial:8}") int initial,
+            @Value("${livestock.pipeline.concurrency.max:64}") int max,
+            @Value("${livestock.pipeline.concurrency.latency-tolerance:2.0}") double latencyTolerance,
+            @Value("${livestock.pipeline.concurrency.backoff-ratio:0.9}") double backoffRatio) {
+        return new AdaptiveConcurrencyLimiter("analysis", min, initial, max, latencyTolerance, backoffRatio,
+                System::nanoTime);
+    }
+
+    /**
+     * Bounded queue in front of the analysis stage.
+     *
+     * @param capacity     The maximum number of queued items.
+     * @param policy       reject (default), drop-oldest, drop-lowest-priority or block-with-timeout.
+     * @param blockTimeout How long an offer may wait for space under block-with-timeout.
+     * @param scheduler    The order queued items are handed to the analysis stage in.
+     * @return IngestQueue
+     */
+    @Bean
+    IngestQueue ingestQueue(
+            @Value("${livestock.ingest.capacity:10000}") int capacity,
+            @Value("${livestock.ingest.overflow-policy:reject}") String policy,
+            @Value("${livestock.ingest.block-timeout:1s}") Duration blockTimeout,
+            IngestScheduler scheduler) {
+        IngestQueue.OverflowPolicy overflowPolicy = switch (policy.toLowerCase()) {
+            case "reject" -> IngestQueue.OverflowPolicy.REJECT;
+            case "drop-oldest" -> IngestQueue.OverflowPolicy.DROP_OLDEST;
+            case "drop-lowest-priority" -> IngestQueue.OverflowPolicy.DROP_LOWEST_PRIORITY;
+            case "block-with-timeout" -> IngestQueue.OverflowPolicy.BLOCK_WITH_TIMEOUT;
+            default -> throw new IllegalStateException(("Unsupported livestock.ingest.overflow-policy=%s (expected: "
+                    + "reject, drop-oldest, drop-lowest-priority, block-with-timeout)").formatted(policy));
+        };
+        // longer articles carry more signal, so they are the last to be dropped
+        return new IngestQueue(capacity, overflowPolicy,
+                item -> item.content() == null ? 0 : item.content().length(), blockTimeout, scheduler);
+    }
+
+    /**
+     * Order of the ingest backlog: breaking, reputable and standard classes sharing dispatch by weight,
+     * sources taking turns within a class, and earliest freshness deadline first within a source.
+     *
+     * @param enabled         Whether to schedule at all; false hands items out in arrival order.
+     * @param keywords        Headline words that make a recent item breaking.
+     * @param recentWithin    How recently a breaking item must have been published.
+     * @param sources         Sources whose items are reputable.
+     * @param breakingWeight  Items per turn of the breaking class.
+     * @param breakingMaxAge  Age at which a queued breaking item is dropped.
+     * @param reputableWeight Items per turn of the reputable class.
+     * @param reputableMaxAge Age at which a queued reputable item is dropped.
+     * @param standardWeight  Items per turn of the standard class.
+     * @param standardMaxAge  Age at which a queued standard item is dropped.
+     * @return IngestScheduler
+     */
+    @Bean
+    IngestScheduler ingestScheduler(
+            @Value("${livestock.ingest.scheduling.enabled:true}") boolean enabled,
+            @Value("${livestock.ingest.scheduling.keywords:}") List<String> keywords,
+            @Value("${livestock.ingest.scheduling.recent-within:15m}") Duration recentWithin,
+            @Value("${livestock.ingest.scheduling.sources:}") List<String> sources,
+            @Value("${livestock.ingest.scheduling.classes.breaking.weight:6}") int breakingWeight,
+            @Value("${livestock.ingest.scheduling.classes.breaking.max-age:1h}") Duration breakingMaxAge,
+            @Value("${livestock.ingest.scheduling.classes.reputable.weight:3}") int reputableWeight,
+            @Value("${livestock.ingest.scheduling.classes.reputable.max-age:72h}") Duration reputableMaxAge,
+            @Value("${livestock.ingest.scheduling.classes.standard.weight:1}") int standardWeight,
+            @Value("${livestock.ingest.scheduling.classes.standard.max-age:48h}") Duration standardMaxAge) {
+        if (!enabled) {
+            return IngestScheduler.fifo();
+        }
+        return new IngestScheduler(List.of(
+                new IngestScheduler.PriorityClass("breaking", breakingWeight, breakingMaxAge),
+                new IngestScheduler.PriorityClass("reputable", reputableWeight, reputableMaxAge),
+                new IngestScheduler.PriorityClass("standard", standardWeight, standardMaxAge)),
+                IngestScheduler.rules(sources, keywords, recentWithin));
+    }
+
+    /**
+     * Fan-out of finished analyses to stream subscribers.
+     *
+     * @param bufferSize  The most analyses buffered for one subscriber.
+     * @param replaySize  How many recent analyses a new subscriber receives first.
+     * @param policy      drop (default), conflate or disconnect, applied when a subscriber's buffer is full.
+     * @param idleTimeout How long a subscriber may leave buffered analyses untaken before it is disconnected.
+     * @return AnalysisFanout
+     */
+    @Bean
+    AnalysisFanout analysisFanout(
+            @Value("${livestock.stream.buffer-size:256}") int bufferSize,
+            @Value("${livestock.stream.replay:50}") int replaySize,
+            @Value("${livestock.stream.slow-consumer-policy:drop}") String policy,
+            @Value("${livestock.stream.idle-timeout:60s}") Duration idleTimeout) {
+        AnalysisFanout.SlowConsumerPolicy slowConsumerPolicy = switch (policy.toLowerCase()) {
+            case "drop" -> AnalysisFanout.SlowConsumerPolicy.DROP;
+            case "conflate" -> AnalysisFanout.SlowConsumerPolicy.CONFLATE;
+            case "disconnect" -> AnalysisFanout.SlowConsumerPolicy.DISCONNECT;
+            default -> throw new IllegalStateException(
+                    "Unsupported livestock.stream.slow-consumer-policy=%s (expected: drop, conflate, disconnect)"
+                            .formatted(policy));
+        };
+        return new AnalysisFanout(bufferSize, replaySize, slowConsumerPolicy, idleTimeout);
+    }
+}
@@ -0,0 +1,52 @@
+package io.livestock.config;
+
+import io.livestock.pipeline.MoodAggregator;
+import io.livestock.pipeline.SymbolExtractor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration of the stages that enrich and aggregate analyses in the news pipeline.
+ */
+@Configuration
+public class PipelineConfig {
+
+    /**
+     * Ticker symbol tagging of analyses.
+     *
+     * @param enabled        Whether to tag analyses at all.
+     * @param dictionary     The symbol dictionary; a file is reloaded when it changes.
+     * @param reloadInterval How often to check the dictionary file for changes; 0 never reloads it.
+     * @return SymbolExtractor
+     */
+    @Bean
+    SymbolExtractor symbolExtractor(
+            @Value("${livestock.symbols.enabled:true}") boolean enabled,
+            @Value("${livestock.symbols.dictionary:classpath:symbols/us-equities.txt}") Resource dictionary,
+            @Value("${livestock.symbols.reload-interval:1m}") Duration reloadInterval) {
+        return enabled ? new SymbolExtractor(dictionary, reloadInterval) : SymbolExtractor.none();
+    }
+
+    /**
+     * Rolling sentiment and risk aggregates for /api/mood.
+     *
+     * @param windows         Window lengths, each a multiple of the resolution.
+     * @param resolution      Slot length of the sliding windows.
+     * @param maxSources      Sources aggregated separately; the rest count toward the overall mood only.
+     * @param publishInterval How often /api/mood/stream sends a snapshot.
+     * @return MoodAggregator
+     */
+    @Bean
+    MoodAggregator moodAggregator(
+            @Value("${livestock.mood.windows:1m,5m,1h}") List<Duration> windows,
+            @Value("${livestock.mood.resolution:5s}") Duration resolution,
+            @Value("${livestock.mood.max-sources:100}") int maxSources,
+            @Value("${livestock.mood.publish-interval:5s}") Duration publishInterval) {
+        return new MoodAggregator(windows, resolution, maxSources, publishInterval);
+    }
+}
@@ -0,0 +1,72 @@
+package io.livestock.config;
+
+import io.livestock.store.AnalysisHistory;
+import io.livestock.store.AnalysisLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Storage configuration for analyses.
+ */
+@Configuration
+public class StoreConfig {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(StoreConfig.class);
+
+    /**
+     * Append-only log of published analyses, used to restore the stream replay after a restart.
+     *
+     * @param path               The log directory; blank disables the log.
+     * @param segmentSize        The size at which a new segment file is started.
+     * @param batchSize          The in-memory write batch.
+     * @param flushInterval      How often a partial batch is written.
+     * @param fsyncInterval      How often written analyses are forced to disk.
+     * @param maxAge             How long closed segments are kept; zero keeps them forever.
+     * @param maxSize            The total size above which the oldest segments are deleted; zero for no limit.
+     * @param compaction         Whether superseded provisional analyses are compacted away.
+     * @param compactionInterval How often retention and compaction run.
+     * @return AnalysisLog
+     */
+    @Bean
+    AnalysisLog analysisLog(
+            @Value("${livestock.store.log.path:}") String path,
+            @Value("${livestock.store.log.segment-size:64MB}") DataSize segmentSize,
+            @Value("${livestock.store.log.batch-size:64KB}") DataSize batchSize,
+            @Value("${livestock.store.log.flush-interval:200ms}") Duration flushInterval,
+            @Value("${livestock.store.log.fsync-interval:1s}") Duration fsyncInterval,
+            @Value("${livestock.store.log.retention.max-age:7d}") Duration maxAge,
+            @Value("${livestock.store.log.retention.max-size:1GB}") DataSize maxSize,
+            @Value("${livestock.store.log.compaction.enabled:true}") boolean compaction,
+            @Value("${livestock.store.log.compaction.interval:10m}") Duration compactionInterval) {
+        if (path.isBlank()) {
+            return AnalysisLog.disabled();
+        }
+        AnalysisLog.Settings settings = new AnalysisLog.Settings(segmentSize.toBytes(),
+                Math.toIntExact(batchSize.toBytes()), flushInterval, fsyncInterval, maxAge, maxSize.toBytes(),
+                compaction ? compactionInterval : Duration.ZERO);
+        try {
+            return AnalysisLog.open(Path.of(path), settings);
+        } catch (IOException e) {
+            // the stream works without it, it just starts empty after a restart
+            logger.warn("Failed to open the analysis log at {}; analyses will not be persisted", path, e);
+            return AnalysisLog.disabled();
+        }
+    }
+
+    /**
+     * Queryable in-memory history of final analyses.
+     *
+     * @param maxMemory The memory budget; the oldest analyses are dropped beyond it.
+     * @return AnalysisHistory
+     */
+    @Bean
+    AnalysisHistory analysisHistory(@Value("${livestock.store.history.max-memory:256MB}") DataSize maxMemory) {
+        return new AnalysisHistory(maxMemory.toBytes());
+    }
+}
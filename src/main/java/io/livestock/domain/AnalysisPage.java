@@ -0,0 +1,12 @@
+package io.livestock.domain;
+
+import java.util.List;
+
+/**
+ * One page of a history query, newest first.
+ *
+ * @param items      The analyses on this page.
+ * @param nextCursor Cursor for the next, older page, or null when there is none.
+ */
+public record AnalysisPage(List<NewsAnalysis> items, String nextCursor) {
+}
@@ -0,0 +1,26 @@
+package io.livestock.domain;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk ingest request.
+ *
+ * @param received          Number of items read from the request body.
+ * @param accepted          Number of items queued for analysis.
+ * @param rejected          Number of items refused.
+ * @param rejections        One entry per refused item, in request order, up to a configured limit.
+ * @param omittedRejections Refused items beyond the limit, counted in {@code rejected} but not listed.
+ */
+public record BulkIngestSummary(int received, int accepted, int rejected, List<Rejection> rejections,
+        int omittedRejections) {
+
+    /**
+     * A refused item.
+     *
+     * @param index    Zero-based position of the item in the request body.
+     * @param headline The item's headline, if any.
+     * @param reason   Why the item was refused: validation errors, queue-full or closed.
+     */
+    public record Rejection(long index, String headline, String reason) {
+    }
+}
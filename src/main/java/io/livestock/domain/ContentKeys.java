@@ -0,0 +1,111 @@
+package io.livestock.domain;
+
+/**
+ * 64-bit content keys for deduplication and caching.
+ * <p>
+ * Keys are computed in a single pass over the input without allocating a
+ * normalized copy: letters and digits are lower-cased, every other run of
+ * characters collapses to one separator, and the result is hashed with
+ * FNV-1a followed by a 64-bit finalizer. Zero is never returned so it can be
+ * used as an "empty" marker by primitive hash tables.
+ */
+public final class ContentKeys {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final char SEPARATOR = ' ';
+
+    private ContentKeys() {
+    }
+
+    /**
+     * Key for a headline; case, punctuation and whitespace differences are ignored.
+     *
+     * @param headline The headline to hash.
+     * @return A non-zero 64-bit key.
+     */
+    public static long headline(String headline) {
+        return finish(hashText(FNV_OFFSET, headline));
+    }
+
+    /**
+     * Key for a headline together with its body, used to recognise syndicated copies of the same story.
+     *
+     * @param headline The headline to hash.
+     * @param content  The article body to hash.
+     * @return A non-zero 64-bit key.
+     */
+    public static long content(String headline, String content) {
+        long h = hashText(FNV_OFFSET, headline);
+        h = mixChar(h, '\n');
+        return finish(hashText(h, content));
+    }
+
+    /**
+     * Key for an article URL. The scheme, a leading {@code www.}, the query string, the fragment
+     * and a trailing slash are ignored, so tracking parameters do not produce distinct keys.
+     *
+     * @param url The URL to hash.
+     * @return A non-zero 64-bit key.
+     */
+    public static long url(String url) {
+        if (url == null) {
+            return finish(FNV_OFFSET);
+        }
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        if (url.regionMatches(true, start, "www.", 0, 4)) {
+            start += 4;
+        }
+        int end = url.length();
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            if (c == '?' || c == '#') {
+                end = i;
+                break;
+            }
+        }
+        while (end > start && url.charAt(end - 1) == '/') {
+            end--;
+        }
+        long h = FNV_OFFSET;
+        for (int i = start; i < end; i++) {
+            h = mixChar(h, Character.toLowerCase(url.charAt(i)));
+        }
+        return finish(h);
+    }
+
+    private static long hashText(long h, String text) {
+        if (text == null) {
+            return h;
+        }
+        boolean pendingSeparator = false;
+        boolean started = false;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSeparator && started) {
+                    h = mixChar(h, SEPARATOR);
+                }
+                h = mixChar(h, Character.toLowerCase(c));
+                pendingSeparator = false;
+                started = true;
+            } else {
+                pendingSeparator = true;
+            }
+        }
+        return h;
+    }
+
+    private static long mixChar(long h, char c) {
+        h = (h ^ (c & 0xff)) * FNV_PRIME;
+        return (h ^ (c >>> 8)) * FNV_PRIME;
+    }
+
+    private static long finish(long h) {
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+}
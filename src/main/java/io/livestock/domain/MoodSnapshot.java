@@ -0,0 +1,14 @@
+package io.livestock.domain;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Market mood at one instant, overall or for one source.
+ *
+ * @param asOf    When the snapshot was taken.
+ * @param source  The source, or null for all sources.
+ * @param windows One aggregate per window length and type.
+ */
+public record MoodSnapshot(Instant asOf, String source, List<MoodWindow> windows) {
+}
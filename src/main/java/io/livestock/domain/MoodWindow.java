@@ -0,0 +1,41 @@
+package io.livestock.domain;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Sentiment and risk aggregated over one window.
+ *
+ * @param type     Whether the window slides with the clock or is the open or last closed tumbling window.
+ * @param length   The window length.
+ * @param from     Start of the window, inclusive.
+ * @param to       End of the window, exclusive.
+ * @param count    Analyses in the window.
+ * @param bullish  Bullish analyses.
+ * @param bearish  Bearish analyses.
+ * @param neutral  Neutral analyses.
+ * @param meanRisk Mean risk score; 0 for an empty window.
+ * @param p90Risk  90th percentile risk score; 0 for an empty window.
+ */
+public record MoodWindow(
+        Type type,
+        Duration length,
+        Instant from,
+        Instant to,
+        long count,
+        long bullish,
+        long bearish,
+        long neutral,
+        double meanRisk,
+        int p90Risk
+) {
+
+    /**
+     * Window types.
+     */
+    public enum Type {
+        SLIDING,
+        TUMBLING_OPEN,
+        TUMBLING_CLOSED
+    }
+}
@@ -1,6 +1,7 @@
 package io.livestock.domain;
 
 import java.time.Instant;
+import java.util.List;
 
 /**
  * News Analysis Object.
@@ -13,6 +14,9 @@ import java.time.Instant;
  * @param sentiment
  * @param riskScore
  * @param summary
+ * @param provisional True for an early event sent before the summary is complete; a final event with the
+ *                    same id follows.
+ * @param symbols     Ticker symbols the item mentions, in order of first mention; empty if none.
  */
 public record NewsAnalysis(
         String id,
@@ -22,6 +26,44 @@ public record NewsAnalysis(
         String url,
         Sentiment sentiment,
         int riskScore,
-        String summary
+        String summary,
+        boolean provisional,
+        List<String> symbols
 ) {
+
+    public NewsAnalysis {
+        symbols = symbols == null ? List.of() : List.copyOf(symbols);
+    }
+
+    public NewsAnalysis(String id, Instant timestamp, String source, String headline, String url,
+            Sentiment sentiment, int riskScore, String summary) {
+        this(id, timestamp, source, headline, url, sentiment, riskScore, summary, false);
+    }
+
+    public NewsAnalysis(String id, Instant timestamp, String source, String headline, String url,
+            Sentiment sentiment, int riskScore, String summary, boolean provisional) {
+        this(id, timestamp, source, headline, url, sentiment, riskScore, summary, provisional, List.of());
+    }
+
+    /**
+     * Copy of this analysis under another id.
+     *
+     * @param id The id to use.
+     * @return NewsAnalysis
+     */
+    public NewsAnalysis withId(String id) {
+        return new NewsAnalysis(id, timestamp, source, headline, url, sentiment, riskScore, summary, provisional,
+                symbols);
+    }
+
+    /**
+     * Copy of this analysis tagged with the given symbols.
+     *
+     * @param symbols Ticker symbols the item mentions.
+     * @return NewsAnalysis
+     */
+    public NewsAnalysis withSymbols(List<String> symbols) {
+        return new NewsAnalysis(id, timestamp, source, headline, url, sentiment, riskScore, summary, provisional,
+                symbols);
+    }
 }
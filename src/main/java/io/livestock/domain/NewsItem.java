@@ -2,16 +2,25 @@ package io.livestock.domain;
 
 import jakarta.validation.constraints.NotBlank;
 
+import java.time.Instant;
+
 /**
  * News Item Object.
  * @param source
  * @param headline
  * @param url
  * @param content
+ * @param publishedAt When the source published the item, or null if unknown.
  */
 public record NewsItem(
     @NotBlank String source,
     @NotBlank String headline,
     String url,
-    @NotBlank String content
-) {}
+    @NotBlank String content,
+    Instant publishedAt
+) {
+
+    public NewsItem(String source, String headline, String url, String content) {
+        this(source, headline, url, content, null);
+    }
+}
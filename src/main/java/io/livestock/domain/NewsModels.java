@@ -1,5 +1,9 @@
 package io.livestock.domain;
 
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 /**
@@ -7,6 +11,33 @@ import java.util.List;
  */
 public class NewsModels {
 
+    /**
+     * Epoch value of a missing or unreadable publication time; sorts before every real one.
+     */
+    public static final long UNKNOWN_TIME = Long.MIN_VALUE;
+
+    /**
+     * Parse an ISO-8601 publication time such as NewsAPI's {@code publishedAt}. Times without an offset are
+     * taken as UTC.
+     *
+     * @param publishedAt The publication time, or null.
+     * @return Epoch millis, or {@link #UNKNOWN_TIME} if missing or unreadable.
+     */
+    public static long epochMillis(String publishedAt) {
+        if (publishedAt == null || publishedAt.isBlank()) {
+            return UNKNOWN_TIME;
+        }
+        try {
+            return OffsetDateTime.parse(publishedAt).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(publishedAt).toInstant(ZoneOffset.UTC).toEpochMilli();
+            } catch (DateTimeParseException ignored) {
+                return UNKNOWN_TIME;
+            }
+        }
+    }
+
     // 1. Structure for the External API Response (NewsAPI.org)
     public record NewsApiResponse(
             String status,
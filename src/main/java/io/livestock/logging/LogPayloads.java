@@ -0,0 +1,27 @@
+package io.livestock.logging;
+
+/**
+ * Helpers for logging request and response payloads without unbounded string building.
+ */
+public final class LogPayloads {
+    private LogPayloads() {
+    }
+
+    /**
+     * Longest payload excerpt written to the log.
+     */
+    public static final int MAX_CHARS = 2_000;
+
+    /**
+     * Cap a payload for logging.
+     *
+     * @param payload The payload, may be null.
+     * @return The payload, or its first {@link #MAX_CHARS} characters followed by the number omitted.
+     */
+    public static String capped(String payload) {
+        if (payload == null || payload.length() <= MAX_CHARS) {
+            return payload;
+        }
+        return payload.substring(0, MAX_CHARS) + "... [" + (payload.length() - MAX_CHARS) + " more chars]";
+    }
+}
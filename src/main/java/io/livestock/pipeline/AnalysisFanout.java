@@ -0,0 +1,287 @@
+package io.livestock.pipeline;
+
+import io.livestock.domain.NewsAnalysis;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Fans analyses out to stream subscribers, each with its own bounded buffer.
+ * <p>
+ * A subscriber that stops requesting (a stalled dashboard tab, a slow network) only ever holds
+ * {@code bufferSize} analyses. Once its buffer is full the {@link SlowConsumerPolicy} applies. Subscribers
+ * whose buffer has not moved for {@code idleTimeout} are disconnected by a periodic sweep. New subscribers
+ * first receive the last {@code replaySize} analyses. A subscriber to one symbol only receives, buffers and
+ * replays analyses tagged with that symbol.
+ */
+public class AnalysisFanout implements MeterBinder {
+
+    public enum SlowConsumerPolicy {
+        // discard the new analysis
+        DROP,
+        // discard everything buffered and keep only the new analysis
+        CONFLATE,
+        // complete the subscriber's stream; browsers reconnect and get the replay
+        DISCONNECT
+    }
+
+    private final int bufferSize;
+    private final int replaySize;
+    private final SlowConsumerPolicy policy;
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoTime;
+
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // guarded by this
+    private final ArrayDeque<NewsAnalysis> replay = new ArrayDeque<>();
+    private final Disposable sweeper;
+
+    private final LongAdder emitted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder slowDisconnects = new LongAdder();
+    private final LongAdder idleDisconnects = new LongAdder();
+
+    public AnalysisFanout(int bufferSize, int replaySize, SlowConsumerPolicy policy, Duration idleTimeout) {
+        this(bufferSize, replaySize, policy, idleTimeout, System::nanoTime, true);
+    }
+
+    AnalysisFanout(int bufferSize, int replaySize, SlowConsumerPolicy policy, Duration idleTimeout,
+            LongSupplier nanoTime, boolean sweep) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Stream buffer size must be positive: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.policy = policy;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.nanoTime = nanoTime;
+        long sweepMillis = Math.max(1, idleTimeout.toMillis() / 4);
+        this.sweeper = sweep
+                ? Schedulers.parallel().schedulePeriodically(this::evictIdle, sweepMillis, sweepMillis,
+                        TimeUnit.MILLISECONDS)
+                : Disposables.disposed();
+    }
+
+    /**
+     * Deliver an analysis to every current subscriber and the replay buffer.
+     *
+     * @param analysis The analysis to publish.
+     */
+    public void publish(NewsAnalysis analysis) {
+        synchronized (this) {
+            replay.addLast(analysis);
+            if (replay.size() > replaySize) {
+                replay.pollFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.wants(analysis)) {
+                    subscriber.enqueue(analysis);
+                }
+            }
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.drain();
+        }
+    }
+
+    /**
+     * Subscribe to analyses, starting with the replay buffer.
+     *
+     * @return Flux of analyses for one subscriber.
+     */
+    public Flux<NewsAnalysis> subscribe() {
+        return subscribe(null);
+    }
+
+    /**
+     * Subscribe to analyses tagged with one symbol, starting with the matching part of the replay buffer.
+     *
+     * @param symbol The ticker symbol, or null for every analysis.
+     * @return Flux of analyses for one subscriber.
+     */
+    public Flux<NewsAnalysis> subscribe(String symbol) {
+        return Flux.create(sink -> {
+            Subscriber subscriber = new Subscriber(sink, symbol);
+            synchronized (this) {
+                List<NewsAnalysis> matching = replay.stream().filter(subscriber::wants).toList();
+                subscriber.buffer.addAll(matching.subList(Math.max(0, matching.size() - bufferSize),
+                        matching.size()));
+                subscribers.add(subscriber);
+            }
+            sink.onRequest(n -> subscriber.drain());
+            sink.onDispose(() -> subscribers.remove(subscriber));
+        });
+    }
+
+    public int replaySize() {
+        return replaySize;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Largest number of analyses buffered for any one subscriber.
+     *
+     * @return int
+     */
+    public int maxLag() {
+        int max = 0;
+        for (Subscriber subscriber : subscribers) {
+            max = Math.max(max, subscriber.lag());
+        }
+        return max;
+    }
+
+    public int totalLag() {
+        int total = 0;
+        for (Subscriber subscriber : subscribers) {
+            total += subscriber.lag();
+        }
+        return total;
+    }
+
+    /**
+     * Stop the idle sweep and complete every subscriber.
+     */
+    public void close() {
+        sweeper.dispose();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.sink.complete();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("livestock.stream.subscribers", this, AnalysisFanout::subscriberCount)
+                .register(registry);
+        Gauge.builder("livestock.stream.lag.max", this, AnalysisFanout::maxLag)
+                .description("Most analyses buffered for a single subscriber")
+                .register(registry);
+        Gauge.builder("livestock.stream.lag.total", this, AnalysisFanout::totalLag)
+                .description("Analyses buffered across all subscribers")
+                .register(registry);
+        FunctionCounter.builder("livestock.stream.emitted", emitted, LongAdder::sum)
+                .description("Analyses delivered to subscribers")
+                .register(registry);
+        FunctionCounter.builder("livestock.stream.dropped", dropped, LongAdder::sum)
+                .tag("policy", policy.name().toLowerCase())
+                .description("Analyses discarded for subscribers with a full buffer")
+                .register(registry);
+        FunctionCounter.builder("livestock.stream.disconnects", slowDisconnects, LongAdder::sum)
+                .tag("reason", "slow")
+                .register(registry);
+        FunctionCounter.builder("livestock.stream.disconnects", idleDisconnects, LongAdder::sum)
+                .tag("reason", "idle")
+                .register(registry);
+    }
+
+    /**
+     * Disconnect subscribers that have had analyses waiting without taking any for the idle timeout.
+     */
+    void evictIdle() {
+        long now = nanoTime.getAsLong();
+        List<Subscriber> snapshot = List.copyOf(subscribers);
+        for (Subscriber subscriber : snapshot) {
+            if (subscriber.lag() > 0 && now - subscriber.lastProgressNanos > idleTimeoutNanos) {
+                idleDisconnects.increment();
+                subscriber.sink.complete();
+            }
+        }
+    }
+
+    private final class Subscriber {
+
+        private final FluxSink<NewsAnalysis> sink;
+        // null for every analysis
+        private final String symbol;
+        // guarded by AnalysisFanout.this
+        private final ArrayDeque<NewsAnalysis> buffer = new ArrayDeque<>();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile long lastProgressNanos = nanoTime.getAsLong();
+        private boolean disconnect;
+
+        private Subscriber(FluxSink<NewsAnalysis> sink, String symbol) {
+            this.sink = sink;
+            this.symbol = symbol;
+        }
+
+        private boolean wants(NewsAnalysis analysis) {
+            return symbol == null || analysis.symbols().contains(symbol);
+        }
+
+        // called with AnalysisFanout.this held
+        private void enqueue(NewsAnalysis analysis) {
+            if (buffer.isEmpty()) {
+                // an idle subscriber with nothing pending is not lagging
+                lastProgressNanos = nanoTime.getAsLong();
+            }
+            if (buffer.size() < bufferSize) {
+                buffer.addLast(analysis);
+                return;
+            }
+            switch (policy) {
+                case DROP -> dropped.increment();
+                case CONFLATE -> {
+                    dropped.add(buffer.size());
+                    buffer.clear();
+                    buffer.addLast(analysis);
+                }
+                case DISCONNECT -> disconnect = true;
+            }
+        }
+
+        private int lag() {
+            synchronized (AnalysisFanout.this) {
+                return buffer.size();
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                boolean slow;
+                synchronized (AnalysisFanout.this) {
+                    slow = disconnect;
+                }
+                if (slow) {
+                    slowDisconnects.increment();
+                    sink.complete();
+                    return;
+                }
+                while (!sink.isCancelled() && sink.requestedFromDownstream() > 0) {
+                    NewsAnalysis next;
+                    synchronized (AnalysisFanout.this) {
+                        next = buffer.pollFirst();
+                    }
+                    if (next == null) {
+                        break;
+                    }
+                    lastProgressNanos = nanoTime.getAsLong();
+                    emitted.increment();
+                    sink.next(next);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
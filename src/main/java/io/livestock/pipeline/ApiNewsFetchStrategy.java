@@ -1,19 +1,46 @@
 package io.livestock.pipeline;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.livestock.concurrent.BlockingExecutor;
+import io.livestock.concurrent.TokenBucket;
+import io.livestock.domain.NewsModels;
 import io.livestock.domain.NewsModels.Article;
 import io.livestock.domain.NewsModels.NewsApiResponse;
+import io.livestock.logging.LogPayloads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Fetches top headlines from NewsAPI.
+ * <p>
+ * In {@link FetchMode#ROTATE} mode each call fetches one category, cycling through them, which keeps request
+ * volume low on small API plans. In {@link FetchMode#CONCURRENT} mode each call requests every category and
+ * page at once with the asynchronous HTTP client, at most {@code concurrency} in flight and paced by a
+ * token bucket, and emits each page's articles as soon as its response arrives. A failed page is logged and
+ * skipped so the others still arrive.
+ * <p>
+ * Fetching is incremental: requests carry the validators of the previous response so an unchanged page
+ * costs a 304, and articles older than the category's high-water mark in {@link FetchState} are dropped
+ * right after parsing.
+ */
 @Component
 @Profile("!mock")
 public class ApiNewsFetchStrategy implements NewsFetchStrategy {
@@ -24,70 +51,275 @@ public class ApiNewsFetchStrategy implements NewsFetchStrategy {
     private final String apiKey;
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
-    private int currentCategoryIndex = 0;
+    private final BlockingExecutor blockingExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Settings settings;
+    private final TokenBucket rateLimit;
+    private final FetchState fetchState;
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    public enum FetchMode {
+        // one category per call
+        ROTATE,
+        // every category and page per call, concurrently
+        CONCURRENT
+    }
+
+    /**
+     * Fetch tuning.
+     *
+     * @param baseUrl       The NewsAPI base URL, without a trailing slash.
+     * @param mode          Whether to rotate through categories or fetch them all at once.
+     * @param concurrency   The most requests in flight in concurrent mode.
+     * @param ratePerSecond The sustained request rate in concurrent mode.
+     * @param burst         How many requests may start at once before the rate applies.
+     * @param pages         Pages requested per category in concurrent mode.
+     * @param pageSize      Articles per page in concurrent mode.
+     */
+    public record Settings(String baseUrl, FetchMode mode, int concurrency, double ratePerSecond, int burst,
+            int pages, int pageSize) {
+
+        public static Settings defaults() {
+            return new Settings("https://newsapi.org/v2", FetchMode.ROTATE, 4, 5.0, 4, 1, 100);
+        }
+    }
 
     @org.springframework.beans.factory.annotation.Autowired
     public ApiNewsFetchStrategy(
             @Value("${news.api.key}") String apiKey,
-            ObjectMapper objectMapper) {
-        this(apiKey, objectMapper, HttpClient.newHttpClient());
+            @Value("${news.api.base-url:https://newsapi.org/v2}") String baseUrl,
+            @Value("${livestock.fetch.mode:rotate}") String mode,
+            @Value("${livestock.fetch.concurrency:4}") int concurrency,
+            @Value("${livestock.fetch.rate-per-second:5.0}") double ratePerSecond,
+            @Value("${livestock.fetch.burst:4}") int burst,
+            @Value("${livestock.fetch.pages:1}") int pages,
+            @Value("${livestock.fetch.page-size:100}") int pageSize,
+            ObjectMapper objectMapper,
+            BlockingExecutor blockingExecutor,
+            MeterRegistry meterRegistry,
+            FetchState fetchState) {
+        this(apiKey, objectMapper, HttpClient.newHttpClient(), blockingExecutor, meterRegistry,
+                new Settings(baseUrl, fetchMode(mode), concurrency, ratePerSecond, burst, pages, pageSize),
+                fetchState);
     }
 
     public ApiNewsFetchStrategy(String apiKey, ObjectMapper objectMapper, HttpClient httpClient) {
+        this(apiKey, objectMapper, httpClient, BlockingExecutor.boundedElastic(), new SimpleMeterRegistry());
+    }
+
+    public ApiNewsFetchStrategy(String apiKey, ObjectMapper objectMapper, HttpClient httpClient,
+            BlockingExecutor blockingExecutor, MeterRegistry meterRegistry) {
+        this(apiKey, objectMapper, httpClient, blockingExecutor, meterRegistry, Settings.defaults());
+    }
+
+    public ApiNewsFetchStrategy(String apiKey, ObjectMapper objectMapper, HttpClient httpClient,
+            BlockingExecutor blockingExecutor, MeterRegistry meterRegistry, Settings settings) {
+        this(apiKey, objectMapper, httpClient, blockingExecutor, meterRegistry, settings,
+                new FetchState(Duration.ofHours(1), null));
+    }
+
+    public ApiNewsFetchStrategy(String apiKey, ObjectMapper objectMapper, HttpClient httpClient,
+            BlockingExecutor blockingExecutor, MeterRegistry meterRegistry, Settings settings,
+            FetchState fetchState) {
+        if (settings.concurrency() < 1 || settings.pages() < 1 || settings.pageSize() < 1) {
+            throw new IllegalArgumentException("Invalid fetch settings: " + settings);
+        }
         this.apiKey = apiKey;
         this.objectMapper = objectMapper;
         this.httpClient = httpClient;
+        this.blockingExecutor = blockingExecutor;
+        this.meterRegistry = meterRegistry;
+        this.settings = settings;
+        this.rateLimit = new TokenBucket(settings.ratePerSecond(), settings.burst());
+        this.fetchState = fetchState;
+    }
+
+    private static FetchMode fetchMode(String mode) {
+        return switch (mode.toLowerCase()) {
+            case "rotate" -> FetchMode.ROTATE;
+            case "concurrent" -> FetchMode.CONCURRENT;
+            default -> throw new IllegalStateException(
+                    "Unsupported livestock.fetch.mode=%s (expected: rotate, concurrent)".formatted(mode));
+        };
     }
 
     @Override
     public Flux<List<Article>> fetchArticles() {
-        return Flux.create(sink -> {
-            try {
-                // Rotate category
-                String category = CATEGORIES[currentCategoryIndex];
-                currentCategoryIndex = (currentCategoryIndex + 1) % CATEGORIES.length;
-
-                String url = "https://newsapi.org/v2/top-headlines?country=us&category=" + category + "&apiKey="
-                        + apiKey;
-
-                logger.info("Fetching news from NewsAPI: {}",
-                        "https://newsapi.org/v2/top-headlines?country=us&category=" + category + "&apiKey=[HIDDEN]");
-
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .GET()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-                if (response.statusCode() == 200) {
-                    processResponse(response.body(), sink);
-                } else {
-                    logger.error("News API Error: {} Status {}", response, response.statusCode());
-                    sink.error(new RuntimeException("API Error: " + response.statusCode()));
-                }
-            } catch (Exception e) {
-                logger.error("News API Exception", e);
-                sink.error(e); // Propagate error but don't stop the flux forever (retry handled upstream if
-                // any)
+        return settings.mode() == FetchMode.CONCURRENT ? fetchAll() : fetchNextCategory();
+    }
+
+    private Flux<List<Article>> fetchAll() {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            int requests = CATEGORIES.length * settings.pages();
+            // marks are read once per sweep, so a newer first page cannot hide a later page of the same category
+            long[] since = new long[CATEGORIES.length];
+            for (int c = 0; c < CATEGORIES.length; c++) {
+                since[c] = fetchState.since(CATEGORIES[c]);
             }
+            // first pages of every category go out before any second page
+            return Flux.range(0, requests)
+                    .flatMap(i -> rateLimit.acquire()
+                            .then(fetchPage(CATEGORIES[i % CATEGORIES.length], 1 + i / CATEGORIES.length,
+                                    since[i % CATEGORIES.length])),
+                            settings.concurrency())
+                    .doOnComplete(() -> Timer.builder("livestock.fetch.coverage")
+                            .description("Time to fetch every category and page in concurrent mode")
+                            .register(meterRegistry)
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
         });
     }
 
+    private Mono<List<Article>> fetchPage(String category, int page, long since) {
+        return Mono.defer(() -> {
+            String query = "/top-headlines?country=us&category=" + category + "&pageSize=" + settings.pageSize()
+                    + "&page=" + page;
+            logger.info("Fetching news from NewsAPI: {}", settings.baseUrl() + query + "&apiKey=[HIDDEN]");
+            HttpRequest request = request(query);
+
+            long start = System.nanoTime();
+            return Mono.fromFuture(() -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                    .flatMap(response -> processResponse(query, category, since, response))
+                    .doOnSuccess(articles -> recordFetch(category, "success", start, articles == null ? 0 : articles.size()))
+                    .onErrorResume(e -> {
+                        recordFetch(category, "error", start, 0);
+                        logger.error("News API Exception for {} page {}", category, page, e);
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    private Flux<List<Article>> fetchNextCategory() {
+        return Flux.defer(() -> {
+            // Rotate category
+            String category = CATEGORIES[Math.floorMod(rotation.getAndIncrement(), CATEGORIES.length)];
+
+            String query = "/top-headlines?country=us&category=" + category;
+
+            logger.info("Fetching news from NewsAPI: {}", settings.baseUrl() + query + "&apiKey=[HIDDEN]");
+
+            HttpRequest request = request(query);
+            long since = fetchState.since(category);
+
+            // The send blocks, so it runs on the blocking executor rather than the caller's thread
+            long start = System.nanoTime();
+            return blockingExecutor.call(() -> httpClient.send(request, HttpResponse.BodyHandlers.ofString()))
+                    .flatMap(response -> processResponse(query, category, since, response))
+                    .doOnSuccess(articles -> recordFetch(category, "success", start, articles == null ? 0 : articles.size()))
+                    .doOnError(e -> {
+                        recordFetch(category, "error", start, 0);
+                        logger.error("News API Exception", e);
+                    })
+                    .flux();
+        });
+    }
+
+    /**
+     * Build a GET for a query, conditional on the validators of its last response.
+     *
+     * @param query The path and query string, without credentials.
+     * @return The request.
+     */
+    private HttpRequest request(String query) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(settings.baseUrl() + query + "&apiKey=" + apiKey))
+                .GET();
+        FetchState.Validators validators = fetchState.validators(query);
+        if (validators != null) {
+            if (validators.etag() != null) {
+                builder.header("If-None-Match", validators.etag());
+            }
+            if (validators.lastModified() != null) {
+                builder.header("If-Modified-Since", validators.lastModified());
+            }
+        }
+        return builder.build();
+    }
+
+    private void recordFetch(String category, String outcome, long startNanos, int articles) {
+        Timer.builder("livestock.fetch")
+                .tag("category", category)
+                .tag("outcome", outcome)
+                .description("NewsAPI request latency, including response parsing")
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("livestock.fetch.articles")
+                .tag("category", category)
+                .description("Articles returned per NewsAPI request")
+                .register(meterRegistry)
+                .record(articles);
+    }
+
     /**
-     * Process the response from the News API and emit articles to the sink.
+     * Process the response from the News API.
      *
-     * @param body The response body as a string.
-     * @param sink The sink to emit articles to.
+     * @param query    The request's path and query string, without credentials.
+     * @param category The category requested.
+     * @param since    The oldest publication time to keep, in epoch millis.
+     * @param response The HTTP response.
+     * @return Mono emitting the articles not older than {@code since}, an empty list if the page is unchanged,
+     *         or an error for any other non-200 status or an unreadable body.
      */
-    private void processResponse(String body, reactor.core.publisher.FluxSink<List<Article>> sink) {
-        try {
-            logger.info("Received News API Response: {} Content-Length: {}", body, body.length());
+    private Mono<List<Article>> processResponse(String query, String category, long since,
+            HttpResponse<String> response) {
+        if (response.statusCode() == 304) {
+            Counter.builder("livestock.fetch.not-modified")
+                    .tag("category", category)
+                    .description("NewsAPI requests answered 304 Not Modified")
+                    .register(meterRegistry)
+                    .increment();
+            return Mono.just(List.of());
+        }
+        if (response.statusCode() != 200) {
+            logger.error("News API Error: {} Status {} Body: {}", response, response.statusCode(),
+                    LogPayloads.capped(response.body()));
+            return Mono.error(new RuntimeException("API Error: " + response.statusCode()));
+        }
+        return Mono.fromCallable(() -> {
+            String body = response.body();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Received News API Response: {} Content-Length: {}", LogPayloads.capped(body),
+                        body.length());
+            }
             NewsApiResponse apiResponse = objectMapper.readValue(body, NewsApiResponse.class);
-            sink.next(apiResponse.articles());
-            sink.complete();
-        } catch (Exception e) {
-            sink.error(e);
+            List<Article> articles = newerThan(category, since, apiResponse.articles());
+            fetchState.remember(query, response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null));
+            return articles;
+        });
+    }
+
+    /**
+     * Drop articles published before {@code since} and raise the category's high-water mark. Articles
+     * without a readable publication time are kept; the dedup index decides on them.
+     *
+     * @param category The category requested.
+     * @param since    The oldest publication time to keep, in epoch millis.
+     * @param articles The parsed articles, possibly null.
+     * @return The articles to process.
+     */
+    private List<Article> newerThan(String category, long since, List<Article> articles) {
+        if (articles == null || articles.isEmpty()) {
+            return List.of();
+        }
+        List<Article> fresh = new ArrayList<>(articles.size());
+        long newest = NewsModels.UNKNOWN_TIME;
+        for (Article article : articles) {
+            long publishedAt = NewsModels.epochMillis(article.publishedAt());
+            if (publishedAt == NewsModels.UNKNOWN_TIME || publishedAt >= since) {
+                fresh.add(article);
+            }
+            newest = Math.max(newest, publishedAt);
+        }
+        fetchState.advance(category, newest);
+        int skipped = articles.size() - fresh.size();
+        if (skipped > 0) {
+            Counter.builder("livestock.fetch.skipped")
+                    .tag("category", category)
+                    .description("Articles dropped as older than the category's high-water mark")
+                    .register(meterRegistry)
+                    .increment(skipped);
         }
+        return fresh;
     }
 }
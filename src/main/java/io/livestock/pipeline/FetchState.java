@@ -0,0 +1,202 @@
+package io.livestock.pipeline;
+
+import io.livestock.domain.NewsModels;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What has already been fetched from the news source, so polls only pay for new articles.
+ * <p>
+ * Per category it keeps a high-water mark: the newest {@code publishedAt} seen, in epoch millis. Articles
+ * published more than {@code lookback} before it are skipped as soon as a response is parsed; the lookback
+ * lets late-indexed articles through, and the dedup index catches the repeats among them. Per request it
+ * keeps the {@code ETag} and {@code Last-Modified} validators for conditional requests. Like the dedup
+ * index, the state can be written to disk on shutdown and reloaded on startup.
+ */
+@Component
+public class FetchState {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(FetchState.class);
+    private static final int SNAPSHOT_MAGIC = 0x46535431; // "FST1"
+
+    /**
+     * Cache validators from the last successful response.
+     *
+     * @param etag         The ETag header, or null.
+     * @param lastModified The Last-Modified header, or null.
+     */
+    public record Validators(String etag, String lastModified) {
+    }
+
+    private final long lookbackMillis;
+    private final Path snapshotPath;
+    private final Map<String, Long> highWater = new ConcurrentHashMap<>();
+    private final Map<String, Validators> validators = new ConcurrentHashMap<>();
+
+    @Autowired
+    public FetchState(
+            @Value("${livestock.fetch.high-water-lookback:1h}") Duration lookback,
+            @Value("${livestock.fetch.state-path:}") String snapshotPath) {
+        this(lookback, snapshotPath.isBlank() ? null : Path.of(snapshotPath));
+    }
+
+    public FetchState(Duration lookback, Path snapshotPath) {
+        this.lookbackMillis = lookback.toMillis();
+        this.snapshotPath = snapshotPath;
+    }
+
+    /**
+     * Oldest publication time still worth processing for a category.
+     *
+     * @param category The category.
+     * @return Epoch millis, or {@link NewsModels#UNKNOWN_TIME} if the category has not been fetched.
+     */
+    public long since(String category) {
+        Long mark = highWater.get(category);
+        return mark == null ? NewsModels.UNKNOWN_TIME : mark - lookbackMillis;
+    }
+
+    /**
+     * Raise a category's high-water mark.
+     *
+     * @param category    The category.
+     * @param publishedAt The newest publication time in a response, in epoch millis.
+     */
+    public void advance(String category, long publishedAt) {
+        if (publishedAt != NewsModels.UNKNOWN_TIME) {
+            highWater.merge(category, publishedAt, Math::max);
+        }
+    }
+
+    public Validators validators(String resource) {
+        return validators.get(resource);
+    }
+
+    /**
+     * Remember the validators of a response; a response without any clears them.
+     *
+     * @param resource     The request, without credentials.
+     * @param etag         The ETag header, or null.
+     * @param lastModified The Last-Modified header, or null.
+     */
+    public void remember(String resource, String etag, String lastModified) {
+        if (etag == null && lastModified == null) {
+            validators.remove(resource);
+        } else {
+            validators.put(resource, new Validators(etag, lastModified));
+        }
+    }
+
+    /**
+     * Restore the state from the configured snapshot file, if any.
+     */
+    @PostConstruct
+    public void restore() {
+        if (snapshotPath != null) {
+            load(snapshotPath);
+        }
+    }
+
+    /**
+     * Write the state to the configured snapshot file, if any.
+     */
+    @PreDestroy
+    public void persist() {
+        if (snapshotPath != null) {
+            snapshot(snapshotPath);
+        }
+    }
+
+    /**
+     * Write the state to the given file. The file is replaced atomically.
+     *
+     * @param path The snapshot file.
+     */
+    public void snapshot(Path path) {
+        Map<String, Long> marks = Map.copyOf(highWater);
+        Map<String, Validators> saved = Map.copyOf(validators);
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(marks.size());
+                for (Map.Entry<String, Long> entry : marks.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+                out.writeInt(saved.size());
+                for (Map.Entry<String, Validators> entry : saved.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    writeNullable(out, entry.getValue().etag());
+                    writeNullable(out, entry.getValue().lastModified());
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Fetch state written: {} categories, {} validators to {}", marks.size(), saved.size(), path);
+        } catch (IOException e) {
+            logger.warn("Failed to write fetch state to {}", path, e);
+        }
+    }
+
+    /**
+     * Load state from a snapshot file, keeping the later of any high-water marks.
+     * A missing or unreadable file leaves the state unchanged.
+     *
+     * @param path The snapshot file.
+     */
+    public void load(Path path) {
+        if (!Files.isReadable(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                logger.warn("Ignoring fetch state with unknown format: {}", path);
+                return;
+            }
+            int marks = in.readInt();
+            for (int i = 0; i < marks; i++) {
+                advance(in.readUTF(), in.readLong());
+            }
+            int saved = in.readInt();
+            for (int i = 0; i < saved; i++) {
+                String resource = in.readUTF();
+                String etag = readNullable(in);
+                String lastModified = readNullable(in);
+                validators.putIfAbsent(resource, new Validators(etag, lastModified));
+            }
+            logger.info("Fetch state restored: {} categories, {} validators from {}", marks, saved, path);
+        } catch (IOException e) {
+            logger.warn("Failed to read fetch state from {}", path, e);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
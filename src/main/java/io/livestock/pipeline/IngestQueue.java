@@ -0,0 +1,397 @@
+package io.livestock.pipeline;
+
+import io.livestock.domain.NewsItem;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded queue between producers and the analysis stage.
+ * <p>
+ * Items are handed to the single subscriber of {@link #asFlux()} only as fast as it requests them, in the
+ * order the {@link IngestScheduler} picks (arrival order by default), so the backlog lives here and is
+ * bounded by {@code capacity}. Items past their freshness deadline are dropped on the way out. When the
+ * queue is full such items are dropped first, and if none are left the {@link OverflowPolicy} decides
+ * what happens to a new item. Offers never block the calling thread; under
+ * {@link OverflowPolicy#BLOCK_WITH_TIMEOUT}, and for {@link #offer(NewsItem, Duration)} under any policy,
+ * the returned {@link Mono} completes once space frees up or the wait ends.
+ */
+public class IngestQueue implements MeterBinder {
+
+    public enum OverflowPolicy {
+        // refuse the new item
+        REJECT,
+        // evict the longest-queued item to make room
+        DROP_OLDEST,
+        // evict the lowest-priority queued item (oldest first on ties), or refuse the new item if it ranks lowest
+        DROP_LOWEST_PRIORITY,
+        // wait for space up to the configured timeout, then refuse
+        BLOCK_WITH_TIMEOUT
+    }
+
+    private static final Duration MIN_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_AFTER = Duration.ofSeconds(60);
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final ToIntFunction<NewsItem> priority;
+    private final Duration blockTimeout;
+
+    // guarded by this
+    private final IngestScheduler items;
+    private final ArrayDeque<BlockedOffer> blocked = new ArrayDeque<>();
+    private boolean closed;
+    private double drainRate;
+    private long rateWindowStart = System.nanoTime();
+    private int drainedInWindow;
+
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile BooleanSupplier ready = () -> true;
+    private volatile FluxSink<NewsItem> consumer;
+    private final Flux<NewsItem> flux = Flux.create(sink -> {
+        consumer = sink;
+        sink.onRequest(n -> drain());
+        sink.onDispose(() -> consumer = null);
+    });
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder refusedClosed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public IngestQueue(int capacity, OverflowPolicy policy) {
+        this(capacity, policy, item -> 0, Duration.ofSeconds(1));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity     The maximum number of queued items.
+     * @param policy       What to do with new items when the queue is full.
+     * @param priority     Item priority for {@link OverflowPolicy#DROP_LOWEST_PRIORITY}; higher is kept longer.
+     * @param blockTimeout How long an offer may wait under {@link OverflowPolicy#BLOCK_WITH_TIMEOUT}.
+     */
+    public IngestQueue(int capacity, OverflowPolicy policy, ToIntFunction<NewsItem> priority, Duration blockTimeout) {
+        this(capacity, policy, priority, blockTimeout, IngestScheduler.fifo());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity     The maximum number of queued items.
+     * @param policy       What to do with new items when the queue is full.
+     * @param priority     Item priority for {@link OverflowPolicy#DROP_LOWEST_PRIORITY}; higher is kept longer.
+     * @param blockTimeout How long an offer may wait under {@link OverflowPolicy#BLOCK_WITH_TIMEOUT}.
+     * @param scheduler    The order queued items are handed out in; used only under this queue's lock.
+     */
+    public IngestQueue(int capacity, OverflowPolicy policy, ToIntFunction<NewsItem> priority, Duration blockTimeout,
+            IngestScheduler scheduler) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Ingest queue capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+        this.priority = priority;
+        this.blockTimeout = blockTimeout;
+        this.items = scheduler;
+        scheduler.rankBy(priority);
+    }
+
+    /**
+     * Offer an item to the queue.
+     *
+     * @param item The item to enqueue.
+     * @return Mono emitting whether the item was queued; never errors.
+     */
+    public Mono<IngestResult> offer(NewsItem item) {
+        if (policy == OverflowPolicy.BLOCK_WITH_TIMEOUT) {
+            return offer(item, blockTimeout);
+        }
+        IngestResult result;
+        synchronized (this) {
+            result = closed ? IngestResult.closed(retryAfterLocked()) : enqueueLocked(item);
+        }
+        return Mono.just(settle(result));
+    }
+
+    /**
+     * Offer an item, waiting for space before the overflow policy applies. Waiting offers are admitted in
+     * order as the subscriber takes items; none holds a thread.
+     *
+     * @param item    The item to enqueue.
+     * @param maxWait How long to wait for space; after that the item is evicted for or refused as usual.
+     * @return Mono emitting whether the item was queued; never errors.
+     */
+    public Mono<IngestResult> offer(NewsItem item, Duration maxWait) {
+        return Mono.create(sink -> offerOrWait(item, maxWait, sink));
+    }
+
+    /**
+     * The queued items, in order, as the subscriber requests them. Supports a single subscriber.
+     *
+     * @return Flux of queued items.
+     */
+    public Flux<NewsItem> asFlux() {
+        return asFlux(() -> true);
+    }
+
+    /**
+     * The queued items, in order, as the subscriber requests them and only while {@code ready} holds, so
+     * items the subscriber cannot start on yet stay here, where the scheduler still orders and expires
+     * them. Supports a single subscriber, which must request again, or call {@link #signal()}, once it is
+     * ready for more.
+     *
+     * @param ready Whether the subscriber can start on another item now.
+     * @return Flux of queued items.
+     */
+    public Flux<NewsItem> asFlux(BooleanSupplier ready) {
+        this.ready = ready;
+        return flux;
+    }
+
+    /**
+     * Hand out queued items again if the subscriber has demand; for when it becomes ready without
+     * requesting.
+     */
+    public void signal() {
+        drain();
+    }
+
+    /**
+     * Refuse further offers and release waiting producers. Items already queued are still delivered.
+     */
+    public void close() {
+        List<BlockedOffer> released;
+        IngestResult result;
+        synchronized (this) {
+            closed = true;
+            released = new ArrayList<>(blocked);
+            blocked.clear();
+            result = IngestResult.closed(retryAfterLocked());
+        }
+        for (BlockedOffer offer : released) {
+            offer.sink().success(settle(result));
+        }
+    }
+
+    public synchronized int depth() {
+        return items.size();
+    }
+
+    /**
+     * @param priorityClass Index of the class in the scheduler's class list.
+     * @return Items queued in the class.
+     */
+    public synchronized int classDepth(int priorityClass) {
+        return items.size(priorityClass);
+    }
+
+    public synchronized int waiting() {
+        return blocked.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Estimated time for the current backlog to drain at the recently observed rate.
+     *
+     * @return Duration between one second and one minute.
+     */
+    public synchronized Duration retryAfter() {
+        return retryAfterLocked();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("livestock.ingest.queue.depth", this, IngestQueue::depth)
+                .register(registry);
+        List<IngestScheduler.PriorityClass> classes = items.classes();
+        for (int i = 0; i < classes.size(); i++) {
+            int index = i;
+            Gauge.builder("livestock.ingest.queue.class-depth", this, queue -> queue.classDepth(index))
+                    .tag("class", classes.get(i).name())
+                    .register(registry);
+        }
+        Gauge.builder("livestock.ingest.queue.waiting", this, IngestQueue::waiting)
+                .description("Producers waiting for space under the block-with-timeout policy")
+                .register(registry);
+        FunctionCounter.builder("livestock.ingest.offers", accepted, LongAdder::sum)
+                .tag("result", "accepted")
+                .register(registry);
+        FunctionCounter.builder("livestock.ingest.offers", rejected, LongAdder::sum)
+                .tag("result", "rejected")
+                .register(registry);
+        FunctionCounter.builder("livestock.ingest.offers", refusedClosed, LongAdder::sum)
+                .tag("result", "closed")
+                .register(registry);
+        FunctionCounter.builder("livestock.ingest.dropped", dropped, LongAdder::sum)
+                .tag("policy", policy.name().toLowerCase())
+                .description("Queued items evicted to make room for newer ones")
+                .register(registry);
+    }
+
+    private void offerOrWait(NewsItem item, Duration maxWait, MonoSink<IngestResult> sink) {
+        BlockedOffer offer = new BlockedOffer(item, sink);
+        IngestResult result;
+        synchronized (this) {
+            if (closed) {
+                result = IngestResult.closed(retryAfterLocked());
+            } else if (blocked.isEmpty() && (items.size() < capacity || items.purgeExpired() > 0)) {
+                items.add(item);
+                result = IngestResult.accepted();
+            } else {
+                blocked.addLast(offer);
+                result = null;
+            }
+        }
+        if (result != null) {
+            sink.success(settle(result));
+            return;
+        }
+        Disposable timeout = Schedulers.parallel().schedule(() -> expire(offer),
+                maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        sink.onDispose(timeout);
+        sink.onCancel(() -> withdraw(offer));
+    }
+
+    private void expire(BlockedOffer offer) {
+        IngestResult result;
+        synchronized (this) {
+            if (!blocked.remove(offer)) {
+                return;
+            }
+            result = enqueueLocked(offer.item());
+        }
+        offer.sink().success(settle(result));
+    }
+
+    private synchronized void withdraw(BlockedOffer offer) {
+        blocked.remove(offer);
+    }
+
+    // guarded by this
+    private IngestResult enqueueLocked(NewsItem item) {
+        if (items.size() < capacity || items.purgeExpired() > 0) {
+            items.add(item);
+            return IngestResult.accepted();
+        }
+        switch (policy) {
+            case DROP_OLDEST -> {
+                items.removeOldest();
+                dropped.increment();
+                items.add(item);
+                return IngestResult.accepted();
+            }
+            case DROP_LOWEST_PRIORITY -> {
+                if (items.removeBelow(priority.applyAsInt(item)) != null) {
+                    dropped.increment();
+                    items.add(item);
+                    return IngestResult.accepted();
+                }
+                return IngestResult.rejected(retryAfterLocked());
+            }
+            default -> {
+                return IngestResult.rejected(retryAfterLocked());
+            }
+        }
+    }
+
+    // guarded by this
+    private Duration retryAfterLocked() {
+        int backlog = items.size() + blocked.size();
+        if (drainRate <= 0 || backlog == 0) {
+            return MIN_RETRY_AFTER;
+        }
+        long seconds = (long) Math.ceil(backlog / drainRate);
+        return Duration.ofSeconds(Math.clamp(seconds, MIN_RETRY_AFTER.toSeconds(), MAX_RETRY_AFTER.toSeconds()));
+    }
+
+    private IngestResult settle(IngestResult result) {
+        switch (result.status()) {
+            case ACCEPTED -> {
+                accepted.increment();
+                drain();
+            }
+            case REJECTED -> rejected.increment();
+            case CLOSED -> refusedClosed.increment();
+        }
+        return result;
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            FluxSink<NewsItem> sink = consumer;
+            if (sink != null) {
+                while (!sink.isCancelled() && sink.requestedFromDownstream() > 0 && ready.getAsBoolean()) {
+                    NewsItem next = poll();
+                    if (next == null) {
+                        break;
+                    }
+                    sink.next(next);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private NewsItem poll() {
+        NewsItem next;
+        List<BlockedOffer> admitted = new ArrayList<>();
+        synchronized (this) {
+            next = items.poll();
+            if (next != null) {
+                recordDrainLocked();
+            }
+            // expired items dropped by the poll free space too
+            while (!blocked.isEmpty() && items.size() < capacity) {
+                BlockedOffer offer = blocked.pollFirst();
+                items.add(offer.item());
+                admitted.add(offer);
+            }
+        }
+        for (BlockedOffer offer : admitted) {
+            offer.sink().success(settle(IngestResult.accepted()));
+        }
+        return next;
+    }
+
+    // guarded by this
+    private void recordDrainLocked() {
+        drainedInWindow++;
+        long now = System.nanoTime();
+        long elapsed = now - rateWindowStart;
+        if (elapsed >= RATE_WINDOW_NANOS) {
+            double rate = drainedInWindow * 1e9 / elapsed;
+            drainRate = drainRate == 0 ? rate : drainRate * 0.7 + rate * 0.3;
+            rateWindowStart = now;
+            drainedInWindow = 0;
+        }
+    }
+
+    private record BlockedOffer(NewsItem item, MonoSink<IngestResult> sink) {
+    }
+}
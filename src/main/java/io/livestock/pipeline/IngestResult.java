@@ -0,0 +1,38 @@
+package io.livestock.pipeline;
+
+import java.time.Duration;
+
+/**
+ * Outcome of offering an item to the pipeline.
+ *
+ * @param status     Whether the item was queued.
+ * @param retryAfter How long a rejected producer should wait before retrying; zero when accepted.
+ */
+public record IngestResult(Status status, Duration retryAfter) {
+
+    public enum Status {
+        ACCEPTED,
+        // queue full under the configured overload policy
+        REJECTED,
+        // pipeline shutting down
+        CLOSED
+    }
+
+    private static final IngestResult ACCEPTED = new IngestResult(Status.ACCEPTED, Duration.ZERO);
+
+    public static IngestResult accepted() {
+        return ACCEPTED;
+    }
+
+    public static IngestResult rejected(Duration retryAfter) {
+        return new IngestResult(Status.REJECTED, retryAfter);
+    }
+
+    public static IngestResult closed(Duration retryAfter) {
+        return new IngestResult(Status.CLOSED, retryAfter);
+    }
+
+    public boolean isAccepted() {
+        return status == Status.ACCEPTED;
+    }
+}
@@ -0,0 +1,448 @@
+package io.livestock.pipeline;
+
+import io.livestock.domain.NewsItem;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which queued item the analysis stage gets next.
+ * <p>
+ * Each item is put in a {@link PriorityClass} when it is queued. Classes with queued items take turns,
+ * each handing out up to {@code weight} items per turn; within a class the sources with queued items take
+ * turns one item each, so one busy producer cannot starve the others; and each source's items leave
+ * earliest freshness deadline first. An item's deadline is its publication time, or its arrival if
+ * unknown, plus its class's {@code maxAge}; items still queued at their deadline are dropped instead of
+ * being analyzed.
+ * <p>
+ * Besides the per-source queues, items are indexed by deadline, arrival and rank, so purging expired
+ * items and evicting the oldest or lowest-ranked one cost a logarithmic step rather than a scan. An item
+ * that leaves stays in the other indexes until it reaches their head, or until such items outnumber the
+ * live ones and the index is rebuilt.
+ * <p>
+ * Not thread-safe; {@link IngestQueue} calls it under its own lock.
+ */
+public class IngestScheduler implements MeterBinder {
+
+    /**
+     * A priority class.
+     *
+     * @param name   The name used to tag metrics.
+     * @param weight Items handed out per turn of the class.
+     * @param maxAge Age after which a queued item of this class is dropped, or null to keep it.
+     */
+    public record PriorityClass(String name, int weight, Duration maxAge) {
+    }
+
+    /**
+     * Puts an item in a class.
+     */
+    @FunctionalInterface
+    public interface Classifier {
+
+        /**
+         * @param item The queued item.
+         * @param now  The time it was queued.
+         * @return Index of its class in the scheduler's class list.
+         */
+        int classify(NewsItem item, Instant now);
+    }
+
+    // caps deadlines so wrap-safe nanoTime comparisons hold for items published long ago
+    private static final long HORIZON_MILLIS = TimeUnit.DAYS.toMillis(365);
+    // departed items an index may hold beyond twice its live ones before it is rebuilt
+    private static final int COMPACT_SLACK = 64;
+
+    // earliest deadline first, then arrival order
+    private static final Comparator<Entry> BY_DEADLINE = (a, b) -> a.deadline != b.deadline
+            ? Long.compare(a.deadline - b.deadline, 0)
+            : Long.compare(a.sequence, b.sequence);
+    // lowest rank first, then arrival order
+    private static final Comparator<Entry> BY_RANK = Comparator.<Entry>comparingInt(entry -> entry.rank)
+            .thenComparingLong(entry -> entry.sequence);
+
+    private final List<PriorityClass> classes;
+    private final Classifier classifier;
+    private final boolean fairBySource;
+    private final Clock clock;
+    private final LongSupplier nanoTime;
+
+    private final ClassQueue[] queues;
+    // classes with queued items, in turn order
+    private final ArrayDeque<ClassQueue> turns = new ArrayDeque<>();
+    private final PriorityQueue<Entry> deadlines = new PriorityQueue<>(BY_DEADLINE);
+    private final ArrayDeque<Entry> arrivals = new ArrayDeque<>();
+    private final PriorityQueue<Entry> ranks = new PriorityQueue<>(BY_RANK);
+    private ToIntFunction<NewsItem> priority = item -> 0;
+    private int size;
+    private long sequence;
+
+    private final LongAdder[] expired;
+    private volatile Timer[] waits;
+
+    /**
+     * Constructor.
+     *
+     * @param classes    The priority classes.
+     * @param classifier Picks each item's class.
+     */
+    public IngestScheduler(List<PriorityClass> classes, Classifier classifier) {
+        this(classes, classifier, true, Clock.systemUTC(), System::nanoTime);
+    }
+
+    IngestScheduler(List<PriorityClass> classes, Classifier classifier, boolean fairBySource, Clock clock,
+            LongSupplier nanoTime) {
+        if (classes.isEmpty() || classes.stream().anyMatch(c -> c.weight() < 1)) {
+            throw new IllegalArgumentException("Invalid priority classes: " + classes);
+        }
+        this.classes = List.copyOf(classes);
+        this.classifier = classifier;
+        this.fairBySource = fairBySource;
+        this.clock = clock;
+        this.nanoTime = nanoTime;
+        this.queues = new ClassQueue[classes.size()];
+        this.expired = new LongAdder[classes.size()];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ClassQueue(i, this.classes.get(i));
+            expired[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * A single class without deadlines: items leave in arrival order.
+     *
+     * @return IngestScheduler
+     */
+    public static IngestScheduler fifo() {
+        return new IngestScheduler(List.of(new PriorityClass("default", 1, null)), (item, now) -> 0, false,
+                Clock.systemUTC(), System::nanoTime);
+    }
+
+    /**
+     * Classifier for three classes: breaking (a keyword in the headline and published within
+     * {@code recentWithin}, or of unknown age), reputable (from one of {@code sources}) and standard.
+     *
+     * @param sources      Reputable source names, matched ignoring case.
+     * @param keywords     Breaking-news words, matched as whole words ignoring case.
+     * @param recentWithin How recently a breaking item must have been published.
+     * @return Classifier returning 0, 1 or 2.
+     */
+    public static Classifier rules(Collection<String> sources, Collection<String> keywords, Duration recentWithin) {
+        Set<String> reputable = sources.stream()
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(s -> s.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        String words = keywords.stream()
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|"));
+        Pattern breaking = words.isEmpty() ? null
+                : Pattern.compile("\\b(?:" + words + ")\\b", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        return (item, now) -> {
+            if (breaking != null && item.headline() != null && breaking.matcher(item.headline()).find()
+                    && (item.publishedAt() == null
+                            || !item.publishedAt().isBefore(now.minus(recentWithin)))) {
+                return 0;
+            }
+            if (item.source() != null && reputable.contains(item.source().trim().toLowerCase(Locale.ROOT))) {
+                return 1;
+            }
+            return 2;
+        };
+    }
+
+    public List<PriorityClass> classes() {
+        return classes;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rank items for {@link #removeBelow(int)}; call before queueing any item.
+     *
+     * @param priority Item rank; higher is kept longer.
+     */
+    public void rankBy(ToIntFunction<NewsItem> priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * @param index Index of the class.
+     * @return Items queued in the class.
+     */
+    public int size(int index) {
+        return queues[index].size;
+    }
+
+    /**
+     * When an item published at a known time goes stale: its publication time plus its class's
+     * {@code maxAge}. Reads only immutable state, so any thread may call it.
+     *
+     * @param item The item.
+     * @return The freshness deadline, or null if the item's age is unknown or its class keeps items forever.
+     */
+    public Instant staleAt(NewsItem item) {
+        if (item.publishedAt() == null) {
+            return null;
+        }
+        int index = classifier.classify(item, clock.instant());
+        Duration maxAge = index < 0 || index >= queues.length ? null : queues[index].type.maxAge();
+        return maxAge == null ? null : item.publishedAt().plus(maxAge);
+    }
+
+    /**
+     * Queue an item.
+     *
+     * @param item The item.
+     */
+    public void add(NewsItem item) {
+        Instant now = clock.instant();
+        int index = classifier.classify(item, now);
+        if (index < 0 || index >= queues.length) {
+            throw new IllegalStateException("Classifier returned class " + index + " of " + queues.length);
+        }
+        ClassQueue queue = queues[index];
+        long enqueuedAt = nanoTime.getAsLong();
+        long deadline = enqueuedAt + TimeUnit.MILLISECONDS.toNanos(deadlineOffsetMillis(item, queue.type, now));
+        String source = fairBySource && item.source() != null ? item.source() : "";
+        Flow flow = queue.flows.computeIfAbsent(source, key -> new Flow(queue, key));
+        if (flow.live++ == 0) {
+            queue.active.addLast(flow);
+        }
+        Entry entry = new Entry(item, flow, enqueuedAt, deadline, priority.applyAsInt(item), sequence++);
+        flow.entries.add(entry);
+        deadlines.add(entry);
+        arrivals.addLast(entry);
+        ranks.add(entry);
+        if (queue.size++ == 0) {
+            turns.addLast(queue);
+        }
+        size++;
+    }
+
+    /**
+     * Take the next item, dropping items whose deadline has passed.
+     *
+     * @return The item, or null if nothing is queued.
+     */
+    public NewsItem poll() {
+        long now = nanoTime.getAsLong();
+        while (!turns.isEmpty()) {
+            ClassQueue queue = turns.peekFirst();
+            Flow flow = queue.active.pollFirst();
+            if (flow.live == 0) {
+                // every item of the source was evicted
+                continue;
+            }
+            if (queue.credit == 0) {
+                queue.credit = queue.type.weight();
+            }
+            Entry entry = flow.entries.poll();
+            while (entry.removed) {
+                entry = flow.entries.poll();
+            }
+            boolean late = entry.deadline - now < 0;
+            remove(entry);
+            if (flow.live > 0) {
+                if (late) {
+                    // dropping an expired item does not use up the source's turn
+                    queue.active.addFirst(flow);
+                } else {
+                    queue.active.addLast(flow);
+                }
+            }
+            if (queue.size > 0 && !late && --queue.credit == 0) {
+                turns.addLast(turns.pollFirst());
+            }
+            if (late) {
+                expired[queue.index].increment();
+                continue;
+            }
+            Timer[] timers = waits;
+            if (timers != null) {
+                timers[queue.index].record(now - entry.enqueuedAt, TimeUnit.NANOSECONDS);
+            }
+            return entry.item;
+        }
+        return null;
+    }
+
+    /**
+     * Drop every queued item whose deadline has passed.
+     *
+     * @return Number of items dropped.
+     */
+    public int purgeExpired() {
+        long now = nanoTime.getAsLong();
+        int purged = 0;
+        Entry next;
+        while ((next = deadlines.peek()) != null && (next.removed || next.deadline - now < 0)) {
+            deadlines.poll();
+            if (!next.removed) {
+                remove(next);
+                expired[next.flow.queue.index].increment();
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    /**
+     * Remove the longest-queued item.
+     *
+     * @return The item, or null if nothing is queued.
+     */
+    public NewsItem removeOldest() {
+        Entry oldest = arrivals.pollFirst();
+        while (oldest != null && oldest.removed) {
+            oldest = arrivals.pollFirst();
+        }
+        if (oldest == null) {
+            return null;
+        }
+        remove(oldest);
+        return oldest.item;
+    }
+
+    /**
+     * Remove the lowest-ranked item, longest-queued first on ties, if it ranks below {@code incoming}.
+     *
+     * @param incoming Rank of the item that needs the space, as given by {@link #rankBy}.
+     * @return The removed item, or null if no queued item ranks below {@code incoming}.
+     */
+    public NewsItem removeBelow(int incoming) {
+        Entry lowest = ranks.peek();
+        while (lowest != null && lowest.removed) {
+            ranks.poll();
+            lowest = ranks.peek();
+        }
+        if (lowest == null || lowest.rank >= incoming) {
+            return null;
+        }
+        ranks.poll();
+        remove(lowest);
+        return lowest.item;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Timer[] timers = new Timer[queues.length];
+        for (ClassQueue queue : queues) {
+            String name = queue.type.name();
+            timers[queue.index] = Timer.builder("livestock.ingest.queue.wait")
+                    .tag("class", name)
+                    .description("Time items spent queued before analysis")
+                    .publishPercentileHistogram()
+                    .register(registry);
+            FunctionCounter.builder("livestock.ingest.expired", expired[queue.index], LongAdder::sum)
+                    .tag("class", name)
+                    .description("Queued items dropped at their freshness deadline")
+                    .register(registry);
+        }
+        waits = timers;
+    }
+
+    // marks the entry removed; the indexes drop it lazily, and poll skips its flow once the flow is empty
+    private void remove(Entry entry) {
+        entry.removed = true;
+        Flow flow = entry.flow;
+        ClassQueue queue = flow.queue;
+        if (--flow.live == 0) {
+            queue.flows.remove(flow.source);
+        }
+        size--;
+        if (--queue.size == 0) {
+            turns.remove(queue);
+            queue.credit = 0;
+        }
+        compact(flow.entries, flow.live);
+        compact(deadlines, size);
+        compact(arrivals, size);
+        compact(ranks, size);
+    }
+
+    private static void compact(Collection<Entry> index, int live) {
+        if (index.size() > 2 * live + COMPACT_SLACK) {
+            index.removeIf(entry -> entry.removed);
+        }
+    }
+
+    private static long deadlineOffsetMillis(NewsItem item, PriorityClass type, Instant now) {
+        if (type.maxAge() == null) {
+            return HORIZON_MILLIS;
+        }
+        Instant base = item.publishedAt() == null || item.publishedAt().isAfter(now) ? now : item.publishedAt();
+        long offset = base.toEpochMilli() - now.toEpochMilli() + type.maxAge().toMillis();
+        return Math.clamp(offset, -HORIZON_MILLIS, HORIZON_MILLIS);
+    }
+
+    private static final class ClassQueue {
+        private final int index;
+        private final PriorityClass type;
+        private final Map<String, Flow> flows = new HashMap<>();
+        // sources with queued items, in turn order; may hold emptied flows until their turn comes
+        private final ArrayDeque<Flow> active = new ArrayDeque<>();
+        private int size;
+        private int credit;
+
+        private ClassQueue(int index, PriorityClass type) {
+            this.index = index;
+            this.type = type;
+        }
+    }
+
+    private static final class Flow {
+        private final ClassQueue queue;
+        private final String source;
+        private final PriorityQueue<Entry> entries = new PriorityQueue<>(BY_DEADLINE);
+        private int live;
+
+        private Flow(ClassQueue queue, String source) {
+            this.queue = queue;
+            this.source = source;
+        }
+    }
+
+    private static final class Entry {
+        private final NewsItem item;
+        private final Flow flow;
+        private final long enqueuedAt;
+        private final long deadline;
+        private final int rank;
+        private final long sequence;
+        private boolean removed;
+
+        private Entry(NewsItem item, Flow flow, long enqueuedAt, long deadline, int rank, long sequence) {
+            this.item = item;
+            this.flow = flow;
+            this.enqueuedAt = enqueuedAt;
+            this.deadline = deadline;
+            this.rank = rank;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package io.livestock.pipeline;
+
+import io.livestock.domain.MoodSnapshot;
+import io.livestock.domain.MoodWindow;
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.Sentiment;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Rolling market mood: sentiment counts and risk scores over sliding and tumbling windows, overall and per
+ * source.
+ * <p>
+ * Time is cut into slots of {@code resolution}. Each series (all sources, and each source) keeps a ring of
+ * per-slot counters as long as the longest window, and running totals per window for the sliding window
+ * ending at the current slot and for the open and last closed tumbling windows, which are aligned to the
+ * epoch. Counters are one count per sentiment and one per risk score, so a slot leaving a window is
+ * subtracted from its total without revisiting any analysis, and the mean and percentiles come straight from
+ * the risk histogram. Adding an analysis touches a fixed set of ints and allocates nothing.
+ * <p>
+ * Analyses are placed by event time, the item's publication time when known. An analysis that arrives
+ * after its slot has passed still counts in every window that slot belongs to; one older than the longest
+ * window is dropped, and one from the future counts as now. Provisional analyses are not counted. Sources
+ * beyond {@code maxSources} count toward the overall mood only.
+ */
+public class MoodAggregator implements MeterBinder {
+
+    static final int MAX_RISK = 10;
+
+    private static final int SENTIMENTS = Sentiment.values().length;
+    private static final int NO_SENTIMENT = -1;
+    // counters per slot and per total: one per sentiment, then one per risk score 0..MAX_RISK
+    private static final int RISK = SENTIMENTS;
+    private static final int STRIDE = RISK + MAX_RISK + 1;
+
+    private final Duration[] lengths;
+    private final long[] windowSlots;
+    private final long resolutionMillis;
+    private final int ringSlots;
+    private final int maxSources;
+    private final Duration publishInterval;
+    private final LongSupplier currentTimeMillis;
+
+    // guarded by this
+    private final Series overall;
+    private final Map<String, Series> bySource = new HashMap<>();
+    private Series[] series;
+    private int seriesCount;
+    private long head;
+
+    private final LongAdder onTime = new LongAdder();
+    private final LongAdder late = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param windows         Window lengths, each a multiple of {@code resolution}.
+     * @param resolution      Slot length; sliding windows advance and late analyses are placed in steps of it.
+     * @param maxSources      Sources aggregated separately; each holds a ring as long as the longest window.
+     * @param publishInterval How often {@link #updates(String)} emits a snapshot.
+     */
+    public MoodAggregator(List<Duration> windows, Duration resolution, int maxSources, Duration publishInterval) {
+        this(windows, resolution, maxSources, publishInterval, System::currentTimeMillis);
+    }
+
+    MoodAggregator(List<Duration> windows, Duration resolution, int maxSources, Duration publishInterval,
+            LongSupplier currentTimeMillis) {
+        long resolutionMillis = resolution.toMillis();
+        if (windows.isEmpty() || resolutionMillis <= 0 || maxSources < 0 || windows.stream()
+                .anyMatch(window -> window.toMillis() <= 0 || window.toMillis() % resolutionMillis != 0)) {
+            throw new IllegalArgumentException(
+                    "Invalid mood windows %s at resolution %s".formatted(windows, resolution));
+        }
+        this.lengths = windows.toArray(Duration[]::new);
+        this.windowSlots = windows.stream().mapToLong(window -> window.toMillis() / resolutionMillis).toArray();
+        this.resolutionMillis = resolutionMillis;
+        this.ringSlots = Math.toIntExact(Arrays.stream(windowSlots).max().orElseThrow());
+        this.maxSources = maxSources;
+        this.publishInterval = publishInterval;
+        this.currentTimeMillis = currentTimeMillis;
+        this.overall = new Series(ringSlots, lengths.length);
+        this.series = new Series[] { overall };
+        this.seriesCount = 1;
+        this.head = currentSlot();
+    }
+
+    /**
+     * Count a final analysis.
+     *
+     * @param eventTime When the analyzed item happened, e.g. its publication time; null counts as now.
+     * @param analysis  The analysis.
+     */
+    public void add(Instant eventTime, NewsAnalysis analysis) {
+        if (analysis.provisional()) {
+            return;
+        }
+        int sentiment = analysis.sentiment() == null ? NO_SENTIMENT : analysis.sentiment().ordinal();
+        int risk = Math.max(0, Math.min(MAX_RISK, analysis.riskScore()));
+        long slot = eventTime == null ? Long.MAX_VALUE : Math.floorDiv(eventTime.toEpochMilli(), resolutionMillis);
+        synchronized (this) {
+            advance(currentSlot());
+            if (slot <= head - ringSlots) {
+                dropped.increment();
+                return;
+            }
+            (slot < head ? late : onTime).increment();
+            slot = Math.min(slot, head);
+            record(overall, slot, sentiment, risk);
+            Series source = source(analysis.source());
+            if (source != null) {
+                record(source, slot, sentiment, risk);
+            }
+        }
+    }
+
+    /**
+     * The current mood across all sources, or for one source.
+     *
+     * @param source The source, or null for all sources.
+     * @return MoodSnapshot; all counts are zero for a source with no analyses.
+     */
+    public synchronized MoodSnapshot snapshot(String source) {
+        advance(currentSlot());
+        return snapshot(source, source == null ? overall : bySource.get(source));
+    }
+
+    /**
+     * The current mood of each source, in order of first analysis.
+     *
+     * @return One snapshot per source.
+     */
+    public synchronized List<MoodSnapshot> sources() {
+        advance(currentSlot());
+        List<MoodSnapshot> snapshots = new ArrayList<>(seriesCount - 1);
+        for (int i = 1; i < seriesCount; i++) {
+            snapshots.add(snapshot(series[i].source, series[i]));
+        }
+        return snapshots;
+    }
+
+    /**
+     * Snapshots every {@code publishInterval}, starting now. A subscriber that falls behind skips snapshots
+     * rather than receiving stale ones.
+     *
+     * @param source The source, or null for all sources.
+     * @return Flux of MoodSnapshot objects.
+     */
+    public Flux<MoodSnapshot> updates(String source) {
+        return Flux.interval(Duration.ZERO, publishInterval)
+                .onBackpressureDrop()
+                .map(tick -> snapshot(source));
+    }
+
+    public synchronized int sourceCount() {
+        return seriesCount - 1;
+    }
+
+    /**
+     * The longest window; analyses with an older event time no longer count.
+     *
+     * @return Duration
+     */
+    public Duration longestWindow() {
+        Duration longest = lengths[0];
+        for (Duration length : lengths) {
+            if (length.compareTo(longest) > 0) {
+                longest = length;
+            }
+        }
+        return longest;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("livestock.mood.events", onTime, LongAdder::sum)
+                .tag("result", "on-time")
+                .register(registry);
+        FunctionCounter.builder("livestock.mood.events", late, LongAdder::sum)
+                .tag("result", "late")
+                .description("Analyses counted in a slot that had already passed")
+                .register(registry);
+        FunctionCounter.builder("livestock.mood.events", dropped, LongAdder::sum)
+                .tag("result", "dropped")
+                .description("Analyses older than the longest window")
+                .register(registry);
+        FunctionCounter.builder("livestock.mood.untracked", untracked, LongAdder::sum)
+                .description("Analyses from sources beyond the per-source limit, counted overall only")
+                .register(registry);
+        Gauge.builder("livestock.mood.sources", this, MoodAggregator::sourceCount)
+                .description("Sources with their own mood")
+                .register(registry);
+    }
+
+    private long currentSlot() {
+        return Math.floorDiv(currentTimeMillis.getAsLong(), resolutionMillis);
+    }
+
+    private void advance(long slot) {
+        if (slot <= head) {
+            return;
+        }
+        // after two of the longest windows every ring slot and every total has aged out
+        if (slot - head >= 2L * ringSlots) {
+            for (int i = 0; i < seriesCount; i++) {
+                series[i].clear();
+            }
+            head = slot;
+            return;
+        }
+        while (head < slot) {
+            head++;
+            for (int i = 0; i < seriesCount; i++) {
+                step(series[i], head);
+            }
+        }
+    }
+
+    // move a series' windows to end at the given slot, which takes over the ring position of the oldest one
+    private void step(Series s, long slot) {
+        for (int w = 0; w < windowSlots.length; w++) {
+            int total = w * STRIDE;
+            int expired = ringOffset(slot - windowSlots[w]);
+            for (int i = 0; i < STRIDE; i++) {
+                s.sliding[total + i] -= s.ring[expired + i];
+            }
+            if (Math.floorMod(slot, windowSlots[w]) == 0) {
+                System.arraycopy(s.open, total, s.closed, total, STRIDE);
+                Arrays.fill(s.open, total, total + STRIDE, 0);
+            }
+        }
+        int reused = ringOffset(slot);
+        Arrays.fill(s.ring, reused, reused + STRIDE, 0);
+    }
+
+    private void record(Series s, long slot, int sentiment, int risk) {
+        increment(s.ring, ringOffset(slot), sentiment, risk);
+        for (int w = 0; w < windowSlots.length; w++) {
+            int total = w * STRIDE;
+            long openStart = head - Math.floorMod(head, windowSlots[w]);
+            if (slot > head - windowSlots[w]) {
+                increment(s.sliding, total, sentiment, risk);
+            }
+            if (slot >= openStart) {
+                increment(s.open, total, sentiment, risk);
+            } else if (slot >= openStart - windowSlots[w]) {
+                increment(s.closed, total, sentiment, risk);
+            }
+        }
+    }
+
+    private static void increment(int[] counters, int offset, int sentiment, int risk) {
+        if (sentiment != NO_SENTIMENT) {
+            counters[offset + sentiment]++;
+        }
+        counters[offset + RISK + risk]++;
+    }
+
+    private Series source(String name) {
+        if (name == null) {
+            return null;
+        }
+        Series s = bySource.get(name);
+        if (s == null) {
+            if (seriesCount - 1 >= maxSources) {
+                untracked.increment();
+                return null;
+            }
+            s = new Series(ringSlots, lengths.length);
+            s.source = name;
+            bySource.put(name, s);
+            if (seriesCount == series.length) {
+                series = Arrays.copyOf(series, seriesCount * 2);
+            }
+            series[seriesCount++] = s;
+        }
+        return s;
+    }
+
+    private int ringOffset(long slot) {
+        return (int) Math.floorMod(slot, (long) ringSlots) * STRIDE;
+    }
+
+    private MoodSnapshot snapshot(String source, Series s) {
+        List<MoodWindow> windows = new ArrayList<>(lengths.length * 3);
+        for (int w = 0; w < lengths.length; w++) {
+            long openStart = head - Math.floorMod(head, windowSlots[w]);
+            windows.add(window(MoodWindow.Type.SLIDING, w, head - windowSlots[w] + 1, head + 1,
+                    s == null ? null : s.sliding));
+            windows.add(window(MoodWindow.Type.TUMBLING_OPEN, w, openStart, openStart + windowSlots[w],
+                    s == null ? null : s.open));
+            windows.add(window(MoodWindow.Type.TUMBLING_CLOSED, w, openStart - windowSlots[w], openStart,
+                    s == null ? null : s.closed));
+        }
+        return new MoodSnapshot(Instant.ofEpochMilli(currentTimeMillis.getAsLong()), source, List.copyOf(windows));
+    }
+
+    private MoodWindow window(MoodWindow.Type type, int w, long fromSlot, long toSlot, int[] totals) {
+        int offset = w * STRIDE;
+        long count = 0;
+        long riskSum = 0;
+        for (int r = 0; r <= MAX_RISK; r++) {
+            long n = totals == null ? 0 : totals[offset + RISK + r];
+            count += n;
+            riskSum += n * r;
+        }
+        int p90 = 0;
+        // nearest rank: the smallest score with at least 90% of the window at or below it
+        long rank = (count * 9 + 9) / 10;
+        long seen = 0;
+        for (int r = 0; r <= MAX_RISK && count > 0; r++) {
+            seen += totals[offset + RISK + r];
+            if (seen >= rank) {
+                p90 = r;
+                break;
+            }
+        }
+        return new MoodWindow(type, lengths[w],
+                Instant.ofEpochMilli(fromSlot * resolutionMillis), Instant.ofEpochMilli(toSlot * resolutionMillis),
+                count,
+                totals == null ? 0 : totals[offset + Sentiment.BULLISH.ordinal()],
+                totals == null ? 0 : totals[offset + Sentiment.BEARISH.ordinal()],
+                totals == null ? 0 : totals[offset + Sentiment.NEUTRAL.ordinal()],
+                count == 0 ? 0 : (double) riskSum / count,
+                p90);
+    }
+
+    private static final class Series {
+
+        private String source;
+        // ring[(slot % ringSlots) * STRIDE + counter]
+        private final int[] ring;
+        // per window: the sliding window ending at the head slot, and the open and last closed tumbling windows
+        private final int[] sliding;
+        private final int[] open;
+        private final int[] closed;
+
+        private Series(int ringSlots, int windows) {
+            this.ring = new int[ringSlots * STRIDE];
+            this.sliding = new int[windows * STRIDE];
+            this.open = new int[windows * STRIDE];
+            this.closed = new int[windows * STRIDE];
+        }
+
+        private void clear() {
+            Arrays.fill(ring, 0);
+            Arrays.fill(sliding, 0);
+            Arrays.fill(open, 0);
+            Arrays.fill(closed, 0);
+        }
+    }
+}
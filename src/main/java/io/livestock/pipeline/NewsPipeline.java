@@ -1,11 +1,24 @@
 package io.livestock.pipeline;
 
 import io.livestock.ai.NewsAiAnalyzer;
+import io.livestock.concurrent.AdaptiveConcurrencyLimiter;
+import io.livestock.domain.AnalysisPage;
+import io.livestock.domain.MoodSnapshot;
 import io.livestock.domain.NewsAnalysis;
 import io.livestock.domain.NewsItem;
+import io.livestock.store.AnalysisHistory;
+import io.livestock.store.AnalysisLog;
+import jakarta.annotation.PreDestroy;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 
 /**
  * Service for processing news items and generating analyses.
@@ -13,13 +26,28 @@ import reactor.core.publisher.Sinks;
 @Service
 public class NewsPipeline {
 
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(NewsPipeline.class);
+
     private final NewsAiAnalyzer newsAiAnalyzer;
+    private final AdaptiveConcurrencyLimiter analysisLimiter;
+
+    // incoming items, bounded
+    private final IngestQueue ingestQueue;
+
+    // tags analyses with the ticker symbols their items mention
+    private final SymbolExtractor symbolExtractor;
 
-    // incoming items
-    private final Sinks.Many<NewsItem> ingestSink = Sinks.many().multicast().onBackpressureBuffer();
+    // outgoing analyses for SSE, bounded per subscriber
+    private final AnalysisFanout analysisFanout;
 
-    // outgoing analyses for SSE
-    private final Sinks.Many<NewsAnalysis> analysisSink = Sinks.many().replay().limit(50);
+    // durable record of published analyses
+    private final AnalysisLog analysisLog;
+
+    // queryable history of final analyses
+    private final AnalysisHistory analysisHistory;
+
+    // rolling sentiment and risk aggregates
+    private final MoodAggregator moodAggregator;
 
     /**
      * Constructor.
@@ -27,30 +55,203 @@ public class NewsPipeline {
      * @param newsAiAnalyzer The NewsAiAnalyzer instance to use for analysis.
      */
     public NewsPipeline(NewsAiAnalyzer newsAiAnalyzer) {
+        this(newsAiAnalyzer, new AdaptiveConcurrencyLimiter("analysis", 1, 8, 64),
+                new IngestQueue(10_000, IngestQueue.OverflowPolicy.REJECT), SymbolExtractor.none(),
+                new AnalysisFanout(256, 50, AnalysisFanout.SlowConsumerPolicy.DROP, Duration.ofMinutes(1)),
+                AnalysisLog.disabled(), new AnalysisHistory(64L << 20),
+                new MoodAggregator(List.of(Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofHours(1)),
+                        Duration.ofSeconds(5), 100, Duration.ofSeconds(5)), false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newsAiAnalyzer  The NewsAiAnalyzer instance to use for analysis.
+     * @param analysisLimiter The limiter around the analyzer's model calls; items leave the ingest queue only
+     *                        while it has a free slot.
+     * @param ingestQueue     The bounded queue in front of the analysis stage.
+     * @param symbolExtractor The stage that tags analyses with ticker symbols.
+     * @param analysisFanout  The per-subscriber fan-out for finished analyses.
+     * @param analysisLog     The log analyses are written to and the replay buffer is restored from.
+     * @param analysisHistory The queryable history, also restored from the log.
+     * @param moodAggregator  The rolling sentiment and risk aggregates, also restored from the log.
+     * @param streaming       Whether to publish provisional analyses from streamed model responses.
+     */
+    @Autowired
+    public NewsPipeline(NewsAiAnalyzer newsAiAnalyzer, AdaptiveConcurrencyLimiter analysisLimiter,
+            IngestQueue ingestQueue, SymbolExtractor symbolExtractor, AnalysisFanout analysisFanout,
+            AnalysisLog analysisLog, AnalysisHistory analysisHistory, MoodAggregator moodAggregator,
+            @Value("${livestock.ai.streaming.enabled:false}") boolean streaming) {
         this.newsAiAnalyzer = newsAiAnalyzer;
+        this.analysisLimiter = analysisLimiter;
+        this.ingestQueue = ingestQueue;
+        this.symbolExtractor = symbolExtractor;
+        this.analysisFanout = analysisFanout;
+        this.analysisLog = analysisLog;
+        this.analysisHistory = analysisHistory;
+        this.moodAggregator = moodAggregator;
 
-        // Build the pipeline once:
-        ingestSink.asFlux()
-                .flatMap(newsAiAnalyzer::analyze, 8) // parallelism
-                .doOnNext(analysisSink::tryEmitNext)
+        // Refill the replay buffer, history and mood so a restart does not lose what was already analyzed;
+        // mood counts analyses at the event time logged with them, as it did live, and skips analyses
+        // logged before event times were kept. Only the newest segments are read: enough to fill the history
+        // budget and to reach back over the longest mood window
+        long start = System.nanoTime();
+        List<NewsAnalysis> recent = analysisLog.recent(analysisFanout.replaySize());
+        recent.forEach(analysisFanout::publish);
+        Instant since = Instant.now().minus(moodAggregator.longestWindow());
+        long restored = analysisLog.forEachRecentWithEventTime(analysisHistory.maxBytes(), since,
+                (analysis, eventTime) -> {
+                    analysisHistory.add(analysis);
+                    if (eventTime != null) {
+                        moodAggregator.add(eventTime, analysis);
+                    }
+                });
+        if (restored > 0) {
+            logger.info("Restored {} analyses from the analysis log in {} ms ({} replayed to the stream)",
+                    restored, (System.nanoTime() - start) / 1_000_000, recent.size());
+        }
+
+        // Build the pipeline once; an item leaves the queue only when the limiter can start on it, so the
+        // backlog stays in the scheduler rather than in the limiter's wait queue
+        ingestQueue.asFlux(analysisLimiter::hasCapacity)
+                .flatMap(item -> analyze(item, streaming), analysisLimiter.maxLimit())
+                .doOnNext(analyzed -> {
+                    NewsAnalysis analysis = analyzed.analysis();
+                    analysisLog.append(analysis, analyzed.eventTime());
+                    analysisHistory.add(analysis);
+                    moodAggregator.add(analyzed.eventTime(), analysis);
+                    analysisFanout.publish(analysis);
+                })
                 .subscribe();
     }
 
+    private Publisher<Analyzed> analyze(NewsItem item, boolean streaming) {
+        Flux<NewsAnalysis> analyses = streaming
+                ? newsAiAnalyzer.analyzeStreaming(item)
+                : newsAiAnalyzer.analyze(item).flux();
+        List<String> symbols = symbolExtractor.extract(item);
+        if (!symbols.isEmpty()) {
+            analyses = analyses.map(analysis -> analysis.withSymbols(symbols));
+        }
+        // the publication time goes along with the analysis, for mood and the log
+        Instant published = item.publishedAt();
+        Flux<Analyzed> analyzed = analyses.map(analysis ->
+                new Analyzed(analysis, published != null ? published : analysis.timestamp()));
+        // a failed or timed-out item is dropped; letting the error through would end the pipeline
+        return analyzed.onErrorResume(e -> {
+            logger.warn("Dropping '{}' after failed analysis: {}", item.headline(), e.toString());
+            return Flux.empty();
+        }).doFinally(signal -> ingestQueue.signal());
+    }
+
     /**
-     * Ingest a new item into the pipeline.
+     * Offer a new item to the pipeline.
+     *
+     * @param item The NewsItem to ingest.
+     * @return Mono emitting whether the item was queued.
+     */
+    public Mono<IngestResult> offer(NewsItem item) {
+        return ingestQueue.offer(item);
+    }
+
+    /**
+     * Offer a new item to the pipeline, waiting for queue space first.
+     *
+     * @param item    The NewsItem to ingest.
+     * @param maxWait How long to wait for space before the overflow policy applies.
+     * @return Mono emitting whether the item was queued.
+     */
+    public Mono<IngestResult> offer(NewsItem item, Duration maxWait) {
+        return ingestQueue.offer(item, maxWait);
+    }
+
+    /**
+     * Ingest a new item into the pipeline, logging it if the queue refuses it.
      *
      * @param item The NewsItem to ingest.
      */
     public void ingest(NewsItem item) {
-        ingestSink.tryEmitNext(item);
+        offer(item).subscribe(result -> {
+            if (!result.isAccepted()) {
+                logger.warn("Ingest queue {} item '{}'", result.status(), item.headline());
+            }
+        });
     }
 
     /**
-     * Stream the latest news analyses.
+     * Stream the latest news analyses, starting with the most recent ones.
      *
      * @return Flux of NewsAnalysis objects.
      */
     public Flux<NewsAnalysis> stream() {
-        return analysisSink.asFlux();
+        return analysisFanout.subscribe();
+    }
+
+    /**
+     * Stream the latest analyses tagged with one ticker symbol, starting with the most recent ones.
+     *
+     * @param symbol The ticker symbol, e.g. AAPL.
+     * @return Flux of NewsAnalysis objects.
+     */
+    public Flux<NewsAnalysis> stream(String symbol) {
+        return analysisFanout.subscribe(symbol);
+    }
+
+    /**
+     * Query past analyses, newest first.
+     *
+     * @param query  The filter.
+     * @param cursor The cursor from the previous page, or null for the first page.
+     * @param limit  The maximum number of analyses to return.
+     * @return One page of matching analyses.
+     */
+    public AnalysisPage history(AnalysisHistory.Query query, String cursor, int limit) {
+        return analysisHistory.query(query, cursor, limit);
+    }
+
+    /**
+     * The rolling market mood across all sources, or for one source.
+     *
+     * @param source The source, or null for all sources.
+     * @return Sliding and tumbling window aggregates.
+     */
+    public MoodSnapshot mood(String source) {
+        return moodAggregator.snapshot(source);
+    }
+
+    /**
+     * The rolling market mood of each source.
+     *
+     * @return One snapshot per source.
+     */
+    public List<MoodSnapshot> moodBySource() {
+        return moodAggregator.sources();
+    }
+
+    /**
+     * Periodic snapshots of the rolling market mood.
+     *
+     * @param source The source, or null for all sources.
+     * @return Flux of MoodSnapshot objects.
+     */
+    public Flux<MoodSnapshot> moodUpdates(String source) {
+        return moodAggregator.updates(source);
+    }
+
+    /**
+     * Stop accepting new items; queued items are still analyzed.
+     */
+    @PreDestroy
+    public void close() {
+        ingestQueue.close();
+    }
+
+    /**
+     * An analysis and the time its item counts at: when it was published, or when it was analyzed if unknown.
+     *
+     * @param analysis  The analysis.
+     * @param eventTime The time the analysis counts at in the mood aggregates.
+     */
+    private record Analyzed(NewsAnalysis analysis, Instant eventTime) {
     }
 }
@@ -0,0 +1,217 @@
+package io.livestock.pipeline;
+
+import io.livestock.text.WordAutomaton;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Ticker symbols and company aliases compiled into a {@link WordAutomaton}.
+ * <p>
+ * Text is scanned once, left to right. Entries match on whole words, with apostrophes as separators; where
+ * they overlap, the longest one starting earliest wins.
+ * Aliases match ignoring case. A symbol written as such must be upper case, or lead with {@code $} as a
+ * cashtag; symbols of {@value #CASHTAG_ONLY_LETTERS} letters or fewer are common words ("IT", "ON") and only
+ * match as cashtags.
+ * <p>
+ * Dictionary files hold one symbol per line: the symbol, whitespace, then comma-separated aliases. Blank
+ * lines and lines starting with {@code #} are ignored. An alias listed under several symbols tags the first.
+ */
+public final class SymbolDictionary {
+
+    static final int CASHTAG_ONLY_LETTERS = 2;
+
+    private static final SymbolDictionary EMPTY = builder().build();
+
+    private final WordAutomaton automaton;
+    // by automaton entry
+    private final String[] symbols;
+    private final boolean[] tickers;
+    private final int symbolCount;
+
+    private SymbolDictionary(WordAutomaton automaton, List<Entry> entries, int symbolCount) {
+        this.automaton = automaton;
+        this.symbolCount = symbolCount;
+        int n = entries.size();
+        this.symbols = new String[n];
+        this.tickers = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            Entry entry = entries.get(i);
+            symbols[i] = entry.symbol();
+            tickers[i] = entry.ticker();
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * A dictionary that matches nothing.
+     *
+     * @return SymbolDictionary
+     */
+    public static SymbolDictionary empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Parse a dictionary file.
+     *
+     * @param in The dictionary, UTF-8 encoded.
+     * @return SymbolDictionary
+     * @throws IOException if the stream cannot be read
+     */
+    public static SymbolDictionary load(InputStream in) throws IOException {
+        Builder builder = builder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+", 2);
+            try {
+                builder.symbol(parts[0], parts.length > 1 ? List.of(parts[1].split(",")) : List.of());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Symbol dictionary line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Number of distinct symbols.
+     *
+     * @return int
+     */
+    public int size() {
+        return symbolCount;
+    }
+
+    /**
+     * Find the symbols a text mentions.
+     *
+     * @param texts The texts to scan, e.g. headline and body; null entries are skipped.
+     * @return Distinct symbols in order of first mention.
+     */
+    public List<String> extract(CharSequence... texts) {
+        if (symbolCount == 0) {
+            return List.of();
+        }
+        Set<String> found = new LinkedHashSet<>();
+        for (CharSequence text : texts) {
+            if (text != null) {
+                new Extraction(text, found).run();
+            }
+        }
+        return List.copyOf(found);
+    }
+
+    // a cashtag in any case, or the bare symbol in upper case if it is long enough not to be a word
+    private static boolean tickerMatches(CharSequence text, int from, int to) {
+        if (from > 0 && text.charAt(from - 1) == '$') {
+            return true;
+        }
+        int letters = 0;
+        for (int i = from; i <= to; i++) {
+            char c = text.charAt(i);
+            if (Character.isLowerCase(c)) {
+                return false;
+            }
+            if (Character.isLetter(c)) {
+                letters++;
+            }
+        }
+        return letters > CASHTAG_ONLY_LETTERS;
+    }
+
+    /**
+     * Finds the symbols one text mentions.
+     */
+    private final class Extraction implements WordAutomaton.Visitor {
+
+        private final CharSequence text;
+        private final Set<String> found;
+        private int pending = -1;
+        private int pendingStart;
+
+        Extraction(CharSequence text, Set<String> found) {
+            this.text = text;
+            this.found = found;
+        }
+
+        void run() {
+            automaton.scan(text, this);
+            if (pending >= 0) {
+                found.add(symbols[pending]);
+            }
+        }
+
+        @Override
+        public boolean match(int entry, int firstWord, int from, int to) {
+            if (tickers[entry] && !tickerMatches(text, from, to)) {
+                return false;
+            }
+            if (pending >= 0 && firstWord > pendingStart) {
+                found.add(symbols[pending]);
+            }
+            // a match starting at or before the pending one covers it and replaces it
+            pending = entry;
+            pendingStart = firstWord;
+            return true;
+        }
+    }
+
+    private record Entry(String symbol, boolean ticker) {
+    }
+
+    public static final class Builder {
+
+        private final WordAutomaton.Builder automaton = WordAutomaton.builder("Symbol or alias", false);
+        private final List<Entry> entries = new ArrayList<>();
+        private final Set<String> symbols = new LinkedHashSet<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a symbol and the names it goes by.
+         *
+         * @param symbol  The ticker, e.g. {@code AAPL} or {@code BRK.B}.
+         * @param aliases Company names and other spellings; blank entries are ignored.
+         * @return this builder
+         */
+        public Builder symbol(String symbol, List<String> aliases) {
+            String ticker = symbol.strip().toUpperCase(Locale.ROOT);
+            add(ticker, ticker, true);
+            for (String alias : aliases) {
+                if (!alias.isBlank()) {
+                    add(ticker, alias, false);
+                }
+            }
+            symbols.add(ticker);
+            return this;
+        }
+
+        public SymbolDictionary build() {
+            return new SymbolDictionary(automaton.build(), List.copyOf(entries), symbols.size());
+        }
+
+        private void add(String symbol, String text, boolean ticker) {
+            automaton.add(text, false);
+            entries.add(new Entry(symbol, ticker));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package io.livestock.pipeline;
+
+import io.livestock.domain.NewsItem;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.core.io.Resource;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tags news items with the ticker symbols they mention.
+ * <p>
+ * The {@link SymbolDictionary} is compiled once at startup and again whenever the dictionary file changes,
+ * checked every {@code reloadInterval}. A reload builds the new automaton on a background thread and swaps
+ * it in whole, so extraction never waits for it and never sees a half-built dictionary; a dictionary that
+ * fails to parse leaves the previous one in place.
+ */
+public class SymbolExtractor implements MeterBinder {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SymbolExtractor.class);
+
+    private final Resource resource;
+    private final Disposable watcher;
+
+    private volatile SymbolDictionary dictionary;
+    // guarded by this
+    private long loadedModified;
+
+    private final LongAdder tagged = new LongAdder();
+    private final LongAdder untagged = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder reloadFailures = new LongAdder();
+
+    /**
+     * Constructor. Loads the dictionary before returning.
+     *
+     * @param resource       The dictionary file.
+     * @param reloadInterval How often to check the file for changes; zero to never reload.
+     * @throws IllegalStateException if the dictionary cannot be read
+     */
+    public SymbolExtractor(Resource resource, Duration reloadInterval) {
+        this.resource = resource;
+        try {
+            this.loadedModified = lastModified();
+            this.dictionary = read();
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot read symbol dictionary " + resource, e);
+        }
+        logger.info("Loaded {} symbols from {}", dictionary.size(), resource);
+        long millis = reloadInterval.toMillis();
+        this.watcher = millis > 0 && resource.isFile()
+                ? Schedulers.boundedElastic().schedulePeriodically(this::reloadIfChanged, millis, millis,
+                        TimeUnit.MILLISECONDS)
+                : Disposables.disposed();
+    }
+
+    private SymbolExtractor(SymbolDictionary dictionary) {
+        this.resource = null;
+        this.dictionary = dictionary;
+        this.watcher = Disposables.disposed();
+    }
+
+    /**
+     * An extractor that tags nothing.
+     *
+     * @return SymbolExtractor
+     */
+    public static SymbolExtractor none() {
+        return new SymbolExtractor(SymbolDictionary.empty());
+    }
+
+    /**
+     * An extractor over a fixed dictionary.
+     *
+     * @param dictionary The dictionary.
+     * @return SymbolExtractor
+     */
+    public static SymbolExtractor of(SymbolDictionary dictionary) {
+        return new SymbolExtractor(dictionary);
+    }
+
+    /**
+     * The symbols an item mentions in its headline or content.
+     *
+     * @param item The item.
+     * @return Distinct symbols in order of first mention.
+     */
+    public List<String> extract(NewsItem item) {
+        List<String> symbols = dictionary.extract(item.headline(), item.content());
+        (symbols.isEmpty() ? untagged : tagged).increment();
+        return symbols;
+    }
+
+    public int size() {
+        return dictionary.size();
+    }
+
+    /**
+     * Re-read the dictionary file now.
+     *
+     * @return Whether the new dictionary was loaded; on failure the previous one stays in use.
+     */
+    public synchronized boolean reload() {
+        if (resource == null) {
+            return false;
+        }
+        try {
+            long modified = lastModified();
+            SymbolDictionary loaded = read();
+            dictionary = loaded;
+            loadedModified = modified;
+            reloads.increment();
+            logger.info("Reloaded {} symbols from {}", loaded.size(), resource);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            reloadFailures.increment();
+            logger.warn("Keeping the previous symbol dictionary, cannot read {}: {}", resource, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Stop watching the dictionary file.
+     */
+    public void close() {
+        watcher.dispose();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("livestock.symbols.dictionary.size", this, SymbolExtractor::size)
+                .description("Symbols in the loaded dictionary")
+                .register(registry);
+        FunctionCounter.builder("livestock.symbols.items", tagged, LongAdder::sum)
+                .tag("result", "tagged")
+                .register(registry);
+        FunctionCounter.builder("livestock.symbols.items", untagged, LongAdder::sum)
+                .tag("result", "untagged")
+                .register(registry);
+        FunctionCounter.builder("livestock.symbols.reloads", reloads, LongAdder::sum)
+                .tag("result", "success")
+                .register(registry);
+        FunctionCounter.builder("livestock.symbols.reloads", reloadFailures, LongAdder::sum)
+                .tag("result", "failure")
+                .register(registry);
+    }
+
+    private synchronized void reloadIfChanged() {
+        try {
+            if (lastModified() == loadedModified) {
+                return;
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot check symbol dictionary {}: {}", resource, e.getMessage());
+            return;
+        }
+        reload();
+    }
+
+    private SymbolDictionary read() throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return SymbolDictionary.load(in);
+        }
+    }
+
+    private long lastModified() throws IOException {
+        return resource.isFile() ? resource.lastModified() : 0;
+    }
+}
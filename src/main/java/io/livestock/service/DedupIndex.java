@@ -0,0 +1,343 @@
+package io.livestock.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-capacity index of recently seen content keys.
+ * <p>
+ * Keys live in an open-addressing {@code long[]} table (load factor at most 0.5) and in a FIFO ring
+ * that records insertion order and time. Lookups and inserts are O(1); once the ring is full the
+ * oldest key is evicted, and keys older than the TTL are expired lazily on every call. The ring can be
+ * written to disk and reloaded so a restart does not replay articles that were already processed.
+ */
+@Component
+public class DedupIndex implements MeterBinder {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(DedupIndex.class);
+    private static final int SNAPSHOT_MAGIC = 0x44445831; // "DDX1"
+    private static final long EMPTY = 0L;
+
+    private final Clock clock;
+    private final long ttlMillis;
+    private final int capacity;
+    private final Path snapshotPath;
+
+    private final long[] table;
+    private final int mask;
+    private final long[] ringKeys;
+    private final long[] ringTimes;
+    private int ringHead;
+    private int size;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder capacityEvictions = new LongAdder();
+    private final LongAdder ttlEvictions = new LongAdder();
+
+    @Autowired
+    public DedupIndex(
+            @Value("${livestock.dedup.capacity:50000}") int capacity,
+            @Value("${livestock.dedup.ttl:48h}") Duration ttl,
+            @Value("${livestock.dedup.snapshot-path:}") String snapshotPath) {
+        this(capacity, ttl, snapshotPath.isBlank() ? null : Path.of(snapshotPath), Clock.systemUTC());
+    }
+
+    public DedupIndex(int capacity, Duration ttl) {
+        this(capacity, ttl, null, Clock.systemUTC());
+    }
+
+    public DedupIndex(int capacity, Duration ttl, Path snapshotPath, Clock clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.ttlMillis = ttl.toMillis();
+        this.snapshotPath = snapshotPath;
+        this.clock = clock;
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+        this.table = new long[tableSize];
+        this.mask = tableSize - 1;
+        this.ringKeys = new long[capacity];
+        this.ringTimes = new long[capacity];
+    }
+
+    /**
+     * Records the key if it has not been seen within the TTL.
+     *
+     * @param key A non-zero content key (see {@link io.livestock.domain.ContentKeys}).
+     * @return true if the key was new, false if it is a duplicate.
+     */
+    public synchronized boolean markIfAbsent(long key) {
+        long k = key == EMPTY ? 1 : key;
+        long now = clock.millis();
+        expire(now);
+        if (table[find(k)] == k) {
+            hits.increment();
+            return false;
+        }
+        misses.increment();
+        if (size == capacity) {
+            removeKey(ringKeys[ringHead]);
+            advanceHead();
+            capacityEvictions.increment();
+        }
+        insert(k, now);
+        return true;
+    }
+
+    /**
+     * Checks whether the key has been seen within the TTL without recording it.
+     *
+     * @param key The content key.
+     * @return true if the key is present.
+     */
+    public synchronized boolean contains(long key) {
+        long k = key == EMPTY ? 1 : key;
+        expire(clock.millis());
+        return table[find(k)] == k;
+    }
+
+    /**
+     * Forgets the key so the next {@link #markIfAbsent(long)} treats it as new, e.g. when the article it stands
+     * for was marked but never processed. The key is normally the newest one, which makes this O(1) in practice.
+     *
+     * @param key The content key.
+     * @return true if the key was present.
+     */
+    public synchronized boolean unmark(long key) {
+        long k = key == EMPTY ? 1 : key;
+        if (table[find(k)] != k) {
+            return false;
+        }
+        removeKey(k);
+        // close the gap in the ring so a later mark of the same key is not expired early by this entry
+        int i = size - 1;
+        while (ringKeys[(ringHead + i) % capacity] != k) {
+            i--;
+        }
+        for (; i < size - 1; i++) {
+            int to = (ringHead + i) % capacity;
+            int from = (ringHead + i + 1) % capacity;
+            ringKeys[to] = ringKeys[from];
+            ringTimes[to] = ringTimes[from];
+        }
+        size--;
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return capacityEvictions.sum() + ttlEvictions.sum();
+    }
+
+    /**
+     * Restore the index from the configured snapshot file, if any.
+     */
+    @PostConstruct
+    public void restore() {
+        if (snapshotPath != null) {
+            load(snapshotPath);
+        }
+    }
+
+    /**
+     * Write the index to the configured snapshot file, if any.
+     */
+    @PreDestroy
+    public void persist() {
+        if (snapshotPath != null) {
+            snapshot(snapshotPath);
+        }
+    }
+
+    /**
+     * Write the live keys, oldest first, to the given file. The file is replaced atomically.
+     *
+     * @param path The snapshot file.
+     */
+    public void snapshot(Path path) {
+        long[] keys;
+        long[] times;
+        synchronized (this) {
+            expire(clock.millis());
+            keys = new long[size];
+            times = new long[size];
+            for (int i = 0; i < size; i++) {
+                int slot = (ringHead + i) % capacity;
+                keys[i] = ringKeys[slot];
+                times[i] = ringTimes[slot];
+            }
+        }
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(keys.length);
+                for (int i = 0; i < keys.length; i++) {
+                    out.writeLong(keys[i]);
+                    out.writeLong(times[i]);
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Dedup index snapshot written: {} keys to {}", keys.length, path);
+        } catch (IOException e) {
+            logger.warn("Failed to write dedup index snapshot to {}", path, e);
+        }
+    }
+
+    /**
+     * Load keys from a snapshot file, skipping entries that have already expired.
+     * A missing or unreadable file leaves the index unchanged.
+     *
+     * @param path The snapshot file.
+     */
+    public void load(Path path) {
+        if (!Files.isReadable(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                logger.warn("Ignoring dedup index snapshot with unknown format: {}", path);
+                return;
+            }
+            int count = in.readInt();
+            int loaded = 0;
+            synchronized (this) {
+                long now = clock.millis();
+                for (int i = 0; i < count; i++) {
+                    long key = in.readLong();
+                    long time = in.readLong();
+                    if (time + ttlMillis <= now || key == EMPTY || table[find(key)] == key) {
+                        continue;
+                    }
+                    if (size == capacity) {
+                        removeKey(ringKeys[ringHead]);
+                        advanceHead();
+                    }
+                    insert(key, time);
+                    loaded++;
+                }
+            }
+            logger.info("Dedup index restored: {} keys from {}", loaded, path);
+        } catch (IOException e) {
+            logger.warn("Failed to read dedup index snapshot from {}", path, e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("livestock.dedup.lookups", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Articles recognised as already processed")
+                .register(registry);
+        FunctionCounter.builder("livestock.dedup.lookups", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Articles seen for the first time")
+                .register(registry);
+        FunctionCounter.builder("livestock.dedup.evictions", capacityEvictions, LongAdder::sum)
+                .tag("cause", "capacity")
+                .register(registry);
+        FunctionCounter.builder("livestock.dedup.evictions", ttlEvictions, LongAdder::sum)
+                .tag("cause", "ttl")
+                .register(registry);
+        Gauge.builder("livestock.dedup.size", this, DedupIndex::size)
+                .register(registry);
+    }
+
+    private void expire(long now) {
+        while (size > 0 && ringTimes[ringHead] + ttlMillis <= now) {
+            removeKey(ringKeys[ringHead]);
+            advanceHead();
+            ttlEvictions.increment();
+        }
+    }
+
+    private void insert(long key, long time) {
+        table[find(key)] = key;
+        int tail = (ringHead + size) % capacity;
+        ringKeys[tail] = key;
+        ringTimes[tail] = time;
+        size++;
+    }
+
+    private void advanceHead() {
+        ringHead = (ringHead + 1) % capacity;
+        size--;
+    }
+
+    /**
+     * Linear probe for the key; returns its slot or the empty slot where it would go.
+     */
+    private int find(long key) {
+        int i = slot(key);
+        while (table[i] != EMPTY && table[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Removes a key using backward-shift deletion so probe chains stay intact without tombstones.
+     */
+    private void removeKey(long key) {
+        int hole = find(key);
+        if (table[hole] == EMPTY) {
+            return;
+        }
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            long k = table[i];
+            if (k == EMPTY) {
+                break;
+            }
+            int home = slot(k);
+            // Move k into the hole if its home slot does not lie cyclically in (hole, i]
+            boolean between = hole <= i ? (hole < home && home <= i) : (hole < home || home <= i);
+            if (!between) {
+                table[hole] = k;
+                hole = i;
+            }
+        }
+        table[hole] = EMPTY;
+    }
+
+    private int slot(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
@@ -1,17 +1,23 @@
 package io.livestock.service;
 
+import io.livestock.domain.ContentKeys;
 import io.livestock.domain.NewsItem;
+import io.livestock.domain.NewsModels;
 import io.livestock.domain.NewsModels.Article;
+import io.livestock.pipeline.IngestResult;
 import io.livestock.pipeline.NewsFetchStrategy;
 import io.livestock.pipeline.NewsPipeline;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -29,17 +35,20 @@ public class RealNewsService {
 
     private final AtomicReference<Disposable> running = new AtomicReference<>();
 
-    // Cache to prevent duplicate processing
-    private final List<String> processedHeadlines = Collections.synchronizedList(new ArrayList<>());
-
-    // Configurable delay for testing
-    private final Duration streamingDelay = Duration.ofSeconds(5);
+    // Bounded index of seen headlines to prevent duplicate processing
+    private final DedupIndex dedupIndex;
 
     private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(RealNewsService.class);
 
     public RealNewsService(NewsPipeline pipeline, NewsFetchStrategy fetchStrategy) {
+        this(pipeline, fetchStrategy, new DedupIndex(50_000, Duration.ofHours(48)));
+    }
+
+    @Autowired
+    public RealNewsService(NewsPipeline pipeline, NewsFetchStrategy fetchStrategy, DedupIndex dedupIndex) {
         this.pipeline = pipeline;
         this.fetchStrategy = fetchStrategy;
+        this.dedupIndex = dedupIndex;
     }
 
     /**
@@ -64,18 +73,11 @@ public class RealNewsService {
 
         Disposable disposable = Flux.interval(Duration.ZERO, Duration.ofMinutes(2))
                 .flatMap(tick -> fetchStrategy.fetchArticles())
-                .map(list -> {
-                    // Sort Oldest -> Newest
-                    List<Article> sorted = new ArrayList<>(list);
-                    sorted.sort(java.util.Comparator.comparing(Article::publishedAt));
-                    return sorted;
-                })
-                .flatMapIterable(list -> list) // Flatten List<Article> to Article
-                .filter(article -> !processedHeadlines.contains(article.title())) // Deduplicate
-                .delayElements(this.streamingDelay) // The "Streaming" Effect
+                .flatMapIterable(this::freshArticles) // Flatten List<Article> to Article
+                // no pacing here: analysis runs at pipeline capacity, display pacing is per stream
                 .map(this::convertToNewsItem)
-                .doOnNext(news -> processedHeadlines.add(news.headline()))
-                .subscribe(pipeline::ingest);
+                .concatMap(this::offer)
+                .subscribe();
 
         running.set(disposable);
         logger.info("RealNewsService started.");
@@ -89,21 +91,66 @@ public class RealNewsService {
         }
     }
 
+    /**
+     * Sort a fetched batch oldest to newest and drop articles that were already processed.
+     *
+     * @param list The articles returned by one fetch.
+     * @return The new articles, oldest first.
+     */
+    List<Article> freshArticles(List<Article> list) {
+        // Sort Oldest -> Newest, parsing each publication time once; unknown times go first
+        List<Dated> dated = new ArrayList<>(list.size());
+        for (Article article : list) {
+            dated.add(new Dated(NewsModels.epochMillis(article.publishedAt()), article));
+        }
+        dated.sort(Comparator.comparingLong(Dated::publishedAt));
+        // Deduplicate
+        List<Article> fresh = new ArrayList<>(dated.size());
+        for (Dated entry : dated) {
+            if (dedupIndex.markIfAbsent(ContentKeys.headline(entry.article().title()))) {
+                fresh.add(entry.article());
+            }
+        }
+        return fresh;
+    }
+
+    private record Dated(long publishedAt, Article article) {
+    }
+
+    /**
+     * Offer an article to the pipeline. A refused article is unmarked so the next fetch offers it again.
+     *
+     * @param item The article to ingest.
+     * @return Mono emitting whether the item was queued.
+     */
+    private Mono<IngestResult> offer(NewsItem item) {
+        return pipeline.offer(item).doOnNext(result -> {
+            if (!result.isAccepted()) {
+                dedupIndex.unmark(ContentKeys.headline(item.headline()));
+                logger.warn("Ingest queue {} item '{}', will retry on the next fetch", result.status(),
+                        item.headline());
+            }
+        });
+    }
+
     /**
      * Convert a NewsAPI Article to a NewsItem for processing.
      *
      * @param article The NewsAPI Article to convert.
      * @return A NewsItem representing the article.
      */
-    private NewsItem convertToNewsItem(Article article) {
+    NewsItem convertToNewsItem(Article article) {
         String source = article.source() != null ? article.source().name() : "Unknown";
         String content = article.description() != null ? article.description()
                 : (article.content() != null ? article.content() : article.title());
 
+        long publishedAt = NewsModels.epochMillis(article.publishedAt());
+
         return new NewsItem(
                 source,
                 article.title(),
                 article.url(),
-                content);
+                content,
+                publishedAt == NewsModels.UNKNOWN_TIME ? null : Instant.ofEpochMilli(publishedAt));
     }
 }
\ No newline at end of file
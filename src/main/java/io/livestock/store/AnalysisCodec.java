@@ -0,0 +1,210 @@
+package io.livestock.store;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.Sentiment;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of a {@link NewsAnalysis}.
+ * <p>
+ * Layout: a flags byte, the id (two longs when it is a UUID, otherwise a string), the timestamp as epoch
+ * seconds and nanos, sentiment and risk as one byte each, then source, headline, URL and summary, and
+ * then, if there are any, a varint count of symbols followed by the symbols, and last, if known, the event
+ * time (when the analyzed item was published) as epoch seconds and nanos. Strings are a varint of the UTF-8
+ * length plus one (zero meaning null) followed by the bytes, so a typical analysis takes a little more than
+ * its text. Encodings written before symbols or event times existed lack their flags and decode unchanged.
+ */
+final class AnalysisCodec {
+
+    private static final int PROVISIONAL = 1;
+    private static final int UUID_ID = 1 << 1;
+    private static final int HAS_TIMESTAMP = 1 << 2;
+    private static final int HAS_SYMBOLS = 1 << 3;
+    private static final int HAS_EVENT_TIME = 1 << 4;
+    private static final byte NO_SENTIMENT = -1;
+    private static final Sentiment[] SENTIMENTS = Sentiment.values();
+
+    private AnalysisCodec() {
+    }
+
+    /**
+     * A decoded analysis and the event time stored with it.
+     *
+     * @param analysis  The analysis.
+     * @param eventTime When the analyzed item was published, or null if not stored.
+     */
+    record Logged(NewsAnalysis analysis, Instant eventTime) {
+    }
+
+    /**
+     * Upper bound on the encoded size, for sizing buffers.
+     *
+     * @param analysis The analysis to encode.
+     * @return Bytes that are always enough to hold the encoding.
+     */
+    static int maxSize(NewsAnalysis analysis) {
+        int size = 1 + 16 + 12 + 12 + 2 + maxSize(analysis.id()) + maxSize(analysis.source())
+                + maxSize(analysis.headline()) + maxSize(analysis.url()) + maxSize(analysis.summary()) + 5;
+        for (String symbol : analysis.symbols()) {
+            size += maxSize(symbol);
+        }
+        return size;
+    }
+
+    static void encode(NewsAnalysis analysis, ByteBuffer out) {
+        encode(analysis, null, out);
+    }
+
+    static void encode(NewsAnalysis analysis, Instant eventTime, ByteBuffer out) {
+        UUID uuid = asUuid(analysis.id());
+        int flags = (analysis.provisional() ? PROVISIONAL : 0)
+                | (uuid != null ? UUID_ID : 0)
+                | (analysis.timestamp() != null ? HAS_TIMESTAMP : 0)
+                | (!analysis.symbols().isEmpty() ? HAS_SYMBOLS : 0)
+                | (eventTime != null ? HAS_EVENT_TIME : 0);
+        out.put((byte) flags);
+        if (uuid != null) {
+            out.putLong(uuid.getMostSignificantBits());
+            out.putLong(uuid.getLeastSignificantBits());
+        } else {
+            putString(out, analysis.id());
+        }
+        if (analysis.timestamp() != null) {
+            out.putLong(analysis.timestamp().getEpochSecond());
+            out.putInt(analysis.timestamp().getNano());
+        }
+        out.put(analysis.sentiment() != null ? (byte) analysis.sentiment().ordinal() : NO_SENTIMENT);
+        out.put((byte) analysis.riskScore());
+        putString(out, analysis.source());
+        putString(out, analysis.headline());
+        putString(out, analysis.url());
+        putString(out, analysis.summary());
+        if (!analysis.symbols().isEmpty()) {
+            putVarint(out, analysis.symbols().size());
+            for (String symbol : analysis.symbols()) {
+                putString(out, symbol);
+            }
+        }
+        if (eventTime != null) {
+            out.putLong(eventTime.getEpochSecond());
+            out.putInt(eventTime.getNano());
+        }
+    }
+
+    static NewsAnalysis decode(ByteBuffer in) {
+        return decodeLogged(in).analysis();
+    }
+
+    static Logged decodeLogged(ByteBuffer in) {
+        int flags = in.get();
+        String id = (flags & UUID_ID) != 0 ? new UUID(in.getLong(), in.getLong()).toString() : getString(in);
+        Instant timestamp = (flags & HAS_TIMESTAMP) != 0 ? Instant.ofEpochSecond(in.getLong(), in.getInt()) : null;
+        byte sentiment = in.get();
+        int risk = in.get();
+        String source = getString(in);
+        String headline = getString(in);
+        String url = getString(in);
+        String summary = getString(in);
+        List<String> symbols = List.of();
+        if ((flags & HAS_SYMBOLS) != 0) {
+            String[] read = new String[getVarint(in)];
+            for (int i = 0; i < read.length; i++) {
+                read[i] = getString(in);
+            }
+            symbols = List.of(read);
+        }
+        Instant eventTime = (flags & HAS_EVENT_TIME) != 0 ? Instant.ofEpochSecond(in.getLong(), in.getInt()) : null;
+        return new Logged(new NewsAnalysis(
+                id,
+                timestamp,
+                source,
+                headline,
+                url,
+                sentiment >= 0 && sentiment < SENTIMENTS.length ? SENTIMENTS[sentiment] : null,
+                risk,
+                summary,
+                (flags & PROVISIONAL) != 0,
+                symbols), eventTime);
+    }
+
+    /**
+     * Read only the id and provisional flag of an encoded analysis, as used by compaction.
+     *
+     * @param in Buffer positioned at the start of the encoding.
+     * @return The id, prefixed with {@code '~'} when the analysis is provisional.
+     */
+    static String idKey(ByteBuffer in) {
+        int flags = in.get();
+        String id = (flags & UUID_ID) != 0 ? new UUID(in.getLong(), in.getLong()).toString() : getString(in);
+        return (flags & PROVISIONAL) != 0 ? "~" + id : id;
+    }
+
+    private static int maxSize(String s) {
+        return s == null ? 1 : 5 + s.length() * 3;
+    }
+
+    private static void putString(ByteBuffer out, String s) {
+        if (s == null) {
+            out.put((byte) 0);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putVarint(out, bytes.length + 1);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = getVarint(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (in.hasArray()) {
+            String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return s;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7f) != 0) {
+            out.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    // UUID ids take 16 bytes instead of 37; anything else is stored as a string
+    private static UUID asUuid(String id) {
+        if (id == null || id.length() != 36 || id.charAt(8) != '-' || id.charAt(13) != '-'
+                || id.charAt(18) != '-' || id.charAt(23) != '-') {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            // only if it round-trips exactly (e.g. upper-case hex would not)
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
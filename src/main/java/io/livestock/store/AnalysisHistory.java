@@ -0,0 +1,427 @@
+package io.livestock.store;
+
+import io.livestock.domain.AnalysisPage;
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.Sentiment;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory history of final analyses, queryable by time, source, sentiment and risk.
+ * <p>
+ * Analyses are appended to fixed-size chunks of columns: timestamps as epoch nanos, sources as codes into a
+ * shared dictionary, sentiment and risk as bytes, and the full analysis in {@link AnalysisCodec} form in a
+ * per-chunk byte arena that is only decoded for returned rows. Each chunk keeps the range of its timestamps
+ * and risk scores and a bitset per sentiment; once full it is sealed and its rows are grouped by source, so
+ * queries skip chunks and rows that cannot match without decoding them. When the estimated footprint passes
+ * {@code maxBytes} the oldest chunks are dropped.
+ * <p>
+ * Results are newest first in arrival order, which is timestamp order up to analysis latency. Cursors are
+ * sequence numbers, so pages stay stable while new analyses arrive. Provisional analyses are not kept.
+ */
+public class AnalysisHistory implements MeterBinder {
+
+    static final int CHUNK_ROWS = 4096;
+    private static final int WORDS = CHUNK_ROWS / 64;
+    private static final int INITIAL_ARENA_BYTES = 64 << 10;
+    private static final Sentiment[] SENTIMENTS = Sentiment.values();
+    private static final byte NO_SENTIMENT = -1;
+    private static final int NO_SOURCE = -1;
+
+    // columns: 8 timestamp + 4 source + 1 sentiment + 1 risk + 4 arena offset, plus 4 for the source index
+    private static final int ROW_BYTES = 22;
+    private static final int CHUNK_OVERHEAD = 256 + SENTIMENTS.length * WORDS * Long.BYTES;
+
+    /**
+     * Filter for a history query. Null bounds and filters match everything.
+     *
+     * @param from      Earliest timestamp, inclusive.
+     * @param to        Latest timestamp, exclusive.
+     * @param source    Exact source name.
+     * @param sentiment Sentiment.
+     * @param minRisk   Lowest risk score, inclusive.
+     * @param maxRisk   Highest risk score, inclusive.
+     */
+    public record Query(Instant from, Instant to, String source, Sentiment sentiment, Integer minRisk,
+            Integer maxRisk) {
+
+        public static Query all() {
+            return new Query(null, null, null, null, null, null);
+        }
+    }
+
+    private final long maxBytes;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final ArrayDeque<Chunk> chunks = new ArrayDeque<>();
+    private final Map<String, Integer> sourceCodes = new HashMap<>();
+    private long dictionaryBytes;
+    private long chunkBytes;
+    private long nextSeq;
+    private long size;
+
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param maxBytes Approximate memory budget for stored analyses and their indexes.
+     */
+    public AnalysisHistory(long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("History memory budget must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Store a final analysis. Provisional analyses are ignored; their final analysis follows.
+     *
+     * @param analysis The analysis.
+     */
+    public void add(NewsAnalysis analysis) {
+        if (analysis.provisional()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Chunk chunk = chunks.peekLast();
+            if (chunk == null || chunk.rows == CHUNK_ROWS) {
+                if (chunk != null) {
+                    chunkBytes -= chunk.footprint();
+                    chunk.seal();
+                    chunkBytes += chunk.footprint();
+                }
+                chunk = new Chunk(nextSeq);
+                chunks.addLast(chunk);
+                chunkBytes += chunk.footprint();
+            }
+            long before = chunk.footprint();
+            chunk.append(analysis, sourceCode(analysis.source()));
+            chunkBytes += chunk.footprint() - before;
+            nextSeq++;
+            size++;
+            while (chunks.size() > 1 && chunkBytes + dictionaryBytes > maxBytes) {
+                Chunk oldest = chunks.pollFirst();
+                chunkBytes -= oldest.footprint();
+                size -= oldest.rows;
+                evicted.add(oldest.rows);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find analyses matching a query, newest first.
+     *
+     * @param query  The filter.
+     * @param cursor The {@code nextCursor} of the previous page, or null for the first page.
+     * @param limit  The maximum number of analyses to return.
+     * @return The page.
+     * @throws IllegalArgumentException if the cursor is malformed or the limit is not positive
+     */
+    public AnalysisPage query(Query query, String cursor, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        long before = cursor == null || cursor.isEmpty() ? Long.MAX_VALUE : parseCursor(cursor);
+        long from = query.from() != null ? epochNanos(query.from()) : Long.MIN_VALUE;
+        long to = query.to() != null ? epochNanos(query.to()) : Long.MAX_VALUE;
+        int minRisk = query.minRisk() != null ? query.minRisk() : Integer.MIN_VALUE;
+        int maxRisk = query.maxRisk() != null ? query.maxRisk() : Integer.MAX_VALUE;
+        int sentiment = query.sentiment() != null ? query.sentiment().ordinal() : NO_SENTIMENT;
+        List<NewsAnalysis> items = new ArrayList<>(Math.min(limit, 256));
+        long last = -1;
+        boolean more = false;
+
+        lock.readLock().lock();
+        try {
+            int source = NO_SOURCE;
+            if (query.source() != null) {
+                Integer code = sourceCodes.get(query.source());
+                if (code == null) {
+                    return new AnalysisPage(List.of(), null);
+                }
+                source = code;
+            }
+            Iterator<Chunk> newestFirst = chunks.descendingIterator();
+            search:
+            while (newestFirst.hasNext()) {
+                Chunk chunk = newestFirst.next();
+                if (chunk.base >= before || chunk.rows == 0 || chunk.maxNanos < from || chunk.minNanos >= to
+                        || chunk.maxRisk < minRisk || chunk.minRisk > maxRisk
+                        || (sentiment != NO_SENTIMENT && chunk.sentimentCounts[sentiment] == 0)) {
+                    continue;
+                }
+                RowCursor rows = chunk.rows(source, sentiment, (int) Math.min(chunk.rows, before - chunk.base));
+                for (int row = rows.next(); row >= 0; row = rows.next()) {
+                    long nanos = chunk.nanos[row];
+                    int risk = chunk.risks[row];
+                    if (nanos < from || nanos >= to || risk < minRisk || risk > maxRisk
+                            || (source != NO_SOURCE && chunk.sources[row] != source)
+                            || (sentiment != NO_SENTIMENT && chunk.sentiments[row] != sentiment)) {
+                        continue;
+                    }
+                    if (items.size() == limit) {
+                        more = true;
+                        break search;
+                    }
+                    items.add(chunk.decode(row));
+                    last = chunk.base + row;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new AnalysisPage(items, more ? Long.toString(last, 36) : null);
+    }
+
+    /**
+     * Number of analyses held.
+     *
+     * @return long
+     */
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimated bytes held by stored analyses, their indexes and the source dictionary.
+     *
+     * @return long
+     */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return chunkBytes + dictionaryBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long evicted() {
+        return evicted.sum();
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("livestock.store.history.size", this, AnalysisHistory::size)
+                .register(registry);
+        Gauge.builder("livestock.store.history.memory", this, AnalysisHistory::memoryBytes)
+                .baseUnit("bytes")
+                .description("Estimated memory held by the analysis history")
+                .register(registry);
+        FunctionCounter.builder("livestock.store.history.evicted", evicted, LongAdder::sum)
+                .description("Analyses dropped to stay within the memory budget")
+                .register(registry);
+    }
+
+    // called with the write lock held
+    private int sourceCode(String source) {
+        if (source == null) {
+            return NO_SOURCE;
+        }
+        Integer code = sourceCodes.get(source);
+        if (code == null) {
+            code = sourceCodes.size();
+            sourceCodes.put(source, code);
+            // the string, its map entry and boxed code
+            dictionaryBytes += 96 + 2L * source.length();
+        }
+        return code;
+    }
+
+    private static long parseCursor(String cursor) {
+        try {
+            long value = Long.parseLong(cursor, 36);
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    private static long epochNanos(Instant instant) {
+        // saturate outside the range of long nanos (years before 1677 or after 2262)
+        try {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+        } catch (ArithmeticException e) {
+            return instant.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Rows of a chunk to check, newest first; -1 when exhausted.
+     */
+    private interface RowCursor {
+        int next();
+    }
+
+    private static final class Chunk {
+
+        private final long base;
+        private final long[] nanos = new long[CHUNK_ROWS];
+        private final int[] sources = new int[CHUNK_ROWS];
+        private final byte[] sentiments = new byte[CHUNK_ROWS];
+        private final byte[] risks = new byte[CHUNK_ROWS];
+        private final int[] offsets = new int[CHUNK_ROWS + 1];
+        private final long[][] sentimentBits = new long[SENTIMENTS.length][WORDS];
+        private final int[] sentimentCounts = new int[SENTIMENTS.length];
+        private byte[] arena = new byte[INITIAL_ARENA_BYTES];
+        private int rows;
+        private long minNanos = Long.MAX_VALUE;
+        private long maxNanos = Long.MIN_VALUE;
+        private int minRisk = Integer.MAX_VALUE;
+        private int maxRisk = Integer.MIN_VALUE;
+
+        // set when sealed: rows grouped by source code, ascending within each group
+        private int[] sourceKeys;
+        private int[] sourceStarts;
+        private int[] rowsBySource;
+
+        private Chunk(long base) {
+            this.base = base;
+        }
+
+        private void append(NewsAnalysis analysis, int source) {
+            int row = rows;
+            int offset = offsets[row];
+            int max = AnalysisCodec.maxSize(analysis);
+            if (arena.length - offset < max) {
+                arena = Arrays.copyOf(arena, Math.max(arena.length * 2, offset + max));
+            }
+            ByteBuffer out = ByteBuffer.wrap(arena, offset, arena.length - offset);
+            AnalysisCodec.encode(analysis, out);
+            offsets[row + 1] = out.position();
+
+            long ts = analysis.timestamp() != null ? epochNanos(analysis.timestamp()) : Long.MIN_VALUE;
+            nanos[row] = ts;
+            minNanos = Math.min(minNanos, ts);
+            maxNanos = Math.max(maxNanos, ts);
+            sources[row] = source;
+            byte sentiment = analysis.sentiment() != null ? (byte) analysis.sentiment().ordinal() : NO_SENTIMENT;
+            sentiments[row] = sentiment;
+            if (sentiment != NO_SENTIMENT) {
+                sentimentBits[sentiment][row >>> 6] |= 1L << row;
+                sentimentCounts[sentiment]++;
+            }
+            byte risk = (byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, analysis.riskScore()));
+            risks[row] = risk;
+            minRisk = Math.min(minRisk, risk);
+            maxRisk = Math.max(maxRisk, risk);
+            rows = row + 1;
+        }
+
+        private NewsAnalysis decode(int row) {
+            return AnalysisCodec.decode(ByteBuffer.wrap(arena, offsets[row], offsets[row + 1] - offsets[row]));
+        }
+
+        private void seal() {
+            arena = Arrays.copyOf(arena, offsets[rows]);
+            long[] keyed = new long[rows];
+            for (int row = 0; row < rows; row++) {
+                keyed[row] = ((long) sources[row] << 32) | row;
+            }
+            Arrays.sort(keyed);
+            rowsBySource = new int[rows];
+            int[] keys = new int[16];
+            int[] starts = new int[17];
+            int groups = 0;
+            for (int i = 0; i < rows; i++) {
+                int source = (int) (keyed[i] >> 32);
+                rowsBySource[i] = (int) keyed[i];
+                if (groups == 0 || keys[groups - 1] != source) {
+                    if (groups == keys.length) {
+                        keys = Arrays.copyOf(keys, groups * 2);
+                        starts = Arrays.copyOf(starts, groups * 2 + 1);
+                    }
+                    keys[groups] = source;
+                    starts[groups] = i;
+                    groups++;
+                }
+            }
+            starts[groups] = rows;
+            sourceKeys = Arrays.copyOf(keys, groups);
+            sourceStarts = Arrays.copyOf(starts, groups + 1);
+        }
+
+        private long footprint() {
+            long index = sourceKeys != null ? 8L * sourceKeys.length : 0;
+            return CHUNK_OVERHEAD + (long) ROW_BYTES * CHUNK_ROWS + arena.length + index;
+        }
+
+        /**
+         * The cheapest way to enumerate candidate rows below {@code end}: the source group of a sealed
+         * chunk, else the sentiment bitset, else every row.
+         */
+        private RowCursor rows(int source, int sentiment, int end) {
+            if (source != NO_SOURCE && sourceKeys != null) {
+                int group = Arrays.binarySearch(sourceKeys, source);
+                if (group < 0) {
+                    return () -> -1;
+                }
+                int start = sourceStarts[group];
+                // rows ascend within the group; start below end
+                int upper = Arrays.binarySearch(rowsBySource, start, sourceStarts[group + 1], end);
+                int[] position = { upper < 0 ? -upper - 1 : upper };
+                return () -> position[0] > start ? rowsBySource[--position[0]] : -1;
+            }
+            if (sentiment != NO_SENTIMENT) {
+                long[] bits = sentimentBits[sentiment];
+                int[] position = { end };
+                return () -> {
+                    int row = previousSetBit(bits, position[0] - 1);
+                    position[0] = row;
+                    return row;
+                };
+            }
+            int[] position = { end };
+            return () -> position[0] > 0 ? --position[0] : -1;
+        }
+
+        private static int previousSetBit(long[] bits, int from) {
+            if (from < 0) {
+                return -1;
+            }
+            int word = from >>> 6;
+            long w = bits[word] & (-1L >>> (63 - (from & 63)));
+            while (true) {
+                if (w != 0) {
+                    return (word << 6) + 63 - Long.numberOfLeadingZeros(w);
+                }
+                if (word-- == 0) {
+                    return -1;
+                }
+                w = bits[word];
+            }
+        }
+    }
+}
@@ -0,0 +1,816 @@
+package io.livestock.store;
+
+import io.livestock.domain.NewsAnalysis;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, segmented on-disk log of analyses.
+ * <p>
+ * Each segment file starts with an 8-byte header and holds records of {@code [length][crc32c][payload]},
+ * the payload encoded by {@link AnalysisCodec}. Appends are encoded into an in-memory batch that is written
+ * when it fills or every {@code flushInterval}; the active segment is fsynced every {@code fsyncInterval},
+ * so a crash loses at most that much. A segment is closed once it reaches {@code segmentBytes}. On open, a
+ * torn or corrupt tail in the newest segment is truncated.
+ * <p>
+ * Reads map segments read-only and walk the length prefixes, so finding the newest records of a large log
+ * touches only the newest segment. Closed segments older than {@code maxAge}, or beyond {@code maxBytes}
+ * in total, are deleted, and compaction rewrites closed segments without provisional analyses whose final
+ * analysis has also been logged.
+ */
+public class AnalysisLog implements MeterBinder, AutoCloseable {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(AnalysisLog.class);
+
+    private static final int MAGIC = 0x414c4731; // "ALG1"
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int FLAGS_OFFSET = 5;
+    private static final byte FLAG_COMPACTED = 1;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final String SUFFIX = ".log";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+
+    /**
+     * Log tuning. A zero {@code maxAge}, {@code maxBytes} or {@code compactionInterval} disables that feature.
+     *
+     * @param segmentBytes       Size at which the active segment is closed and a new one started.
+     * @param batchBytes         Size of the in-memory write batch.
+     * @param flushInterval      How often a partial batch is written.
+     * @param fsyncInterval      How often written data is forced to disk.
+     * @param maxAge             Age after which closed segments are deleted.
+     * @param maxBytes           Total size above which the oldest closed segments are deleted.
+     * @param compactionInterval How often retention and compaction run.
+     */
+    public record Settings(long segmentBytes, int batchBytes, Duration flushInterval, Duration fsyncInterval,
+            Duration maxAge, long maxBytes, Duration compactionInterval) {
+
+        public Settings {
+            if (segmentBytes <= HEADER_BYTES || segmentBytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Segment size must be between 8 bytes and 2 GB: " + segmentBytes);
+            }
+            if (batchBytes < 1024) {
+                throw new IllegalArgumentException("Batch size must be at least 1 KB: " + batchBytes);
+            }
+        }
+
+        public static Settings defaults() {
+            return new Settings(64L << 20, 64 << 10, Duration.ofMillis(200), Duration.ofSeconds(1),
+                    Duration.ofDays(7), 1L << 30, Duration.ofMinutes(10));
+        }
+    }
+
+    private final Path directory;
+    private final Settings settings;
+    private final Scheduler scheduler;
+    private final Disposable ticker;
+    private final CRC32C crc = new CRC32C();
+
+    // guarded by this
+    private final List<Path> segments = new ArrayList<>();
+    private FileChannel active;
+    private long activeSize;
+    private long nextSegmentId;
+    private final ByteBuffer batch;
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+    private boolean dirty;
+    private boolean closed;
+    private long lastFsyncNanos = System.nanoTime();
+    private long lastMaintenanceNanos = System.nanoTime();
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder appendedBytes = new LongAdder();
+    private final LongAdder fsyncs = new LongAdder();
+    private final LongAdder compactedRecords = new LongAdder();
+    private final LongAdder deletedSegments = new LongAdder();
+
+    private AnalysisLog(Path directory, Settings settings, boolean background) {
+        this.directory = directory;
+        this.settings = settings;
+        this.batch = directory != null ? ByteBuffer.allocateDirect(settings.batchBytes()) : null;
+        if (directory != null && background) {
+            this.scheduler = Schedulers.newSingle("analysis-log", true);
+            long tick = Math.max(1, settings.flushInterval().toMillis());
+            this.ticker = scheduler.schedulePeriodically(this::tick, tick, tick, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+            this.ticker = Disposables.disposed();
+        }
+    }
+
+    /**
+     * A log that keeps nothing, for when persistence is switched off.
+     *
+     * @return AnalysisLog
+     */
+    public static AnalysisLog disabled() {
+        return new AnalysisLog(null, Settings.defaults(), false);
+    }
+
+    /**
+     * Open or create the log in a directory, recovering the newest segment, and start background flushing.
+     *
+     * @param directory The directory holding the segment files.
+     * @param settings  Log tuning.
+     * @return AnalysisLog
+     * @throws IOException if the directory or segments cannot be read or created
+     */
+    public static AnalysisLog open(Path directory, Settings settings) throws IOException {
+        return open(directory, settings, true);
+    }
+
+    static AnalysisLog open(Path directory, Settings settings, boolean background) throws IOException {
+        Files.createDirectories(directory);
+        AnalysisLog log = new AnalysisLog(directory, settings, background);
+        try {
+            log.recover();
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        return log;
+    }
+
+    /**
+     * Queue an analysis for writing. Never blocks on fsync; may write a full batch to the page cache.
+     *
+     * @param analysis The analysis to log.
+     */
+    public void append(NewsAnalysis analysis) {
+        append(analysis, null);
+    }
+
+    /**
+     * Queue an analysis for writing together with its event time, so time-based aggregates can be restored
+     * as they were counted. Never blocks on fsync; may write a full batch to the page cache.
+     *
+     * @param analysis  The analysis to log.
+     * @param eventTime When the analyzed item was published, or null if unknown.
+     */
+    public void append(NewsAnalysis analysis, Instant eventTime) {
+        if (directory == null) {
+            return;
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            int max = AnalysisCodec.maxSize(analysis);
+            if (scratch.capacity() < max) {
+                scratch = ByteBuffer.allocate(Math.max(max, scratch.capacity() * 2));
+            }
+            scratch.clear();
+            AnalysisCodec.encode(analysis, eventTime, scratch);
+            scratch.flip();
+            int length = scratch.remaining();
+            if (length > MAX_RECORD_BYTES) {
+                logger.warn("Skipping analysis '{}' of {} bytes: too large for the log", analysis.id(), length);
+                return;
+            }
+            crc.reset();
+            crc.update(scratch.array(), 0, length);
+            try {
+                if (batch.remaining() < RECORD_HEADER_BYTES + length) {
+                    writeBatch();
+                }
+                if (batch.remaining() < RECORD_HEADER_BYTES + length) {
+                    // larger than a whole batch: write it on its own
+                    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + length);
+                    record.putInt(length).putInt((int) crc.getValue()).put(scratch).flip();
+                    writeFully(record);
+                } else {
+                    batch.putInt(length).putInt((int) crc.getValue()).put(scratch);
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to append analysis '{}' to the log", analysis.id(), e);
+                return;
+            }
+            appended.increment();
+            appendedBytes.add(RECORD_HEADER_BYTES + length);
+        }
+    }
+
+    /**
+     * The newest analyses, oldest first. Where a provisional analysis and its final analysis are both among
+     * them, only the final one is returned.
+     *
+     * @param limit The maximum number of analyses.
+     * @return Up to {@code limit} analyses.
+     */
+    public List<NewsAnalysis> recent(int limit) {
+        if (directory == null || limit <= 0) {
+            return List.of();
+        }
+        List<Mapped> mapped = mapAll();
+        // read twice the limit so provisional analyses near the start of the window can be collapsed
+        int wanted = limit * 2;
+        List<int[]> offsets = new ArrayList<>();
+        int found = 0;
+        int first = mapped.size();
+        while (first > 0 && found < wanted) {
+            first--;
+            int[] segmentOffsets = offsets(mapped.get(first).buffer());
+            offsets.addFirst(segmentOffsets);
+            found += segmentOffsets[0];
+        }
+        LinkedHashMap<String, NewsAnalysis> byId = new LinkedHashMap<>();
+        int skip = Math.max(0, found - wanted);
+        for (int s = 0; s < offsets.size(); s++) {
+            ByteBuffer buffer = mapped.get(first + s).buffer();
+            int[] segmentOffsets = offsets.get(s);
+            for (int i = 1; i <= segmentOffsets[0]; i++) {
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                NewsAnalysis analysis = AnalysisCodec.decode(payload(buffer, segmentOffsets[i]));
+                // re-insert so the map stays ordered by latest occurrence
+                byId.remove(analysis.id());
+                byId.put(analysis.id(), analysis);
+            }
+        }
+        List<NewsAnalysis> result = new ArrayList<>(byId.values());
+        return result.size() > limit ? List.copyOf(result.subList(result.size() - limit, result.size())) : result;
+    }
+
+    /**
+     * Read every analysis in the log, oldest first.
+     *
+     * @param consumer Receives each analysis.
+     * @return The number of analyses read.
+     */
+    public long forEach(Consumer<NewsAnalysis> consumer) {
+        return forEachWithEventTime((analysis, eventTime) -> consumer.accept(analysis));
+    }
+
+    /**
+     * Read every analysis in the log, oldest first, with the event time it was appended with.
+     *
+     * @param consumer Receives each analysis and its event time, which is null if none was logged.
+     * @return The number of analyses read.
+     */
+    public long forEachWithEventTime(BiConsumer<NewsAnalysis, Instant> consumer) {
+        if (directory == null) {
+            return 0;
+        }
+        return replay(mapAll(), consumer);
+    }
+
+    /**
+     * Read the newest analyses in the log, oldest first, with their event times. Whole segments are read back
+     * from the newest until they hold at least {@code minBytes} of records and reach an analysis logged at or
+     * before {@code since}; older segments are skipped without being decoded.
+     *
+     * @param minBytes The record bytes to read at least, e.g. the budget of the history being restored.
+     * @param since    The earliest analysis time to read at least back to.
+     * @param consumer Receives each analysis and its event time, which is null if none was logged.
+     * @return The number of analyses read.
+     */
+    public long forEachRecentWithEventTime(long minBytes, Instant since, BiConsumer<NewsAnalysis, Instant> consumer) {
+        if (directory == null) {
+            return 0;
+        }
+        List<Mapped> mapped = mapAll();
+        int first = mapped.size();
+        long bytes = 0;
+        while (first > 0) {
+            first--;
+            ByteBuffer buffer = mapped.get(first).buffer();
+            bytes += buffer.limit() - HEADER_BYTES;
+            if (bytes >= minBytes && startsAtOrBefore(buffer, since)) {
+                break;
+            }
+        }
+        return replay(mapped.subList(first, mapped.size()), consumer);
+    }
+
+    /**
+     * Write the current batch and force it to disk.
+     */
+    public synchronized void flush() {
+        if (directory == null || closed) {
+            return;
+        }
+        try {
+            writeBatch();
+            forceActive();
+        } catch (IOException e) {
+            logger.warn("Failed to flush the analysis log", e);
+        }
+    }
+
+    /**
+     * Apply retention and compaction to closed segments now.
+     */
+    public void maintain() {
+        if (directory == null) {
+            return;
+        }
+        try {
+            applyRetention();
+            if (!settings.compactionInterval().isZero()) {
+                compact();
+            }
+        } catch (IOException e) {
+            logger.warn("Analysis log maintenance failed", e);
+        }
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    public synchronized long sizeBytes() {
+        long total = 0;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            total += sizeOf(segments.get(i));
+        }
+        return total + activeSize + (batch != null ? batch.position() : 0);
+    }
+
+    @Override
+    public void close() {
+        ticker.dispose();
+        synchronized (this) {
+            if (closed || directory == null) {
+                closed = true;
+                return;
+            }
+            closed = true;
+            try {
+                if (active != null) {
+                    writeBatch();
+                    forceActive();
+                    active.close();
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to close the analysis log", e);
+            }
+        }
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("livestock.store.log.appends", appended, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("livestock.store.log.appended", appendedBytes, LongAdder::sum)
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("livestock.store.log.fsyncs", fsyncs, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("livestock.store.log.compacted", compactedRecords, LongAdder::sum)
+                .description("Superseded provisional analyses removed by compaction")
+                .register(registry);
+        FunctionCounter.builder("livestock.store.log.segments.deleted", deletedSegments, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("livestock.store.log.segments", this, AnalysisLog::segmentCount)
+                .register(registry);
+        Gauge.builder("livestock.store.log.size", this, AnalysisLog::sizeBytes)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    // --- background work ---
+
+    private void tick() {
+        long now = System.nanoTime();
+        FileChannel toForce = null;
+        boolean maintain = false;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            try {
+                writeBatch();
+            } catch (IOException e) {
+                logger.warn("Failed to write the analysis log batch", e);
+            }
+            if (dirty && now - lastFsyncNanos >= settings.fsyncInterval().toNanos()) {
+                toForce = active;
+                dirty = false;
+                lastFsyncNanos = now;
+            }
+            if (!settings.compactionInterval().isZero()
+                    && now - lastMaintenanceNanos >= settings.compactionInterval().toNanos()) {
+                maintain = true;
+                lastMaintenanceNanos = now;
+            }
+        }
+        if (toForce != null) {
+            // outside the lock so appends are not held up by the disk
+            try {
+                toForce.force(false);
+                fsyncs.increment();
+            } catch (ClosedChannelException e) {
+                // rolled or closed meanwhile, which forces it anyway
+            } catch (IOException e) {
+                logger.warn("Failed to fsync the analysis log", e);
+            }
+        }
+        if (maintain) {
+            maintain();
+        }
+    }
+
+    // --- writing, guarded by this ---
+
+    private void writeBatch() throws IOException {
+        if (batch.position() == 0) {
+            return;
+        }
+        batch.flip();
+        writeFully(batch);
+        batch.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += active.write(buffer);
+        }
+        activeSize += written;
+        dirty = true;
+        if (activeSize >= settings.segmentBytes()) {
+            roll();
+        }
+    }
+
+    private void forceActive() throws IOException {
+        if (dirty) {
+            active.force(false);
+            fsyncs.increment();
+            dirty = false;
+            lastFsyncNanos = System.nanoTime();
+        }
+    }
+
+    private void roll() throws IOException {
+        forceActive();
+        active.close();
+        startSegment();
+    }
+
+    private void startSegment() throws IOException {
+        Path path = directory.resolve("%020d%s".formatted(nextSegmentId++, SUFFIX));
+        active = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = header((byte) 0);
+        while (header.hasRemaining()) {
+            active.write(header);
+        }
+        activeSize = HEADER_BYTES;
+        segments.add(path);
+        dirty = true;
+    }
+
+    // --- recovery ---
+
+    private synchronized void recover() throws IOException {
+        List<Path> found = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path path : stream) {
+                found.add(path);
+            }
+        }
+        found.sort(null);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX + COMPACTING_SUFFIX)) {
+            for (Path path : stream) {
+                // left by a compaction interrupted before its atomic move; the original is intact
+                Files.delete(path);
+            }
+        }
+        for (Path path : found) {
+            String name = path.getFileName().toString();
+            try {
+                nextSegmentId = Math.max(nextSegmentId, Long.parseLong(name, 0, name.length() - SUFFIX.length(), 10) + 1);
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring unexpected file in the analysis log directory: {}", path);
+                continue;
+            }
+            segments.add(path);
+        }
+        if (segments.isEmpty()) {
+            startSegment();
+            return;
+        }
+        Path newest = segments.getLast();
+        FileChannel channel = FileChannel.open(newest, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        long valid = HEADER_BYTES;
+        if (size >= HEADER_BYTES && size <= Integer.MAX_VALUE) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) == MAGIC) {
+                int position = HEADER_BYTES;
+                int end;
+                while ((end = validRecordEnd(buffer, position)) > 0) {
+                    position = end;
+                }
+                valid = position;
+            } else {
+                valid = -1;
+            }
+        } else {
+            valid = -1;
+        }
+        if (valid < 0) {
+            logger.warn("Deleting analysis log segment {} without a valid header", newest);
+            channel.close();
+            segments.removeLast();
+            Files.delete(newest);
+            startSegment();
+            return;
+        }
+        if (valid < size) {
+            logger.warn("Truncating analysis log segment {} from {} to {} bytes after a torn write",
+                    newest, size, valid);
+            channel.truncate(valid);
+            channel.force(false);
+        }
+        channel.position(valid);
+        active = channel;
+        activeSize = valid;
+        if (activeSize >= settings.segmentBytes()) {
+            roll();
+        }
+    }
+
+    // --- reading ---
+
+    // whether the first record of a segment was logged at or before the given time; unknown counts as after
+    private static boolean startsAtOrBefore(ByteBuffer buffer, Instant time) {
+        if (validRecordEnd(buffer, HEADER_BYTES) < 0) {
+            return false;
+        }
+        Instant logged = AnalysisCodec.decode(payload(buffer, HEADER_BYTES)).timestamp();
+        return logged != null && !logged.isAfter(time);
+    }
+
+    private static long replay(List<Mapped> mapped, BiConsumer<NewsAnalysis, Instant> consumer) {
+        long count = 0;
+        for (Mapped segment : mapped) {
+            ByteBuffer buffer = segment.buffer();
+            int position = HEADER_BYTES;
+            int end;
+            while ((end = validRecordEnd(buffer, position)) > 0) {
+                AnalysisCodec.Logged logged = AnalysisCodec.decodeLogged(payload(buffer, position));
+                consumer.accept(logged.analysis(), logged.eventTime());
+                position = end;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private record Mapped(Path path, ByteBuffer buffer) {
+    }
+
+    // flush the batch, then map every segment up to what has been written
+    private List<Mapped> mapAll() {
+        List<Path> snapshot;
+        long activeBound;
+        synchronized (this) {
+            if (!closed) {
+                try {
+                    writeBatch();
+                } catch (IOException e) {
+                    logger.warn("Failed to write the analysis log batch", e);
+                }
+            }
+            snapshot = List.copyOf(segments);
+            activeBound = activeSize;
+        }
+        List<Mapped> mapped = new ArrayList<>(snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            Path path = snapshot.get(i);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = i == snapshot.size() - 1 ? Math.min(activeBound, channel.size()) : channel.size();
+                if (size < HEADER_BYTES) {
+                    continue;
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (buffer.getInt(0) != MAGIC) {
+                    logger.warn("Skipping analysis log segment with unknown format: {}", path);
+                    continue;
+                }
+                mapped.add(new Mapped(path, buffer));
+            } catch (NoSuchFileException e) {
+                // removed by retention after the snapshot was taken
+            } catch (IOException e) {
+                logger.warn("Failed to map analysis log segment {}", path, e);
+            }
+        }
+        return mapped;
+    }
+
+    /**
+     * Offsets of the records in a segment up to the first corrupt one; element 0 is the count.
+     */
+    private static int[] offsets(ByteBuffer buffer) {
+        int[] offsets = new int[64];
+        int count = 0;
+        int position = HEADER_BYTES;
+        int end;
+        while ((end = validRecordEnd(buffer, position)) > 0) {
+            if (++count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[count] = position;
+            position = end;
+        }
+        offsets[0] = count;
+        return offsets;
+    }
+
+    /**
+     * End of the record at {@code position} if it is complete and its checksum matches, else -1.
+     */
+    private static int validRecordEnd(ByteBuffer buffer, int position) {
+        int limit = buffer.limit();
+        if (position + RECORD_HEADER_BYTES > limit) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || length > MAX_RECORD_BYTES || position + RECORD_HEADER_BYTES + length > limit) {
+            return -1;
+        }
+        CRC32C check = new CRC32C();
+        check.update(buffer.slice(position + RECORD_HEADER_BYTES, length));
+        if ((int) check.getValue() != buffer.getInt(position + 4)) {
+            return -1;
+        }
+        return position + RECORD_HEADER_BYTES + length;
+    }
+
+    // the payload of a record already checked by validRecordEnd
+    private static ByteBuffer payload(ByteBuffer buffer, int position) {
+        return buffer.slice(position + RECORD_HEADER_BYTES, buffer.getInt(position));
+    }
+
+    // --- retention and compaction ---
+
+    private void applyRetention() throws IOException {
+        long now = System.currentTimeMillis();
+        long maxAgeMillis = settings.maxAge().toMillis();
+        while (true) {
+            Path oldest;
+            synchronized (this) {
+                if (segments.size() < 2) {
+                    return;
+                }
+                oldest = segments.getFirst();
+                boolean expired = maxAgeMillis > 0
+                        && Files.getLastModifiedTime(oldest).toMillis() < now - maxAgeMillis;
+                boolean oversized = settings.maxBytes() > 0 && sizeBytes() > settings.maxBytes();
+                if (!expired && !oversized) {
+                    return;
+                }
+                segments.removeFirst();
+            }
+            Files.deleteIfExists(oldest);
+            deletedSegments.increment();
+            logger.info("Deleted analysis log segment {} (retention)", oldest);
+        }
+    }
+
+    private void compact() throws IOException {
+        List<Path> snapshot;
+        synchronized (this) {
+            snapshot = List.copyOf(segments);
+        }
+        // the active segment is never rewritten, but finals in it can supersede provisionals before it
+        for (int i = 0; i < snapshot.size() - 1; i++) {
+            Path path = snapshot.get(i);
+            if (isCompacted(path)) {
+                continue;
+            }
+            Set<String> finals = new HashSet<>();
+            collectFinals(path, finals);
+            collectFinals(snapshot.get(i + 1), finals);
+            rewrite(path, finals);
+        }
+    }
+
+    private static boolean isCompacted(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading
+            }
+            return header.position() == HEADER_BYTES && (header.get(FLAGS_OFFSET) & FLAG_COMPACTED) != 0;
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+    }
+
+    private void collectFinals(Path path, Set<String> finals) throws IOException {
+        forEachRecord(path, (buffer, position) -> {
+            String key = AnalysisCodec.idKey(payload(buffer, position));
+            if (key.charAt(0) != '~') {
+                finals.add(key);
+            }
+        });
+    }
+
+    private void rewrite(Path path, Set<String> finals) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + COMPACTING_SUFFIX);
+        int[] dropped = new int[1];
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer header = header(FLAG_COMPACTED);
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            forEachRecord(path, (buffer, position) -> {
+                String key = AnalysisCodec.idKey(payload(buffer, position));
+                if (key.charAt(0) == '~' && finals.contains(key.substring(1))) {
+                    dropped[0]++;
+                    return;
+                }
+                ByteBuffer record = buffer.slice(position, RECORD_HEADER_BYTES + buffer.getInt(position));
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+            });
+            out.force(false);
+        }
+        synchronized (this) {
+            if (!segments.contains(path)) {
+                Files.deleteIfExists(tmp);
+                return;
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        compactedRecords.add(dropped[0]);
+        if (dropped[0] > 0) {
+            logger.info("Compacted analysis log segment {}: removed {} provisional records", path, dropped[0]);
+        }
+    }
+
+    private interface RecordVisitor {
+        void visit(ByteBuffer buffer, int position) throws IOException;
+    }
+
+    private static void forEachRecord(Path path, RecordVisitor visitor) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            return;
+        }
+        int position = HEADER_BYTES;
+        int end;
+        while ((end = validRecordEnd(buffer, position)) > 0) {
+            visitor.visit(buffer, position);
+            position = end;
+        }
+    }
+
+    private static ByteBuffer header(byte flags) {
+        return ByteBuffer.allocate(HEADER_BYTES).putInt(0, MAGIC).put(4, VERSION).put(FLAGS_OFFSET, flags);
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package io.livestock.text;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Aho-Corasick automaton over whole words, shared by the dictionaries that scan news text.
+ * <p>
+ * Characters are folded to a small alphabet on the fly (ASCII letters lower-cased, punctuation and whitespace
+ * collapsed to a single separator) and fed through a fully resolved transition table, so a text is scanned
+ * once, left to right. Entries match on whole words, or also inside a word when added as prefixes. Apostrophes
+ * are either part of a word or a separator, as chosen when building.
+ */
+public final class WordAutomaton {
+
+    private static final int SEPARATOR = 0;
+    private static final int APOSTROPHE = 37;
+    // letters and digits outside a-z/0-9: part of a word, never part of an entry
+    private static final int OTHER = 38;
+    private static final int ALPHABET = 39;
+
+    private final boolean apostrophes;
+    // delta[state * ALPHABET + symbol]
+    private final int[] delta;
+    // first entry ending exactly at a state, or -1
+    private final int[] entryAt;
+    // next entry ending at the same state, or -1
+    private final int[] sameState;
+    // nearest proper suffix state with an entry, or 0
+    private final int[] outputLink;
+    private final boolean[] prefixes;
+    private final int[] wordCounts;
+    private final boolean anyPrefix;
+    // ring of word start positions, a power of two at least as long as the longest entry
+    private final int wordMask;
+    private final int start;
+
+    private WordAutomaton(boolean apostrophes, int[] delta, int[] entryAt, int[] sameState, int[] outputLink,
+            boolean[] prefixes, int[] wordCounts) {
+        this.apostrophes = apostrophes;
+        this.delta = delta;
+        this.entryAt = entryAt;
+        this.sameState = sameState;
+        this.outputLink = outputLink;
+        this.prefixes = prefixes;
+        this.wordCounts = wordCounts;
+        boolean prefix = false;
+        int max = 1;
+        for (int i = 0; i < wordCounts.length; i++) {
+            prefix |= prefixes[i];
+            max = Math.max(max, wordCounts[i]);
+        }
+        this.anyPrefix = prefix;
+        this.wordMask = Integer.highestOneBit(2 * max - 1) - 1;
+        this.start = delta[SEPARATOR];
+    }
+
+    /**
+     * Start building an automaton.
+     *
+     * @param kind        What an entry is called in error messages, e.g. "Lexicon term".
+     * @param apostrophes Whether apostrophes are part of words rather than separators.
+     * @return Builder
+     */
+    public static Builder builder(String kind, boolean apostrophes) {
+        return new Builder(kind, apostrophes);
+    }
+
+    /**
+     * Number of words in an entry.
+     *
+     * @param entry The entry, numbered in the order it was added.
+     * @return int
+     */
+    public int words(int entry) {
+        return wordCounts[entry];
+    }
+
+    /**
+     * Scan a text, offering the visitor the entries that end at each character.
+     *
+     * @param text    The text to scan.
+     * @param visitor Receives separators and candidate matches.
+     */
+    public void scan(CharSequence text, Visitor visitor) {
+        // locals, so the arrays are not reloaded after each call into the visitor
+        int[] delta = this.delta;
+        int[] entryAt = this.entryAt;
+        int[] outputLink = this.outputLink;
+        int[] sameState = this.sameState;
+        int[] wordCounts = this.wordCounts;
+        boolean[] prefixes = this.prefixes;
+        boolean anyPrefix = this.anyPrefix;
+        int wordMask = this.wordMask;
+        boolean apostrophes = this.apostrophes;
+        int[] wordStarts = new int[wordMask + 1];
+        int state = start;
+        boolean inWord = false;
+        int word = 0;
+        int n = text.length();
+        int symbol = n > 0 ? fold(text.charAt(0), apostrophes) : SEPARATOR;
+        // each character is folded once, as the previous one's lookahead
+        for (int i = 0, next; i < n; i++, symbol = next) {
+            char c = text.charAt(i);
+            next = i + 1 < n ? fold(text.charAt(i + 1), apostrophes) : SEPARATOR;
+            if (symbol == SEPARATOR) {
+                visitor.separator(c);
+                if (!inWord) {
+                    continue;
+                }
+                inWord = false;
+            } else if (!inWord) {
+                inWord = true;
+                word++;
+                wordStarts[word & wordMask] = i;
+            }
+            state = delta[state * ALPHABET + symbol];
+            if (symbol == SEPARATOR) {
+                continue;
+            }
+            boolean wordEnds = next == SEPARATOR;
+            if (!wordEnds && !anyPrefix) {
+                continue;
+            }
+            // longest first: the state's own entries, then those of ever shorter suffixes
+            offers:
+            for (int s = entryAt[state] >= 0 ? state : outputLink[state]; s > 0; s = outputLink[s]) {
+                for (int entry = entryAt[s]; entry >= 0; entry = sameState[entry]) {
+                    if (!wordEnds && !prefixes[entry]) {
+                        continue;
+                    }
+                    int firstWord = word - wordCounts[entry] + 1;
+                    if (visitor.match(entry, firstWord, wordStarts[firstWord & wordMask], i)) {
+                        break offers;
+                    }
+                }
+            }
+        }
+    }
+
+    private static int fold(char c, boolean apostrophes) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        if (c == '\'' || c == '\u2019') {
+            return apostrophes ? APOSTROPHE : SEPARATOR;
+        }
+        if (c < 0x80) {
+            return SEPARATOR;
+        }
+        return Character.isLetterOrDigit(c) ? OTHER : SEPARATOR;
+    }
+
+    /**
+     * Receives what a scan finds.
+     */
+    public interface Visitor {
+
+        /**
+         * Offered an entry ending at character {@code to}. Entries ending there are offered longest first, until
+         * one is accepted.
+         *
+         * @param entry     The entry, numbered in the order it was added.
+         * @param firstWord The 1-based number, within the text, of the entry's first word.
+         * @param from      Index of the entry's first character.
+         * @param to        Index of the entry's last character.
+         * @return Whether to accept the entry, which ends the offers for this character.
+         */
+        boolean match(int entry, int firstWord, int from, int to);
+
+        /**
+         * Called for each separator character, before any match that follows it.
+         *
+         * @param c The character.
+         */
+        default void separator(char c) {
+        }
+    }
+
+    public static final class Builder {
+
+        private final String kind;
+        private final boolean apostrophes;
+        private final List<String> texts = new ArrayList<>();
+        private final List<Boolean> prefixes = new ArrayList<>();
+        private final List<Integer> wordCounts = new ArrayList<>();
+
+        private Builder(String kind, boolean apostrophes) {
+            this.kind = kind;
+            this.apostrophes = apostrophes;
+        }
+
+        /**
+         * Add an entry.
+         *
+         * @param text   One or more words of ASCII letters and digits; case and punctuation are ignored.
+         * @param prefix Whether the entry's last word also matches the start of longer words.
+         * @return The entry's number.
+         */
+        public int add(String text, boolean prefix) {
+            String normalized = text.strip().toLowerCase(Locale.ROOT);
+            StringBuilder folded = new StringBuilder(normalized.length());
+            boolean separator = false;
+            int words = 0;
+            for (int i = 0; i < normalized.length(); i++) {
+                char c = normalized.charAt(i);
+                int symbol = fold(c, apostrophes);
+                if (symbol == OTHER) {
+                    throw new IllegalArgumentException(kind + " must be ASCII: " + text);
+                }
+                if (symbol == SEPARATOR) {
+                    separator = !folded.isEmpty();
+                    continue;
+                }
+                if (separator || folded.isEmpty()) {
+                    if (separator) {
+                        folded.append(' ');
+                    }
+                    words++;
+                    separator = false;
+                }
+                folded.append(c);
+            }
+            if (folded.isEmpty()) {
+                throw new IllegalArgumentException(kind + " is empty: '" + text + "'");
+            }
+            texts.add(folded.toString());
+            prefixes.add(prefix);
+            wordCounts.add(words);
+            return texts.size() - 1;
+        }
+
+        public WordAutomaton build() {
+            // trie over " " + entry so that every match starts at a word boundary
+            List<int[]> next = new ArrayList<>();
+            List<Integer> ends = new ArrayList<>();
+            next.add(newRow());
+            ends.add(-1);
+            int n = texts.size();
+            int[] sameState = new int[n];
+            for (int id = 0; id < n; id++) {
+                String text = texts.get(id);
+                int state = child(next, ends, 0, SEPARATOR);
+                for (int i = 0; i < text.length(); i++) {
+                    state = child(next, ends, state, fold(text.charAt(i), apostrophes));
+                }
+                // keep every entry at the state, in the order added, since a visitor may turn the first down
+                sameState[id] = -1;
+                int last = ends.get(state);
+                if (last < 0) {
+                    ends.set(state, id);
+                } else {
+                    while (sameState[last] >= 0) {
+                        last = sameState[last];
+                    }
+                    sameState[last] = id;
+                }
+            }
+
+            int states = next.size();
+            int[] delta = new int[states * ALPHABET];
+            int[] entryAt = new int[states];
+            int[] fail = new int[states];
+            int[] outputLink = new int[states];
+            for (int s = 0; s < states; s++) {
+                entryAt[s] = ends.get(s);
+            }
+            // breadth-first: resolve every missing transition through the failure link
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int a = 0; a < ALPHABET; a++) {
+                int child = next.get(0)[a];
+                if (child > 0) {
+                    delta[a] = child;
+                    queue.add(child);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int s = queue.poll();
+                outputLink[s] = entryAt[fail[s]] >= 0 ? fail[s] : outputLink[fail[s]];
+                int[] row = next.get(s);
+                for (int a = 0; a < ALPHABET; a++) {
+                    int child = row[a];
+                    if (child > 0) {
+                        fail[child] = delta[fail[s] * ALPHABET + a];
+                        delta[s * ALPHABET + a] = child;
+                        queue.add(child);
+                    } else {
+                        delta[s * ALPHABET + a] = delta[fail[s] * ALPHABET + a];
+                    }
+                }
+            }
+            boolean[] prefixArray = new boolean[n];
+            int[] wordArray = new int[n];
+            for (int i = 0; i < n; i++) {
+                prefixArray[i] = prefixes.get(i);
+                wordArray[i] = wordCounts.get(i);
+            }
+            return new WordAutomaton(apostrophes, delta, entryAt, sameState, outputLink, prefixArray, wordArray);
+        }
+
+        private static int[] newRow() {
+            return new int[ALPHABET];
+        }
+
+        private static int child(List<int[]> next, List<Integer> ends, int state, int symbol) {
+            int child = next.get(state)[symbol];
+            if (child == 0) {
+                child = next.size();
+                next.add(newRow());
+                ends.add(-1);
+                next.get(state)[symbol] = child;
+            }
+            return child;
+        }
+    }
+}
@@ -2,22 +2,45 @@ package io.livestock.web;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Web filter that logs incoming and outgoing requests.
+ * Web filter that writes one access log line per finished request, including requests the client
+ * cancelled, such as closed SSE streams.
+ * <p>
+ * Lines are key=value pairs so they stay greppable as plain text and map onto fields under a
+ * structured encoder. Failed requests and responses with status 400 or above are always logged; other
+ * requests are logged with probability {@code sampleRate}.
  */
 @Component
 public class LoggingWebFilter implements WebFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(LoggingWebFilter.class);
 
+    private final double sampleRate;
+
+    public LoggingWebFilter() {
+        this(1.0);
+    }
+
+    @Autowired
+    public LoggingWebFilter(@Value("${livestock.logging.access.sample-rate:1.0}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
     /**
-     * Logs incoming and outgoing requests.
+     * Logs the request once it has completed, failed or been cancelled.
      *
      * @param exchange the current server exchange
      * @param chain    provides a way to delegate to the next filter
@@ -25,23 +48,37 @@ public class LoggingWebFilter implements WebFilter {
      */
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-        long startTime = System.currentTimeMillis();
-        String path = exchange.getRequest().getURI().getPath();
-        String method = exchange.getRequest().getMethod().name();
-
-        logger.info("Incoming Request: {} {}", method, path);
+        long startTime = System.nanoTime();
+        Throwable[] failure = new Throwable[1];
 
         return chain.filter(exchange)
-                .doOnSuccess(v -> {
-                    long duration = System.currentTimeMillis() - startTime;
-                    int statusCode = exchange.getResponse().getStatusCode() != null
-                            ? exchange.getResponse().getStatusCode().value()
-                            : 0;
-                    logger.info("Outgoing Response: {} {} Status: {} ({} ms)", method, path, statusCode, duration);
-                })
-                .doOnError(e -> {
-                    long duration = System.currentTimeMillis() - startTime;
-                    logger.error("Request Failed: {} {} Error: {} ({} ms)", method, path, e.getMessage(), duration);
-                });
+                .doOnError(e -> failure[0] = e)
+                .doFinally(signal -> log(exchange, signal, failure[0], startTime));
+    }
+
+    private void log(ServerWebExchange exchange, SignalType signal, Throwable failure, long startTime) {
+        if (signal == SignalType.ON_ERROR) {
+            ServerHttpRequest request = exchange.getRequest();
+            logger.error("access method={} path={} status=error durationMs={} error=\"{}\"",
+                    request.getMethod().name(), request.getURI().getPath(), elapsedMillis(startTime),
+                    failure != null ? failure.getMessage() : null);
+            return;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        int statusCode = status != null ? status.value() : 0;
+        if (logger.isInfoEnabled() && (statusCode >= 400 || sampled())) {
+            ServerHttpRequest request = exchange.getRequest();
+            logger.info("access method={} path={} status={} durationMs={}{}",
+                    request.getMethod().name(), request.getURI().getPath(), statusCode, elapsedMillis(startTime),
+                    signal == SignalType.CANCEL ? " cancelled=true" : "");
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
     }
 }
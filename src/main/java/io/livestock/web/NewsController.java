@@ -1,13 +1,42 @@
 package io.livestock.web;
 
+import io.livestock.concurrent.TokenBucket;
+import io.livestock.domain.AnalysisPage;
+import io.livestock.domain.BulkIngestSummary;
 import io.livestock.domain.FeedStatus;
+import io.livestock.domain.MoodSnapshot;
+import io.livestock.domain.NewsAnalysis;
 import io.livestock.domain.NewsItem;
+import io.livestock.domain.Sentiment;
+import io.livestock.pipeline.IngestResult;
 import io.livestock.pipeline.NewsPipeline;
 import io.livestock.service.RealNewsService;
+import io.livestock.store.AnalysisHistory;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * Controller for managing news-related operations.
@@ -16,34 +45,267 @@ import reactor.core.publisher.Flux;
 @RequestMapping("/api")
 public class NewsController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final Pattern SYMBOL = Pattern.compile("[A-Za-z0-9.\\-]{1,12}");
+
+    // marks an accepted item in the bulk stream
+    private static final BulkIngestSummary.Rejection NONE = new BulkIngestSummary.Rejection(-1, null, null);
+
     private final NewsPipeline pipeline;
     private final RealNewsService realNewsService; // Add this
+    private final Validator validator;
+    private final Duration heartbeatInterval;
+    // events per second on each stream; 0 sends them as soon as they are analyzed
+    private final double pacingRate;
+    private final int pacingBurst;
+    // how long each bulk item waits for queue space, and how many refusals a bulk summary lists
+    private final Duration bulkMaxWait;
+    private final int bulkMaxRejections;
 
     public NewsController(NewsPipeline pipeline, RealNewsService realNewsService) {
+        this(pipeline, realNewsService, Validation.buildDefaultValidatorFactory().getValidator(),
+                Duration.ofSeconds(15), 0, 1, Duration.ofSeconds(30), 100);
+    }
+
+    @Autowired
+    public NewsController(NewsPipeline pipeline, RealNewsService realNewsService, Validator validator,
+            @Value("${livestock.stream.heartbeat-interval:15s}") Duration heartbeatInterval,
+            @Value("${livestock.stream.pacing.rate-per-second:0}") double pacingRate,
+            @Value("${livestock.stream.pacing.burst:1}") int pacingBurst,
+            @Value("${livestock.ingest.bulk.max-wait:30s}") Duration bulkMaxWait,
+            @Value("${livestock.ingest.bulk.max-rejections:100}") int bulkMaxRejections) {
+        if (pacingRate < 0 || pacingBurst < 1) {
+            throw new IllegalStateException(
+                    "Invalid livestock.stream.pacing rate-per-second=%s burst=%d".formatted(pacingRate, pacingBurst));
+        }
         this.pipeline = pipeline;
         this.realNewsService = realNewsService;
+        this.validator = validator;
+        this.heartbeatInterval = heartbeatInterval;
+        this.pacingRate = pacingRate;
+        this.pacingBurst = pacingBurst;
+        this.bulkMaxWait = bulkMaxWait;
+        this.bulkMaxRejections = bulkMaxRejections;
     }
 
     /**
      * Ingest a news item into the pipeline.
      *
      * @param item The news item to ingest.
+     * @return 202 when queued, 429 when the queue is full, 503 when the pipeline is shutting down; refusals
+     *         carry a Retry-After header estimated from the backlog.
      */
     @PostMapping("/news")
-    public void ingest(@Valid @RequestBody NewsItem item) {
-        pipeline.ingest(item);
+    public Mono<ResponseEntity<Void>> ingest(@Valid @RequestBody NewsItem item) {
+        return pipeline.offer(item).map(NewsController::toResponse);
+    }
+
+    /**
+     * Ingest a stream of news items from an NDJSON or JSON-array body.
+     * <p>
+     * The body is decoded item by item and each item is offered to the pipeline before the next one is
+     * read. An item waits up to {@code livestock.ingest.bulk.max-wait} for queue space before the overflow
+     * policy applies, without holding a thread, so a slow pipeline slows the upload down instead of
+     * refusing or buffering it. Invalid items are skipped and reported rather than failing the request; the
+     * summary lists the first {@code livestock.ingest.bulk.max-rejections} refusals and counts the rest.
+     *
+     * @param items The decoded items.
+     * @return Summary of accepted and rejected items, emitted once the body has been consumed.
+     */
+    @PostMapping(path = "/news/bulk", consumes = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public Mono<BulkIngestSummary> ingestBulk(@RequestBody Flux<NewsItem> items) {
+        return items.index()
+                .concatMap(indexed -> offerValidated(indexed.getT1(), indexed.getT2()))
+                .collect(() -> new BulkTally(bulkMaxRejections), BulkTally::add)
+                .map(BulkTally::summary);
+    }
+
+    private Mono<BulkIngestSummary.Rejection> offerValidated(long index, NewsItem item) {
+        Set<ConstraintViolation<NewsItem>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            String reason = violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            return Mono.just(new BulkIngestSummary.Rejection(index, item.headline(), reason));
+        }
+        return pipeline.offer(item, bulkMaxWait)
+                .map(result -> switch (result.status()) {
+                    case ACCEPTED -> NONE;
+                    case REJECTED -> new BulkIngestSummary.Rejection(index, item.headline(), "queue-full");
+                    case CLOSED -> new BulkIngestSummary.Rejection(index, item.headline(), "closed");
+                });
+    }
+
+    private static final class BulkTally {
+        private final int maxRejections;
+        private int received;
+        private int rejected;
+        private final List<BulkIngestSummary.Rejection> rejections = new ArrayList<>();
+
+        BulkTally(int maxRejections) {
+            this.maxRejections = maxRejections;
+        }
+
+        void add(BulkIngestSummary.Rejection outcome) {
+            received++;
+            if (outcome != NONE) {
+                rejected++;
+                if (rejections.size() < maxRejections) {
+                    rejections.add(outcome);
+                }
+            }
+        }
+
+        BulkIngestSummary summary() {
+            return new BulkIngestSummary(received, received - rejected, rejected, rejections,
+                    rejected - rejections.size());
+        }
+    }
+
+    private static ResponseEntity<Void> toResponse(IngestResult result) {
+        HttpStatus status = switch (result.status()) {
+            case ACCEPTED -> HttpStatus.ACCEPTED;
+            case REJECTED -> HttpStatus.TOO_MANY_REQUESTS;
+            case CLOSED -> HttpStatus.SERVICE_UNAVAILABLE;
+        };
+        if (result.isAccepted()) {
+            return ResponseEntity.status(status).build();
+        }
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(result.retryAfter().toSeconds()))
+                .build();
     }
 
     /**
      * Stream the latest news analyses.
+     * <p>
+     * Heartbeat comments are interleaved so proxies keep the connection open and writes to a dead client
+     * fail promptly, which releases its subscription. With pacing configured each stream gets its own token
+     * bucket, so analyses reach the dashboard at a steady cadence while analysis itself runs at full speed.
+     * The replay is not paced, and a paced stream that falls behind skips ahead to the newest analysis rather
+     * than working through a backlog. Unpaced, a stream that falls behind builds up in its fanout buffer,
+     * where the slow-consumer policy applies.
      *
-     * @return Flux of NewsAnalysis objects.
+     * @return Flux of server-sent events carrying NewsAnalysis objects.
      */
     @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<?> stream() {
-        // returning NewsAnalysis records directly works; browser EventSource receives
-        // JSON per event
-        return pipeline.stream();
+    public Flux<ServerSentEvent<NewsAnalysis>> stream() {
+        return events(pipeline.stream());
+    }
+
+    /**
+     * Stream the latest analyses of items that mention one ticker symbol.
+     * <p>
+     * Filtering happens in the fanout, so the stream buffers, replays and paces only this symbol's
+     * analyses. Heartbeats and pacing work as for {@link #stream()}.
+     *
+     * @param symbol The ticker symbol, any case, e.g. AAPL or brk.b.
+     * @return Flux of server-sent events carrying NewsAnalysis objects tagged with the symbol.
+     */
+    @GetMapping(path = "/stream/{symbol}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<NewsAnalysis>> stream(@PathVariable String symbol) {
+        if (!SYMBOL.matcher(symbol).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid symbol: " + symbol);
+        }
+        return events(pipeline.stream(symbol.toUpperCase(Locale.ROOT)));
+    }
+
+    private Flux<ServerSentEvent<NewsAnalysis>> events(Flux<NewsAnalysis> analyses) {
+        Flux<ServerSentEvent<NewsAnalysis>> heartbeats = Flux.interval(heartbeatInterval)
+                .map(tick -> ServerSentEvent.<NewsAnalysis>builder().comment("heartbeat").build());
+        // browser EventSource receives JSON per data event and ignores comments; publish and merge take one
+        // analysis at a time so a stalled client's backlog stays in its fanout buffer, under the slow-consumer policy
+        return paced(analyses)
+                .map(analysis -> ServerSentEvent.builder(analysis).build())
+                .publish(events -> Flux.merge(1, events, heartbeats.takeUntilOther(events.ignoreElements())), 1);
+    }
+
+    private Flux<NewsAnalysis> paced(Flux<NewsAnalysis> analyses) {
+        if (pacingRate == 0) {
+            return analyses;
+        }
+        return Flux.defer(() -> {
+            TokenBucket pacing = new TokenBucket(pacingRate, pacingBurst);
+            Instant opened = Instant.now();
+            // analyses made before the stream opened are the replay
+            Predicate<NewsAnalysis> replayed = analysis -> analysis.timestamp() != null
+                    && analysis.timestamp().isBefore(opened);
+            return analyses.publish(shared -> Flux.merge(1,
+                    shared.takeWhile(replayed),
+                    // live analyses wait for a token one at a time; only the newest one waits behind them
+                    shared.skipWhile(replayed)
+                            .onBackpressureLatest()
+                            .concatMap(analysis -> pacing.acquire().thenReturn(analysis), 1)), 1);
+        });
+    }
+
+    /**
+     * Query past analyses, newest first. Every filter is optional.
+     *
+     * @param source    Exact source name.
+     * @param sentiment BULLISH, BEARISH or NEUTRAL.
+     * @param minRisk   Lowest risk score, inclusive.
+     * @param maxRisk   Highest risk score, inclusive.
+     * @param from      Earliest timestamp, inclusive, ISO-8601.
+     * @param to        Latest timestamp, exclusive, ISO-8601.
+     * @param cursor    The {@code nextCursor} of the previous page.
+     * @param limit     Page size, at most 500.
+     * @return One page of analyses with the cursor for the next one.
+     */
+    @GetMapping("/analyses")
+    public AnalysisPage analyses(
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) Sentiment sentiment,
+            @RequestParam(required = false) Integer minRisk,
+            @RequestParam(required = false) Integer maxRisk,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        AnalysisHistory.Query query = new AnalysisHistory.Query(from, to, source, sentiment, minRisk, maxRisk);
+        try {
+            return pipeline.history(query, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * The rolling market mood: sentiment counts and mean and 90th percentile risk per window, sliding and
+     * tumbling, by the time the analyzed items were published.
+     *
+     * @param source Exact source name; all sources when absent.
+     * @return MoodSnapshot
+     */
+    @GetMapping("/mood")
+    public MoodSnapshot mood(@RequestParam(required = false) String source) {
+        return pipeline.mood(source);
+    }
+
+    /**
+     * The rolling market mood of each source.
+     *
+     * @return One snapshot per source.
+     */
+    @GetMapping("/mood/sources")
+    public List<MoodSnapshot> moodBySource() {
+        return pipeline.moodBySource();
+    }
+
+    /**
+     * Stream mood snapshots, one immediately and then one per publish interval.
+     *
+     * @param source Exact source name; all sources when absent.
+     * @return Flux of server-sent events carrying MoodSnapshot objects.
+     */
+    @GetMapping(path = "/mood/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<MoodSnapshot>> moodStream(@RequestParam(required = false) String source) {
+        return pipeline.moodUpdates(source).map(snapshot -> ServerSentEvent.builder(snapshot).build());
     }
 
     /**
@@ -0,0 +1,130 @@
+package io.livestock.ai;
+
+import io.livestock.domain.Sentiment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AiJsonParserTest {
+
+    @Test
+    void parseShouldReadPlainJson() {
+        AiJsonParser.Parsed parsed = AiJsonParser.parse(
+                "{\"sentiment\":\"BEARISH\",\"riskScore\":7,\"summary\":\"Shares fell.\"}");
+
+        assertThat(parsed).isEqualTo(new AiJsonParser.Parsed(Sentiment.BEARISH, 7, "Shares fell."));
+    }
+
+    @Test
+    void parseShouldSkipMarkdownFencesAndChatter() {
+        String raw = """
+                Sure! Here is the analysis {as requested}:
+                ```json
+                {
+                  "sentiment": "bullish",
+                  "riskScore": 3,
+                  "summary": "Chipmaker beats estimates."
+                }
+                ```
+                """;
+
+        AiJsonParser.Parsed parsed = AiJsonParser.parse(raw);
+
+        assertThat(parsed.sentiment()).isEqualTo(Sentiment.BULLISH);
+        assertThat(parsed.riskScore()).isEqualTo(3);
+        assertThat(parsed.summary()).isEqualTo("Chipmaker beats estimates.");
+    }
+
+    @Test
+    void parseShouldDecodeEscapes() {
+        String raw = "{\"summary\": \"CEO said \\\"no comment\\\".\\nPath C:\\\\data \\u00e9t\\u00e9\"}";
+
+        assertThat(AiJsonParser.parse(raw).summary()).isEqualTo("CEO said \"no comment\".\nPath C:\\data \u00e9t\u00e9");
+    }
+
+    @Test
+    void parseShouldFindFieldsInNestedObjects() {
+        String raw = "{\"analysis\": {\"tags\": [1, {\"x\": null}], \"sentiment\": \"NEUTRAL\", \"riskScore\": \"6\"}}";
+
+        AiJsonParser.Parsed parsed = AiJsonParser.parse(raw);
+
+        assertThat(parsed.sentiment()).isEqualTo(Sentiment.NEUTRAL);
+        assertThat(parsed.riskScore()).isEqualTo(6);
+    }
+
+    @Test
+    void parseShouldClampRiskAndApplyFallbacks() {
+        assertThat(AiJsonParser.parse("{\"riskScore\": 42}").riskScore()).isEqualTo(10);
+        assertThat(AiJsonParser.parse("{\"riskScore\": 0}").riskScore()).isEqualTo(1);
+        assertThat(AiJsonParser.parse(null))
+                .isEqualTo(new AiJsonParser.Parsed(Sentiment.NEUTRAL, 5, "Summary unavailable."));
+        assertThat(AiJsonParser.parse("{\"sentiment\": \"MAYBE\"}").sentiment()).isEqualTo(Sentiment.NEUTRAL);
+    }
+
+    @Test
+    void parseShouldKeepFieldsReadBeforeTruncation() {
+        AiJsonParser.Parsed parsed = AiJsonParser.parse("{\"sentiment\": \"BULLISH\", \"riskScore\": 4, \"summ");
+
+        assertThat(parsed.sentiment()).isEqualTo(Sentiment.BULLISH);
+        assertThat(parsed.riskScore()).isEqualTo(4);
+        assertThat(parsed.summary()).isEqualTo("Summary unavailable.");
+    }
+
+    @Test
+    void incrementalFeedShouldMatchSinglePass() {
+        String raw = "{\"sentiment\": \"BEARISH\", \"riskScore\": 9, \"summary\": \"Escaped \\\"quote\\\" \\u0041\"}";
+        AiJsonParser.Incremental parser = new AiJsonParser.Incremental();
+
+        for (int i = 0; i < raw.length(); i += 3) {
+            parser.feed(raw.substring(i, Math.min(raw.length(), i + 3)));
+        }
+
+        assertThat(parser.result()).isEqualTo(AiJsonParser.parse(raw));
+    }
+
+    @Test
+    void parseBatchShouldAssignResultsByIndex() {
+        String raw = """
+                [
+                  {"index": 1, "sentiment": "BEARISH", "riskScore": 8, "summary": "Second {item}."},
+                  {"index": 0, "sentiment": "BULLISH", "riskScore": 2, "summary": "First."},
+                  {"index": 0, "sentiment": "NEUTRAL", "riskScore": 5, "summary": "Duplicate."}
+                ]
+                """;
+
+        AiJsonParser.Parsed[] parsed = AiJsonParser.parseBatch(raw, 3);
+
+        assertThat(parsed[0].summary()).isEqualTo("First.");
+        assertThat(parsed[1].summary()).isEqualTo("Second {item}.");
+        assertThat(parsed[2]).isNull();
+    }
+
+    @Test
+    void parseBatchShouldUsePositionWhenIndexMissing() {
+        AiJsonParser.Parsed[] parsed = AiJsonParser.parseBatch(
+                "{\"results\": [{\"sentiment\": \"BULLISH\"}, {\"sentiment\": \"BEARISH\", \"riskScore\": 9}]}", 2);
+
+        assertThat(parsed[0].sentiment()).isEqualTo(Sentiment.BULLISH);
+        assertThat(parsed[1].riskScore()).isEqualTo(9);
+    }
+
+    @Test
+    void parseShouldCountFallbacks() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AiJsonParser.bindTo(registry);
+        double sentimentBefore = fallbacks(registry, "sentiment");
+        double summaryBefore = fallbacks(registry, "summary");
+        double riskBefore = fallbacks(registry, "riskScore");
+
+        AiJsonParser.parse("{\"riskScore\": 4}");
+
+        assertThat(fallbacks(registry, "sentiment")).isEqualTo(sentimentBefore + 1);
+        assertThat(fallbacks(registry, "summary")).isEqualTo(summaryBefore + 1);
+        assertThat(fallbacks(registry, "riskScore")).isEqualTo(riskBefore);
+    }
+
+    private static double fallbacks(SimpleMeterRegistry registry, String field) {
+        return registry.get("livestock.ai.parse.fallbacks").tag("field", field).functionCounter().count();
+    }
+}
@@ -0,0 +1,187 @@
+package io.livestock.ai;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.livestock.domain.Sentiment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.Message;
+import reactor.core.publisher.Flux;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchingNewsAiAnalyzerTest {
+
+    @Mock
+    private ChatClient chatClient;
+    @Mock
+    private ChatClient.ChatClientRequestSpec requestSpec;
+    @Mock
+    private ChatClient.CallResponseSpec responseSpec;
+    @Mock
+    private NewsAiAnalyzer fallback;
+
+    private final NewsItem first = new NewsItem("Source", "Chipmaker beats", "URL1", "Content 1");
+    private final NewsItem second = new NewsItem("Source", "Retailer misses", "URL2", "Content 2");
+
+    @Test
+    void analyzeShouldSplitBatchResponseByIndex() {
+        stubResponse("""
+                Here you go:
+                [
+                  {"index": 1, "sentiment": "BEARISH", "riskScore": 8, "summary": "Retailer missed."},
+                  {"index": 0, "sentiment": "BULLISH", "riskScore": 2, "summary": "Chipmaker beat."}
+                ]
+                """);
+        BatchingNewsAiAnalyzer analyzer = new BatchingNewsAiAnalyzer(chatClient, fallback, 2, Duration.ofSeconds(5), 1);
+
+        StepVerifier.create(Mono.zip(analyzer.analyze(first), analyzer.analyze(second)))
+                .assertNext(pair -> {
+                    assertThat(pair.getT1().sentiment()).isEqualTo(Sentiment.BULLISH);
+                    assertThat(pair.getT1().url()).isEqualTo("URL1");
+                    assertThat(pair.getT2().sentiment()).isEqualTo(Sentiment.BEARISH);
+                    assertThat(pair.getT2().riskScore()).isEqualTo(8);
+                })
+                .verifyComplete();
+
+        verify(chatClient, times(1)).prompt();
+        verifyNoInteractions(fallback);
+    }
+
+    @Test
+    void analyzeShouldFallBackForItemsMissingFromResponse() {
+        stubResponse("""
+                [{"index": 0, "sentiment": "BULLISH", "riskScore": 2, "summary": "Chipmaker beat."},
+                 {"index": 1, "summ
+                """);
+        when(fallback.analyze(second)).thenReturn(Mono.just(analysisOf(second)));
+        BatchingNewsAiAnalyzer analyzer = new BatchingNewsAiAnalyzer(chatClient, fallback, 2, Duration.ofSeconds(5), 1);
+
+        StepVerifier.create(Mono.zip(analyzer.analyze(first), analyzer.analyze(second)))
+                .assertNext(pair -> {
+                    assertThat(pair.getT1().summary()).isEqualTo("Chipmaker beat.");
+                    assertThat(pair.getT2().summary()).isEqualTo("Fallback");
+                })
+                .verifyComplete();
+
+        verify(fallback, never()).analyze(first);
+    }
+
+    @Test
+    void analyzeShouldFallBackForWholeBatchWhenCallFails() {
+        when(chatClient.prompt()).thenThrow(new IllegalStateException("model down"));
+        when(fallback.analyze(any(NewsItem.class))).thenAnswer(inv -> Mono.just(analysisOf(inv.getArgument(0))));
+        BatchingNewsAiAnalyzer analyzer = new BatchingNewsAiAnalyzer(chatClient, fallback, 2, Duration.ofSeconds(5), 1);
+
+        StepVerifier.create(Mono.zip(analyzer.analyze(first), analyzer.analyze(second)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(fallback, times(2)).analyze(any(NewsItem.class));
+    }
+
+    @Test
+    void singleItemBatchShouldUseFallbackAnalyzer() {
+        when(fallback.analyze(first)).thenReturn(Mono.just(analysisOf(first)));
+        BatchingNewsAiAnalyzer analyzer = new BatchingNewsAiAnalyzer(chatClient, fallback, 8, Duration.ofMillis(20), 1);
+
+        StepVerifier.create(analyzer.analyze(first))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verifyNoInteractions(chatClient);
+    }
+
+    @Test
+    void singleItemCallsShouldCountAgainstConcurrency() {
+        Sinks.Empty<Void> release = Sinks.empty();
+        when(fallback.analyze(any(NewsItem.class)))
+                .thenAnswer(inv -> release.asMono().then(Mono.just(analysisOf(inv.getArgument(0)))));
+        BatchingNewsAiAnalyzer analyzer = new BatchingNewsAiAnalyzer(chatClient, fallback, 1, Duration.ofMillis(10), 1);
+
+        StepVerifier.create(Flux.merge(analyzer.analyze(first), analyzer.analyze(second)))
+                .then(() -> verify(fallback, after(200).times(1)).analyze(any(NewsItem.class)))
+                .then(release::tryEmitEmpty)
+                .expectNextCount(2)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        verify(fallback, times(2)).analyze(any(NewsItem.class));
+    }
+
+    @Test
+    void cancelledRequestShouldBeLeftOutOfItsBatch() {
+        when(fallback.analyze(second)).thenReturn(Mono.just(analysisOf(second)));
+        BatchingNewsAiAnalyzer analyzer = new BatchingNewsAiAnalyzer(chatClient, fallback, 2, Duration.ofSeconds(5), 1);
+
+        Disposable cancelled = analyzer.analyze(first).subscribe();
+        cancelled.dispose();
+
+        StepVerifier.create(analyzer.analyze(second))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        verifyNoInteractions(chatClient);
+        verify(fallback, never()).analyze(first);
+    }
+
+    @Test
+    void batchesShouldWaitWhileEveryCallSlotIsBusy() {
+        stubResponse("""
+                [{"index": 0, "sentiment": "BULLISH", "riskScore": 2, "summary": "First."},
+                 {"index": 1, "sentiment": "BEARISH", "riskScore": 8, "summary": "Second."}]
+                """);
+        String slow = responseSpec.content();
+        when(responseSpec.content()).thenAnswer(inv -> {
+            Thread.sleep(100);
+            return slow;
+        });
+        BatchingNewsAiAnalyzer analyzer = new BatchingNewsAiAnalyzer(chatClient, fallback, 2, Duration.ofMillis(10), 1);
+
+        StepVerifier.create(Flux.range(0, 6).flatMap(i -> analyzer.analyze(i % 2 == 0 ? first : second)))
+                .expectNextCount(6)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        verifyNoInteractions(fallback);
+    }
+
+    @Test
+    void failedBatchShouldFailOnlyItsOwnCallers() {
+        when(fallback.analyze(first)).thenThrow(new IllegalStateException("fallback broken"));
+        when(fallback.analyze(second)).thenReturn(Mono.just(analysisOf(second)));
+        BatchingNewsAiAnalyzer analyzer = new BatchingNewsAiAnalyzer(chatClient, fallback, 8, Duration.ofMillis(20), 1);
+
+        StepVerifier.create(analyzer.analyze(first))
+                .expectErrorMessage("fallback broken")
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(analyzer.analyze(second))
+                .assertNext(analysis -> assertThat(analysis.summary()).isEqualTo("Fallback"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private void stubResponse(String raw) {
+        when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.messages(any(Message.class), any(Message.class))).thenReturn(requestSpec);
+        when(requestSpec.call()).thenReturn(responseSpec);
+        when(responseSpec.content()).thenReturn(raw);
+    }
+
+    private static NewsAnalysis analysisOf(NewsItem item) {
+        return new NewsAnalysis(UUID.randomUUID().toString(), Instant.now(), item.source(), item.headline(),
+                item.url(), Sentiment.NEUTRAL, 5, "Fallback");
+    }
+}
@@ -0,0 +1,153 @@
+package io.livestock.ai;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.livestock.domain.Sentiment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingNewsAiAnalyzerTest {
+
+    @Mock
+    private NewsAiAnalyzer delegate;
+
+    @Test
+    void analyzeShouldReuseResultForSyndicatedCopy() {
+        NewsItem original = new NewsItem("Reuters", "Chipmaker beats estimates", "http://a", "Revenue up 20%.");
+        NewsItem copy = new NewsItem("Yahoo", "Chipmaker Beats Estimates!", "http://b", "Revenue up 20%");
+        when(delegate.analyze(any(NewsItem.class))).thenAnswer(inv -> Mono.just(analysisOf(inv.getArgument(0))));
+
+        CachingNewsAiAnalyzer analyzer = new CachingNewsAiAnalyzer(delegate, 100, Duration.ofHours(1));
+
+        StepVerifier.create(analyzer.analyze(original))
+                .expectNextMatches(a -> a.source().equals("Reuters"))
+                .verifyComplete();
+        StepVerifier.create(analyzer.analyze(copy))
+                .assertNext(a -> {
+                    assertThat(a.source()).isEqualTo("Yahoo");
+                    assertThat(a.url()).isEqualTo("http://b");
+                    assertThat(a.sentiment()).isEqualTo(Sentiment.BULLISH);
+                })
+                .verifyComplete();
+
+        verify(delegate, times(1)).analyze(any(NewsItem.class));
+    }
+
+    @Test
+    void concurrentIdenticalRequestsShouldShareOneCall() {
+        NewsItem item = new NewsItem("Source", "Headline", "URL", "Content");
+        Sinks.One<NewsAnalysis> result = Sinks.one();
+        when(delegate.analyze(any(NewsItem.class))).thenReturn(result.asMono());
+
+        CachingNewsAiAnalyzer analyzer = new CachingNewsAiAnalyzer(delegate, 100, Duration.ofHours(1));
+        Mono<NewsAnalysis> first = analyzer.analyze(item);
+        Mono<NewsAnalysis> second = analyzer.analyze(item);
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> result.tryEmitValue(analysisOf(item)))
+                .assertNext(pair -> assertThat(pair.getT2().summary()).isEqualTo(pair.getT1().summary()))
+                .verifyComplete();
+
+        verify(delegate, times(1)).analyze(any(NewsItem.class));
+    }
+
+    @Test
+    void timedOutCallersShouldCancelTheSharedCall() {
+        NewsItem original = new NewsItem("Reuters", "Chipmaker beats estimates", "http://a", "Revenue up 20%.");
+        NewsItem copy = new NewsItem("Yahoo", "Chipmaker Beats Estimates!", "http://b", "Revenue up 20%");
+        AtomicInteger cancelled = new AtomicInteger();
+        when(delegate.analyze(any(NewsItem.class)))
+                .thenReturn(Mono.<NewsAnalysis>never().doOnCancel(cancelled::incrementAndGet));
+
+        CachingNewsAiAnalyzer cache = new CachingNewsAiAnalyzer(delegate, 100, Duration.ofHours(1));
+        ResilientNewsAiAnalyzer analyzer = new ResilientNewsAiAnalyzer(cache, null, "test",
+                new ResilientNewsAiAnalyzer.Settings(Duration.ofMillis(50), Duration.ofMillis(50), 4, 10, 10, 0.5,
+                        Duration.ofSeconds(30), 2),
+                item -> null);
+
+        StepVerifier.create(Mono.zip(analyzer.analyze(original), analyzer.analyze(copy)))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(2));
+
+        verify(delegate, times(1)).analyze(any(NewsItem.class));
+        assertThat(cancelled).hasValue(1);
+        assertThat(cache.inFlight()).isZero();
+        assertThat(analyzer.inFlight()).isZero();
+    }
+
+    @Test
+    void failedAnalysisShouldNotBeCached() {
+        NewsItem item = new NewsItem("Source", "Headline", "URL", "Content");
+        when(delegate.analyze(any(NewsItem.class)))
+                .thenReturn(Mono.error(new IllegalStateException("model down")))
+                .thenReturn(Mono.just(analysisOf(item)));
+
+        CachingNewsAiAnalyzer analyzer = new CachingNewsAiAnalyzer(delegate, 100, Duration.ofHours(1));
+
+        StepVerifier.create(analyzer.analyze(item)).verifyError(IllegalStateException.class);
+        StepVerifier.create(analyzer.analyze(item)).expectNextCount(1).verifyComplete();
+    }
+
+    @Test
+    void entriesShouldBeEvictedBySizeAndTtl() {
+        MutableClock clock = new MutableClock();
+        when(delegate.analyze(any(NewsItem.class))).thenAnswer(inv -> Mono.just(analysisOf(inv.getArgument(0))));
+        CachingNewsAiAnalyzer analyzer = new CachingNewsAiAnalyzer(delegate, 2, Duration.ofMinutes(10), clock);
+
+        for (int i = 0; i < 3; i++) {
+            analyzer.analyze(new NewsItem("S", "Headline " + i, "U", "C")).block();
+        }
+        assertThat(analyzer.size()).isEqualTo(2);
+
+        clock.advance(Duration.ofMinutes(11));
+        analyzer.analyze(new NewsItem("S", "Headline 2", "U", "C")).block();
+
+        verify(delegate, times(4)).analyze(any(NewsItem.class));
+    }
+
+    private static NewsAnalysis analysisOf(NewsItem item) {
+        return new NewsAnalysis(UUID.randomUUID().toString(), Instant.now(), item.source(), item.headline(),
+                item.url(), Sentiment.BULLISH, 3, "Summary of " + item.headline());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.livestock.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LexiconTest {
+
+    private final Lexicon lexicon = Lexicon.builder()
+            .term("beats", 2)
+            .term("beats estimates", 3)
+            .term("surge*", 2)
+            .term("plunge*", -3)
+            .term("lawsuit", -2)
+            .negator("not")
+            .negator("fails to")
+            .build();
+
+    @Test
+    void scoreShouldMatchWholeWordsAndStemsIgnoringCaseAndPunctuation() {
+        Lexicon.LexiconScore score = lexicon.score(null, "Shares SURGED; a lawsuit... (Lawsuits don't count.)");
+
+        assertThat(score.bullish()).isEqualTo(2);
+        assertThat(score.bearish()).isEqualTo(2);
+        assertThat(score.hits()).isEqualTo(2);
+        assertThat(score.agreement()).isEqualTo(0.5);
+    }
+
+    @Test
+    void scoreShouldPreferTheLongestOverlappingTerm() {
+        Lexicon.LexiconScore score = lexicon.score(null, "Apple beats  estimates");
+
+        assertThat(score.bullish()).isEqualTo(3);
+        assertThat(score.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void scoreShouldWeightHeadlineMatches() {
+        assertThat(lexicon.score("Stock plunges", "").bearish()).isEqualTo(3 * Lexicon.HEADLINE_WEIGHT);
+    }
+
+    @Test
+    void negatorShouldFlipNearbyTermsWithinTheClause() {
+        assertThat(lexicon.score(null, "Apple fails to beats estimates").net())
+                .isEqualTo(-3 * Lexicon.NEGATION_DAMPING);
+        assertThat(lexicon.score(null, "Sales did not, however, plunge").net()).isEqualTo(-3);
+        assertThat(lexicon.score(null, "not one of the analysts expected shares to surge").net()).isEqualTo(2);
+    }
+
+    @Test
+    void scoreShouldTreatCurlyApostrophesAndNonAsciiLettersAsWordCharacters() {
+        Lexicon withContraction = Lexicon.builder().term("won't", -1).term("surge", 1).build();
+
+        assertThat(withContraction.score(null, "It won\u2019t").bearish()).isEqualTo(1);
+        assertThat(withContraction.score(null, "surge\u00e9").hits()).isZero();
+    }
+
+    @Test
+    void loadShouldParseWeightsNegatorsAndComments() throws Exception {
+        String file = """
+                # comment
+                record high 2
+
+                plunge* -3
+                fails to negate
+                """;
+        Lexicon loaded = Lexicon.load(new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(loaded.score(null, "Shares hit a record high").net()).isEqualTo(2);
+        assertThat(loaded.score(null, "Shares fails to plunge").net()).isEqualTo(1.5);
+        assertThatThrownBy(() -> Lexicon.load(new ByteArrayInputStream("surge".getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void defaultsShouldLoadTheBundledDictionary() {
+        Lexicon defaults = Lexicon.defaults();
+
+        assertThat(defaults.score("Apple beats estimates, shares surge", "").net()).isPositive();
+        assertThat(defaults.score("Stock plunges after profit warning", "").net()).isNegative();
+        assertThat(defaults.score("Market is open today", "").hits()).isZero();
+    }
+}
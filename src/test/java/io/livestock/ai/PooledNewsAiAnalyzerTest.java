@@ -0,0 +1,206 @@
+package io.livestock.ai;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.livestock.domain.Sentiment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PooledNewsAiAnalyzerTest {
+
+    private final NewsItem item = new NewsItem("Source", "Headline", "URL", "Content");
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldRouteAroundABackendWithCallsInFlight() {
+        Map<String, StubModel> models = models("a", "b", "c");
+        models.get("a").latencyMillis.set(1_000);
+        PooledNewsAiAnalyzer pool = pool(models, new PooledNewsAiAnalyzer.Settings(0, Duration.ZERO, 3,
+                Duration.ofSeconds(30)));
+        Disposable slow = pool.analyze(item).subscribe();
+
+        List<NewsAnalysis> analyses = Flux.range(0, 4)
+                .concatMap(i -> pool.analyze(item))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        slow.dispose();
+
+        assertThat(analyses).extracting(NewsAnalysis::summary).doesNotContain("a").contains("b", "c");
+        assertThat(models.get("a").calls.get()).isEqualTo(1);
+        assertThat(registry.get("livestock.ai.pool.requests").tag("backend", "a").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("livestock.ai.pool.outstanding").tag("backend", "a").gauge().value()).isZero();
+    }
+
+    @Test
+    void slowCallsShouldBeHedgedOnAnotherBackend() {
+        Map<String, StubModel> models = models("a", "b");
+        PooledNewsAiAnalyzer pool = pool(models, new PooledNewsAiAnalyzer.Settings(0.9, Duration.ofMillis(50), 3,
+                Duration.ofSeconds(30)));
+        // enough fast calls to establish the latency distribution
+        Flux.range(0, 20).concatMap(i -> pool.analyze(item)).blockLast(Duration.ofSeconds(5));
+        models.get("a").latencyMillis.set(5_000);
+
+        long start = System.nanoTime();
+        List<NewsAnalysis> analyses = Flux.range(0, 4)
+                .concatMap(i -> pool.analyze(item))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(analyses).extracting(NewsAnalysis::summary).containsOnly("b");
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(2));
+        assertThat(hedges("sent")).isGreaterThanOrEqualTo(1);
+        assertThat(hedges("won")).isEqualTo(hedges("sent"));
+        // the slow calls lost the race and were cancelled
+        assertThat(registry.get("livestock.ai.pool.outstanding").tag("backend", "a").gauge().value()).isZero();
+    }
+
+    @Test
+    void hedgeDelayShouldBeAvailableOnceEnoughCallsHaveCompleted() {
+        PooledNewsAiAnalyzer pool = pool(models("a", "b"), new PooledNewsAiAnalyzer.Settings(0.9,
+                Duration.ofMillis(50), 3, Duration.ofSeconds(30)));
+        Flux.range(0, 19).concatMap(i -> pool.analyze(item)).blockLast(Duration.ofSeconds(5));
+        assertThat(pool.hedgeDelayNanos()).isEqualTo(-1);
+
+        pool.analyze(item).block(Duration.ofSeconds(5));
+
+        assertThat(pool.hedgeDelayNanos()).isEqualTo(Duration.ofMillis(50).toNanos());
+        assertThat(registry.get("livestock.ai.pool.hedge.delay").gauge().value()).isEqualTo(0.05);
+    }
+
+    @Test
+    void primaryFailureBeforeTheHedgeDelayShouldFailTheCall() {
+        Map<String, StubModel> models = models("a", "b");
+        PooledNewsAiAnalyzer pool = pool(models, new PooledNewsAiAnalyzer.Settings(0.9, Duration.ofSeconds(1), 100,
+                Duration.ofSeconds(30)));
+        Flux.range(0, 20).concatMap(i -> pool.analyze(item)).blockLast(Duration.ofSeconds(5));
+        models.values().forEach(model -> model.failing = true);
+
+        StepVerifier.create(pool.analyze(item))
+                .expectErrorMessage("backend down")
+                .verify(Duration.ofMillis(500));
+        assertThat(hedges("sent")).isZero();
+    }
+
+    @Test
+    void failingBackendShouldBeEjectedAndReadmitted() {
+        AtomicLong nanos = new AtomicLong();
+        Map<String, StubModel> models = models("a", "b");
+        models.get("a").failing = true;
+        PooledNewsAiAnalyzer pool = new PooledNewsAiAnalyzer(analyzers(models),
+                new PooledNewsAiAnalyzer.Settings(0, Duration.ZERO, 2, Duration.ofSeconds(30)), nanos::get);
+        pool.bindTo(registry);
+
+        for (int i = 0; i < 10; i++) {
+            pool.analyze(item).onErrorResume(e -> Mono.empty()).block(Duration.ofSeconds(5));
+        }
+
+        assertThat(models.get("a").calls.get()).isEqualTo(2);
+        assertThat(models.get("b").calls.get()).isEqualTo(8);
+        assertThat(registry.get("livestock.ai.pool.healthy").tag("backend", "a").gauge().value()).isZero();
+        assertThat(registry.get("livestock.ai.pool.ejections").tag("backend", "a").functionCounter().count())
+                .isEqualTo(1);
+
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        models.get("a").failing = false;
+        for (int i = 0; i < 4; i++) {
+            pool.analyze(item).block(Duration.ofSeconds(5));
+        }
+
+        assertThat(models.get("a").calls.get()).isEqualTo(4);
+        assertThat(registry.get("livestock.ai.pool.healthy").tag("backend", "a").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepServingWhenEveryBackendIsEjected() {
+        AtomicLong nanos = new AtomicLong();
+        Map<String, StubModel> models = models("a", "b");
+        models.values().forEach(model -> model.failing = true);
+        PooledNewsAiAnalyzer pool = new PooledNewsAiAnalyzer(analyzers(models),
+                new PooledNewsAiAnalyzer.Settings(0, Duration.ZERO, 1, Duration.ofSeconds(30)), nanos::get);
+        pool.analyze(item).onErrorResume(e -> Mono.empty()).block(Duration.ofSeconds(5));
+        nanos.addAndGet(1);
+        pool.analyze(item).onErrorResume(e -> Mono.empty()).block(Duration.ofSeconds(5));
+
+        models.values().forEach(model -> model.failing = false);
+
+        // "a" was ejected first, so it is due back first
+        StepVerifier.create(pool.analyze(item))
+                .assertNext(analysis -> assertThat(analysis.summary()).isEqualTo("a"))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamingShouldBeRoutedWithoutHedging() {
+        Map<String, StubModel> models = models("a", "b");
+        PooledNewsAiAnalyzer pool = pool(models, PooledNewsAiAnalyzer.Settings.defaults());
+
+        StepVerifier.create(pool.analyzeStreaming(item))
+                .assertNext(analysis -> assertThat(analysis.summary()).isIn("a", "b"))
+                .verifyComplete();
+        assertThat(models.values().stream().mapToInt(model -> model.calls.get()).sum()).isEqualTo(1);
+    }
+
+    private PooledNewsAiAnalyzer pool(Map<String, StubModel> models, PooledNewsAiAnalyzer.Settings settings) {
+        PooledNewsAiAnalyzer pool = new PooledNewsAiAnalyzer(analyzers(models), settings);
+        pool.bindTo(registry);
+        return pool;
+    }
+
+    private double hedges(String outcome) {
+        return registry.get("livestock.ai.pool.hedges").tag("outcome", outcome).functionCounter().count();
+    }
+
+    private static Map<String, StubModel> models(String... names) {
+        Map<String, StubModel> models = new LinkedHashMap<>();
+        for (String name : names) {
+            models.put(name, new StubModel(name));
+        }
+        return models;
+    }
+
+    private static Map<String, NewsAiAnalyzer> analyzers(Map<String, StubModel> models) {
+        return new LinkedHashMap<>(models);
+    }
+
+    // answers with its own name as the summary after the configured latency
+    private static final class StubModel implements NewsAiAnalyzer {
+
+        private final String name;
+        private final AtomicLong latencyMillis = new AtomicLong(10);
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean failing;
+
+        private StubModel(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Mono<NewsAnalysis> analyze(NewsItem item) {
+            return Mono.defer(() -> {
+                calls.incrementAndGet();
+                if (failing) {
+                    return Mono.error(new IllegalStateException("backend down"));
+                }
+                return Mono.delay(Duration.ofMillis(latencyMillis.get()))
+                        .map(tick -> new NewsAnalysis(name + "-" + tick, Instant.now(), item.source(),
+                                item.headline(), item.url(), Sentiment.NEUTRAL, 5, name));
+            });
+        }
+    }
+}
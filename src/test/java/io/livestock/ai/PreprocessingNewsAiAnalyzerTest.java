@@ -0,0 +1,44 @@
+package io.livestock.ai;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.livestock.domain.Sentiment;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PreprocessingNewsAiAnalyzerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void analyzeShouldPassCleanedItemAndRecordPromptSizes() {
+        AtomicReference<NewsItem> seen = new AtomicReference<>();
+        NewsAnalysis analysis = new NewsAnalysis("id", Instant.now(), "Source", "Headline", "URL",
+                Sentiment.NEUTRAL, 5, "Summary");
+        PreprocessingNewsAiAnalyzer analyzer = new PreprocessingNewsAiAnalyzer(item -> {
+            seen.set(item);
+            return Mono.just(analysis);
+        }, new PromptPreprocessor(256), "ollama", registry);
+
+        StepVerifier.create(analyzer.analyze(new NewsItem("Source", "Headline", "URL",
+                        "<b>Headline</b> Body text. [+2048 chars]")))
+                .expectNext(analysis)
+                .verifyComplete();
+
+        assertThat(seen.get().content()).isEqualTo("Body text.");
+        assertThat(summary("raw").count()).isEqualTo(1);
+        assertThat(summary("processed").totalAmount()).isLessThan(summary("raw").totalAmount());
+    }
+
+    private DistributionSummary summary(String stage) {
+        return registry.get("livestock.ai.prompt.tokens").tag("backend", "ollama").tag("stage", stage).summary();
+    }
+}
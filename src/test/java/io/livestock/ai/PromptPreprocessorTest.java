@@ -0,0 +1,58 @@
+package io.livestock.ai;
+
+import io.livestock.domain.NewsItem;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromptPreprocessorTest {
+
+    private final PromptPreprocessor preprocessor = new PromptPreprocessor(256);
+
+    @Test
+    void applyShouldStripMarkupEntitiesAndTruncationMarker() {
+        NewsItem item = new NewsItem("Reuters", "Apple beats estimates", "URL",
+                "<p>Shares&nbsp;rose 3% &amp; more.</p>\n\n  Guidance was raised\u2026 [+1234 chars]");
+
+        assertThat(preprocessor.apply(item).content()).isEqualTo("Shares rose 3% & more. Guidance was raised\u2026");
+    }
+
+    @Test
+    void applyShouldRemoveBoilerplate() {
+        NewsItem item = new NewsItem("Reuters", "Apple beats estimates", "URL",
+                "Shares rose. Read more at reuters.com\nGuidance was raised.");
+
+        assertThat(preprocessor.apply(item).content()).isEqualTo("Shares rose. Guidance was raised.");
+    }
+
+    @Test
+    void applyShouldDropRepeatedHeadlineAndSentences() {
+        NewsItem item = new NewsItem("Reuters", "Apple beats estimates", "URL",
+                "APPLE BEATS ESTIMATES - Shares rose. Apple beats estimates! Shares rose.");
+
+        assertThat(preprocessor.apply(item).content()).isEqualTo("Shares rose.");
+        assertThat(preprocessor.apply(new NewsItem("Reuters", "Apple beats estimates", "URL",
+                "Apple beats estimates")).content()).isEmpty();
+    }
+
+    @Test
+    void applyShouldTruncateToTheTokenBudget() {
+        PromptPreprocessor small = new PromptPreprocessor(40);
+        NewsItem item = new NewsItem("S", "H", "URL", "one two three four five six seven eight nine ten "
+                + "eleven twelve thirteen fourteen fifteen sixteen seventeen eighteen nineteen twenty");
+
+        NewsItem trimmed = small.apply(item);
+
+        assertThat(trimmed.content()).startsWith("one two").endsWith("...");
+        assertThat(PromptPreprocessor.promptTokens(trimmed)).isLessThanOrEqualTo(40);
+        assertThat(trimmed.headline()).isEqualTo("H");
+    }
+
+    @Test
+    void approximateTokensShouldCountWordPiecesAndPunctuation() {
+        assertThat(PromptPreprocessor.approximateTokens(null)).isZero();
+        assertThat(PromptPreprocessor.approximateTokens("  ")).isZero();
+        // hello(2) ,(1) world(2) !(1) internationalization(5)
+        assertThat(PromptPreprocessor.approximateTokens("hello, world! internationalization")).isEqualTo(11);
+    }
+}
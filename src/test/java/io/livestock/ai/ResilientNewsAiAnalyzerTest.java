@@ -0,0 +1,223 @@
+package io.livestock.ai;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.livestock.domain.Sentiment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResilientNewsAiAnalyzerTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+    private static final Duration MAX_AGE = Duration.ofHours(48);
+
+    private final NewsItem item = new NewsItem("Source", "Headline", "URL", "Content");
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+    private final StubModel model = new StubModel("model");
+    private final StubModel lexicon = new StubModel("lexicon");
+
+    @Test
+    void deadlineShouldShrinkAsTheItemAges() {
+        ResilientNewsAiAnalyzer analyzer = analyzer(lexicon, ResilientNewsAiAnalyzer.Settings.defaults());
+
+        assertThat(analyzer.deadline(item)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(analyzer.deadline(publishedAgo(Duration.ofHours(6)))).isEqualTo(Duration.ofSeconds(30));
+        assertThat(analyzer.deadline(publishedAgo(MAX_AGE.minusSeconds(25)))).isEqualTo(Duration.ofSeconds(25));
+        assertThat(analyzer.deadline(publishedAgo(MAX_AGE.plusHours(1)))).isEqualTo(Duration.ofSeconds(20));
+    }
+
+    @Test
+    void hungCallShouldTimeOutAndFallBack() {
+        model.hanging = true;
+        ResilientNewsAiAnalyzer analyzer = analyzer(lexicon, settings(Duration.ofMillis(50), 4, 10));
+
+        StepVerifier.create(analyzer.analyze(item))
+                .assertNext(analysis -> assertThat(analysis.summary()).isEqualTo("lexicon"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+
+        assertThat(counter("livestock.ai.timeouts")).isEqualTo(1);
+        assertThat(counter("livestock.ai.fallbacks")).isEqualTo(1);
+        assertThat(analyzer.inFlight()).isZero();
+    }
+
+    @Test
+    void breakerShouldOpenAfterFailuresAndRejectWithoutCallingTheModel() {
+        model.failing = true;
+        ResilientNewsAiAnalyzer analyzer = analyzer(null, settings(Duration.ofSeconds(1), 4, 4));
+
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(analyzer.analyze(item)).expectErrorMessage("backend down").verify();
+        }
+        StepVerifier.create(analyzer.analyze(item)).expectError(RejectedExecutionException.class).verify();
+
+        assertThat(model.calls.get()).isEqualTo(4);
+        assertThat(analyzer.breakerState()).isEqualTo(ResilientNewsAiAnalyzer.BreakerState.OPEN);
+        assertThat(registry.get("livestock.ai.breaker.state").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("livestock.ai.rejections").tag("reason", "breaker-open").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void breakerShouldCloseOnceTheTrialCallsSucceed() {
+        model.failing = true;
+        ResilientNewsAiAnalyzer analyzer = analyzer(lexicon, settings(Duration.ofSeconds(1), 4, 4));
+        for (int i = 0; i < 4; i++) {
+            analyzer.analyze(item).block(Duration.ofSeconds(1));
+        }
+        model.failing = false;
+
+        StepVerifier.create(analyzer.analyze(item))
+                .assertNext(analysis -> assertThat(analysis.summary()).isEqualTo("lexicon"))
+                .verifyComplete();
+
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        StepVerifier.create(analyzer.analyze(item))
+                .assertNext(analysis -> assertThat(analysis.summary()).isEqualTo("model"))
+                .verifyComplete();
+        assertThat(analyzer.breakerState()).isEqualTo(ResilientNewsAiAnalyzer.BreakerState.HALF_OPEN);
+
+        analyzer.analyze(item).block(Duration.ofSeconds(1));
+        assertThat(analyzer.breakerState()).isEqualTo(ResilientNewsAiAnalyzer.BreakerState.CLOSED);
+    }
+
+    @Test
+    void failedTrialShouldReopenTheBreaker() {
+        model.failing = true;
+        ResilientNewsAiAnalyzer analyzer = analyzer(lexicon, settings(Duration.ofSeconds(1), 4, 4));
+        for (int i = 0; i < 4; i++) {
+            analyzer.analyze(item).block(Duration.ofSeconds(1));
+        }
+
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        analyzer.analyze(item).block(Duration.ofSeconds(1));
+
+        assertThat(model.calls.get()).isEqualTo(5);
+        assertThat(analyzer.breakerState()).isEqualTo(ResilientNewsAiAnalyzer.BreakerState.OPEN);
+    }
+
+    @Test
+    void callsBeyondTheBulkheadShouldFallBack() {
+        model.hanging = true;
+        ResilientNewsAiAnalyzer analyzer = analyzer(lexicon, settings(Duration.ofSeconds(30), 2, 10));
+        Disposable first = analyzer.analyze(item).subscribe();
+        Disposable second = analyzer.analyze(item).subscribe();
+
+        StepVerifier.create(analyzer.analyze(item))
+                .assertNext(analysis -> assertThat(analysis.summary()).isEqualTo("lexicon"))
+                .verifyComplete();
+
+        assertThat(model.calls.get()).isEqualTo(2);
+        assertThat(registry.get("livestock.ai.bulkhead.in-flight").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("livestock.ai.rejections").tag("reason", "bulkhead-full").functionCounter().count())
+                .isEqualTo(1);
+
+        first.dispose();
+        second.dispose();
+        assertThat(analyzer.inFlight()).isZero();
+    }
+
+    @Test
+    void streamingShouldFallBackWhenTheStreamOutlivesItsDeadline() {
+        model.hanging = true;
+        ResilientNewsAiAnalyzer analyzer = analyzer(lexicon, settings(Duration.ofMillis(50), 4, 10));
+
+        StepVerifier.create(analyzer.analyzeStreaming(item))
+                .assertNext(analysis -> assertThat(analysis.summary()).isEqualTo("lexicon"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+        assertThat(counter("livestock.ai.timeouts")).isEqualTo(1);
+    }
+
+    @Test
+    void streamingFallbackShouldSupersedeTheProvisionalAnalysis() {
+        model.stalling = true;
+        ResilientNewsAiAnalyzer analyzer = analyzer(lexicon, settings(Duration.ofMillis(50), 4, 10));
+
+        StepVerifier.create(analyzer.analyzeStreaming(item))
+                .assertNext(analysis -> assertThat(analysis.provisional()).isTrue())
+                .assertNext(analysis -> {
+                    assertThat(analysis.provisional()).isFalse();
+                    assertThat(analysis.summary()).isEqualTo("lexicon");
+                    assertThat(analysis.id()).isEqualTo("model");
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+        assertThat(counter("livestock.ai.timeouts")).isEqualTo(1);
+    }
+
+    private ResilientNewsAiAnalyzer analyzer(NewsAiAnalyzer fallback, ResilientNewsAiAnalyzer.Settings settings) {
+        ResilientNewsAiAnalyzer analyzer = new ResilientNewsAiAnalyzer(model, fallback, "test", settings,
+                item -> item.publishedAt() == null ? null : item.publishedAt().plus(MAX_AGE),
+                Clock.fixed(NOW, ZoneOffset.UTC), nanos::get);
+        analyzer.bindTo(registry);
+        return analyzer;
+    }
+
+    private static ResilientNewsAiAnalyzer.Settings settings(Duration timeout, int maxConcurrent, int window) {
+        return new ResilientNewsAiAnalyzer.Settings(timeout, timeout, maxConcurrent, window, window, 0.5,
+                Duration.ofSeconds(30), 2);
+    }
+
+    private NewsItem publishedAgo(Duration age) {
+        return new NewsItem("Source", "Headline", "URL", "Content", NOW.minus(age));
+    }
+
+    private double counter(String name) {
+        return registry.get(name).functionCounter().count();
+    }
+
+    // answers with its own name as the id and summary, or fails, or never answers, or streams only a provisional
+    // answer
+    private static final class StubModel implements NewsAiAnalyzer {
+
+        private final String name;
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean failing;
+        private volatile boolean hanging;
+        private volatile boolean stalling;
+
+        private StubModel(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Mono<NewsAnalysis> analyze(NewsItem item) {
+            return Mono.defer(() -> {
+                calls.incrementAndGet();
+                if (failing) {
+                    return Mono.error(new IllegalStateException("backend down"));
+                }
+                if (hanging) {
+                    return Mono.never();
+                }
+                return Mono.just(new NewsAnalysis(name, Instant.now(), item.source(), item.headline(), item.url(),
+                        Sentiment.NEUTRAL, 5, name));
+            });
+        }
+
+        @Override
+        public Flux<NewsAnalysis> analyzeStreaming(NewsItem item) {
+            if (!stalling) {
+                return NewsAiAnalyzer.super.analyzeStreaming(item);
+            }
+            return Flux.concat(Mono.just(new NewsAnalysis(name, Instant.now(), item.source(), item.headline(),
+                    item.url(), Sentiment.NEUTRAL, 5, null, true)), Flux.never());
+        }
+    }
+}
@@ -9,8 +9,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.Message;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -24,6 +27,10 @@ class SpringAiNewsAnalyzerTest {
     private ChatClient.ChatClientRequestSpec requestSpec;
     @Mock
     private ChatClient.CallResponseSpec responseSpec;
+    @Mock
+    private ChatClient.StreamResponseSpec streamSpec;
+
+    private final NewsItem item = new NewsItem("Source", "Headline", "URL", "Content");
 
     @Test
     void analyzeShouldReturnAnalysis() {
@@ -42,7 +49,6 @@ class SpringAiNewsAnalyzerTest {
         when(responseSpec.content()).thenReturn(aiJson);
 
         SpringAiNewsAnalyzer analyzer = new SpringAiNewsAnalyzer(chatClient);
-        NewsItem item = new NewsItem("Source", "Headline", "URL", "Content");
 
         // Act & Assert
         StepVerifier.create(analyzer.analyze(item))
@@ -53,4 +59,58 @@ class SpringAiNewsAnalyzerTest {
                 })
                 .verifyComplete();
     }
+
+    @Test
+    void analyzeStreamingShouldEmitProvisionalThenFinalAnalysis() {
+        when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.messages(any(Message.class), any(Message.class))).thenReturn(requestSpec);
+        when(requestSpec.stream()).thenReturn(streamSpec);
+        when(streamSpec.content()).thenReturn(Flux.just(
+                "{\"sentiment\": \"BEAR", "ISH\", \"riskScore\": 8,", " \"summary\": \"Shares ", "fell.\"}"));
+
+        SpringAiNewsAnalyzer analyzer = new SpringAiNewsAnalyzer(chatClient);
+        AtomicReference<String> provisionalId = new AtomicReference<>();
+
+        StepVerifier.create(analyzer.analyzeStreaming(item))
+                .assertNext(analysis -> {
+                    assertThat(analysis.provisional()).isTrue();
+                    assertThat(analysis.sentiment()).isEqualTo(Sentiment.BEARISH);
+                    assertThat(analysis.riskScore()).isEqualTo(8);
+                    assertThat(analysis.summary()).isNull();
+                    provisionalId.set(analysis.id());
+                })
+                .assertNext(analysis -> {
+                    assertThat(analysis.provisional()).isFalse();
+                    assertThat(analysis.id()).isEqualTo(provisionalId.get());
+                    assertThat(analysis.summary()).isEqualTo("Shares fell.");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void streamAnalysesShouldStopReadingOnceTheAnalysisIsComplete() {
+        Flux<String> tokens = Flux.concat(
+                Flux.just("{\"summary\": \"S\", \"sentiment\": \"BULLISH\", \"riskScore\": 3}"),
+                Flux.error(new IllegalStateException("should have been cancelled")));
+
+        StepVerifier.create(SpringAiNewsAnalyzer.streamAnalyses(item, tokens))
+                .assertNext(analysis -> {
+                    assertThat(analysis.provisional()).isFalse();
+                    assertThat(analysis.sentiment()).isEqualTo(Sentiment.BULLISH);
+                    assertThat(analysis.riskScore()).isEqualTo(3);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void streamAnalysesShouldFinishWithFallbacksWhenTheResponseIsIncomplete() {
+        StepVerifier.create(SpringAiNewsAnalyzer.streamAnalyses(item, Flux.just("{\"sentiment\": \"BULLISH\"")))
+                .assertNext(analysis -> {
+                    assertThat(analysis.provisional()).isFalse();
+                    assertThat(analysis.sentiment()).isEqualTo(Sentiment.BULLISH);
+                    assertThat(analysis.riskScore()).isEqualTo(5);
+                    assertThat(analysis.summary()).isEqualTo("Summary unavailable.");
+                })
+                .verifyComplete();
+    }
 }
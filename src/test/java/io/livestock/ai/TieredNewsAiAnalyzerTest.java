@@ -0,0 +1,65 @@
+package io.livestock.ai;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.livestock.domain.Sentiment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TieredNewsAiAnalyzerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger modelCalls = new AtomicInteger();
+    private final NewsAnalysis modelAnalysis = new NewsAnalysis("id", Instant.now(), "Source", "Headline", "URL",
+            Sentiment.NEUTRAL, 5, "Model summary");
+    private TieredNewsAiAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() {
+        analyzer = new TieredNewsAiAnalyzer(new LexiconNewsAiAnalyzer(), item -> {
+            modelCalls.incrementAndGet();
+            return Mono.just(modelAnalysis);
+        }, 3.0, 0.8);
+        analyzer.bindTo(registry);
+    }
+
+    @Test
+    void confidentItemsShouldBeAnsweredByTheLexicon() {
+        NewsItem item = new NewsItem("Source", "Apple beats estimates", "URL", "Shares surged after the report.");
+
+        StepVerifier.create(analyzer.analyze(item))
+                .assertNext(analysis -> {
+                    assertThat(analysis.sentiment()).isEqualTo(Sentiment.BULLISH);
+                    assertThat(analysis.riskScore()).isLessThan(5);
+                    assertThat(analysis.summary()).isEqualTo("Shares surged after the report.");
+                })
+                .verifyComplete();
+        assertThat(modelCalls).hasValue(0);
+        assertThat(tierCount("lexicon")).isEqualTo(1);
+    }
+
+    @Test
+    void ambiguousItemsShouldBeEscalated() {
+        NewsItem plain = new NewsItem("Source", "Market is open today", "URL", "Nothing special happening");
+        NewsItem mixed = new NewsItem("Source", "Apple beats estimates but shares plunge", "URL", "Content");
+
+        StepVerifier.create(analyzer.analyze(plain)).expectNext(modelAnalysis).verifyComplete();
+        StepVerifier.create(analyzer.analyze(mixed)).expectNext(modelAnalysis).verifyComplete();
+
+        assertThat(modelCalls).hasValue(2);
+        assertThat(tierCount("model")).isEqualTo(2);
+        assertThat(tierCount("lexicon")).isZero();
+    }
+
+    private double tierCount(String tier) {
+        return registry.get("livestock.ai.tier.items").tag("tier", tier).functionCounter().count();
+    }
+}
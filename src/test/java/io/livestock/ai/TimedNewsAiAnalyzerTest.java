@@ -0,0 +1,71 @@
+package io.livestock.ai;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.NewsItem;
+import io.livestock.domain.Sentiment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimedNewsAiAnalyzerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final NewsItem item = new NewsItem("Source", "Headline", "URL", "Content");
+
+    @Test
+    void analyzeShouldRecordLatencyByOutcome() {
+        NewsAnalysis analysis = new NewsAnalysis("id", Instant.now(), "Source", "Headline", "URL",
+                Sentiment.NEUTRAL, 5, "Summary");
+        TimedNewsAiAnalyzer ok = new TimedNewsAiAnalyzer(i -> Mono.just(analysis), "ollama", registry);
+        TimedNewsAiAnalyzer failing = new TimedNewsAiAnalyzer(
+                i -> Mono.error(new IllegalStateException("down")), "ollama", registry);
+
+        StepVerifier.create(ok.analyze(item)).expectNext(analysis).verifyComplete();
+        StepVerifier.create(ok.analyze(item)).expectNext(analysis).verifyComplete();
+        StepVerifier.create(failing.analyze(item)).verifyError(IllegalStateException.class);
+
+        assertThat(timerCount("success")).isEqualTo(2);
+        assertThat(timerCount("error")).isEqualTo(1);
+    }
+
+    @Test
+    void analyzeStreamingShouldRecordTimeToFirstEvent() {
+        NewsAnalysis provisional = new NewsAnalysis("id", Instant.now(), "Source", "Headline", "URL",
+                Sentiment.BEARISH, 8, null, true);
+        NewsAnalysis last = new NewsAnalysis("id", Instant.now(), "Source", "Headline", "URL",
+                Sentiment.BEARISH, 8, "Summary");
+        NewsAiAnalyzer streaming = new NewsAiAnalyzer() {
+            @Override
+            public Mono<NewsAnalysis> analyze(NewsItem i) {
+                return Mono.just(last);
+            }
+
+            @Override
+            public Flux<NewsAnalysis> analyzeStreaming(NewsItem i) {
+                return Flux.just(provisional, last);
+            }
+        };
+        TimedNewsAiAnalyzer timed = new TimedNewsAiAnalyzer(streaming, "ollama", registry);
+
+        StepVerifier.create(timed.analyzeStreaming(item)).expectNext(provisional, last).verifyComplete();
+        StepVerifier.create(timed.analyze(item)).expectNext(last).verifyComplete();
+
+        assertThat(firstEventCount("streaming")).isEqualTo(1);
+        assertThat(firstEventCount("blocking")).isEqualTo(1);
+        assertThat(timerCount("success")).isEqualTo(2);
+    }
+
+    private long firstEventCount(String mode) {
+        return registry.get("livestock.ai.first-event").tag("backend", "ollama").tag("mode", mode).timer().count();
+    }
+
+    private long timerCount(String outcome) {
+        return registry.get("livestock.ai.analyze").tag("backend", "ollama").tag("outcome", outcome).timer().count();
+    }
+}
@@ -0,0 +1,165 @@
+package io.livestock.concurrent;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void runShouldQueueCallsBeyondTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 2, 4);
+        List<Sinks.One<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            calls.add(Sinks.one());
+        }
+        List<String> results = new ArrayList<>();
+        int[] started = new int[1];
+
+        for (Sinks.One<String> call : calls) {
+            limiter.run(() -> {
+                started[0]++;
+                return call.asMono();
+            }).subscribe(results::add);
+        }
+
+        assertThat(started[0]).isEqualTo(2);
+        assertThat(limiter.inFlight()).isEqualTo(2);
+        assertThat(limiter.queued()).isEqualTo(1);
+        assertThat(limiter.hasCapacity()).isFalse();
+
+        tick(10);
+        calls.get(0).tryEmitValue("first");
+
+        assertThat(started[0]).isEqualTo(3);
+        assertThat(limiter.queued()).isZero();
+        assertThat(limiter.hasCapacity()).isFalse();
+        assertThat(results).containsExactly("first");
+    }
+
+    @Test
+    void errorsShouldBackOffToTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 10, 10);
+
+        for (int i = 0; i < 50; i++) {
+            tick(10);
+            StepVerifier.create(limiter.run(() -> Mono.error(new IllegalStateException("down"))))
+                    .verifyError(IllegalStateException.class);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(2);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void steadyLatencyUnderLoadShouldRaiseTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 2, 16);
+
+        for (int round = 0; round < 200; round++) {
+            int slots = limiter.limit();
+            List<Sinks.One<Integer>> calls = new ArrayList<>();
+            for (int i = 0; i < slots; i++) {
+                Sinks.One<Integer> call = Sinks.one();
+                calls.add(call);
+                limiter.run(call::asMono).subscribe();
+            }
+            tick(1_000);
+            calls.forEach(call -> call.tryEmitValue(1));
+        }
+
+        assertThat(limiter.limit()).isEqualTo(16);
+    }
+
+    @Test
+    void risingLatencyShouldLowerTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 8, 8);
+        for (int i = 0; i < 100; i++) {
+            timedCall(limiter, 1_000);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            timedCall(limiter, 10_000);
+        }
+
+        assertThat(limiter.limit()).isLessThan(8);
+    }
+
+    @Test
+    void callsCancelledAfterOutlivingTheLatencyBandShouldLowerTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 8, 8);
+        for (int i = 0; i < 100; i++) {
+            timedCall(limiter, 1_000);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            tick(1);
+            Disposable call = limiter.run(Mono::never).subscribe();
+            tick(10_000);
+            call.dispose();
+        }
+
+        assertThat(limiter.limit()).isLessThan(8);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void callsCancelledEarlyShouldNotBeSampled() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 8, 8);
+        for (int i = 0; i < 100; i++) {
+            timedCall(limiter, 1_000);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            tick(1);
+            Disposable call = limiter.run(Mono::never).subscribe();
+            tick(10);
+            call.dispose();
+        }
+
+        assertThat(limiter.limit()).isEqualTo(8);
+    }
+
+    @Test
+    void cancellingAQueuedCallShouldNotLeakASlot() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1);
+        Sinks.One<String> running = Sinks.one();
+        limiter.run(running::asMono).subscribe();
+
+        Disposable queued = limiter.run(() -> Mono.just("never")).subscribe();
+        assertThat(limiter.queued()).isEqualTo(1);
+        queued.dispose();
+
+        assertThat(limiter.queued()).isZero();
+        running.tryEmitValue("done");
+        assertThat(limiter.inFlight()).isZero();
+        StepVerifier.create(limiter.run(() -> Mono.just("next")))
+                .expectNext("next")
+                .verifyComplete();
+    }
+
+    private void timedCall(AdaptiveConcurrencyLimiter limiter, long latency) {
+        tick(1);
+        Sinks.One<Integer> call = Sinks.one();
+        limiter.run(call::asMono).subscribe();
+        tick(latency);
+        call.tryEmitValue(1);
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int min, int initial, int max) {
+        return new AdaptiveConcurrencyLimiter("test", min, initial, max, 2.0, 0.9, nanos::get);
+    }
+
+    private void tick(long delta) {
+        nanos.addAndGet(delta);
+    }
+}
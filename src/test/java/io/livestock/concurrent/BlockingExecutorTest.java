@@ -0,0 +1,64 @@
+package io.livestock.concurrent;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlockingExecutorTest {
+
+    @Test
+    void virtualModeShouldRunCallsOnVirtualThreads() {
+        BlockingExecutor executor = BlockingExecutor.virtualThreads("test", 4);
+
+        StepVerifier.create(executor.call(() -> Thread.currentThread().isVirtual()))
+                .expectNext(true)
+                .verifyComplete();
+        assertThat(executor.mode()).isEqualTo(BlockingExecutor.Mode.VIRTUAL);
+    }
+
+    @Test
+    void virtualModeShouldEnforceConcurrencyCeiling() {
+        BlockingExecutor executor = BlockingExecutor.virtualThreads("test", 3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        Flux<Integer> calls = Flux.range(0, 30)
+                .flatMap(i -> executor.call(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(10);
+                    running.decrementAndGet();
+                    return i;
+                }), 30);
+
+        StepVerifier.create(calls)
+                .expectNextCount(30)
+                .verifyComplete();
+        assertThat(peak.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void closeShouldShutDownVirtualThreads() {
+        BlockingExecutor executor = BlockingExecutor.virtualThreads("test", 2);
+
+        executor.close();
+
+        StepVerifier.create(executor.call(() -> 1))
+                .verifyError(RejectedExecutionException.class);
+    }
+
+    @Test
+    void callShouldPropagateErrors() {
+        BlockingExecutor executor = BlockingExecutor.boundedElastic();
+
+        StepVerifier.create(executor.call(() -> {
+            throw new IllegalStateException("boom");
+        }))
+                .verifyErrorMessage("boom");
+        assertThat(executor.queued()).isZero();
+    }
+}
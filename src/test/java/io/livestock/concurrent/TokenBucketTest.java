@@ -0,0 +1,56 @@
+package io.livestock.concurrent;
+
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void shouldAllowBurstThenSpacePermits() {
+        TokenBucket bucket = new TokenBucket(10, 3, nanos::get);
+
+        assertThat(bucket.reserve()).isLessThanOrEqualTo(0);
+        assertThat(bucket.reserve()).isLessThanOrEqualTo(0);
+        assertThat(bucket.reserve()).isLessThanOrEqualTo(0);
+        assertThat(bucket.reserve()).isEqualTo(100_000_000L);
+        assertThat(bucket.reserve()).isEqualTo(200_000_000L);
+    }
+
+    @Test
+    void shouldRefillWhileIdleUpToBurst() {
+        TokenBucket bucket = new TokenBucket(10, 2, nanos::get);
+        bucket.reserve();
+        bucket.reserve();
+
+        nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertThat(bucket.reserve()).isLessThanOrEqualTo(0);
+        assertThat(bucket.reserve()).isLessThanOrEqualTo(0);
+        assertThat(bucket.reserve()).isEqualTo(100_000_000L);
+    }
+
+    @Test
+    void acquireShouldWaitOnATimer() {
+        TokenBucket bucket = new TokenBucket(1, 1, nanos::get);
+        bucket.reserve();
+
+        StepVerifier.withVirtualTime(bucket::acquire)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(900))
+                .thenAwait(Duration.ofMillis(100))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectNonPositiveRate() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,137 @@
+package io.livestock.pipeline;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.Sentiment;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisFanoutTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void newSubscribersShouldReceiveReplayThenLiveAnalyses() {
+        AnalysisFanout fanout = fanout(8, 2, AnalysisFanout.SlowConsumerPolicy.DROP);
+        fanout.publish(analysis("a"));
+        fanout.publish(analysis("b"));
+        fanout.publish(analysis("c"));
+
+        StepVerifier.create(fanout.subscribe().map(NewsAnalysis::headline))
+                .expectNext("b", "c")
+                .then(() -> fanout.publish(analysis("d")))
+                .expectNext("d")
+                .thenCancel()
+                .verify();
+        assertThat(fanout.subscriberCount()).isZero();
+    }
+
+    @Test
+    void dropShouldDiscardAnalysesBeyondTheBuffer() {
+        AnalysisFanout fanout = fanout(2, 0, AnalysisFanout.SlowConsumerPolicy.DROP);
+
+        StepVerifier.create(fanout.subscribe().map(NewsAnalysis::headline), 0)
+                .then(() -> {
+                    fanout.publish(analysis("a"));
+                    fanout.publish(analysis("b"));
+                    fanout.publish(analysis("c"));
+                    assertThat(fanout.maxLag()).isEqualTo(2);
+                })
+                .thenRequest(3)
+                .expectNext("a", "b")
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void conflateShouldKeepOnlyTheLatestAnalysis() {
+        AnalysisFanout fanout = fanout(2, 0, AnalysisFanout.SlowConsumerPolicy.CONFLATE);
+
+        StepVerifier.create(fanout.subscribe().map(NewsAnalysis::headline), 0)
+                .then(() -> {
+                    fanout.publish(analysis("a"));
+                    fanout.publish(analysis("b"));
+                    fanout.publish(analysis("c"));
+                })
+                .thenRequest(3)
+                .expectNext("c")
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void disconnectShouldCompleteSlowSubscribersOnly() {
+        AnalysisFanout fanout = fanout(1, 0, AnalysisFanout.SlowConsumerPolicy.DISCONNECT);
+
+        StepVerifier.create(fanout.subscribe(), 0)
+                .then(() -> {
+                    fanout.publish(analysis("a"));
+                    fanout.publish(analysis("b"));
+                })
+                .verifyComplete();
+        assertThat(fanout.subscriberCount()).isZero();
+    }
+
+    @Test
+    void evictIdleShouldDisconnectSubscribersThatStoppedReading() {
+        AnalysisFanout fanout = fanout(8, 0, AnalysisFanout.SlowConsumerPolicy.DROP);
+
+        StepVerifier.create(fanout.subscribe(), 0)
+                .then(() -> {
+                    fanout.publish(analysis("a"));
+                    nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+                    fanout.evictIdle();
+                    assertThat(fanout.subscriberCount()).isEqualTo(1);
+                    nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+                    fanout.evictIdle();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void symbolSubscribersShouldOnlyReceiveAnalysesTaggedWithTheirSymbol() {
+        AnalysisFanout fanout = fanout(8, 8, AnalysisFanout.SlowConsumerPolicy.DROP);
+        fanout.publish(analysis("a").withSymbols(List.of("AAPL")));
+        fanout.publish(analysis("b").withSymbols(List.of("MSFT")));
+
+        StepVerifier.create(fanout.subscribe("AAPL").map(NewsAnalysis::headline))
+                .expectNext("a")
+                .then(() -> {
+                    fanout.publish(analysis("c"));
+                    fanout.publish(analysis("d").withSymbols(List.of("MSFT", "AAPL")));
+                })
+                .expectNext("d")
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void otherSymbolsShouldNotFillASymbolSubscribersBuffer() {
+        AnalysisFanout fanout = fanout(1, 0, AnalysisFanout.SlowConsumerPolicy.DISCONNECT);
+
+        StepVerifier.create(fanout.subscribe("AAPL").map(NewsAnalysis::headline), 0)
+                .then(() -> {
+                    fanout.publish(analysis("a").withSymbols(List.of("AAPL")));
+                    fanout.publish(analysis("b"));
+                    fanout.publish(analysis("c").withSymbols(List.of("MSFT")));
+                })
+                .thenRequest(1)
+                .expectNext("a")
+                .thenCancel()
+                .verify();
+    }
+
+    private AnalysisFanout fanout(int bufferSize, int replaySize, AnalysisFanout.SlowConsumerPolicy policy) {
+        return new AnalysisFanout(bufferSize, replaySize, policy, Duration.ofMinutes(1), nanos::get, false);
+    }
+
+    private static NewsAnalysis analysis(String headline) {
+        return new NewsAnalysis(headline, Instant.now(), "Source", headline, "URL", Sentiment.NEUTRAL, 5, "Summary");
+    }
+}
@@ -3,7 +3,11 @@ package io.livestock.pipeline;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.livestock.domain.NewsModels.Article;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.livestock.concurrent.BlockingExecutor;
 import io.livestock.domain.NewsModels.NewsApiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,13 +16,28 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import org.mockito.ArgumentMatchers;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -49,6 +68,7 @@ class ApiNewsFetchStrategyTest {
                 .thenReturn(httpResponse);
         when(httpResponse.statusCode()).thenReturn(200);
         when(httpResponse.body()).thenReturn(json);
+        when(httpResponse.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
         when(objectMapper.readValue(json, NewsApiResponse.class)).thenReturn(apiResponse);
 
         StepVerifier.create(strategy.fetchArticles())
@@ -89,4 +109,218 @@ class ApiNewsFetchStrategyTest {
         StepVerifier.create(strategy.fetchArticles())
                 .verifyError(com.fasterxml.jackson.core.JsonParseException.class);
     }
+
+    @Test
+    void concurrentModeShouldFetchEveryCategoryAndPageAtOnce() throws IOException {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        HttpServer server = stubNewsApi(executor, Duration.ofMillis(200), inFlight, maxInFlight);
+        try {
+            ApiNewsFetchStrategy concurrent = strategy(new ApiNewsFetchStrategy.Settings(baseUrl(server),
+                    ApiNewsFetchStrategy.FetchMode.CONCURRENT, 8, 100, 8, 2, 10));
+
+            long start = System.nanoTime();
+            List<List<Article>> pages = concurrent.fetchArticles().collectList().block(Duration.ofSeconds(10));
+            Duration coverage = Duration.ofNanos(System.nanoTime() - start);
+
+            assertThat(pages).hasSize(8);
+            assertThat(pages.stream().flatMap(List::stream).map(Article::title))
+                    .containsExactlyInAnyOrder("business 1", "business 2", "technology 1", "technology 2",
+                            "science 1", "science 2", "general 1", "general 2");
+            // one at a time this takes at least 8 x 200ms
+            assertThat(coverage).isLessThan(Duration.ofMillis(1200));
+            assertThat(maxInFlight.get()).isGreaterThan(1).isLessThanOrEqualTo(8);
+        } finally {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentModeShouldRespectConcurrencyAndRate() throws IOException {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        HttpServer server = stubNewsApi(executor, Duration.ofMillis(50), inFlight, maxInFlight);
+        try {
+            ApiNewsFetchStrategy limited = strategy(new ApiNewsFetchStrategy.Settings(baseUrl(server),
+                    ApiNewsFetchStrategy.FetchMode.CONCURRENT, 2, 20, 1, 2, 10));
+
+            long start = System.nanoTime();
+            List<List<Article>> pages = limited.fetchArticles().collectList().block(Duration.ofSeconds(10));
+            Duration coverage = Duration.ofNanos(System.nanoTime() - start);
+
+            assertThat(pages).hasSize(8);
+            assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+            // 8 requests at 20 per second without a burst start at least 7 x 50ms apart
+            assertThat(coverage).isGreaterThanOrEqualTo(Duration.ofMillis(340));
+        } finally {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentModeShouldSkipFailedPages() throws IOException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/v2/top-headlines", exchange -> {
+            Map<String, String> params = queryParams(exchange.getRequestURI().getRawQuery());
+            if (params.get("category").equals("science")) {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+            respond(exchange, params);
+        });
+        server.start();
+        try {
+            ApiNewsFetchStrategy concurrent = strategy(new ApiNewsFetchStrategy.Settings(baseUrl(server),
+                    ApiNewsFetchStrategy.FetchMode.CONCURRENT, 4, 100, 4, 1, 10));
+
+            StepVerifier.create(concurrent.fetchArticles())
+                    .recordWith(ArrayList::new)
+                    .expectNextCount(3)
+                    .consumeRecordedWith(pages -> assertThat(pages.stream().flatMap(List::stream).map(Article::title))
+                            .containsExactlyInAnyOrder("business 1", "technology 1", "general 1"))
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(10));
+        } finally {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void unchangedPagesShouldBeAnsweredNotModified() throws IOException {
+        List<String> conditions = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/v2/top-headlines", exchange -> {
+            Map<String, String> params = queryParams(exchange.getRequestURI().getRawQuery());
+            String etag = "\"" + params.get("category") + "-v1\"";
+            String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+            conditions.add(String.valueOf(condition));
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(condition)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            respond(exchange, params);
+        });
+        server.start();
+        try {
+            ApiNewsFetchStrategy conditional = strategy(new ApiNewsFetchStrategy.Settings(baseUrl(server),
+                    ApiNewsFetchStrategy.FetchMode.CONCURRENT, 4, 100, 4, 1, 10));
+
+            List<List<Article>> first = conditional.fetchArticles().collectList().block(Duration.ofSeconds(10));
+            List<List<Article>> second = conditional.fetchArticles().collectList().block(Duration.ofSeconds(10));
+
+            assertThat(first).hasSize(4).allMatch(page -> page.size() == 1);
+            assertThat(second).hasSize(4).allMatch(List::isEmpty);
+            assertThat(conditions.subList(0, 4)).containsOnly("null");
+            assertThat(conditions.subList(4, 8)).containsExactlyInAnyOrder("\"business-v1\"",
+                    "\"technology-v1\"", "\"science-v1\"", "\"general-v1\"");
+        } finally {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void articlesOlderThanTheHighWaterMarkShouldBeSkipped() throws IOException {
+        AtomicReference<String> articles = new AtomicReference<>(article("Seen", "2025-01-01T12:00:00Z"));
+        ExecutorService executor = Executors.newCachedThreadPool();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/v2/top-headlines", exchange -> {
+            byte[] body = ("{\"status\":\"ok\",\"articles\":[" + articles.get() + "]}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            FetchState fetchState = new FetchState(Duration.ofMinutes(30), null);
+            ApiNewsFetchStrategy incremental = new ApiNewsFetchStrategy("test-key", new ObjectMapper(),
+                    HttpClient.newHttpClient(), BlockingExecutor.boundedElastic(), new SimpleMeterRegistry(),
+                    new ApiNewsFetchStrategy.Settings(baseUrl(server), ApiNewsFetchStrategy.FetchMode.CONCURRENT,
+                            4, 100, 4, 1, 10),
+                    fetchState);
+
+            incremental.fetchArticles().blockLast(Duration.ofSeconds(10));
+            articles.set(String.join(",", article("Stale", "2025-01-01T11:00:00Z"),
+                    article("Late", "2025-01-01T13:45:00+02:00"), article("Seen", "2025-01-01T12:00:00Z"),
+                    article("New", "2025-01-01T12:30:00Z"), article("Undated", null)));
+            List<List<Article>> second = incremental.fetchArticles().collectList().block(Duration.ofSeconds(10));
+
+            // the mark was 12:00, so 11:30 and later is kept; 13:45+02:00 is 11:45Z
+            assertThat(second).hasSize(4).allSatisfy(page -> assertThat(page).extracting(Article::title)
+                    .containsExactly("Late", "Seen", "New", "Undated"));
+            assertThat(fetchState.since("business"))
+                    .isEqualTo(java.time.Instant.parse("2025-01-01T12:00:00Z").toEpochMilli());
+        } finally {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private static String article(String title, String publishedAt) {
+        return "{\"title\":\"" + title + "\",\"url\":\"https://example.com\",\"publishedAt\":"
+                + (publishedAt == null ? "null" : "\"" + publishedAt + "\"") + "}";
+    }
+
+    private static ApiNewsFetchStrategy strategy(ApiNewsFetchStrategy.Settings settings) {
+        return new ApiNewsFetchStrategy("test-key", new ObjectMapper(), HttpClient.newHttpClient(),
+                BlockingExecutor.boundedElastic(), new SimpleMeterRegistry(), settings);
+    }
+
+    private static String baseUrl(HttpServer server) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v2";
+    }
+
+    // answers every request after a delay with one article titled "<category> <page>"
+    private static HttpServer stubNewsApi(ExecutorService executor, Duration delay, AtomicInteger inFlight,
+            AtomicInteger maxInFlight) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/v2/top-headlines", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(delay.toMillis());
+                respond(exchange, queryParams(exchange.getRequestURI().getRawQuery()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange, Map<String, String> params)
+            throws IOException {
+        String title = params.get("category") + " " + params.get("page");
+        byte[] body = ("{\"status\":\"ok\",\"totalResults\":1,\"articles\":[{\"source\":{\"name\":\"Stub\"},"
+                + "\"title\":\"" + title + "\",\"url\":\"https://example.com\","
+                + "\"publishedAt\":\"2025-01-01T00:00:00Z\"}]}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> queryParams(String query) {
+        return Arrays.stream(query.split("&"))
+                .map(pair -> pair.split("=", 2))
+                .collect(Collectors.toMap(pair -> pair[0], pair -> pair.length > 1 ? pair[1] : ""));
+    }
 }
@@ -0,0 +1,75 @@
+package io.livestock.pipeline;
+
+import io.livestock.domain.NewsModels;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FetchStateTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sinceShouldTrailTheNewestPublicationByTheLookback() {
+        FetchState state = new FetchState(Duration.ofMinutes(10), null);
+
+        assertThat(state.since("business")).isEqualTo(NewsModels.UNKNOWN_TIME);
+
+        state.advance("business", 1_000_000);
+        state.advance("business", 400_000);
+        state.advance("business", NewsModels.UNKNOWN_TIME);
+
+        assertThat(state.since("business")).isEqualTo(400_000);
+        assertThat(state.since("science")).isEqualTo(NewsModels.UNKNOWN_TIME);
+    }
+
+    @Test
+    void rememberShouldClearValidatorsWhenAResponseHasNone() {
+        FetchState state = new FetchState(Duration.ZERO, null);
+
+        state.remember("/top-headlines?category=business", "\"v1\"", null);
+        assertThat(state.validators("/top-headlines?category=business"))
+                .isEqualTo(new FetchState.Validators("\"v1\"", null));
+
+        state.remember("/top-headlines?category=business", null, null);
+        assertThat(state.validators("/top-headlines?category=business")).isNull();
+    }
+
+    @Test
+    void snapshotShouldRoundTrip() {
+        Path file = tempDir.resolve("state/fetch-state.bin");
+        FetchState state = new FetchState(Duration.ZERO, file);
+        state.advance("business", 1_700_000_000_000L);
+        state.remember("/top-headlines?category=business", "\"v1\"", "Wed, 01 Jan 2025 12:00:00 GMT");
+        state.remember("/top-headlines?category=science", null, "Wed, 01 Jan 2025 11:00:00 GMT");
+        state.persist();
+
+        FetchState restored = new FetchState(Duration.ZERO, file);
+        restored.advance("business", 1_600_000_000_000L);
+        restored.restore();
+
+        assertThat(restored.since("business")).isEqualTo(1_700_000_000_000L);
+        assertThat(restored.validators("/top-headlines?category=business"))
+                .isEqualTo(new FetchState.Validators("\"v1\"", "Wed, 01 Jan 2025 12:00:00 GMT"));
+        assertThat(restored.validators("/top-headlines?category=science"))
+                .isEqualTo(new FetchState.Validators(null, "Wed, 01 Jan 2025 11:00:00 GMT"));
+    }
+
+    @Test
+    void loadShouldIgnoreMissingOrForeignFiles() throws Exception {
+        FetchState state = new FetchState(Duration.ZERO, null);
+        state.load(tempDir.resolve("missing.bin"));
+
+        Path foreign = tempDir.resolve("foreign.bin");
+        Files.write(foreign, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        state.load(foreign);
+
+        assertThat(state.since("business")).isEqualTo(NewsModels.UNKNOWN_TIME);
+    }
+}
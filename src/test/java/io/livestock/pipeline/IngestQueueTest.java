@@ -0,0 +1,166 @@
+package io.livestock.pipeline;
+
+import io.livestock.domain.NewsItem;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestQueueTest {
+
+    @Test
+    void rejectShouldRefuseItemsOnceFull() {
+        IngestQueue queue = new IngestQueue(2, IngestQueue.OverflowPolicy.REJECT);
+
+        assertThat(queue.offer(item("a")).block().isAccepted()).isTrue();
+        assertThat(queue.offer(item("b")).block().isAccepted()).isTrue();
+        IngestResult third = queue.offer(item("c")).block();
+
+        assertThat(third.status()).isEqualTo(IngestResult.Status.REJECTED);
+        assertThat(third.retryAfter()).isPositive();
+        assertThat(queue.depth()).isEqualTo(2);
+    }
+
+    @Test
+    void dropOldestShouldKeepNewestItems() {
+        IngestQueue queue = new IngestQueue(2, IngestQueue.OverflowPolicy.DROP_OLDEST);
+        queue.offer(item("a")).block();
+        queue.offer(item("b")).block();
+
+        assertThat(queue.offer(item("c")).block().isAccepted()).isTrue();
+
+        StepVerifier.create(queue.asFlux().map(NewsItem::headline), 2)
+                .expectNext("b", "c")
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void dropLowestPriorityShouldEvictLowerRankedItems() {
+        IngestQueue queue = new IngestQueue(2, IngestQueue.OverflowPolicy.DROP_LOWEST_PRIORITY,
+                item -> item.content().length(), Duration.ofSeconds(1));
+        queue.offer(new NewsItem("S", "short", "U", "x")).block();
+        queue.offer(new NewsItem("S", "long", "U", "xxxxxx")).block();
+
+        assertThat(queue.offer(new NewsItem("S", "tiny", "U", "")).block().isAccepted()).isFalse();
+        assertThat(queue.offer(new NewsItem("S", "medium", "U", "xxx")).block().isAccepted()).isTrue();
+
+        StepVerifier.create(queue.asFlux().map(NewsItem::headline), 2)
+                .expectNext("long", "medium")
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void blockWithTimeoutShouldAcceptOnceSpaceFrees() {
+        IngestQueue queue = new IngestQueue(1, IngestQueue.OverflowPolicy.BLOCK_WITH_TIMEOUT,
+                item -> 0, Duration.ofSeconds(5));
+        queue.offer(item("a")).block();
+
+        StepVerifier.create(queue.offer(item("b")))
+                .then(() -> queue.asFlux().take(1).subscribe())
+                .assertNext(result -> assertThat(result.isAccepted()).isTrue())
+                .verifyComplete();
+        assertThat(queue.depth()).isEqualTo(1);
+    }
+
+    @Test
+    void blockWithTimeoutShouldRejectAfterTimeout() {
+        IngestQueue queue = new IngestQueue(1, IngestQueue.OverflowPolicy.BLOCK_WITH_TIMEOUT,
+                item -> 0, Duration.ofMillis(50));
+        queue.offer(item("a")).block();
+
+        StepVerifier.create(queue.offer(item("b")))
+                .assertNext(result -> assertThat(result.status()).isEqualTo(IngestResult.Status.REJECTED))
+                .verifyComplete();
+        assertThat(queue.waiting()).isZero();
+    }
+
+    @Test
+    void waitingOfferShouldWaitForSpaceUnderReject() {
+        IngestQueue queue = new IngestQueue(1, IngestQueue.OverflowPolicy.REJECT);
+        queue.offer(item("a")).block();
+
+        StepVerifier.create(queue.offer(item("b"), Duration.ofSeconds(5)))
+                .then(() -> queue.asFlux().take(1).subscribe())
+                .assertNext(result -> assertThat(result.isAccepted()).isTrue())
+                .verifyComplete();
+        assertThat(queue.offer(item("c")).block().status()).isEqualTo(IngestResult.Status.REJECTED);
+    }
+
+    @Test
+    void waitingOfferShouldApplyThePolicyOnceTheWaitEnds() {
+        IngestQueue queue = new IngestQueue(1, IngestQueue.OverflowPolicy.DROP_OLDEST);
+        queue.offer(item("a")).block();
+
+        StepVerifier.create(queue.offer(item("b"), Duration.ofMillis(50)))
+                .assertNext(result -> assertThat(result.isAccepted()).isTrue())
+                .verifyComplete();
+        StepVerifier.create(queue.asFlux().map(NewsItem::headline), 1)
+                .expectNext("b")
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void itemsShouldStayQueuedUntilTheSubscriberIsReady() {
+        IngestQueue queue = new IngestQueue(4, IngestQueue.OverflowPolicy.REJECT);
+        AtomicBoolean ready = new AtomicBoolean();
+        queue.offer(item("a")).block();
+        queue.offer(item("b")).block();
+
+        StepVerifier.create(queue.asFlux(ready::get).map(NewsItem::headline), 2)
+                .expectSubscription()
+                .then(() -> assertThat(queue.depth()).isEqualTo(2))
+                .then(() -> {
+                    ready.set(true);
+                    queue.signal();
+                })
+                .expectNext("a", "b")
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void closeShouldRefuseNewItemsButDeliverQueuedOnes() {
+        IngestQueue queue = new IngestQueue(4, IngestQueue.OverflowPolicy.REJECT);
+        queue.offer(item("a")).block();
+
+        queue.close();
+
+        assertThat(queue.offer(item("b")).block().status()).isEqualTo(IngestResult.Status.CLOSED);
+        StepVerifier.create(queue.asFlux().map(NewsItem::headline), 1)
+                .expectNext("a")
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void expiredItemsShouldMakeRoomInAFullQueue() {
+        AtomicLong nanos = new AtomicLong();
+        IngestScheduler scheduler = new IngestScheduler(
+                List.of(new IngestScheduler.PriorityClass("standard", 1, Duration.ofMinutes(1))),
+                (item, now) -> 0, true, Clock.systemUTC(), nanos::get);
+        IngestQueue queue = new IngestQueue(1, IngestQueue.OverflowPolicy.REJECT, item -> 0, Duration.ofSeconds(1),
+                scheduler);
+        queue.offer(item("a")).block();
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        assertThat(queue.offer(item("b")).block().isAccepted()).isTrue();
+        StepVerifier.create(queue.asFlux().map(NewsItem::headline), 1)
+                .expectNext("b")
+                .thenCancel()
+                .verify();
+    }
+
+    private static NewsItem item(String headline) {
+        return new NewsItem("Source", headline, "URL", "Content");
+    }
+}
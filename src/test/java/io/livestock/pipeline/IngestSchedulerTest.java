@@ -0,0 +1,157 @@
+package io.livestock.pipeline;
+
+import io.livestock.domain.NewsItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestSchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final IngestScheduler scheduler = new IngestScheduler(List.of(
+            new IngestScheduler.PriorityClass("breaking", 4, Duration.ofHours(1)),
+            new IngestScheduler.PriorityClass("reputable", 2, Duration.ofHours(72)),
+            new IngestScheduler.PriorityClass("standard", 1, Duration.ofHours(48))),
+            IngestScheduler.rules(List.of("Reuters"), List.of("halt", "bankruptcy"), Duration.ofMinutes(15)),
+            true, Clock.fixed(NOW, ZoneOffset.UTC), nanos::get);
+
+    @Test
+    void rulesShouldClassifyByKeywordRecencyAndSource() {
+        IngestScheduler.Classifier rules = IngestScheduler.rules(List.of(" reuters "), List.of("halt"),
+                Duration.ofMinutes(15));
+
+        assertThat(rules.classify(item("Blog", "Trading HALT on NYSE", null), NOW)).isZero();
+        assertThat(rules.classify(item("Blog", "Trading halt on NYSE", Duration.ofMinutes(5)), NOW)).isZero();
+        assertThat(rules.classify(item("Blog", "Trading halt on NYSE", Duration.ofHours(2)), NOW)).isEqualTo(2);
+        assertThat(rules.classify(item("Blog", "Halting progress", null), NOW)).isEqualTo(2);
+        assertThat(rules.classify(item("Reuters", "Quarterly results", null), NOW)).isEqualTo(1);
+    }
+
+    @Test
+    void breakingItemsShouldNotWaitBehindTheBacklog() {
+        scheduler.bindTo(registry);
+        for (int i = 0; i < 20; i++) {
+            scheduler.add(item("Feed", "Story " + i, Duration.ofMinutes(30)));
+        }
+        scheduler.add(item("Blog", "Bankruptcy filing", Duration.ofMinutes(1)));
+
+        assertThat(drain(3)).contains("Bankruptcy filing");
+        assertThat(registry.get("livestock.ingest.queue.wait").tag("class", "breaking").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void classesShouldShareDispatchByWeight() {
+        for (int i = 0; i < 6; i++) {
+            scheduler.add(item("Feed", "Story " + i, null));
+            scheduler.add(item("Reuters", "Wire " + i, null));
+        }
+
+        assertThat(drain(6)).filteredOn(headline -> headline.startsWith("Wire")).hasSize(4);
+    }
+
+    @Test
+    void sourcesShouldTakeTurnsWithinAClass() {
+        for (int i = 0; i < 5; i++) {
+            scheduler.add(item("Noisy", "Noisy " + i, null));
+        }
+        scheduler.add(item("Quiet", "Quiet", null));
+
+        assertThat(drain(2)).containsExactly("Noisy 0", "Quiet");
+    }
+
+    @Test
+    void eachSourceShouldServeTheEarliestDeadlineFirst() {
+        scheduler.add(item("Feed", "Newer", Duration.ofHours(1)));
+        scheduler.add(item("Feed", "Older", Duration.ofHours(3)));
+        scheduler.add(item("Feed", "Undated", null));
+
+        assertThat(drain(3)).containsExactly("Older", "Newer", "Undated");
+    }
+
+    @Test
+    void itemsPastTheirDeadlineShouldBeDropped() {
+        scheduler.bindTo(registry);
+        scheduler.add(item("Feed", "Stale on arrival", Duration.ofHours(49)));
+        scheduler.add(item("Feed", "Expires while queued", Duration.ofHours(47)));
+        scheduler.add(item("Feed", "Fresh", null));
+
+        nanos.addAndGet(Duration.ofHours(2).toNanos());
+
+        assertThat(drain(3)).containsExactly("Fresh");
+        assertThat(scheduler.size()).isZero();
+        assertThat(registry.get("livestock.ingest.expired").tag("class", "standard").functionCounter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void purgeShouldFreeSpaceTakenByExpiredItems() {
+        scheduler.add(item("Feed", "Stale", Duration.ofHours(49)));
+        scheduler.add(item("Feed", "Fresh", null));
+
+        assertThat(scheduler.purgeExpired()).isEqualTo(1);
+        assertThat(scheduler.size(2)).isEqualTo(1);
+    }
+
+    @Test
+    void staleAtShouldFollowTheClassMaxAge() {
+        assertThat(scheduler.staleAt(item("Blog", "Trading halt", Duration.ofMinutes(5))))
+                .isEqualTo(NOW.plus(Duration.ofMinutes(55)));
+        assertThat(scheduler.staleAt(item("Reuters", "Wire", Duration.ofHours(2))))
+                .isEqualTo(NOW.plus(Duration.ofHours(70)));
+        assertThat(scheduler.staleAt(item("Feed", "Story", null))).isNull();
+        assertThat(IngestScheduler.fifo().staleAt(item("Feed", "Story", Duration.ofHours(2)))).isNull();
+    }
+
+    @Test
+    void sourcesEmptiedByEvictionShouldLoseTheirTurn() {
+        scheduler.add(item("Feed", "a", null));
+        scheduler.add(item("Blog", "b", null));
+        scheduler.add(item("Blog", "c", null));
+
+        assertThat(scheduler.removeOldest().headline()).isEqualTo("a");
+        assertThat(drain(3)).containsExactly("b", "c");
+        assertThat(scheduler.size()).isZero();
+    }
+
+    @Test
+    void fifoShouldKeepArrivalOrderAcrossSources() {
+        IngestScheduler fifo = IngestScheduler.fifo();
+        fifo.rankBy(item -> item.headline().equals("c") ? 0 : 5);
+        fifo.add(item("A", "a", null));
+        fifo.add(item("A", "b", null));
+        fifo.add(item("B", "c", null));
+        fifo.add(item("C", "d", null));
+
+        assertThat(fifo.removeOldest().headline()).isEqualTo("a");
+        assertThat(fifo.removeBelow(1).headline()).isEqualTo("c");
+        assertThat(fifo.poll().headline()).isEqualTo("b");
+        assertThat(fifo.poll().headline()).isEqualTo("d");
+        assertThat(fifo.poll()).isNull();
+    }
+
+    private List<String> drain(int max) {
+        List<String> headlines = new ArrayList<>();
+        NewsItem next;
+        while (headlines.size() < max && (next = scheduler.poll()) != null) {
+            headlines.add(next.headline());
+        }
+        return headlines;
+    }
+
+    private static NewsItem item(String source, String headline, Duration age) {
+        return new NewsItem(source, headline, "URL", "Content", age == null ? null : NOW.minus(age));
+    }
+}
@@ -0,0 +1,162 @@
+package io.livestock.pipeline;
+
+import io.livestock.domain.MoodSnapshot;
+import io.livestock.domain.MoodWindow;
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.Sentiment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoodAggregatorTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T12:00:00Z");
+
+    private final AtomicLong millis = new AtomicLong(START.toEpochMilli());
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MoodAggregator aggregator = new MoodAggregator(
+            List.of(Duration.ofMinutes(1), Duration.ofMinutes(5)), Duration.ofSeconds(5), 2, Duration.ofSeconds(5),
+            millis::get);
+
+    @Test
+    void shouldCountSentimentsAndSummarizeRisk() {
+        for (int risk = 1; risk <= 10; risk++) {
+            add(START, "Reuters", risk % 2 == 0 ? Sentiment.BULLISH : Sentiment.BEARISH, risk);
+        }
+
+        MoodWindow sliding = window(aggregator.snapshot(null), MoodWindow.Type.SLIDING, Duration.ofMinutes(1));
+
+        assertThat(sliding.count()).isEqualTo(10);
+        assertThat(sliding.bullish()).isEqualTo(5);
+        assertThat(sliding.bearish()).isEqualTo(5);
+        assertThat(sliding.neutral()).isZero();
+        assertThat(sliding.meanRisk()).isEqualTo(5.5);
+        assertThat(sliding.p90Risk()).isEqualTo(9);
+        assertThat(sliding.to()).isEqualTo(START.plusSeconds(5));
+        assertThat(sliding.from()).isEqualTo(START.minusSeconds(55));
+    }
+
+    @Test
+    void slidingWindowsShouldForgetAnalysesAsTheyAge() {
+        add(START, "Reuters", Sentiment.BULLISH, 5);
+        advance(Duration.ofSeconds(30));
+        add(START.plusSeconds(30), "Reuters", Sentiment.BEARISH, 5);
+
+        advance(Duration.ofSeconds(30));
+        MoodSnapshot snapshot = aggregator.snapshot(null);
+
+        assertThat(window(snapshot, MoodWindow.Type.SLIDING, Duration.ofMinutes(1)).bearish()).isEqualTo(1);
+        assertThat(window(snapshot, MoodWindow.Type.SLIDING, Duration.ofMinutes(1)).count()).isEqualTo(1);
+        assertThat(window(snapshot, MoodWindow.Type.SLIDING, Duration.ofMinutes(5)).count()).isEqualTo(2);
+    }
+
+    @Test
+    void tumblingWindowsShouldCloseOnTheirBoundary() {
+        add(START, "Reuters", Sentiment.BULLISH, 4);
+        advance(Duration.ofSeconds(59));
+        add(START.plusSeconds(59), "Reuters", Sentiment.BULLISH, 6);
+        advance(Duration.ofSeconds(2));
+        add(START.plusSeconds(61), "Reuters", Sentiment.NEUTRAL, 2);
+
+        MoodSnapshot snapshot = aggregator.snapshot(null);
+        MoodWindow closed = window(snapshot, MoodWindow.Type.TUMBLING_CLOSED, Duration.ofMinutes(1));
+        MoodWindow open = window(snapshot, MoodWindow.Type.TUMBLING_OPEN, Duration.ofMinutes(1));
+
+        assertThat(closed.from()).isEqualTo(START);
+        assertThat(closed.count()).isEqualTo(2);
+        assertThat(closed.meanRisk()).isEqualTo(5.0);
+        assertThat(open.from()).isEqualTo(START.plusSeconds(60));
+        assertThat(open.neutral()).isEqualTo(1);
+        assertThat(window(snapshot, MoodWindow.Type.TUMBLING_OPEN, Duration.ofMinutes(5)).count()).isEqualTo(3);
+    }
+
+    @Test
+    void lateAnalysesShouldCountByEventTime() {
+        aggregator.bindTo(registry);
+        advance(Duration.ofSeconds(90));
+        // published in the previous minute, analyzed in this one
+        add(START.plusSeconds(50), "Reuters", Sentiment.BEARISH, 8);
+        add(START.minus(Duration.ofMinutes(10)), "Reuters", Sentiment.BEARISH, 8);
+        add(START.plus(Duration.ofHours(1)), "Reuters", Sentiment.BULLISH, 1);
+
+        MoodSnapshot snapshot = aggregator.snapshot(null);
+
+        assertThat(window(snapshot, MoodWindow.Type.TUMBLING_CLOSED, Duration.ofMinutes(1)).bearish()).isEqualTo(1);
+        assertThat(window(snapshot, MoodWindow.Type.TUMBLING_OPEN, Duration.ofMinutes(1)).bullish()).isEqualTo(1);
+        assertThat(window(snapshot, MoodWindow.Type.SLIDING, Duration.ofMinutes(5)).count()).isEqualTo(2);
+        assertThat(events("late")).isEqualTo(1);
+        assertThat(events("dropped")).isEqualTo(1);
+        assertThat(events("on-time")).isEqualTo(1);
+    }
+
+    @Test
+    void sourcesShouldBeAggregatedSeparatelyUpToTheLimit() {
+        aggregator.bindTo(registry);
+        add(START, "Reuters", Sentiment.BULLISH, 3);
+        add(START, "Bloomberg", Sentiment.BEARISH, 7);
+        add(START, "CNBC", Sentiment.NEUTRAL, 5);
+
+        assertThat(aggregator.sources()).extracting(MoodSnapshot::source).containsExactly("Reuters", "Bloomberg");
+        assertThat(window(aggregator.snapshot("Bloomberg"), MoodWindow.Type.SLIDING, Duration.ofMinutes(1))
+                .bearish()).isEqualTo(1);
+        assertThat(window(aggregator.snapshot("CNBC"), MoodWindow.Type.SLIDING, Duration.ofMinutes(1)).count())
+                .isZero();
+        assertThat(window(aggregator.snapshot(null), MoodWindow.Type.SLIDING, Duration.ofMinutes(1)).count())
+                .isEqualTo(3);
+        assertThat(registry.get("livestock.mood.untracked").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("livestock.mood.sources").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void longIdlePeriodsShouldEmptyEveryWindow() {
+        add(START, "Reuters", Sentiment.BULLISH, 5);
+
+        advance(Duration.ofHours(3));
+
+        assertThat(aggregator.snapshot(null).windows()).allSatisfy(window -> assertThat(window.count()).isZero());
+        assertThat(aggregator.snapshot("Reuters").windows()).hasSize(6);
+    }
+
+    @Test
+    void provisionalAnalysesShouldNotBeCounted() {
+        aggregator.add(START, new NewsAnalysis("id", START, "Reuters", "Headline", "URL", Sentiment.BULLISH, 5,
+                null, true));
+
+        assertThat(window(aggregator.snapshot(null), MoodWindow.Type.SLIDING, Duration.ofMinutes(1)).count())
+                .isZero();
+    }
+
+    @Test
+    void windowsShouldBeMultiplesOfTheResolution() {
+        assertThatThrownBy(() -> new MoodAggregator(List.of(Duration.ofSeconds(7)), Duration.ofSeconds(5), 1,
+                Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void add(Instant eventTime, String source, Sentiment sentiment, int risk) {
+        aggregator.add(eventTime, new NewsAnalysis("id", Instant.ofEpochMilli(millis.get()), source, "Headline",
+                "URL", sentiment, risk, "Summary"));
+    }
+
+    private void advance(Duration duration) {
+        millis.addAndGet(duration.toMillis());
+    }
+
+    private double events(String result) {
+        return registry.get("livestock.mood.events").tag("result", result).functionCounter().count();
+    }
+
+    private static MoodWindow window(MoodSnapshot snapshot, MoodWindow.Type type, Duration length) {
+        return snapshot.windows().stream()
+                .filter(window -> window.type() == type && window.length().equals(length))
+                .findFirst()
+                .orElseThrow();
+    }
+}
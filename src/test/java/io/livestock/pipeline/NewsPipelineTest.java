@@ -1,19 +1,32 @@
 package io.livestock.pipeline;
 
+import io.livestock.ai.LimitedNewsAiAnalyzer;
 import io.livestock.ai.NewsAiAnalyzer;
+import io.livestock.concurrent.AdaptiveConcurrencyLimiter;
+import io.livestock.domain.MoodSnapshot;
+import io.livestock.domain.MoodWindow;
 import io.livestock.domain.NewsAnalysis;
 import io.livestock.domain.NewsItem;
 import io.livestock.domain.Sentiment;
+import io.livestock.store.AnalysisHistory;
+import io.livestock.store.AnalysisLog;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
@@ -48,4 +61,136 @@ class NewsPipelineTest {
                 .thenCancel() // Stop listening
                 .verify();
     }
+
+    @Test
+    void analyzedItemsShouldBeQueryableInHistory() {
+        NewsItem item = new NewsItem("Reuters", "Headline", "URL", "Content");
+        NewsAnalysis analysis = new NewsAnalysis(UUID.randomUUID().toString(), Instant.now(), "Reuters", "Headline",
+                "URL", Sentiment.BEARISH, 8, "Summary");
+        when(analyzer.analyze(any(NewsItem.class))).thenReturn(Mono.just(analysis));
+        NewsPipeline pipeline = new NewsPipeline(analyzer);
+
+        StepVerifier.create(pipeline.stream())
+                .then(() -> pipeline.ingest(item))
+                .expectNext(analysis)
+                .thenCancel()
+                .verify();
+
+        AnalysisHistory.Query query = new AnalysisHistory.Query(null, null, "Reuters", Sentiment.BEARISH, 7, null);
+        assertThat(pipeline.history(query, null, 10).items()).containsExactly(analysis);
+    }
+
+    @Test
+    void analysesShouldBeTaggedWithTheSymbolsTheirItemMentions() {
+        NewsItem item = new NewsItem("Reuters", "Apple supplier warns", "URL", "Shares of $TSM fell");
+        NewsAnalysis analysis = new NewsAnalysis(UUID.randomUUID().toString(), Instant.now(), "Reuters",
+                "Apple supplier warns", "URL", Sentiment.BEARISH, 6, "Summary");
+        when(analyzer.analyze(any(NewsItem.class))).thenReturn(Mono.just(analysis));
+        SymbolDictionary dictionary = SymbolDictionary.builder()
+                .symbol("AAPL", List.of("Apple"))
+                .symbol("TSM", List.of("TSMC"))
+                .build();
+        NewsPipeline pipeline = new NewsPipeline(analyzer, new AdaptiveConcurrencyLimiter("analysis", 1, 8, 64),
+                new IngestQueue(16, IngestQueue.OverflowPolicy.REJECT), SymbolExtractor.of(dictionary),
+                new AnalysisFanout(16, 16, AnalysisFanout.SlowConsumerPolicy.DROP, Duration.ofMinutes(1)),
+                AnalysisLog.disabled(), new AnalysisHistory(1L << 20),
+                new MoodAggregator(List.of(Duration.ofMinutes(1)), Duration.ofSeconds(5), 10, Duration.ofSeconds(5)),
+                false);
+
+        StepVerifier.create(pipeline.stream("TSM"))
+                .then(() -> pipeline.ingest(item))
+                .assertNext(tagged -> assertThat(tagged.symbols()).containsExactly("AAPL", "TSM"))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void moodShouldCountAnalysesByPublicationTime() {
+        Instant published = Instant.now().minus(Duration.ofMinutes(3));
+        NewsItem item = new NewsItem("Reuters", "Headline", "URL", "Content", published);
+        NewsAnalysis analysis = new NewsAnalysis(UUID.randomUUID().toString(), Instant.now(), "Reuters",
+                "Headline", "URL", Sentiment.BEARISH, 8, "Summary");
+        when(analyzer.analyze(any(NewsItem.class))).thenReturn(Mono.just(analysis));
+        NewsPipeline pipeline = new NewsPipeline(analyzer);
+
+        StepVerifier.create(pipeline.stream())
+                .then(() -> pipeline.ingest(item))
+                .expectNext(analysis)
+                .thenCancel()
+                .verify();
+
+        List<MoodWindow> windows = pipeline.mood("Reuters").windows();
+        assertThat(windows).filteredOn(window -> window.type() == MoodWindow.Type.SLIDING)
+                .extracting(MoodWindow::length, MoodWindow::bearish)
+                .containsExactly(tuple(Duration.ofMinutes(1), 0L), tuple(Duration.ofMinutes(5), 1L),
+                        tuple(Duration.ofHours(1), 1L));
+        assertThat(pipeline.moodBySource()).extracting(MoodSnapshot::source).containsExactly("Reuters");
+    }
+
+    @Test
+    void restoredMoodShouldCountAnalysesAtTheirLoggedEventTime(@TempDir Path dir) throws IOException {
+        Instant now = Instant.now();
+        NewsAnalysis timed = new NewsAnalysis(UUID.randomUUID().toString(), now, "Reuters", "Timed", "URL",
+                Sentiment.BEARISH, 8, "Summary");
+        NewsAnalysis untimed = new NewsAnalysis(UUID.randomUUID().toString(), now, "Reuters", "Untimed", "URL",
+                Sentiment.BULLISH, 2, "Summary");
+        try (AnalysisLog log = AnalysisLog.open(dir, AnalysisLog.Settings.defaults())) {
+            log.append(timed, now.minus(Duration.ofMinutes(3)));
+            log.append(untimed);
+        }
+
+        try (AnalysisLog log = AnalysisLog.open(dir, AnalysisLog.Settings.defaults())) {
+            NewsPipeline pipeline = new NewsPipeline(analyzer, new AdaptiveConcurrencyLimiter("analysis", 1, 8, 64),
+                    new IngestQueue(16, IngestQueue.OverflowPolicy.REJECT), SymbolExtractor.none(),
+                    new AnalysisFanout(16, 16, AnalysisFanout.SlowConsumerPolicy.DROP, Duration.ofMinutes(1)),
+                    log, new AnalysisHistory(1L << 20), new MoodAggregator(
+                            List.of(Duration.ofMinutes(1), Duration.ofMinutes(5)), Duration.ofSeconds(5), 10,
+                            Duration.ofSeconds(5)),
+                    false);
+
+            assertThat(pipeline.mood("Reuters").windows())
+                    .filteredOn(window -> window.type() == MoodWindow.Type.SLIDING)
+                    .extracting(MoodWindow::length, MoodWindow::bearish, MoodWindow::bullish)
+                    .containsExactly(tuple(Duration.ofMinutes(1), 0L, 0L), tuple(Duration.ofMinutes(5), 1L, 0L));
+        }
+    }
+
+    @Test
+    void failedAnalysisShouldNotEndTheStream() {
+        NewsItem broken = new NewsItem("Source", "Broken", "URL", "Content");
+        NewsItem item = new NewsItem("Source", "Headline", "URL", "Content");
+        NewsAnalysis analysis = new NewsAnalysis(UUID.randomUUID().toString(), Instant.now(), "Source", "Headline",
+                "URL", Sentiment.NEUTRAL, 5, "Summary");
+        when(analyzer.analyze(broken)).thenReturn(Mono.error(new IllegalStateException("model down")));
+        when(analyzer.analyze(item)).thenReturn(Mono.just(analysis));
+        NewsPipeline pipeline = new NewsPipeline(analyzer);
+
+        StepVerifier.create(pipeline.stream())
+                .then(() -> pipeline.ingest(broken))
+                .then(() -> pipeline.ingest(item))
+                .expectNext(analysis)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void itemsShouldStayInTheIngestQueueWhileEveryAnalysisSlotIsBusy() {
+        when(analyzer.analyze(any(NewsItem.class))).thenReturn(Mono.never());
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("analysis", 1, 1, 1);
+        IngestQueue queue = new IngestQueue(16, IngestQueue.OverflowPolicy.REJECT);
+        NewsPipeline pipeline = new NewsPipeline(new LimitedNewsAiAnalyzer(analyzer, limiter), limiter, queue,
+                SymbolExtractor.none(),
+                new AnalysisFanout(16, 16, AnalysisFanout.SlowConsumerPolicy.DROP, Duration.ofMinutes(1)),
+                AnalysisLog.disabled(), new AnalysisHistory(1L << 20),
+                new MoodAggregator(List.of(Duration.ofMinutes(1)), Duration.ofSeconds(5), 10, Duration.ofSeconds(5)),
+                false);
+
+        for (int i = 0; i < 3; i++) {
+            pipeline.ingest(new NewsItem("Source", "Headline " + i, "URL", "Content"));
+        }
+
+        assertThat(limiter.inFlight()).isEqualTo(1);
+        assertThat(limiter.queued()).isZero();
+        assertThat(queue.depth()).isEqualTo(2);
+    }
 }
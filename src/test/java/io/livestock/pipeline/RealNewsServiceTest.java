@@ -10,6 +10,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.List;
@@ -32,6 +33,7 @@ class RealNewsServiceTest {
     void setUp() {
         service = new RealNewsService(pipeline, fetchStrategy);
         ReflectionTestUtils.setField(service, "enabled", true);
+        lenient().when(pipeline.offer(any(NewsItem.class))).thenReturn(Mono.just(IngestResult.accepted()));
     }
 
     @Test
@@ -41,13 +43,11 @@ class RealNewsServiceTest {
                 "2023-01-01T00:00:00Z", "Content");
         when(fetchStrategy.fetchArticles()).thenReturn(Flux.just(List.of(article)));
 
-        ReflectionTestUtils.setField(service, "streamingDelay", Duration.ofMillis(10));
-
         // Act
         service.start();
 
         // Assert with timeout
-        verify(pipeline, timeout(2000).atLeastOnce()).ingest(any(NewsItem.class));
+        verify(pipeline, timeout(2000).atLeastOnce()).offer(any(NewsItem.class));
     }
 
     @Test
@@ -99,12 +99,42 @@ class RealNewsServiceTest {
                 .thenReturn(Flux.just(List.of(article)))
                 .thenReturn(Flux.just(List.of(article)));
 
-        ReflectionTestUtils.setField(service, "streamingDelay", Duration.ofMillis(10));
+        service.start();
+
+        // verify pipeline.offer is called ONLY ONCE for this headline
+        verify(pipeline, timeout(500).times(1)).offer(argThat(item -> item.headline().equals("Unique Headline")));
+    }
+
+    @Test
+    void acceptedHeadlinesShouldNotBeOfferedAgain() {
+        Article article = new Article(null, "Author", "Fed holds rates", "Desc", "url", "2023-01-01T00:00:00Z",
+                "Content");
+        when(fetchStrategy.fetchArticles()).thenReturn(Flux.just(List.of(article)));
+
+        service.start();
+        verify(pipeline, timeout(500)).offer(any(NewsItem.class));
+        service.stop();
+        service.start();
+
+        verify(fetchStrategy, timeout(500).times(2)).fetchArticles();
+        verify(pipeline, after(100).times(1)).offer(any(NewsItem.class));
+    }
+
+    @Test
+    void rejectedHeadlinesShouldBeOfferedAgainOnTheNextFetch() {
+        Article article = new Article(null, "Author", "Fed holds rates", "Desc", "url", "2023-01-01T00:00:00Z",
+                "Content");
+        when(fetchStrategy.fetchArticles()).thenReturn(Flux.just(List.of(article)));
+        when(pipeline.offer(any(NewsItem.class)))
+                .thenReturn(Mono.just(IngestResult.rejected(Duration.ofSeconds(1))))
+                .thenReturn(Mono.just(IngestResult.accepted()));
 
         service.start();
+        verify(pipeline, timeout(500)).offer(any(NewsItem.class));
+        service.stop();
+        service.start();
 
-        // verify pipeline.ingest is called ONLY ONCE for this headline
-        verify(pipeline, timeout(500).times(1)).ingest(argThat(item -> item.headline().equals("Unique Headline")));
+        verify(pipeline, timeout(500).times(2)).offer(argThat(item -> item.headline().equals("Fed holds rates")));
     }
 
     @Test
@@ -113,11 +143,10 @@ class RealNewsServiceTest {
         Article article = new Article(null, null, "Headline Only", null, "url", "2023-01-01T00:00:00Z", null);
 
         when(fetchStrategy.fetchArticles()).thenReturn(Flux.just(List.of(article)));
-        ReflectionTestUtils.setField(service, "streamingDelay", Duration.ofMillis(10));
 
         service.start();
 
-        verify(pipeline, timeout(500)).ingest(argThat(item -> item.source().equals("Unknown") &&
+        verify(pipeline, timeout(500)).offer(argThat(item -> item.source().equals("Unknown") &&
                 item.content().equals("Headline Only") // Fallback to title
         ));
     }
@@ -127,11 +156,10 @@ class RealNewsServiceTest {
         Article article = new Article(null, null, "Headline", "Description", "url", "2023-01-01T00:00:00Z", "Content");
 
         when(fetchStrategy.fetchArticles()).thenReturn(Flux.just(List.of(article)));
-        ReflectionTestUtils.setField(service, "streamingDelay", Duration.ofMillis(10));
 
         service.start();
 
-        verify(pipeline, timeout(500)).ingest(argThat(item -> item.content().equals("Description")));
+        verify(pipeline, timeout(500)).offer(argThat(item -> item.content().equals("Description")));
     }
 
     @Test
@@ -141,17 +169,35 @@ class RealNewsServiceTest {
 
         // Fed in reverse order (Newest first)
         when(fetchStrategy.fetchArticles()).thenReturn(Flux.just(List.of(newArticle, oldArticle)));
-        ReflectionTestUtils.setField(service, "streamingDelay", Duration.ofMillis(10));
 
         service.start();
 
         // Verify invocation order
         org.mockito.InOrder inOrder = inOrder(pipeline);
 
-        verify(pipeline, timeout(500).atLeast(2)).ingest(any());
+        verify(pipeline, timeout(500).atLeast(2)).offer(any());
+
+        inOrder.verify(pipeline).offer(argThat(item -> item.headline().equals("Old")));
+        inOrder.verify(pipeline).offer(argThat(item -> item.headline().equals("New")));
+    }
+
+    @Test
+    void sortingShouldCompareInstantsAcrossOffsetsAndPutMissingTimesFirst() {
+        Article early = new Article(null, null, "Early", null, "url", "2023-01-01T12:00:00+02:00", null);
+        Article late = new Article(null, null, "Late", null, "url", "2023-01-01T11:00:00Z", null);
+        Article undated = new Article(null, null, "Undated", null, "url", null, null);
+
+        when(fetchStrategy.fetchArticles()).thenReturn(Flux.just(List.of(late, undated, early)));
+
+        service.start();
+
+        org.mockito.InOrder inOrder = inOrder(pipeline);
+
+        verify(pipeline, timeout(500).atLeast(3)).offer(any());
 
-        inOrder.verify(pipeline).ingest(argThat(item -> item.headline().equals("Old")));
-        inOrder.verify(pipeline).ingest(argThat(item -> item.headline().equals("New")));
+        inOrder.verify(pipeline).offer(argThat(item -> item.headline().equals("Undated")));
+        inOrder.verify(pipeline).offer(argThat(item -> item.headline().equals("Early")));
+        inOrder.verify(pipeline).offer(argThat(item -> item.headline().equals("Late")));
     }
 
     @Test
@@ -0,0 +1,102 @@
+package io.livestock.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SymbolDictionaryTest {
+
+    private final SymbolDictionary dictionary = SymbolDictionary.builder()
+            .symbol("AAPL", List.of("Apple", "Apple Inc"))
+            .symbol("APLE", List.of("Apple Hospitality"))
+            .symbol("BRK.B", List.of("Berkshire Hathaway"))
+            .symbol("F", List.of("Ford"))
+            .symbol("GOOGL", List.of("Alphabet"))
+            .symbol("GOOG", List.of("Alphabet"))
+            .build();
+
+    @Test
+    void extractShouldMatchAliasesAsWholeWordsIgnoringCase() {
+        assertThat(dictionary.extract("APPLE and ford report; pineapple prices, Fordham")).containsExactly("AAPL", "F");
+    }
+
+    @Test
+    void extractShouldPreferTheLongestOverlappingAlias() {
+        assertThat(dictionary.extract("Apple  Hospitality REIT")).containsExactly("APLE");
+        assertThat(dictionary.extract("Apple Inc. and Apple")).containsExactly("AAPL");
+    }
+
+    @Test
+    void tickersShouldMatchInUpperCaseOrAsCashtags() {
+        assertThat(dictionary.extract("aapl")).isEmpty();
+        assertThat(dictionary.extract("AAPL")).containsExactly("AAPL");
+        assertThat(dictionary.extract("$aapl")).containsExactly("AAPL");
+        assertThat(dictionary.extract("BRK.B and BRK-B")).containsExactly("BRK.B");
+    }
+
+    @Test
+    void shortTickersShouldOnlyMatchAsCashtags() {
+        assertThat(dictionary.extract("F grade")).isEmpty();
+        assertThat(dictionary.extract("$F up")).containsExactly("F");
+    }
+
+    @Test
+    void extractShouldReturnDistinctSymbolsInOrderOfFirstMention() {
+        assertThat(dictionary.extract("Berkshire Hathaway trims Apple", null, "Apple and Ford"))
+                .containsExactly("BRK.B", "AAPL", "F");
+    }
+
+    @Test
+    void aliasSharedBySymbolsShouldTagTheFirst() {
+        assertThat(dictionary.extract("Alphabet")).containsExactly("GOOGL");
+        assertThat(dictionary.size()).isEqualTo(6);
+    }
+
+    @Test
+    void loadShouldParseSymbolsAndAliases() throws IOException {
+        SymbolDictionary loaded = SymbolDictionary.load(stream("""
+                # comment
+
+                msft   Microsoft
+                JNJ    Johnson & Johnson, J&J
+                """));
+
+        assertThat(loaded.size()).isEqualTo(2);
+        assertThat(loaded.extract("Microsoft and Johnson & Johnson")).containsExactly("MSFT", "JNJ");
+        assertThat(loaded.extract("MSFT")).containsExactly("MSFT");
+    }
+
+    @Test
+    void loadShouldRejectNonAsciiAliases() {
+        assertThatThrownBy(() -> SymbolDictionary.load(stream("NSRGY Nestl\u00e9\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 1");
+    }
+
+    @Test
+    void bundledDictionaryShouldLoad() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/symbols/us-equities.txt")) {
+            SymbolDictionary bundled = SymbolDictionary.load(in);
+
+            assertThat(bundled.size()).isGreaterThan(50);
+            assertThat(bundled.extract("JPMorgan and Goldman Sachs lead banks; $NVDA slips"))
+                    .containsExactly("JPM", "GS", "NVDA");
+        }
+    }
+
+    @Test
+    void emptyDictionaryShouldMatchNothing() {
+        assertThat(SymbolDictionary.empty().extract("Apple")).isEmpty();
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,147 @@
+package io.livestock.service;
+
+import io.livestock.domain.ContentKeys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DedupIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void markIfAbsentShouldDetectDuplicates() {
+        DedupIndex index = new DedupIndex(10, Duration.ofHours(1), null, clock);
+
+        assertThat(index.markIfAbsent(ContentKeys.headline("Fed holds rates"))).isTrue();
+        assertThat(index.markIfAbsent(ContentKeys.headline("  FED holds rates!"))).isFalse();
+        assertThat(index.hits()).isEqualTo(1);
+        assertThat(index.misses()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldEvictOldestWhenFull() {
+        DedupIndex index = new DedupIndex(3, Duration.ofHours(1), null, clock);
+
+        for (long key = 1; key <= 4; key++) {
+            index.markIfAbsent(key);
+        }
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.contains(1)).isFalse();
+        assertThat(index.contains(4)).isTrue();
+        assertThat(index.evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldExpireKeysAfterTtl() {
+        DedupIndex index = new DedupIndex(10, Duration.ofMinutes(5), null, clock);
+        index.markIfAbsent(42);
+
+        clock.advance(Duration.ofMinutes(6));
+
+        assertThat(index.contains(42)).isFalse();
+        assertThat(index.markIfAbsent(42)).isTrue();
+        assertThat(index.evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void evictionShouldKeepProbeChainsIntact() {
+        int capacity = 1_000;
+        DedupIndex index = new DedupIndex(capacity, Duration.ofHours(1), null, clock);
+
+        for (long key = 1; key <= 10_000; key++) {
+            index.markIfAbsent(key * 0x9E3779B97F4A7C15L);
+        }
+
+        for (long key = 1; key <= 10_000; key++) {
+            boolean live = key > 10_000 - capacity;
+            assertThat(index.contains(key * 0x9E3779B97F4A7C15L)).isEqualTo(live);
+        }
+    }
+
+    @Test
+    void unmarkShouldForgetKeyAndItsRingEntry() {
+        DedupIndex index = new DedupIndex(3, Duration.ofMinutes(10), null, clock);
+        index.markIfAbsent(1);
+        index.markIfAbsent(2);
+        index.markIfAbsent(3);
+
+        assertThat(index.unmark(2)).isTrue();
+        assertThat(index.unmark(2)).isFalse();
+        assertThat(index.size()).isEqualTo(2);
+
+        // the freed slot is reused without evicting the oldest key
+        index.markIfAbsent(4);
+        assertThat(index.contains(1)).isTrue();
+        assertThat(index.evictions()).isZero();
+
+        // a key marked again after unmark lives for a full TTL from the new mark
+        index.unmark(4);
+        clock.advance(Duration.ofMinutes(5));
+        assertThat(index.markIfAbsent(4)).isTrue();
+        clock.advance(Duration.ofMinutes(6));
+        assertThat(index.contains(1)).isFalse();
+        assertThat(index.contains(4)).isTrue();
+    }
+
+    @Test
+    void snapshotShouldRoundTripAndDropExpiredKeys() {
+        Path file = tempDir.resolve("dedup.bin");
+        DedupIndex index = new DedupIndex(10, Duration.ofMinutes(10), null, clock);
+        index.markIfAbsent(1);
+        clock.advance(Duration.ofMinutes(5));
+        index.markIfAbsent(2);
+        index.snapshot(file);
+
+        clock.advance(Duration.ofMinutes(6));
+        DedupIndex restored = new DedupIndex(10, Duration.ofMinutes(10), file, clock);
+        restored.restore();
+
+        assertThat(restored.contains(1)).isFalse();
+        assertThat(restored.contains(2)).isTrue();
+        assertThat(restored.size()).isEqualTo(1);
+    }
+
+    @Test
+    void loadShouldIgnoreMissingFile() {
+        DedupIndex index = new DedupIndex(10, Duration.ofMinutes(10), tempDir.resolve("missing.bin"), clock);
+
+        index.restore();
+
+        assertThat(index.size()).isZero();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.livestock.store;
+
+import io.livestock.domain.AnalysisPage;
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.Sentiment;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnalysisHistoryTest {
+
+    private static final Instant T0 = Instant.parse("2025-03-01T00:00:00Z");
+    private static final String[] SOURCES = { "Reuters", "Bloomberg", "CNBC" };
+
+    @Test
+    void shouldReturnMatchingAnalysesNewestFirst() {
+        AnalysisHistory history = new AnalysisHistory(64L << 20);
+        for (int i = 0; i < 10_000; i++) {
+            history.add(analysis(i));
+        }
+
+        AnalysisHistory.Query query = new AnalysisHistory.Query(T0.plus(Duration.ofMinutes(2_000)),
+                T0.plus(Duration.ofMinutes(8_000)), "Reuters", Sentiment.BEARISH, 7, null);
+        AnalysisPage page = history.query(query, null, 20);
+
+        List<NewsAnalysis> expected = expected(query, 10_000);
+        assertThat(page.items()).containsExactlyElementsOf(expected.subList(0, 20));
+        assertThat(page.nextCursor()).isNotNull();
+    }
+
+    @Test
+    void cursorShouldPageThroughEveryMatchOnce() {
+        AnalysisHistory history = new AnalysisHistory(64L << 20);
+        for (int i = 0; i < 10_000; i++) {
+            history.add(analysis(i));
+        }
+        AnalysisHistory.Query query = new AnalysisHistory.Query(null, null, "CNBC", null, 8, null);
+
+        List<NewsAnalysis> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            AnalysisPage page = history.query(query, cursor, 97);
+            all.addAll(page.items());
+            cursor = page.nextCursor();
+            // analyses arriving meanwhile do not shift later pages
+            history.add(analysis(20_000 + all.size()));
+        } while (cursor != null);
+
+        assertThat(all).containsExactlyElementsOf(expected(query, 10_000));
+    }
+
+    @Test
+    void shouldIgnoreProvisionalAnalyses() {
+        AnalysisHistory history = new AnalysisHistory(1L << 20);
+        NewsAnalysis fin = analysis(1);
+        history.add(new NewsAnalysis(fin.id(), fin.timestamp(), fin.source(), fin.headline(), fin.url(),
+                fin.sentiment(), fin.riskScore(), null, true));
+        history.add(fin);
+
+        assertThat(history.query(AnalysisHistory.Query.all(), null, 10).items()).containsExactly(fin);
+    }
+
+    @Test
+    void shouldDropOldestAnalysesBeyondMemoryBudget() {
+        AnalysisHistory history = new AnalysisHistory(2L << 20);
+        int count = 50_000;
+        for (int i = 0; i < count; i++) {
+            history.add(analysis(i));
+        }
+
+        assertThat(history.memoryBytes()).isLessThanOrEqualTo(2L << 20);
+        assertThat(history.evicted()).isPositive();
+        assertThat(history.size()).isEqualTo(count - history.evicted());
+        List<NewsAnalysis> newest = history.query(AnalysisHistory.Query.all(), null, 1).items();
+        assertThat(newest).containsExactly(analysis(count - 1));
+    }
+
+    @Test
+    void unknownSourceShouldMatchNothing() {
+        AnalysisHistory history = new AnalysisHistory(1L << 20);
+        history.add(analysis(0));
+
+        AnalysisPage page = history.query(new AnalysisHistory.Query(null, null, "Unknown", null, null, null),
+                null, 10);
+
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void malformedCursorShouldBeRejected() {
+        AnalysisHistory history = new AnalysisHistory(1L << 20);
+
+        assertThatThrownBy(() -> history.query(AnalysisHistory.Query.all(), "not a cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<NewsAnalysis> expected(AnalysisHistory.Query query, int count) {
+        List<NewsAnalysis> matches = new ArrayList<>();
+        for (int i = count - 1; i >= 0; i--) {
+            NewsAnalysis a = analysis(i);
+            if ((query.from() == null || !a.timestamp().isBefore(query.from()))
+                    && (query.to() == null || a.timestamp().isBefore(query.to()))
+                    && (query.source() == null || query.source().equals(a.source()))
+                    && (query.sentiment() == null || query.sentiment() == a.sentiment())
+                    && (query.minRisk() == null || a.riskScore() >= query.minRisk())) {
+                matches.add(a);
+            }
+        }
+        return matches;
+    }
+
+    private static NewsAnalysis analysis(int i) {
+        return new NewsAnalysis("id-" + i, T0.plus(Duration.ofMinutes(i)), SOURCES[i % SOURCES.length],
+                "Headline " + i, "https://example.com/" + i, Sentiment.values()[(i / 3) % 3], 1 + i % 10,
+                "Summary " + i);
+    }
+}
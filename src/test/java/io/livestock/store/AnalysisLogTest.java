@@ -0,0 +1,224 @@
+package io.livestock.store;
+
+import io.livestock.domain.NewsAnalysis;
+import io.livestock.domain.Sentiment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReadAppendedAnalysesAfterReopen() throws IOException {
+        List<NewsAnalysis> analyses = List.of(
+                analysis(UUID.randomUUID().toString(), "Fed holds rates", false),
+                analysis("custom-id", "Caf\u00e9 chain expands \u2014 shares \u2191", false),
+                new NewsAnalysis("partial", null, null, "No sentiment yet", null, null, 0, null, true),
+                analysis("tagged", "Apple and Berkshire", false).withSymbols(List.of("AAPL", "BRK.B")));
+
+        try (AnalysisLog log = open(settings(1 << 20, 0))) {
+            analyses.forEach(log::append);
+        }
+
+        try (AnalysisLog log = open(settings(1 << 20, 0))) {
+            assertThat(readAll(log)).containsExactlyElementsOf(analyses);
+        }
+    }
+
+    @Test
+    void eventTimesShouldBeReadBackWithTheirAnalyses() throws IOException {
+        Instant published = Instant.parse("2025-01-02T02:00:00.5Z");
+        NewsAnalysis timed = analysis("a", "Apple beats estimates", false);
+        NewsAnalysis untimed = analysis("b", "Oil slides", false);
+        try (AnalysisLog log = open(settings(1 << 20, 0))) {
+            log.append(timed, published);
+            log.append(untimed);
+        }
+
+        List<NewsAnalysis> analyses = new ArrayList<>();
+        List<Instant> eventTimes = new ArrayList<>();
+        try (AnalysisLog log = open(settings(1 << 20, 0))) {
+            log.forEachWithEventTime((analysis, eventTime) -> {
+                analyses.add(analysis);
+                eventTimes.add(eventTime);
+            });
+        }
+
+        assertThat(analyses).containsExactly(timed, untimed);
+        assertThat(eventTimes).containsExactly(published, null);
+    }
+
+    @Test
+    void recentShouldKeepOnlyTheLatestAnalysisPerId() throws IOException {
+        try (AnalysisLog log = open(settings(1 << 20, 0))) {
+            NewsAnalysis provisional = analysis("a", "Apple beats estimates", true);
+            NewsAnalysis other = analysis("b", "Oil slides", false);
+            NewsAnalysis fin = analysis("a", "Apple beats estimates", false);
+            log.append(provisional);
+            log.append(other);
+            log.append(fin);
+
+            assertThat(log.recent(10)).containsExactly(other, fin);
+            assertThat(log.recent(1)).containsExactly(fin);
+        }
+    }
+
+    @Test
+    void recentShouldReadAcrossSegments() throws IOException {
+        try (AnalysisLog log = open(settings(512, 0))) {
+            for (int i = 0; i < 40; i++) {
+                log.append(analysis("id-" + i, "Headline " + i, false));
+                log.flush();
+            }
+
+            assertThat(log.segmentCount()).isGreaterThan(3);
+            assertThat(log.recent(25)).extracting(NewsAnalysis::id)
+                    .containsExactlyElementsOf(Stream.iterate(15, i -> i + 1).limit(25).map(i -> "id-" + i).toList());
+        }
+    }
+
+    @Test
+    void recentReadShouldSkipSegmentsOlderThanItNeeds() throws IOException {
+        Instant start = Instant.parse("2025-01-02T00:00:00Z");
+        try (AnalysisLog log = open(settings(512, 0))) {
+            for (int i = 0; i < 40; i++) {
+                log.append(new NewsAnalysis("id-" + i, start.plus(Duration.ofMinutes(i)), "Reuters", "Headline " + i,
+                        "URL", Sentiment.BULLISH, 3, "Summary"), start.plus(Duration.ofMinutes(i)));
+                log.flush();
+            }
+            assertThat(log.segmentCount()).isGreaterThan(3);
+
+            List<Integer> read = new ArrayList<>();
+            long count = log.forEachRecentWithEventTime(0, start.plus(Duration.ofMinutes(30)),
+                    (analysis, eventTime) -> read.add(Integer.parseInt(analysis.id().substring(3))));
+
+            assertThat(count).isEqualTo(read.size()).isLessThan(40);
+            assertThat(read.getFirst()).isLessThanOrEqualTo(30);
+            assertThat(read).isSorted().endsWith(39);
+            assertThat(read.getLast() - read.getFirst() + 1).isEqualTo(read.size());
+
+            List<Integer> all = new ArrayList<>();
+            log.forEachRecentWithEventTime(Long.MAX_VALUE, start.plus(Duration.ofMinutes(30)),
+                    (analysis, eventTime) -> all.add(Integer.parseInt(analysis.id().substring(3))));
+            assertThat(all).hasSize(40);
+        }
+    }
+
+    @Test
+    void shouldTruncateTornTailOnOpen() throws IOException {
+        try (AnalysisLog log = open(settings(1 << 20, 0))) {
+            log.append(analysis("a", "First", false));
+            log.append(analysis("b", "Second", false));
+        }
+        Path segment = segments().getLast();
+        long intact = Files.size(segment);
+        // a record header promising more bytes than were written, as after a crash mid-write
+        Files.write(segment, new byte[] {0, 0, 0, 100, 1, 2, 3, 4, 5, 6}, StandardOpenOption.APPEND);
+
+        try (AnalysisLog log = open(settings(1 << 20, 0))) {
+            assertThat(Files.size(segment)).isEqualTo(intact);
+            log.append(analysis("c", "Third", false));
+        }
+
+        try (AnalysisLog log = open(settings(1 << 20, 0))) {
+            assertThat(readAll(log)).extracting(NewsAnalysis::id).containsExactly("a", "b", "c");
+        }
+    }
+
+    @Test
+    void retentionShouldDeleteOldestSegmentsBeyondMaxSize() throws IOException {
+        try (AnalysisLog log = open(settings(512, 2048))) {
+            for (int i = 0; i < 60; i++) {
+                log.append(analysis("id-" + i, "Headline " + i, false));
+                log.flush();
+            }
+            int before = log.segmentCount();
+
+            log.maintain();
+
+            assertThat(log.segmentCount()).isLessThan(before);
+            assertThat(log.sizeBytes()).isLessThanOrEqualTo(2048);
+            assertThat(readAll(log)).extracting(NewsAnalysis::id).contains("id-59").doesNotContain("id-0");
+        }
+    }
+
+    @Test
+    void compactionShouldDropSupersededProvisionalAnalyses() throws IOException {
+        try (AnalysisLog log = open(settings(512, 0))) {
+            for (int i = 0; i < 20; i++) {
+                log.append(analysis("id-" + i, "Headline " + i, true));
+                log.append(analysis("id-" + i, "Headline " + i, false));
+                log.flush();
+            }
+            // never finalized, so it has to survive
+            log.append(analysis("orphan", "Orphan", true));
+            log.flush();
+            for (int i = 0; i < 10; i++) {
+                log.append(analysis("pad-" + i, "Padding " + i, false));
+                log.flush();
+            }
+
+            log.maintain();
+
+            List<NewsAnalysis> all = readAll(log);
+            assertThat(all).filteredOn(NewsAnalysis::provisional).extracting(NewsAnalysis::id)
+                    .containsExactly("orphan");
+            assertThat(all).filteredOn(a -> !a.provisional()).hasSize(30);
+        }
+
+        try (AnalysisLog log = open(settings(512, 0))) {
+            assertThat(readAll(log)).hasSize(31);
+        }
+    }
+
+    @Test
+    void disabledLogShouldKeepNothing() {
+        AnalysisLog log = AnalysisLog.disabled();
+        log.append(analysis("a", "Ignored", false));
+
+        assertThat(log.recent(10)).isEmpty();
+        assertThat(log.forEach(a -> { })).isZero();
+    }
+
+    private AnalysisLog open(AnalysisLog.Settings settings) throws IOException {
+        return AnalysisLog.open(tempDir, settings, false);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(p -> p.toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private static AnalysisLog.Settings settings(long segmentBytes, long maxBytes) {
+        return new AnalysisLog.Settings(segmentBytes, 1024, Duration.ofMillis(200), Duration.ofSeconds(1),
+                Duration.ZERO, maxBytes, Duration.ofMinutes(10));
+    }
+
+    private static List<NewsAnalysis> readAll(AnalysisLog log) {
+        List<NewsAnalysis> all = new ArrayList<>();
+        log.forEach(all::add);
+        return all;
+    }
+
+    private static NewsAnalysis analysis(String id, String headline, boolean provisional) {
+        return new NewsAnalysis(id, Instant.parse("2025-01-02T03:04:05.123456789Z"), "Reuters", headline,
+                "https://example.com/" + id, Sentiment.BULLISH, 3, provisional ? null : "Summary of " + headline,
+                provisional);
+    }
+}
@@ -0,0 +1,69 @@
+package io.livestock.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WordAutomatonTest {
+
+    @Test
+    void entriesShouldMatchWholeWordsUnlessAddedAsPrefixes() {
+        WordAutomaton.Builder builder = WordAutomaton.builder("Entry", false);
+        int rate = builder.add("rate", false);
+        int surge = builder.add("surg", true);
+        WordAutomaton automaton = builder.build();
+
+        assertThat(matches(automaton, "Rates surged; rate cut"))
+                .containsExactly(new Match(surge, 2, 6, 9), new Match(rate, 3, 14, 17));
+    }
+
+    @Test
+    void rejectedEntriesShouldBeFollowedByShorterOnes() {
+        WordAutomaton.Builder builder = WordAutomaton.builder("Entry", false);
+        int inc = builder.add("Inc", false);
+        int appleInc = builder.add("Apple, Inc.", false);
+        WordAutomaton automaton = builder.build();
+        List<Integer> offered = new ArrayList<>();
+
+        automaton.scan("apple inc", (entry, firstWord, from, to) -> {
+            offered.add(entry);
+            return false;
+        });
+
+        assertThat(automaton.words(appleInc)).isEqualTo(2);
+        assertThat(offered).containsExactly(appleInc, inc);
+    }
+
+    @Test
+    void apostrophesShouldBePartOfWordsOnlyWhenAsked() {
+        WordAutomaton.Builder withApostrophes = WordAutomaton.builder("Entry", true);
+        int isnt = withApostrophes.add("isn't", false);
+        WordAutomaton.Builder withoutApostrophes = WordAutomaton.builder("Entry", false);
+        int t = withoutApostrophes.add("t", false);
+
+        assertThat(matches(withApostrophes.build(), "it isn\u2019t")).containsExactly(new Match(isnt, 2, 3, 7));
+        assertThat(matches(withoutApostrophes.build(), "it isn\u2019t")).containsExactly(new Match(t, 3, 7, 7));
+    }
+
+    @Test
+    void nonAsciiEntriesShouldBeRejected() {
+        assertThatThrownBy(() -> WordAutomaton.builder("Alias", false).add("Nestl\u00e9", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Alias must be ASCII: Nestl\u00e9");
+        assertThatThrownBy(() -> WordAutomaton.builder("Alias", false).add(" - ", false))
+                .hasMessage("Alias is empty: ' - '");
+    }
+
+    private static List<Match> matches(WordAutomaton automaton, String text) {
+        List<Match> matches = new ArrayList<>();
+        automaton.scan(text, (entry, firstWord, from, to) -> matches.add(new Match(entry, firstWord, from, to)));
+        return matches;
+    }
+
+    private record Match(int entry, int firstWord, int from, int to) {
+    }
+}
@@ -1,10 +1,17 @@
 package io.livestock.web;
 
+import io.livestock.domain.AnalysisPage;
+import io.livestock.domain.BulkIngestSummary;
+import io.livestock.domain.MoodSnapshot;
+import io.livestock.domain.MoodWindow;
 import io.livestock.domain.NewsAnalysis;
 import io.livestock.domain.NewsItem;
 import io.livestock.domain.Sentiment;
+import io.livestock.pipeline.IngestResult;
 import io.livestock.pipeline.NewsPipeline;
 import io.livestock.service.RealNewsService;
+import io.livestock.store.AnalysisHistory;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,11 +20,19 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -52,17 +67,238 @@ class NewsControllerTest {
                 .hasSize(1);
     }
 
+    @Test
+    void symbolStreamShouldUpperCaseTheSymbol() {
+        NewsAnalysis analysis = analysis("Apple beats").withSymbols(List.of("AAPL"));
+        when(pipeline.stream("AAPL")).thenReturn(Flux.just(analysis));
+
+        webClient.get().uri("/api/stream/aapl")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .expectBodyList(NewsAnalysis.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void symbolStreamShouldRejectMalformedSymbols() {
+        webClient.get().uri("/api/stream/{symbol}", "AAPL;DROP")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(pipeline, never()).stream(any(String.class));
+    }
+
+    @Test
+    void moodShouldReturnTheSnapshotForTheRequestedSource() {
+        MoodWindow window = new MoodWindow(MoodWindow.Type.SLIDING, Duration.ofMinutes(1),
+                Instant.parse("2026-01-01T11:59:05Z"), Instant.parse("2026-01-01T12:00:05Z"), 4, 3, 1, 0, 6.5, 9);
+        when(pipeline.mood("Reuters"))
+                .thenReturn(new MoodSnapshot(Instant.parse("2026-01-01T12:00:01Z"), "Reuters", List.of(window)));
+
+        webClient.get().uri("/api/mood?source=Reuters")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(MoodSnapshot.class)
+                .value(snapshot -> assertThat(snapshot.windows()).containsExactly(window));
+    }
+
+    @Test
+    void moodStreamShouldSendEachSnapshotAsAnEvent() {
+        MoodSnapshot first = new MoodSnapshot(Instant.parse("2026-01-01T12:00:00Z"), null, List.of());
+        MoodSnapshot second = new MoodSnapshot(Instant.parse("2026-01-01T12:00:05Z"), null, List.of());
+        when(pipeline.moodUpdates(null)).thenReturn(Flux.just(first, second));
+
+        StepVerifier.create(new NewsController(pipeline, realNewsService).moodStream(null))
+                .assertNext(event -> assertThat(event.data()).isEqualTo(first))
+                .assertNext(event -> assertThat(event.data()).isEqualTo(second))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamShouldPaceEventsWhenConfigured() {
+        NewsController paced = new NewsController(pipeline, realNewsService,
+                Validation.buildDefaultValidatorFactory().getValidator(), Duration.ofSeconds(15), 10, 1,
+                Duration.ofSeconds(30), 100);
+        // made after the stream opens, so they are live rather than replayed
+        Instant after = Instant.now().plusSeconds(60);
+        List<NewsAnalysis> analyses = List.of(analysis("First", after), analysis("Second", after),
+                analysis("Third", after));
+        when(pipeline.stream()).thenReturn(Flux.fromIterable(analyses));
+
+        StepVerifier.withVirtualTime(paced::stream)
+                .expectSubscription()
+                .assertNext(event -> assertThat(event.data().headline()).isEqualTo("First"))
+                .expectNoEvent(Duration.ofMillis(90))
+                .thenAwait(Duration.ofMillis(20))
+                .assertNext(event -> assertThat(event.data().headline()).isEqualTo("Second"))
+                .expectNoEvent(Duration.ofMillis(80))
+                .thenAwait(Duration.ofMillis(20))
+                .assertNext(event -> assertThat(event.data().headline()).isEqualTo("Third"))
+                .verifyComplete();
+    }
+
+    @Test
+    void pacedStreamShouldSendTheReplayAtOnceAndSkipAheadWhenBehind() {
+        NewsController paced = new NewsController(pipeline, realNewsService,
+                Validation.buildDefaultValidatorFactory().getValidator(), Duration.ofSeconds(15), 10, 1,
+                Duration.ofSeconds(30), 100);
+        Instant before = Instant.now().minusSeconds(60);
+        Instant after = Instant.now().plusSeconds(60);
+        Flux<NewsAnalysis> replay = Flux.range(1, 3).map(i -> analysis("Replay " + i, before));
+        Flux<NewsAnalysis> live = Flux.range(1, 20).map(i -> analysis("Live " + i, after));
+        when(pipeline.stream()).thenReturn(Flux.concat(replay, live.delaySubscription(Duration.ofSeconds(1))));
+
+        StepVerifier.withVirtualTime(() -> paced.stream().map(event -> event.data().headline()))
+                .expectSubscription()
+                .expectNext("Replay 1", "Replay 2", "Replay 3")
+                .expectNoEvent(Duration.ofSeconds(1))
+                .expectNext("Live 1")
+                .thenAwait(Duration.ofSeconds(5))
+                .recordWith(ArrayList::new)
+                .thenConsumeWhile(headline -> true)
+                .consumeRecordedWith(rest -> assertThat(rest).hasSizeLessThan(3).last().isEqualTo("Live 20"))
+                .verifyComplete();
+    }
+
     @Test
     void testIngestEndpoint() {
         NewsItem item = new NewsItem("Source", "Headline", "URL", "Content");
+        when(pipeline.offer(any(NewsItem.class))).thenReturn(Mono.just(IngestResult.accepted()));
 
         webClient.post().uri("/api/news")
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(item)
                 .exchange()
-                .expectStatus().isOk();
+                .expectStatus().isAccepted();
 
-        verify(pipeline).ingest(any(NewsItem.class));
+        verify(pipeline).offer(any(NewsItem.class));
+    }
+
+    @Test
+    void testIngestEndpointWhenQueueFull() {
+        NewsItem item = new NewsItem("Source", "Headline", "URL", "Content");
+        when(pipeline.offer(any(NewsItem.class)))
+                .thenReturn(Mono.just(IngestResult.rejected(Duration.ofSeconds(7))));
+
+        webClient.post().uri("/api/news")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(item)
+                .exchange()
+                .expectStatus().isEqualTo(429)
+                .expectHeader().valueEquals("Retry-After", "7");
+    }
+
+    @Test
+    void testIngestEndpointWhenPipelineClosed() {
+        NewsItem item = new NewsItem("Source", "Headline", "URL", "Content");
+        when(pipeline.offer(any(NewsItem.class)))
+                .thenReturn(Mono.just(IngestResult.closed(Duration.ofSeconds(1))));
+
+        webClient.post().uri("/api/news")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(item)
+                .exchange()
+                .expectStatus().isEqualTo(503);
+    }
+
+    @Test
+    void testBulkIngestEndpointWithNdjson() {
+        when(pipeline.offer(any(NewsItem.class), eq(Duration.ofSeconds(30))))
+                .thenReturn(Mono.just(IngestResult.accepted()))
+                .thenReturn(Mono.just(IngestResult.rejected(Duration.ofSeconds(3))));
+        String body = """
+                {"source":"S","headline":"First","url":"U1","content":"C1"}
+                {"source":"S","headline":"","url":"U2","content":"C2"}
+                {"source":"S","headline":"Third","url":"U3","content":"C3"}
+                """;
+
+        webClient.post().uri("/api/news/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BulkIngestSummary.class)
+                .value(summary -> {
+                    assertThat(summary.received()).isEqualTo(3);
+                    assertThat(summary.accepted()).isEqualTo(1);
+                    assertThat(summary.rejections())
+                            .extracting(BulkIngestSummary.Rejection::index, BulkIngestSummary.Rejection::reason)
+                            .containsExactly(
+                                    tuple(1L, "headline must not be blank"),
+                                    tuple(2L, "queue-full"));
+                });
+
+        verify(pipeline, times(2)).offer(any(NewsItem.class), eq(Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void testBulkIngestEndpointWithJsonArray() {
+        when(pipeline.offer(any(NewsItem.class), any(Duration.class))).thenReturn(Mono.just(IngestResult.accepted()));
+        String body = """
+                [{"source":"S","headline":"First","url":"U1","content":"C1"},
+                 {"source":"S","headline":"Second","url":"U2","content":"C2"}]
+                """;
+
+        webClient.post().uri("/api/news/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.received").isEqualTo(2)
+                .jsonPath("$.accepted").isEqualTo(2)
+                .jsonPath("$.rejections").isEmpty();
+    }
+
+    @Test
+    void bulkSummaryShouldListOnlyTheFirstRejections() {
+        NewsController controller = new NewsController(pipeline, realNewsService,
+                Validation.buildDefaultValidatorFactory().getValidator(), Duration.ofSeconds(15), 0, 1,
+                Duration.ofSeconds(30), 2);
+        when(pipeline.offer(any(NewsItem.class), any(Duration.class)))
+                .thenReturn(Mono.just(IngestResult.rejected(Duration.ofSeconds(3))));
+        Flux<NewsItem> items = Flux.range(0, 5).map(i -> new NewsItem("S", "Item " + i, "U" + i, "C"));
+
+        StepVerifier.create(controller.ingestBulk(items))
+                .assertNext(summary -> {
+                    assertThat(summary.rejected()).isEqualTo(5);
+                    assertThat(summary.rejections()).extracting(BulkIngestSummary.Rejection::index)
+                            .containsExactly(0L, 1L);
+                    assertThat(summary.omittedRejections()).isEqualTo(3);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testAnalysesEndpoint() {
+        NewsAnalysis analysis = new NewsAnalysis(
+                UUID.randomUUID().toString(),
+                Instant.now(), "Reuters", "Headline", "URL", Sentiment.BEARISH, 8, "Summary");
+        AnalysisHistory.Query query = new AnalysisHistory.Query(Instant.parse("2025-03-01T00:00:00Z"), null,
+                "Reuters", Sentiment.BEARISH, 7, null);
+        when(pipeline.history(query, "abc", 10)).thenReturn(new AnalysisPage(List.of(analysis), "9z"));
+
+        webClient.get()
+                .uri("/api/analyses?source=Reuters&sentiment=BEARISH&minRisk=7&from=2025-03-01T00:00:00Z"
+                        + "&cursor=abc&limit=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].source").isEqualTo("Reuters")
+                .jsonPath("$.nextCursor").isEqualTo("9z");
+    }
+
+    @Test
+    void testAnalysesEndpointRejectsBadLimitAndCursor() {
+        webClient.get().uri("/api/analyses?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        when(pipeline.history(any(), any(), anyInt())).thenThrow(new IllegalArgumentException("Invalid cursor"));
+        webClient.get().uri("/api/analyses?cursor=bad")
+                .exchange()
+                .expectStatus().isBadRequest();
     }
 
     @Test
@@ -82,4 +318,13 @@ class NewsControllerTest {
 
         verify(realNewsService).stop();
     }
+
+    private static NewsAnalysis analysis(String headline) {
+        return analysis(headline, Instant.now());
+    }
+
+    private static NewsAnalysis analysis(String headline, Instant timestamp) {
+        return new NewsAnalysis(UUID.randomUUID().toString(), timestamp, "Source", headline, "URL",
+                Sentiment.NEUTRAL, 5, "Summary");
+    }
 }